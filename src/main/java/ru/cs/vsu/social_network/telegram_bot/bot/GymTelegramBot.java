@@ -4,11 +4,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.DefaultBotOptions;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.methods.updatingmessages.DeleteMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.MaybeInaccessibleMessage;
 import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.api.objects.Update;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.ReplyKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardButton;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.KeyboardRow;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
@@ -17,6 +23,8 @@ import ru.cs.vsu.social_network.telegram_bot.service.TelegramCommandService;
 import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.UserInfoResponse;
 import ru.cs.vsu.social_network.telegram_bot.service.UserService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.ReportPageCache;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportPageSplitter;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -24,6 +32,7 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import java.util.regex.Pattern;
 
 @Slf4j
@@ -34,19 +43,25 @@ public class GymTelegramBot extends TelegramLongPollingBot {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final DateTimeFormatter INPUT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final Pattern BENCH_PRESS_PATTERN = Pattern.compile("^\\d+(?:\\.\\d{1,2})?$");
+    private static final String PAGE_CALLBACK_PREFIX = "rp:";
+    private static final int PAGE_FOOTER_RESERVE = 64;
+    private static final int PAGE_LENGTH = ReportPageSplitter.TELEGRAM_MESSAGE_LIMIT - PAGE_FOOTER_RESERVE;
 
     private final BotConfig botConfig;
     private final TelegramCommandService telegramCommandService;
     private final UserService userService;
+    private final ReportPageCache reportPageCache;
 
     public GymTelegramBot(final DefaultBotOptions botOptions,
                           final BotConfig botConfig,
                           final TelegramCommandService telegramCommandService,
-                          final UserService userService) {
+                          final UserService userService,
+                          final ReportPageCache reportPageCache) {
         super(botOptions);
         this.botConfig = botConfig;
         this.telegramCommandService = telegramCommandService;
         this.userService = userService;
+        this.reportPageCache = reportPageCache;
 
         log.info("{}_ИНИЦИАЛИЗАЦИЯ_НАЧАЛО: создание бота {}", BOT_NAME, botConfig.getBotUsername());
     }
@@ -65,6 +80,11 @@ public class GymTelegramBot extends TelegramLongPollingBot {
     public void onUpdateReceived(final Update update) {
         log.debug("{}_ОБНОВЛЕНИЕ_ПОЛУЧЕНО: получено новое обновление", BOT_NAME);
 
+        if (update.hasCallbackQuery()) {
+            handleCallbackQuery(update.getCallbackQuery());
+            return;
+        }
+
         if (!update.hasMessage() || !update.getMessage().hasText()) {
             log.debug("{}_ОБНОВЛЕНИЕ_ПРОПУЩЕНО: обновление не содержит текстового сообщения", BOT_NAME);
             return;
@@ -102,6 +122,8 @@ public class GymTelegramBot extends TelegramLongPollingBot {
 
         if ("Я в зале".equalsIgnoreCase(text)) {
             return telegramCommandService.handleInGymCommand(telegramId);
+        } else if ("Сколько в зале?".equalsIgnoreCase(text)) {
+            return telegramCommandService.handleOccupancyCommand(telegramId);
         } else if ("Сменить имя".equalsIgnoreCase(text)) {
             return telegramCommandService.handleChangeNameCommand(telegramId);
         } else if ("Составить программу тренировок".equalsIgnoreCase(text)) {
@@ -235,6 +257,14 @@ public class GymTelegramBot extends TelegramLongPollingBot {
             case "/help":
                 return telegramCommandService.handleHelpCommand(telegramId);
 
+            case "/export":
+                return telegramCommandService.handleExportCommand(
+                        telegramId, commandText.substring(parts[0].length()).trim());
+
+            case "/cycle":
+                return telegramCommandService.handleTrainingCycleCommand(
+                        telegramId, commandText.substring(parts[0].length()).trim());
+
             default:
                 log.warn("{}_КОМАНДА_НЕИЗВЕСТНАЯ: неизвестная команда '{}' от {}",
                         BOT_NAME, command, telegramId);
@@ -307,9 +337,19 @@ public class GymTelegramBot extends TelegramLongPollingBot {
         try {
             final SendMessage message = new SendMessage();
             message.setChatId(chatId.toString());
-            message.setText(responseText);
 
-            message.setReplyMarkup(createMainMenuKeyboard(telegramId));
+            final List<String> pages = ReportPageSplitter.split(responseText, PAGE_LENGTH);
+            if (pages.size() > 1) {
+                final String pagesKey = reportPageCache.put(chatId, pages);
+                message.setText(formatPage(pages, 0));
+                message.setReplyMarkup(createPageKeyboard(pagesKey, 0, pages.size()));
+
+                log.debug("{}_ОТВЕТ_РАЗБИТ_НА_СТРАНИЦЫ: пользователю {} отправлена страница 1 из {}",
+                        BOT_NAME, telegramId, pages.size());
+            } else {
+                message.setText(responseText);
+                message.setReplyMarkup(createMainMenuKeyboard(telegramId));
+            }
 
             final Message sentMessage = execute(message);
 
@@ -322,6 +362,90 @@ public class GymTelegramBot extends TelegramLongPollingBot {
         }
     }
 
+    /**
+     * Обрабатывает нажатие кнопок листания отчета: редактирует сообщение,
+     * подставляя готовую страницу из кеша, без повторного построения отчета.
+     */
+    private void handleCallbackQuery(final CallbackQuery callbackQuery) {
+        final String data = callbackQuery.getData();
+        final MaybeInaccessibleMessage callbackMessage = callbackQuery.getMessage();
+
+        if (data == null || !data.startsWith(PAGE_CALLBACK_PREFIX)
+                || !(callbackMessage instanceof Message message)) {
+            answerCallbackQuery(callbackQuery.getId(), null);
+            return;
+        }
+
+        final Long chatId = message.getChatId();
+
+        try {
+            final String[] parts = data.substring(PAGE_CALLBACK_PREFIX.length()).split(":");
+            final String pagesKey = parts[0];
+            final int pageIndex = Integer.parseInt(parts[1]);
+
+            final Optional<List<String>> pages = reportPageCache.getPages(pagesKey, chatId);
+            if (pages.isEmpty() || pageIndex < 0 || pageIndex >= pages.get().size()) {
+                answerCallbackQuery(callbackQuery.getId(), "Отчет устарел. Запросите его заново.");
+                return;
+            }
+
+            final EditMessageText editMessage = new EditMessageText();
+            editMessage.setChatId(chatId.toString());
+            editMessage.setMessageId(message.getMessageId());
+            editMessage.setText(formatPage(pages.get(), pageIndex));
+            editMessage.setReplyMarkup(createPageKeyboard(pagesKey, pageIndex, pages.get().size()));
+
+            execute(editMessage);
+            answerCallbackQuery(callbackQuery.getId(), null);
+
+            log.debug("{}_СТРАНИЦА_ОТЧЕТА_ПОКАЗАНА: чат {}, страница {} из {}",
+                    BOT_NAME, chatId, pageIndex + 1, pages.get().size());
+
+        } catch (TelegramApiException | RuntimeException e) {
+            log.warn("{}_ЛИСТАНИЕ_ОШИБКА: не удалось показать страницу отчета в чате {}: {}",
+                    BOT_NAME, chatId, e.getMessage());
+            answerCallbackQuery(callbackQuery.getId(), null);
+        }
+    }
+
+    private void answerCallbackQuery(final String callbackQueryId, final String text) {
+        try {
+            final AnswerCallbackQuery answer = new AnswerCallbackQuery();
+            answer.setCallbackQueryId(callbackQueryId);
+            if (text != null) {
+                answer.setText(text);
+            }
+            execute(answer);
+        } catch (TelegramApiException e) {
+            log.warn("{}_ОТВЕТ_НА_НАЖАТИЕ_ОШИБКА: {}", BOT_NAME, e.getMessage());
+        }
+    }
+
+    private String formatPage(final List<String> pages, final int pageIndex) {
+        return pages.get(pageIndex) + "\n\nСтраница " + (pageIndex + 1) + " из " + pages.size();
+    }
+
+    private InlineKeyboardMarkup createPageKeyboard(final String pagesKey, final int pageIndex, final int pageCount) {
+        final List<InlineKeyboardButton> row = new ArrayList<>();
+
+        if (pageIndex > 0) {
+            row.add(InlineKeyboardButton.builder()
+                    .text("◀")
+                    .callbackData(PAGE_CALLBACK_PREFIX + pagesKey + ":" + (pageIndex - 1))
+                    .build());
+        }
+        if (pageIndex < pageCount - 1) {
+            row.add(InlineKeyboardButton.builder()
+                    .text("▶")
+                    .callbackData(PAGE_CALLBACK_PREFIX + pagesKey + ":" + (pageIndex + 1))
+                    .build());
+        }
+
+        final InlineKeyboardMarkup keyboardMarkup = new InlineKeyboardMarkup();
+        keyboardMarkup.setKeyboard(List.of(row));
+        return keyboardMarkup;
+    }
+
     private ReplyKeyboardMarkup createMainMenuKeyboard(final Long telegramId) {
         final ReplyKeyboardMarkup keyboardMarkup = new ReplyKeyboardMarkup();
         keyboardMarkup.setSelective(true);
@@ -336,6 +460,10 @@ public class GymTelegramBot extends TelegramLongPollingBot {
         row1.add(new KeyboardButton("Составить программу тренировок"));
         keyboard.add(row1);
 
+        final KeyboardRow row2 = new KeyboardRow();
+        row2.add(new KeyboardButton("Сколько в зале?"));
+        keyboard.add(row2);
+
         try {
             UserInfoResponse user = userService.getUserByTelegramId(telegramId);
 
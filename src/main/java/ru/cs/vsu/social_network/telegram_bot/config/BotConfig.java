@@ -9,6 +9,7 @@ import org.telegram.telegrambots.bots.DefaultBotOptions;
 import ru.cs.vsu.social_network.telegram_bot.bot.GymTelegramBot;
 import ru.cs.vsu.social_network.telegram_bot.service.TelegramCommandService;
 import ru.cs.vsu.social_network.telegram_bot.service.UserService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.ReportPageCache;
 
 /**
  * Конфигурация Telegram бота.
@@ -79,10 +80,12 @@ public class BotConfig {
     @Bean
     public GymTelegramBot gymTelegramBot(final DefaultBotOptions botOptions,
                                          final TelegramCommandService telegramCommandService,
-                                         final UserService userService) {
+                                         final UserService userService,
+                                         final ReportPageCache reportPageCache) {
         log.info("БОТ_КОНФИГ_СОЗДАНИЕ_БОТА: создание GymTelegramBot с username: {}", botUsername);
 
-        final GymTelegramBot bot = new GymTelegramBot(botOptions, this, telegramCommandService, userService);
+        final GymTelegramBot bot = new GymTelegramBot(botOptions, this, telegramCommandService, userService,
+                reportPageCache);
 
         log.info("БОТ_КОНФИГ_СОЗДАНИЕ_БОТА_УСПЕХ: бот {} успешно создан", botUsername);
         return bot;
@@ -0,0 +1,106 @@
+package ru.cs.vsu.social_network.telegram_bot.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.cs.vsu.social_network.telegram_bot.service.CsvExportService;
+import ru.cs.vsu.social_network.telegram_bot.utils.export.CsvExportDataset;
+import ru.cs.vsu.social_network.telegram_bot.validation.ExportAccessValidator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * HTTP выгрузка посещений, ежедневной статистики и журналов посещений в CSV.
+ * Ответ формируется потоково во время чтения из базы, доступ по токену из заголовка X-Export-Token.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/export")
+@Tag(name = "Выгрузка", description = "Потоковая выгрузка данных посещений в CSV")
+public class ExportController {
+
+    private static final String CONTROLLER_NAME = "ВЫГРУЗКА_КОНТРОЛЛЕР";
+    private static final String TOKEN_HEADER = "X-Export-Token";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+    private static final MediaType APPLICATION_GZIP = new MediaType("application", "gzip");
+
+    private final CsvExportService csvExportService;
+    private final ExportAccessValidator exportAccessValidator;
+
+    public ExportController(final CsvExportService csvExportService,
+                            final ExportAccessValidator exportAccessValidator) {
+        this.csvExportService = csvExportService;
+        this.exportAccessValidator = exportAccessValidator;
+    }
+
+    /**
+     * Выгружает набор данных за период в CSV или CSV, сжатый gzip.
+     *
+     * @param token токен доступа
+     * @param datasetName имя набора: visits, daily-stats или visitor-logs
+     * @param from начальная дата (включительно)
+     * @param to конечная дата (включительно)
+     * @param gzip сжимать ли ответ
+     * @return потоковое тело ответа
+     */
+    @GetMapping("/{dataset}")
+    @Operation(summary = "Выгрузить набор данных за период в CSV")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestHeader(name = TOKEN_HEADER, required = false) final String token,
+            @Parameter(description = "visits, daily-stats или visitor-logs")
+            @PathVariable("dataset") final String datasetName,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) final LocalDate to,
+            @RequestParam(name = "gzip", defaultValue = "false") final boolean gzip) {
+        exportAccessValidator.validateExportToken(token);
+
+        final Optional<CsvExportDataset> dataset = CsvExportDataset.fromPathName(datasetName);
+        if (dataset.isEmpty()) {
+            log.warn("{}_НАБОР_НЕ_НАЙДЕН: {}", CONTROLLER_NAME, datasetName);
+            return ResponseEntity.notFound().build();
+        }
+        if (from.isAfter(to)) {
+            log.warn("{}_НЕВЕРНЫЙ_ПЕРИОД: {} позже {}", CONTROLLER_NAME, from, to);
+            return ResponseEntity.badRequest().build();
+        }
+
+        final CsvExportDataset selectedDataset = dataset.get();
+        final String fileName = String.format("%s_%s_%s.csv%s",
+                selectedDataset.getPathName(), from, to, gzip ? ".gz" : "");
+
+        log.info("{}_ЗАПРОС: набор {}, период {} - {}, gzip {}",
+                CONTROLLER_NAME, selectedDataset.getPathName(), from, to, gzip);
+
+        final StreamingResponseBody body = outputStream ->
+                csvExportService.exportCsv(selectedDataset, from, to, gzip, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? APPLICATION_GZIP : TEXT_CSV)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<Void> handleAccessDenied(final AccessDeniedException e) {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+    }
+}
@@ -19,4 +19,7 @@ public class UserBenchPressRequest {
     @Max(1000)
     @Schema(description = "Максимальный жим лежа")
     private double maxBenchPress;
+
+    @Schema(description = "Код тренировочного цикла, если не указан - используется цикл по умолчанию")
+    private String trainingCycle;
 }
\ No newline at end of file
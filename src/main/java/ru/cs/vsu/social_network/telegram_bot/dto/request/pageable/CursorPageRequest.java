@@ -0,0 +1,60 @@
+package ru.cs.vsu.social_network.telegram_bot.dto.request.pageable;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Limit;
+
+/**
+ * Параметры постраничной выборки по ключу (keyset pagination).
+ * Вместо номера страницы передается непрозрачный курсор, полученный
+ * из {@code PageResponse#nextCursor} предыдущей страницы, поэтому стоимость
+ * выборки не зависит от глубины страницы.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageRequest {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+
+    @Builder.Default
+    private Integer size = DEFAULT_SIZE;
+
+    private String cursor;
+
+    /**
+     * @return true если запрашивается первая страница
+     */
+    public boolean isFirstPage() {
+        return cursor == null || cursor.isBlank();
+    }
+
+    /**
+     * @return размер страницы, ограниченный диапазоном 1..{@value #MAX_SIZE}
+     */
+    public int getEffectiveSize() {
+        final int requested = size != null ? size : DEFAULT_SIZE;
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    /**
+     * Лимит выборки на одну запись больше размера страницы:
+     * лишняя запись показывает, что следующая страница существует.
+     *
+     * @return лимит для запроса к репозиторию
+     */
+    public Limit toLimit() {
+        return Limit.of(getEffectiveSize() + 1);
+    }
+
+    /**
+     * @return декодированный курсор; вызывать только если страница не первая
+     */
+    public PageCursor decodeCursor() {
+        return PageCursor.decode(cursor);
+    }
+}
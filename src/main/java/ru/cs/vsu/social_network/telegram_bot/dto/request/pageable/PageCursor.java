@@ -0,0 +1,87 @@
+package ru.cs.vsu.social_network.telegram_bot.dto.request.pageable;
+
+import lombok.Getter;
+import ru.cs.vsu.social_network.telegram_bot.exception.InvalidPageCursorException;
+import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Позиция в упорядоченной выборке: значение ключа сортировки последней записи
+ * страницы и ее идентификатор для разрешения совпадений ключа.
+ * Для клиента курсор непрозрачен и передается как строка Base64 URL.
+ */
+@Getter
+public final class PageCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final String key;
+    private final UUID id;
+
+    private PageCursor(final String key, final UUID id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Кодирует позицию записи в строку курсора.
+     *
+     * @param key значение ключа сортировки (дата или дата-время)
+     * @param id  идентификатор записи
+     * @return непрозрачная строка курсора
+     */
+    public static String encode(final Object key, final UUID id) {
+        final String raw = key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Декодирует строку курсора.
+     *
+     * @param cursor строка, полученная из {@link #encode(Object, UUID)}
+     * @return позиция в выборке
+     * @throws InvalidPageCursorException если строка повреждена
+     */
+    public static PageCursor decode(final String cursor) {
+        try {
+            final String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            final int separatorIndex = raw.lastIndexOf(SEPARATOR);
+            if (separatorIndex <= 0) {
+                throw new InvalidPageCursorException(MessageConstants.INVALID_PAGE_CURSOR_FAILURE);
+            }
+            return new PageCursor(raw.substring(0, separatorIndex),
+                    UUID.fromString(raw.substring(separatorIndex + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageCursorException(MessageConstants.INVALID_PAGE_CURSOR_FAILURE);
+        }
+    }
+
+    /**
+     * @return ключ курсора как дата
+     */
+    public LocalDate getDateKey() {
+        try {
+            return LocalDate.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPageCursorException(MessageConstants.INVALID_PAGE_CURSOR_FAILURE);
+        }
+    }
+
+    /**
+     * @return ключ курсора как дата-время
+     */
+    public LocalDateTime getDateTimeKey() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new InvalidPageCursorException(MessageConstants.INVALID_PAGE_CURSOR_FAILURE);
+        }
+    }
+}
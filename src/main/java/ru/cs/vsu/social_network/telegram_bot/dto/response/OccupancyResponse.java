@@ -0,0 +1,30 @@
+package ru.cs.vsu.social_network.telegram_bot.dto.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Schema(description = "Ответ с текущей загруженностью зала")
+public class OccupancyResponse {
+    @Schema(description = "Количество отметок за последние минуты")
+    private Long recentCheckIns;
+
+    @Schema(description = "Длина окна последних отметок в минутах")
+    private Integer windowMinutes;
+
+    @Schema(description = "Количество отметок за сегодня")
+    private Long todayCheckIns;
+
+    @Schema(description = "Количество отметок за сегодня по часам, индекс соответствует часу")
+    private List<Long> hourlyCheckIns;
+
+    @Schema(description = "Время формирования ответа")
+    private LocalDateTime generatedAt;
+}
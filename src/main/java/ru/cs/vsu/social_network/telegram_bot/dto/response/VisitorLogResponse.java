@@ -21,8 +21,8 @@ public class VisitorLogResponse {
     @Schema(description = "Количество посетителей")
     private Integer visitorCount;
 
-    @Schema(description = "Сырые данные о посетителях")
-    private String rawData;
+    @Schema(description = "Имена посетителей в порядке посещений")
+    private List<String> visitorNames;
 
     @Schema(description = "Дата посещений")
     private LocalDate logDate;
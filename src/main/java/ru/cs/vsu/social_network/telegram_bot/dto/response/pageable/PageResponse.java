@@ -3,9 +3,11 @@ package ru.cs.vsu.social_network.telegram_bot.dto.response.pageable;
 
 import lombok.*;
 import org.springframework.data.domain.Page;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageRequest;
 
 import java.util.List;
+import java.util.function.Function;
 
 @Getter
 @Setter
@@ -20,6 +22,7 @@ public class PageResponse<T> {
     private Integer pageSize;
     private boolean first;
     private boolean last;
+    private String nextCursor;
 
     public static <T> PageResponse<T> of(Page<T> page) {
         return PageResponse.<T>builder()
@@ -61,4 +64,35 @@ public class PageResponse<T> {
                 .last(true)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Формирует страницу выборки по ключу.
+     * Репозиторий должен вернуть на одну запись больше размера страницы
+     * (см. {@link CursorPageRequest#toLimit()}): ее наличие означает, что страница не последняя.
+     * Общее количество элементов и страниц не вычисляется.
+     *
+     * @param rows        записи, выбранные репозиторием
+     * @param pageRequest параметры запроса
+     * @param cursorOf    функция получения курсора по записи
+     * @param mapper      преобразование записи в DTO
+     * @param <E>         тип записи
+     * @param <T>         тип DTO
+     * @return страница с курсором на следующую страницу
+     */
+    public static <E, T> PageResponse<T> ofKeyset(List<E> rows,
+                                                 CursorPageRequest pageRequest,
+                                                 Function<E, String> cursorOf,
+                                                 Function<E, T> mapper) {
+        int pageSize = pageRequest.getEffectiveSize();
+        boolean hasNext = rows.size() > pageSize;
+        List<E> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        return PageResponse.<T>builder()
+                .content(pageRows.stream().map(mapper).toList())
+                .pageSize(pageSize)
+                .first(pageRequest.isFirstPage())
+                .last(!hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(pageRows.get(pageRows.size() - 1)) : null)
+                .build();
+    }
+}
@@ -0,0 +1,37 @@
+package ru.cs.vsu.social_network.telegram_bot.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "telegram_file_cache")
+public class TelegramFileCache {
+    @Id
+    @Column(name = "cache_key", length = 128)
+    private String cacheKey;
+
+    @Column(name = "template_version", nullable = false, length = 64)
+    private String templateVersion;
+
+    @Column(name = "bench_press", nullable = false)
+    private Double benchPress;
+
+    @Column(name = "format", nullable = false, length = 16)
+    private String format;
+
+    @Column(name = "file_id", nullable = false)
+    private String fileId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
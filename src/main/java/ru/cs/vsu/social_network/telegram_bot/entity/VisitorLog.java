@@ -1,14 +1,13 @@
 package ru.cs.vsu.social_network.telegram_bot.entity;
 
 
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Index;
-import jakarta.persistence.Table;
+import jakarta.persistence.*;
 import lombok.*;
-import org.hibernate.annotations.Type;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @Getter
 @Setter
@@ -23,12 +22,40 @@ public class VisitorLog extends BaseEntity {
     @Column(name = "visitor_count")
     private Integer visitorCount;
 
-    @Column(name = "raw_data", columnDefinition = "TEXT")
-    private String rawData;
+    @Builder.Default
+    @BatchSize(size = 64)
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "visitor_log_entry",
+            joinColumns = @JoinColumn(name = "visitor_log_id"))
+    @OrderColumn(name = "position")
+    private List<VisitorLogEntry> visitors = new ArrayList<>();
 
     @Column(name = "log_date")
     private LocalDate logDate;
 
     @Column(name = "new_users_count")
     private Integer newUsersCount;
+
+    /**
+     * Возвращает имена посетителей в порядке посещений.
+     *
+     * @return список имен посетителей
+     */
+    public List<String> getVisitorNames() {
+        final List<String> names = new ArrayList<>(visitors.size());
+        for (final VisitorLogEntry visitor : visitors) {
+            names.add(visitor.getDisplayName());
+        }
+        return names;
+    }
+
+    /**
+     * Заменяет список посетителей, сохраняя экземпляр коллекции, отслеживаемый Hibernate.
+     *
+     * @param entries новый список посетителей
+     */
+    public void replaceVisitors(final List<VisitorLogEntry> entries) {
+        visitors.clear();
+        visitors.addAll(entries);
+    }
 }
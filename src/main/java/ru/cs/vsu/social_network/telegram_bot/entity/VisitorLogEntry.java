@@ -0,0 +1,21 @@
+package ru.cs.vsu.social_network.telegram_bot.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+@Embeddable
+@AllArgsConstructor
+@NoArgsConstructor
+public class VisitorLogEntry {
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "display_name", nullable = false)
+    private String displayName;
+}
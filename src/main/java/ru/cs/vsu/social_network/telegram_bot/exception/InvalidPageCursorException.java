@@ -0,0 +1,7 @@
+package ru.cs.vsu.social_network.telegram_bot.exception;
+
+public class InvalidPageCursorException extends RuntimeException {
+    public InvalidPageCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.cs.vsu.social_network.telegram_bot.exception;
+
+public class MessageDeliveryException extends RuntimeException {
+    public MessageDeliveryException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,7 @@
+package ru.cs.vsu.social_network.telegram_bot.exception;
+
+public class VisitExportException extends RuntimeException {
+    public VisitExportException(String message) {
+        super(message);
+    }
+}
@@ -174,7 +174,7 @@ public class ModelMapperConfig {
                 map().setId(source.getId());
                 map().setNewUsersCount(source.getNewUsersCount());
                 map().setVisitorCount(source.getVisitorCount());
-                map().setRawData(source.getRawData());
+                map().setVisitorNames(source.getVisitorNames());
                 map().setLogDate(source.getLogDate());
                 map().setCreatedAt(source.getCreatedAt());
                 map().setUpdatedAt(source.getUpdatedAt());
@@ -186,7 +186,7 @@ public class ModelMapperConfig {
             protected void configure() {
                 skip(destination.getLogDate());
                 skip(destination.getVisitorCount());
-                skip(destination.getRawData());
+                skip(destination.getVisitors());
             }
         });
     }
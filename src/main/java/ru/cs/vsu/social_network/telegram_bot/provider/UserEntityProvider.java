@@ -1,7 +1,9 @@
 package ru.cs.vsu.social_network.telegram_bot.provider;
 
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
+import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -26,4 +28,12 @@ public interface UserEntityProvider extends EntityProvider<User> {
      * @return true если пользователь существует, false в противном случае
      */
     boolean existsByTelegramId(Long telegramId);
-}
\ No newline at end of file
+
+    /**
+     * Находит всех пользователей с указанной ролью.
+     *
+     * @param role роль пользователя
+     * @return список пользователей
+     */
+    List<User> findAllByRole(ROLE role);
+}
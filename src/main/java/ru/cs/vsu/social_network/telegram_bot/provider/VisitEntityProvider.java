@@ -2,12 +2,14 @@ package ru.cs.vsu.social_network.telegram_bot.provider;
 
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitDataVersion;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Специализированный провайдер для доступа к сущностям Visit.
@@ -32,6 +34,17 @@ public interface VisitEntityProvider extends EntityProvider<Visit> {
      */
     List<Visit> findAllWithUsersByDate(LocalDate date);
 
+    /**
+     * Потоково выбирает посещения за указанный день вместе с пользователями.
+     * Прочитанные сущности сразу отсоединяются от контекста персистентности,
+     * поэтому объем занятой памяти не зависит от числа посещений.
+     * Вызывать внутри транзакции только для чтения, поток закрывать через try-with-resources.
+     *
+     * @param date дата посещений
+     * @return поток посещений с загруженными пользователями
+     */
+    Stream<Visit> streamAllWithUsersByDate(LocalDate date);
+
     /**
      * Находит количество посещений за указанную дату.
      *
@@ -49,6 +62,26 @@ public interface VisitEntityProvider extends EntityProvider<Visit> {
      */
     List<Visit> findAllByDateRange(LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Потоково выбирает посещения за диапазон дат вместе с пользователями.
+     * Вызывать внутри транзакции только для чтения, поток закрывать через try-with-resources.
+     *
+     * @param startDate начальная дата (включительно)
+     * @param endDate конечная дата (включительно)
+     * @return поток посещений, упорядоченный по времени посещения
+     */
+    Stream<Visit> streamAllByDateRange(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * Вычисляет версию данных о посещениях за диапазон дат по общей БД.
+     * Версия меняется при изменениях, сделанных любым узлом приложения.
+     *
+     * @param startDate начальная дата (включительно)
+     * @param endDate конечная дата (включительно)
+     * @return версия данных о посещениях
+     */
+    VisitDataVersion getDataVersion(LocalDate startDate, LocalDate endDate);
+
     /**
      * Находит посещение пользователя на конкретную дату.
      *
@@ -3,12 +3,14 @@ package ru.cs.vsu.social_network.telegram_bot.provider.providerImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
+import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
 import ru.cs.vsu.social_network.telegram_bot.exception.UserNotFoundException;
 import ru.cs.vsu.social_network.telegram_bot.provider.AbstractEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.provider.UserEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.repository.UserRepository;
 import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
 
+import java.util.List;
 import java.util.Optional;
 
 
@@ -64,4 +66,20 @@ public final class UserEntityProviderImpl extends AbstractEntityProvider<User>
 
         return exists;
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<User> findAllByRole(ROLE role) {
+        log.info("{}_ПРОВАЙДЕР_ПОИСК_ПО_РОЛИ_НАЧАЛО: поиск пользователей с ролью: {}",
+                ENTITY_NAME, role);
+
+        final List<User> users = userRepository.findAllByRole(role);
+
+        log.info("{}_ПРОВАЙДЕР_ПОИСК_ПО_РОЛИ_УСПЕХ: найдено {} пользователей с ролью: {}",
+                ENTITY_NAME, users.size(), role);
+
+        return users;
+    }
+}
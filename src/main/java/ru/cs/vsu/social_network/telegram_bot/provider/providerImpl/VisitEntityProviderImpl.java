@@ -1,5 +1,6 @@
 package ru.cs.vsu.social_network.telegram_bot.provider.providerImpl;
 
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
@@ -9,12 +10,14 @@ import ru.cs.vsu.social_network.telegram_bot.provider.AbstractEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.provider.VisitEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.repository.VisitRepository;
 import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitDataVersion;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Реализация провайдера для получения сущности Visit.
@@ -26,11 +29,14 @@ public final class VisitEntityProviderImpl extends AbstractEntityProvider<Visit>
         implements VisitEntityProvider {
     private static final String ENTITY_NAME = "ПОСЕЩЕНИЕ";
     private final VisitRepository visitRepository;
+    private final EntityManager entityManager;
 
-    public VisitEntityProviderImpl(VisitRepository visitRepository) {
+    public VisitEntityProviderImpl(VisitRepository visitRepository,
+                                   EntityManager entityManager) {
         super(visitRepository, ENTITY_NAME, () ->
                 new VisitNotFoundException(MessageConstants.VISIT_NOT_FOUND_FAILURE));
         this.visitRepository = visitRepository;
+        this.entityManager = entityManager;
     }
 
     /**
@@ -67,6 +73,18 @@ public final class VisitEntityProviderImpl extends AbstractEntityProvider<Visit>
         return visits;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Visit> streamAllWithUsersByDate(LocalDate date) {
+        log.info("{}_ПРОВАЙДЕР_ПОТОК_ПО_ДАТЕ_С_ПОЛЬЗОВАТЕЛЯМИ_НАЧАЛО: " +
+                "для даты: {}", ENTITY_NAME, date);
+
+        return visitRepository.streamAllWithUsersByDate(date)
+                .peek(this::detach);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -99,6 +117,32 @@ public final class VisitEntityProviderImpl extends AbstractEntityProvider<Visit>
         return visits;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Stream<Visit> streamAllByDateRange(LocalDate startDate, LocalDate endDate) {
+        log.info("{}_ПРОВАЙДЕР_ПОТОК_ПО_ДИАПАЗОНУ_ДАТ_НАЧАЛО: " +
+                "с {} по {}", ENTITY_NAME, startDate, endDate);
+
+        return visitRepository.streamAllByDateRange(startDate, endDate)
+                .peek(this::detach);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VisitDataVersion getDataVersion(LocalDate startDate, LocalDate endDate) {
+        final VisitDataVersion version = visitRepository.getDataVersion(
+                startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay());
+
+        log.debug("{}_ПРОВАЙДЕР_ВЕРСИЯ_ДАННЫХ: с {} по {}: {}",
+                ENTITY_NAME, startDate, endDate, version);
+
+        return version;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -181,4 +225,17 @@ public final class VisitEntityProviderImpl extends AbstractEntityProvider<Visit>
 
         return newUserVisits;
     }
-}
\ No newline at end of file
+
+    /**
+     * Отсоединяет прочитанное посещение и его пользователя от контекста персистентности,
+     * чтобы при потоковой выборке контекст не рос вместе с результатом.
+     *
+     * @param visit прочитанное посещение
+     */
+    private void detach(Visit visit) {
+        if (visit.getUser() != null) {
+            entityManager.detach(visit.getUser());
+        }
+        entityManager.detach(visit);
+    }
+}
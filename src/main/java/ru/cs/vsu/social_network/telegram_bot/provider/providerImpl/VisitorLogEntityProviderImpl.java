@@ -1,6 +1,7 @@
 package ru.cs.vsu.social_network.telegram_bot.provider.providerImpl;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Component;
 import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLog;
 import ru.cs.vsu.social_network.telegram_bot.exception.VisitorLogNotFoundException;
@@ -86,13 +87,13 @@ public final class VisitorLogEntityProviderImpl extends AbstractEntityProvider<V
     @Override
     public List<VisitorLog> findLatest(int limit) {
         log.info("{}_ПРОВАЙДЕР_ПОЛУЧЕНИЕ_ПОСЛЕДНИХ_НАЧАЛО: " +
-                "запрос последних {} записей", limit);
+                "запрос последних {} записей", ENTITY_NAME, limit);
 
         final int effectiveLimit = Math.max(1, Math.min(limit, 100));
-        final List<VisitorLog> logs = visitorLogRepository.findLatest(effectiveLimit);
+        final List<VisitorLog> logs = visitorLogRepository.findLatest(Limit.of(effectiveLimit));
 
         log.info("{}_ПРОВАЙДЕР_ПОЛУЧЕНИЕ_ПОСЛЕДНИХ_УСПЕХ: " +
-                "получено {} записей", logs.size());
+                "получено {} записей", ENTITY_NAME, logs.size());
 
         return logs;
     }
@@ -0,0 +1,51 @@
+package ru.cs.vsu.social_network.telegram_bot.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.cs.vsu.social_network.telegram_bot.entity.SchedulerLock;
+
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий блокировок запланированных задач.
+ * Блокировка захватывается условным обновлением строки, поэтому при нескольких
+ * экземплярах приложения задачу выполняет только один из них.
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Захватывает блокировку, если срок ее удержания истек.
+     *
+     * @param name имя блокировки
+     * @param now текущее время
+     * @param lockedUntil время, до которого удерживается блокировка
+     * @param lockedBy идентификатор экземпляра приложения
+     * @return количество обновленных строк: 1 если блокировка захвачена, иначе 0
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil, l.lockedAt = :now, l.lockedBy = :lockedBy " +
+            "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int tryAcquire(@Param("name") String name,
+                   @Param("now") LocalDateTime now,
+                   @Param("lockedUntil") LocalDateTime lockedUntil,
+                   @Param("lockedBy") String lockedBy);
+
+    /**
+     * Сокращает срок удержания блокировки, захваченной указанным экземпляром.
+     *
+     * @param name имя блокировки
+     * @param lockedBy идентификатор экземпляра приложения
+     * @param lockedUntil новое время окончания блокировки
+     * @return количество обновленных строк
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :lockedUntil " +
+            "WHERE l.name = :name AND l.lockedBy = :lockedBy")
+    int release(@Param("name") String name,
+                @Param("lockedBy") String lockedBy,
+                @Param("lockedUntil") LocalDateTime lockedUntil);
+}
@@ -0,0 +1,27 @@
+package ru.cs.vsu.social_network.telegram_bot.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.cs.vsu.social_network.telegram_bot.entity.TelegramFileCache;
+
+import java.time.LocalDateTime;
+
+/**
+ * Репозиторий идентификаторов файлов Telegram для готовых тренировочных планов.
+ */
+@Repository
+public interface TelegramFileCacheRepository extends JpaRepository<TelegramFileCache, String> {
+
+    /**
+     * Удаляет записи, сохраненные раньше указанного момента.
+     *
+     * @param cutoff момент, раньше которого записи удаляются
+     * @return количество удаленных записей
+     */
+    @Modifying
+    @Query("DELETE FROM TelegramFileCache c WHERE c.createdAt < :cutoff")
+    int deleteByCreatedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -1,5 +1,6 @@
 package ru.cs.vsu.social_network.telegram_bot.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -11,6 +12,7 @@ import ru.cs.vsu.social_network.telegram_bot.entity.User;
 import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -48,6 +50,42 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Page<User> findAllByRole(ROLE role, Pageable pageable);
 
+    /**
+     * Находит всех пользователей с указанной ролью без пагинации.
+     * Используется для небольших выборок, например списка администраторов.
+     *
+     * @param role роль пользователя
+     * @return список пользователей
+     */
+    List<User> findAllByRole(ROLE role);
+
+    /**
+     * Находит первую страницу пользователей с указанной ролью, от новых к старым.
+     *
+     * @param role роль пользователя
+     * @param limit максимальное количество записей
+     * @return список пользователей
+     */
+    @Query("SELECT u FROM User u WHERE u.role = :role ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findLatestByRole(@Param("role") ROLE role, Limit limit);
+
+    /**
+     * Находит пользователей с указанной ролью, следующих за позицией (createdAt, id).
+     *
+     * @param role роль пользователя
+     * @param createdAt дата создания последней записи предыдущей страницы
+     * @param id идентификатор последней записи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return список пользователей
+     */
+    @Query("SELECT u FROM User u WHERE u.role = :role " +
+            "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) " +
+            "ORDER BY u.createdAt DESC, u.id DESC")
+    List<User> findLatestByRoleBefore(@Param("role") ROLE role,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") UUID id,
+                                      Limit limit);
+
     /**
      * Обновляет отображаемое имя пользователя.
      *
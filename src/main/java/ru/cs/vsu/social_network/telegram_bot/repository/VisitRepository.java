@@ -1,20 +1,26 @@
 package ru.cs.vsu.social_network.telegram_bot.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitDataVersion;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Репозиторий для работы с посещениями тренажерного зала.
@@ -23,6 +29,11 @@ import java.util.UUID;
 @Repository
 public interface VisitRepository extends JpaRepository<Visit, UUID> {
 
+    /**
+     * Размер порции строк, запрашиваемой у JDBC-драйвера при потоковой выборке.
+     */
+    String STREAM_FETCH_SIZE = "200";
+
     /**
      * Находит посещение пользователя на конкретную дату.
      *
@@ -63,6 +74,70 @@ public interface VisitRepository extends JpaRepository<Visit, UUID> {
      */
     Page<Visit> findAllByUser(User user, Pageable pageable);
 
+    /**
+     * Находит первую страницу посещений пользователя, от новых к старым.
+     *
+     * @param user пользователь
+     * @param limit максимальное количество записей
+     * @return список посещений
+     */
+    @Query("SELECT v FROM Visit v WHERE v.user = :user ORDER BY v.visitDate DESC, v.id DESC")
+    List<Visit> findLatestByUser(@Param("user") User user, Limit limit);
+
+    /**
+     * Находит посещения пользователя, следующие за позицией (visitDate, id), от новых к старым.
+     * Использует индекс (user_id, visit_date) вместо пропуска OFFSET строк.
+     *
+     * @param user пользователь
+     * @param visitDate время посещения последней записи предыдущей страницы
+     * @param id идентификатор последней записи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return список посещений
+     */
+    @Query("SELECT v FROM Visit v WHERE v.user = :user " +
+            "AND (v.visitDate, v.id) < (:visitDate, :id) " +
+            "ORDER BY v.visitDate DESC, v.id DESC")
+    List<Visit> findLatestByUserBefore(@Param("user") User user,
+                                       @Param("visitDate") LocalDateTime visitDate,
+                                       @Param("id") UUID id,
+                                       Limit limit);
+
+    /**
+     * Находит первую страницу посещений за день в порядке отметок.
+     * День задается полуинтервалом, чтобы запрос шел по индексу (visit_date, id).
+     *
+     * @param dayStart начало дня
+     * @param nextDay начало следующего дня
+     * @param limit максимальное количество записей
+     * @return список посещений
+     */
+    @Query("SELECT v FROM Visit v WHERE v.visitDate >= :dayStart AND v.visitDate < :nextDay " +
+            "ORDER BY v.visitDate, v.id")
+    List<Visit> findFirstByDate(@Param("dayStart") LocalDateTime dayStart,
+                                @Param("nextDay") LocalDateTime nextDay,
+                                Limit limit);
+
+    /**
+     * Находит посещения за день, следующие за позицией (visitDate, id), в порядке отметок.
+     * Сравнение пары столбцов позволяет продолжить чтение индекса (visit_date, id) с позиции курсора,
+     * поэтому любая страница стоит столько же, сколько первая.
+     *
+     * @param dayStart начало дня
+     * @param nextDay начало следующего дня
+     * @param visitDate время посещения последней записи предыдущей страницы
+     * @param id идентификатор последней записи предыдущей страницы
+     * @param limit максимальное количество записей
+     * @return список посещений
+     */
+    @Query("SELECT v FROM Visit v WHERE v.visitDate >= :dayStart AND v.visitDate < :nextDay " +
+            "AND (v.visitDate, v.id) > (:visitDate, :id) " +
+            "ORDER BY v.visitDate, v.id")
+    List<Visit> findByDateAfter(@Param("dayStart") LocalDateTime dayStart,
+                                @Param("nextDay") LocalDateTime nextDay,
+                                @Param("visitDate") LocalDateTime visitDate,
+                                @Param("id") UUID id,
+                                Limit limit);
+
     /**
      * Находит всех пользователей, посетивших зал в указанный день.
      * Использует JOIN FETCH для оптимизации загрузки связанных сущностей.
@@ -73,6 +148,32 @@ public interface VisitRepository extends JpaRepository<Visit, UUID> {
     @Query("SELECT v FROM Visit v JOIN FETCH v.user WHERE DATE(v.visitDate) = :date ORDER BY v.visitDate")
     List<Visit> findAllWithUsersByDate(@Param("date") LocalDate date);
 
+    /**
+     * Возвращает только время посещений начиная с указанного момента, без загрузки сущностей.
+     * Используется для восстановления счетчика загруженности зала при старте.
+     *
+     * @param since начало интервала (включительно)
+     * @return список времени посещений
+     */
+    @Query("SELECT v.visitDate FROM Visit v WHERE v.visitDate >= :since")
+    List<LocalDateTime> findVisitTimesSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Потоково выбирает посещения за указанный день вместе с пользователями.
+     * Строки читаются курсором порциями по {@link #STREAM_FETCH_SIZE}, сущности
+     * загружаются в режиме только для чтения. Вызывать внутри транзакции,
+     * поток обязательно закрывать.
+     *
+     * @param date дата посещений
+     * @return поток посещений с загруженными пользователями, упорядоченный по времени
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Visit v JOIN FETCH v.user WHERE DATE(v.visitDate) = :date ORDER BY v.visitDate")
+    Stream<Visit> streamAllWithUsersByDate(@Param("date") LocalDate date);
+
     /**
      * Находит количество посещений за указанную дату.
      *
@@ -92,6 +193,35 @@ public interface VisitRepository extends JpaRepository<Visit, UUID> {
     @Query("SELECT v FROM Visit v JOIN FETCH v.user WHERE DATE(v.visitDate) BETWEEN :startDate AND :endDate ORDER BY v.visitDate")
     List<Visit> findAllByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
+    /**
+     * Потоково выбирает посещения за диапазон дат вместе с пользователями.
+     * В отличие от {@link #findAllByDateRange(LocalDate, LocalDate)} не материализует
+     * весь результат в памяти. Вызывать внутри транзакции, поток обязательно закрывать.
+     *
+     * @param startDate начальная дата (включительно)
+     * @param endDate конечная дата (включительно)
+     * @return поток посещений, упорядоченный по времени посещения
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT v FROM Visit v JOIN FETCH v.user WHERE DATE(v.visitDate) BETWEEN :startDate AND :endDate ORDER BY v.visitDate")
+    Stream<Visit> streamAllByDateRange(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Вычисляет версию данных о посещениях за интервал одним агрегирующим запросом.
+     * Условие по интервалу времени позволяет использовать индекс по visit_date.
+     *
+     * @param start начало интервала (включительно)
+     * @param end конец интервала (не включительно)
+     * @return число посещений и время последних изменений посещений и посетителей
+     */
+    @Query("SELECT new ru.cs.vsu.social_network.telegram_bot.utils.report.VisitDataVersion(" +
+            "COUNT(v), MAX(v.updatedAt), MAX(u.updatedAt)) " +
+            "FROM Visit v JOIN v.user u WHERE v.visitDate >= :start AND v.visitDate < :end")
+    VisitDataVersion getDataVersion(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
     /**
      * Удаляет все посещения старше указанной даты.
      * Выполняет batch-удаление для оптимизации.
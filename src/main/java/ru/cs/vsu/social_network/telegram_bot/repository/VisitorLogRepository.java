@@ -1,5 +1,6 @@
 package ru.cs.vsu.social_network.telegram_bot.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -76,7 +77,19 @@ public interface VisitorLogRepository extends JpaRepository<VisitorLog, UUID> {
      * @return список последних записей журнала
      */
     @Query("SELECT vl FROM VisitorLog vl ORDER BY vl.logDate DESC")
-    List<VisitorLog> findLatest(@Param("limit") int limit);
+    List<VisitorLog> findLatest(Limit limit);
+
+    /**
+     * Находит записи журнала, предшествующие указанной дате, по убыванию даты.
+     * Используется для постраничной выборки по ключу: дата журнала уникальна,
+     * поэтому ее достаточно для однозначной позиции.
+     *
+     * @param logDate дата последней записи предыдущей страницы (не включается)
+     * @param limit максимальное количество записей
+     * @return список записей журнала
+     */
+    @Query("SELECT vl FROM VisitorLog vl WHERE vl.logDate < :logDate ORDER BY vl.logDate DESC")
+    List<VisitorLog> findLatestBefore(@Param("logDate") LocalDate logDate, Limit limit);
 
     /**
      * Находит все записи журнала в указанном диапазоне дат, отсортированные по убыванию даты.
@@ -0,0 +1,28 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+import ru.cs.vsu.social_network.telegram_bot.utils.export.CsvExportDataset;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+/**
+ * Сервис потоковой выгрузки данных посещений в CSV.
+ * Строки читаются серверным курсором JDBC и сразу записываются в поток ответа,
+ * поэтому расход памяти не зависит от размера выгрузки.
+ */
+public interface CsvExportService {
+
+    /**
+     * Выгружает набор данных за период в CSV.
+     *
+     * @param dataset набор данных
+     * @param startDate начальная дата (включительно)
+     * @param endDate конечная дата (включительно)
+     * @param gzip сжимать ли CSV в формате gzip
+     * @param outputStream поток, в который записывается CSV; закрывает вызывающий код
+     * @return количество выгруженных строк данных без заголовка
+     * @throws ru.cs.vsu.social_network.telegram_bot.exception.VisitExportException если не удалось записать данные
+     */
+    long exportCsv(CsvExportDataset dataset, LocalDate startDate, LocalDate endDate,
+                   boolean gzip, OutputStream outputStream);
+}
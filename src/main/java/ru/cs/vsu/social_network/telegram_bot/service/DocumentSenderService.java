@@ -1,6 +1,8 @@
 package ru.cs.vsu.social_network.telegram_bot.service;
 
-import java.io.File;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
+
+import java.nio.file.Path;
 
 /**
  * Сервис для отправки документов пользователям через Telegram бота.
@@ -10,11 +12,37 @@ public interface DocumentSenderService {
 
     /**
      * Отправляет документ пользователю в Telegram.
-     * Используется для отправки Excel файлов с программами тренировок.
+     * Содержимое передается потоком из памяти, временные файлы не создаются.
+     *
+     * @param telegramId Telegram ID пользователя
+     * @param document документ для отправки
+     * @param caption подпись к файлу
+     * @return идентификатор загруженного файла в Telegram или null, если Telegram его не вернул
+     */
+    String sendDocument(Long telegramId, GeneratedDocument document, String caption);
+
+    /**
+     * Отправляет пользователю ранее загруженный документ по идентификатору файла Telegram.
+     * Содержимое повторно не загружается.
+     *
+     * @param telegramId Telegram ID пользователя
+     * @param fileId идентификатор файла, полученный при предыдущей загрузке
+     * @param caption подпись к файлу
+     * @return true если документ отправлен, false если Telegram отклонил идентификатор файла
+     * @throws ru.cs.vsu.social_network.telegram_bot.exception.MessageDeliveryException при остальных ошибках
+     *         Telegram API, например ограничении частоты запросов или блокировке бота пользователем
+     */
+    boolean sendDocumentById(Long telegramId, String fileId, String caption);
+
+    /**
+     * Отправляет пользователю документ, записанный в файл.
+     * Содержимое читается потоком из файла без загрузки в память; файл удаляет вызывающий код.
+     * Используется для больших выгрузок, которые не должны целиком находиться в куче.
      *
      * @param telegramId Telegram ID пользователя
-     * @param file файл для отправки
+     * @param file файл с содержимым документа
+     * @param fileName имя файла, под которым документ получит пользователь
      * @param caption подпись к файлу
      */
-    void sendDocument(Long telegramId, File file, String caption);
-}
\ No newline at end of file
+    void sendFile(Long telegramId, Path file, String fileName, String caption);
+}
@@ -1,25 +1,57 @@
 package ru.cs.vsu.social_network.telegram_bot.service;
 
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanTable;
 
-import java.io.File;
 import java.util.UUID;
 
 /**
  * Сервис для генерации Excel файлов с тренировочными программами.
- * Загружает шаблон Excel, подставляет данные пользователя и сохраняет результат.
+ * Загружает шаблон Excel, подставляет данные пользователя и формирует документ в памяти.
  */
 public interface ExcelTrainingService {
 
     /**
-     * Генерирует Excel файл с индивидуальной программой тренировок.
-     * Загружает шаблон из ресурсов, подставляет максимальный жим лежа пользователя,
-     * пересчитывает формулы и сохраняет результат в файл.
+     * Версия формирования книги программы. Увеличивается при изменениях,
+     * которые меняют итоговый файл при том же шаблоне. Входит в ключи долговременных кешей.
+     */
+    int OUTPUT_VERSION = 1;
+
+    /**
+     * Генерирует Excel документ с индивидуальной программой тренировок.
+     * Загружает шаблон выбранного тренировочного цикла, подставляет максимальный жим лежа пользователя,
+     * пересчитывает формулы и записывает книгу в массив байт без сохранения на диск.
+     * Если цикл в запросе не указан или не найден, используется цикл по умолчанию.
      *
      * @param userId идентификатор пользователя
-     * @param userBenchPressRequest запрос с максимальным жимом лежа
-     * @return сгенерированный Excel файл с программой тренировок
+     * @param userBenchPressRequest запрос с максимальным жимом лежа и кодом цикла
+     * @return сгенерированный Excel документ с программой тренировок
      * @throws ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException если не удалось сгенерировать программу
      */
-    File generateTrainingPlan(UUID userId, UserBenchPressRequest userBenchPressRequest);
-}
\ No newline at end of file
+    GeneratedDocument generateTrainingPlan(UUID userId, UserBenchPressRequest userBenchPressRequest);
+
+    /**
+     * Формирует Excel книгу программы для значения жима без обращения к каталогу и данным пользователя.
+     * Используется при генерации по запросу и при построении каталога готовых планов.
+     *
+     * @param trainingCycle тренировочный цикл, шаблон которого используется
+     * @param maxBenchPress максимальный жим лежа, кг
+     * @return содержимое книги в формате XLSX
+     * @throws ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException если не удалось сформировать книгу
+     */
+    byte[] renderTrainingPlan(TrainingCycle trainingCycle, double maxBenchPress);
+
+    /**
+     * Формирует таблицу программы для значения жима без записи и повторного чтения книги Excel.
+     * Используется для построения изображения: таблица собирается из скомпилированной модели шаблона,
+     * а если шаблон не скомпилирован, формулы вычисляются в книге в памяти и значения снимаются с листа.
+     *
+     * @param trainingCycle тренировочный цикл, шаблон которого используется
+     * @param maxBenchPress максимальный жим лежа, кг
+     * @return таблица программы
+     * @throws ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException если не удалось сформировать таблицу
+     */
+    TrainingPlanTable buildPlanTable(TrainingCycle trainingCycle, double maxBenchPress);
+}
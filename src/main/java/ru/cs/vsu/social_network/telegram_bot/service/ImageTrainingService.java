@@ -1,31 +1,32 @@
 package ru.cs.vsu.social_network.telegram_bot.service;
 
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 import java.util.UUID;
 
 /**
- * Сервис для генерации изображений тренировочных планов из Excel файлов.
+ * Сервис для генерации изображений тренировочных планов.
  */
 public interface ImageTrainingService {
 
     /**
      * Генерирует изображение тренировочного плана на основе данных пользователя.
+     * Изображение кодируется в памяти и не сохраняется на диск.
      *
      * @param userId идентификатор пользователя
      * @param userBenchPressRequest данные о жиме лежа пользователя
-     * @return файл с изображением тренировочного плана
+     * @return документ с изображением тренировочного плана
      */
-    File generateTrainingPlanImage(UUID userId, UserBenchPressRequest userBenchPressRequest);
+    GeneratedDocument generateTrainingPlanImage(UUID userId, UserBenchPressRequest userBenchPressRequest);
 
     /**
-     * Конвертирует Excel файл в изображение.
+     * Конвертирует содержимое Excel книги в изображение.
      *
-     * @param excelFile Excel файл для конвертации
+     * @param workbookContent содержимое Excel книги
      * @param outputFormat формат выходного изображения
-     * @return изображение с содержимым Excel файла
+     * @return изображение с содержимым Excel книги
      */
-    BufferedImage convertExcelToImage(File excelFile, String outputFormat);
-}
\ No newline at end of file
+    BufferedImage convertExcelToImage(byte[] workbookContent, String outputFormat);
+}
@@ -0,0 +1,17 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+/**
+ * Сервис для отправки текстовых сообщений пользователям по инициативе приложения.
+ * Используется запланированными задачами, которые не отвечают на входящее сообщение.
+ */
+public interface MessageSenderService {
+
+    /**
+     * Отправляет текстовое сообщение пользователю в Telegram.
+     * Слишком длинный текст разбивается на несколько сообщений по границам строк.
+     *
+     * @param telegramId Telegram ID пользователя
+     * @param text текст сообщения
+     */
+    void sendMessage(Long telegramId, String text);
+}
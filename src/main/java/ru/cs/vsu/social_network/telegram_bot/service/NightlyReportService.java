@@ -0,0 +1,26 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+import java.time.LocalDate;
+
+/**
+ * Сервис ежевечернего закрытия дня.
+ * Окончательно собирает журнал посещений за день, заранее формирует отчеты
+ * и рассылает их администраторам.
+ */
+public interface NightlyReportService {
+
+    /**
+     * Запускается по расписанию app.scheduler.report.cron.
+     * При нескольких экземплярах приложения задачу выполняет только один из них.
+     */
+    void runScheduledReport();
+
+    /**
+     * Закрывает указанный день: собирает журнал посещений за день и отчет
+     * с начала недели, прогревает кеши отчетов и отправляет оба отчета всем администраторам.
+     *
+     * @param date закрываемая дата
+     * @return количество администраторов, которым отчеты были отправлены
+     */
+    int publishDailyReports(LocalDate date);
+}
@@ -1,8 +1,10 @@
 package ru.cs.vsu.social_network.telegram_bot.service;
 
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.DailyStatsResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.ReportResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitorLogResponse;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,6 +20,8 @@ public interface ReportService {
     /**
      * Генерирует журнал посещений за текущий день.
      * Формирует текстовую таблицу со списком всех посетителей за сегодня.
+     * Журнал пересобирается и сохраняется только если после последней сборки
+     * появились новые отметки, иначе возвращается сохраненный журнал без записи в БД.
      *
      * @param adminUserId идентификатор администратора, запрашивающего отчет
      * @return DTO журнала посещений за текущий день
@@ -27,6 +31,7 @@ public interface ReportService {
     /**
      * Генерирует журнал посещений за указанную дату.
      * Формирует текстовую таблицу со списком всех посетителей за указанный день.
+     * Журнал пересобирается и сохраняется только если день помечен как измененный.
      *
      * @param adminUserId идентификатор администратора, запрашивающего отчет
      * @param date дата для генерации отчета
@@ -37,6 +42,7 @@ public interface ReportService {
     /**
      * Генерирует сводный отчет за указанный период.
      * Включает общую статистику, ежедневную разбивку и форматированный отчет для Telegram.
+     * Отчет выдается из кеша, если после его формирования в периоде не было новых отметок.
      *
      * @param adminUserId идентификатор администратора, запрашивающего отчет
      * @param startDate начальная дата периода
@@ -56,6 +62,27 @@ public interface ReportService {
      */
     List<DailyStatsResponse> generateDailyStats(UUID adminUserId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Окончательно пересобирает журнал посещений за день без проверки прав доступа.
+     * Используется запланированной задачей закрытия дня; собранный отчет
+     * сохраняется в кеше и выдается администраторам без обращения к БД.
+     *
+     * @param date дата журнала
+     * @return DTO журнала посещений с отформатированным отчетом
+     */
+    VisitorLogResponse finalizeDailyReport(LocalDate date);
+
+    /**
+     * Заранее формирует отчет за период без проверки прав доступа и сохраняет его в кеше.
+     * Используется запланированной задачей; повторный запрос того же периода
+     * выдается из кеша, пока в периоде не появятся новые отметки.
+     *
+     * @param startDate начальная дата периода
+     * @param endDate конечная дата периода
+     * @return DTO отчета за период
+     */
+    ReportResponse precomputePeriodReport(LocalDate startDate, LocalDate endDate);
+
     /**
      * Форматирует отчет для Telegram за указанную дату.
      *
@@ -88,6 +115,17 @@ public interface ReportService {
      */
     Optional<VisitorLogResponse> getVisitorLogByDate(UUID adminUserId, LocalDate date);
 
+    /**
+     * Получает актуальный журнал посещений за указанную дату в режиме только для чтения.
+     * Журнал считается актуальным, если после его последней сборки не было новых отметок.
+     * Возвращаемый журнал содержит отформатированный отчет для Telegram.
+     *
+     * @param adminUserId идентификатор администратора, запрашивающего журнал
+     * @param date дата журнала
+     * @return Optional с журналом, если он сохранен и актуален, иначе пустой Optional
+     */
+    Optional<VisitorLogResponse> getUpToDateVisitorLog(UUID adminUserId, LocalDate date);
+
     /**
      * Получает журналы посещений за указанный период.
      * Возвращает все журналы в указанном диапазоне дат.
@@ -110,15 +148,15 @@ public interface ReportService {
     VisitorLogResponse getVisitorLogById(UUID adminUserId, UUID logId);
 
     /**
-     * Получает все журналы посещений с пагинацией.
-     * Используется для административного интерфейса с большим количеством записей.
+     * Получает все журналы посещений постранично, от новых к старым.
+     * Используется выборка по ключу (дата журнала), поэтому стоимость
+     * запроса не зависит от номера страницы.
      *
      * @param adminUserId идентификатор администратора
-     * @param page номер страницы (начиная с 0)
-     * @param size количество записей на странице
-     * @return список журналов посещений для указанной страницы
+     * @param pageRequest размер страницы и курсор, полученный с предыдущей страницы
+     * @return страница журналов посещений с курсором следующей страницы
      */
-    List<VisitorLogResponse> getAllVisitorLogsPaginated(UUID adminUserId, int page, int size);
+    PageResponse<VisitorLogResponse> getAllVisitorLogsPaginated(UUID adminUserId, CursorPageRequest pageRequest);
 
     /**
      * Получает общее количество записей в журнале посещений.
@@ -0,0 +1,24 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+import java.time.Duration;
+
+/**
+ * Сервис распределенных блокировок для запланированных задач.
+ * Гарантирует, что при нескольких экземплярах приложения задача выполняется только один раз.
+ */
+public interface SchedulerLockService {
+
+    /**
+     * Выполняет задачу, если удалось захватить блокировку с указанным именем.
+     * Блокировка удерживается не дольше lockAtMostFor на случай аварийного завершения
+     * и не меньше lockAtLeastFor, чтобы другие экземпляры с расхождением часов
+     * не запустили ту же задачу повторно.
+     *
+     * @param lockName имя блокировки
+     * @param lockAtMostFor максимальное время удержания блокировки
+     * @param lockAtLeastFor минимальное время удержания блокировки
+     * @param task задача для выполнения
+     * @return true если задача была выполнена этим экземпляром
+     */
+    boolean runExclusively(String lockName, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable task);
+}
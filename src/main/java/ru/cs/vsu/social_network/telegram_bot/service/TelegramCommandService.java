@@ -30,6 +30,15 @@ public interface TelegramCommandService {
      */
     String handleInGymCommand(Long telegramId);
 
+    /**
+     * Обрабатывает команду "Сколько в зале?" от пользователя.
+     * Ответ формируется из счетчика загруженности в памяти, без обращения к БД.
+     *
+     * @param telegramId идентификатор пользователя в Telegram
+     * @return сообщение с количеством недавних отметок и распределением по часам
+     */
+    String handleOccupancyCommand(Long telegramId);
+
     /**
      * Обрабатывает ввод отображаемого имени пользователя.
      * Сохраняет имя, которое будет использоваться для обращения к пользователю.
@@ -71,6 +80,16 @@ public interface TelegramCommandService {
      */
     String handleTableCommand(Long telegramId, String input);
 
+    /**
+     * Обрабатывает команду /export.
+     * Выгружает посещения за период в файл Excel и отправляет его администратору документом.
+     *
+     * @param telegramId идентификатор администратора в Telegram
+     * @param input две даты в формате ДД.ММ.ГГГГ через пробел
+     * @return сообщение о результате выгрузки
+     */
+    String handleExportCommand(Long telegramId, String input);
+
     /**
      * Обрабатывает неизвестную команду или сообщение.
      * Предоставляет пользователю информацию о доступных командах.
@@ -127,6 +146,17 @@ public interface TelegramCommandService {
      */
     String handleTrainingProgramCommand(Long telegramId);
 
+    /**
+     * Обрабатывает команду /cycle.
+     * Без аргумента возвращает список доступных тренировочных циклов,
+     * с аргументом сохраняет выбранный пользователем цикл.
+     *
+     * @param telegramId Telegram ID пользователя
+     * @param argument номер, код или название цикла, может быть null
+     * @return список циклов или сообщение о результате выбора
+     */
+    String handleTrainingCycleCommand(Long telegramId, String argument);
+
     /**
      * Обрабатывает ввод максимального жима лежа и генерирует программу тренировок.
      *
@@ -0,0 +1,44 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Реестр доступных тренировочных циклов.
+ * Циклы находятся по шаблонам Excel в директории training_cycles; шаблоны при этом не читаются,
+ * разбор и компиляция выполняются кешем шаблонов при первом обращении к циклу.
+ */
+public interface TrainingCycleRegistry {
+
+    /**
+     * Возвращает все доступные циклы, упорядоченные по коду.
+     *
+     * @return список циклов
+     */
+    List<TrainingCycle> getAvailableCycles();
+
+    /**
+     * Возвращает цикл по умолчанию.
+     *
+     * @return цикл по умолчанию
+     */
+    TrainingCycle getDefaultCycle();
+
+    /**
+     * Ищет цикл по коду, названию или прежнему названию.
+     *
+     * @param codeOrTitle код или название цикла
+     * @return цикл или пустой Optional, если такого цикла нет
+     */
+    Optional<TrainingCycle> findCycle(String codeOrTitle);
+
+    /**
+     * Возвращает цикл по коду или названию, а если он не найден - цикл по умолчанию.
+     *
+     * @param codeOrTitle код или название цикла, может быть null
+     * @return найденный цикл или цикл по умолчанию
+     */
+    TrainingCycle resolve(String codeOrTitle);
+}
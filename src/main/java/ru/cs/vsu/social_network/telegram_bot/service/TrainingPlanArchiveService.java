@@ -0,0 +1,25 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
+
+/**
+ * Сервис архивирования отправленных документов на диск.
+ * По умолчанию выключен: документы живут только в памяти до отправки.
+ */
+public interface TrainingPlanArchiveService {
+
+    /**
+     * Сохраняет копию документа в архивную директорию, если архивирование включено.
+     * Ошибки записи не прерывают отправку документа.
+     *
+     * @param document отправленный документ
+     */
+    void archive(GeneratedDocument document);
+
+    /**
+     * Проверяет, включено ли архивирование.
+     *
+     * @return true если документы сохраняются на диск
+     */
+    boolean isArchiveEnabled();
+}
@@ -0,0 +1,29 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanFormat;
+
+import java.util.UUID;
+
+/**
+ * Сервис доставки тренировочных программ пользователю.
+ * Если такой же план уже загружался в Telegram, он отправляется повторно по file_id,
+ * иначе программа генерируется и загружается, а полученный file_id сохраняется.
+ */
+public interface TrainingPlanDeliveryService {
+
+    /**
+     * Отправляет программу тренировок в выбранном формате.
+     *
+     * @param telegramId Telegram ID пользователя
+     * @param userId идентификатор пользователя
+     * @param benchPressRequest запрос с максимальным жимом лежа и кодом цикла
+     * @param trainingCycle тренировочный цикл программы
+     * @param format формат программы
+     * @param caption подпись к документу
+     * @throws ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException если не удалось сгенерировать программу
+     */
+    void deliverTrainingPlan(Long telegramId, UUID userId, UserBenchPressRequest benchPressRequest,
+                             TrainingCycle trainingCycle, TrainingPlanFormat format, String caption);
+}
@@ -5,7 +5,7 @@ import ru.cs.vsu.social_network.telegram_bot.dto.request.UserUpdateRequest;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.UserInfoResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
-import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
 
 import java.util.UUID;
 
@@ -56,11 +56,13 @@ public interface UserService {
      * Получает страницу пользователей с указанной ролью.
      * Используется администраторами для управления пользователями.
      *
+     * Пользователи возвращаются от новых к старым, выборка выполняется по ключу (createdAt, id).
+     *
      * @param role роль для фильтрации
-     * @param pageRequest параметры пагинации и сортировки
-     * @return страница с пользователями
+     * @param pageRequest размер страницы и курсор, полученный с предыдущей страницы
+     * @return страница с пользователями и курсором следующей страницы
      */
-    PageResponse<UserInfoResponse> getUsersByRole(ROLE role, PageRequest pageRequest);
+    PageResponse<UserInfoResponse> getUsersByRole(ROLE role, CursorPageRequest pageRequest);
 
     /**
      * Изменяет роль пользователя.
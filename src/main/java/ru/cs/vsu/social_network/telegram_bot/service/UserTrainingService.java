@@ -50,4 +50,13 @@ public interface UserTrainingService {
      */
     Optional<UserTrainingResponse> getUserTrainingByTelegramId(Long telegramId);
 
-}
\ No newline at end of file
+    /**
+     * Сохраняет выбранный пользователем тренировочный цикл.
+     * Если запись тренировок еще не создана, создает ее без значения жима лежа.
+     *
+     * @param telegramId Telegram ID пользователя
+     * @param cycleCode код тренировочного цикла
+     * @return DTO с обновленными данными тренировок
+     */
+    UserTrainingResponse selectTrainingCycleByTelegramId(Long telegramId, String cycleCode);
+}
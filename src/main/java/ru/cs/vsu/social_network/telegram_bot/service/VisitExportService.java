@@ -0,0 +1,26 @@
+package ru.cs.vsu.social_network.telegram_bot.service;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Сервис выгрузки посещений тренажерного зала в Excel для администраторов.
+ * Посещения читаются из базы курсором и записываются в потоковую книгу,
+ * поэтому объем выгрузки не ограничен размером кучи.
+ */
+public interface VisitExportService {
+
+    /**
+     * Выгружает посещения за период в книгу XLSX.
+     * Книга содержит лист с посещениями и лист со сводкой по посетителям.
+     *
+     * @param adminUserId идентификатор администратора
+     * @param startDate начальная дата (включительно)
+     * @param endDate конечная дата (включительно)
+     * @param outputStream поток, в который записывается книга; закрывает вызывающий код
+     * @return количество выгруженных посещений
+     * @throws ru.cs.vsu.social_network.telegram_bot.exception.VisitExportException если не удалось записать книгу
+     */
+    long exportVisits(UUID adminUserId, LocalDate startDate, LocalDate endDate, OutputStream outputStream);
+}
@@ -2,7 +2,7 @@ package ru.cs.vsu.social_network.telegram_bot.service;
 
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
-import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
 
 import java.time.LocalDate;
 import java.util.UUID;
@@ -41,24 +41,26 @@ public interface VisitService {
     VisitResponse getVisitById(UUID visitId);
 
     /**
-     * Получает страницу посещений за указанную дату.
+     * Получает страницу посещений за указанную дату в порядке отметок.
      * Используется для просмотра всех посетителей за день.
      *
      * @param date дата посещений
-     * @param pageRequest параметры пагинации и сортировки
-     * @return страница с посещениями
+     * @param pageRequest размер страницы и курсор, полученный с предыдущей страницы
+     * @return страница с посещениями и курсором следующей страницы
      */
-    PageResponse<VisitResponse> getVisitsByDate(LocalDate date, PageRequest pageRequest);
+    PageResponse<VisitResponse> getVisitsByDate(LocalDate date, CursorPageRequest pageRequest);
 
     /**
      * Получает страницу посещений указанного пользователя.
      * Используется для просмотра истории посещений пользователя.
      *
+     * Посещения возвращаются от новых к старым, выборка выполняется по ключу (visitDate, id).
+     *
      * @param userId идентификатор пользователя
-     * @param pageRequest параметры пагинации и сортировки
-     * @return страница с посещениями пользователя
+     * @param pageRequest размер страницы и курсор, полученный с предыдущей страницы
+     * @return страница с посещениями пользователя и курсором следующей страницы
      */
-    PageResponse<VisitResponse> getVisitsByUser(UUID userId, PageRequest pageRequest);
+    PageResponse<VisitResponse> getVisitsByUser(UUID userId, CursorPageRequest pageRequest);
 
     /**
      * Проверяет, посещал ли пользователь зал сегодня.
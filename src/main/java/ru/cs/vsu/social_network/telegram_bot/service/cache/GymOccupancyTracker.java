@@ -0,0 +1,36 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+import ru.cs.vsu.social_network.telegram_bot.dto.response.OccupancyResponse;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Счетчик загруженности зала в памяти приложения.
+ * Хранит количество отметок по минутам за последнее окно и по часам за текущий день,
+ * поэтому ответ на вопрос "сколько в зале" не требует обращения к БД.
+ */
+public interface GymOccupancyTracker {
+
+    /**
+     * Учитывает отметку в зале.
+     * Если вызвано внутри транзакции, отметка учитывается после ее фиксации.
+     *
+     * @param checkInTime время отметки
+     */
+    void recordCheckIn(LocalDateTime checkInTime);
+
+    /**
+     * Сбрасывает счетчики и заполняет их заново по переданным отметкам.
+     *
+     * @param checkInTimes время отметок, загруженных из БД
+     */
+    void rebuild(Collection<LocalDateTime> checkInTimes);
+
+    /**
+     * Возвращает текущую загруженность зала.
+     *
+     * @return количество отметок за последнее окно, за сегодня и по часам
+     */
+    OccupancyResponse getOccupancy();
+}
@@ -1,31 +1,33 @@
 package ru.cs.vsu.social_network.telegram_bot.service.cache;
 
-import java.awt.image.BufferedImage;
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+import ru.cs.vsu.social_network.telegram_bot.utils.cache.CacheStats;
+
 import java.io.File;
+import java.util.Optional;
 
 /**
  * Сервис кэширования изображений.
+ * Изображения хранятся в закодированном виде и выдаются без декодирования,
+ * поэтому попадание в кеш стоит одного поиска в таблице.
  */
 public interface ImageCacheService {
 
     /**
-     * Получает изображение из кэша.
+     * Получает закодированное изображение из кэша.
      *
      * @param cacheKey ключ кэша
-     * @return изображение или null, если не найдено
+     * @return изображение или пустой Optional, если запись не найдена или просрочена
      */
-    BufferedImage getImageFromCache(String cacheKey);
+    Optional<EncodedImage> getImage(String cacheKey);
 
     /**
-     * Сохраняет изображение в кэш.
+     * Сохраняет закодированное изображение в кэш.
      *
      * @param cacheKey ключ кэша
-     * @param image    изображение для кэширования
-     * @param filePath путь к файлу
-     * @param width    ширина изображения
-     * @param height   высота изображения
+     * @param image    закодированное изображение с метаданными
      */
-    void cacheImage(String cacheKey, BufferedImage image, String filePath, int width, int height);
+    void putImage(String cacheKey, EncodedImage image);
 
     /**
      * Генерирует ключ кэша для файла.
@@ -41,6 +43,13 @@ public interface ImageCacheService {
      */
     void cleanupCache();
 
+    /**
+     * Возвращает счетчики попаданий, промахов и вытеснений кэша.
+     *
+     * @return снимок счетчиков кэша
+     */
+    CacheStats getStats();
+
     /**
      * Проверяет, включено ли кэширование.
      *
@@ -57,4 +66,4 @@ public interface ImageCacheService {
      * @return ключ кэша
      */
     String generateSimpleCacheKey(Double maxBenchPress, String templatePath);
-}
\ No newline at end of file
+}
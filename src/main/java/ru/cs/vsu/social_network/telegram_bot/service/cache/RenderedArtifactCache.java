@@ -0,0 +1,54 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+import ru.cs.vsu.social_network.telegram_bot.utils.cache.CacheStats;
+
+import java.util.Optional;
+
+/**
+ * Дисковый уровень кеша готовых тренировочных планов.
+ * Хранит закодированные изображения и XLSX книги в файле на локальном диске, поэтому
+ * вмещает больше, чем кеш в куче, и сохраняет попадания после перезапуска приложения.
+ * Ключ должен включать версию шаблона: записи не инвалидируются, а вытесняются при уплотнении.
+ */
+public interface RenderedArtifactCache {
+
+    /**
+     * Получает изображение плана.
+     *
+     * @param cacheKey ключ кеша
+     * @return изображение или пустой Optional, если записи нет или дисковый кеш отключен
+     */
+    Optional<EncodedImage> getImage(String cacheKey);
+
+    /**
+     * Сохраняет изображение плана. Ошибки записи не пробрасываются.
+     *
+     * @param cacheKey ключ кеша
+     * @param image закодированное изображение
+     */
+    void putImage(String cacheKey, EncodedImage image);
+
+    /**
+     * Получает XLSX книгу плана.
+     *
+     * @param cacheKey ключ кеша
+     * @return содержимое книги или пустой Optional, если записи нет или дисковый кеш отключен
+     */
+    Optional<byte[]> getWorkbook(String cacheKey);
+
+    /**
+     * Сохраняет XLSX книгу плана. Ошибки записи не пробрасываются.
+     *
+     * @param cacheKey ключ кеша
+     * @param content содержимое книги
+     */
+    void putWorkbook(String cacheKey, byte[] content);
+
+    /**
+     * Возвращает счетчики дискового кеша.
+     *
+     * @return снимок счетчиков
+     */
+    CacheStats getStats();
+}
@@ -0,0 +1,30 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Кратковременный кеш страниц отчетов, отправленных в чат.
+ * Страницы формируются один раз при построении отчета, а листание кнопками
+ * выдает уже готовые страницы без повторной генерации отчета.
+ */
+public interface ReportPageCache {
+
+    /**
+     * Сохраняет страницы отчета, отправленного в указанный чат.
+     *
+     * @param chatId идентификатор чата, в который отправлен отчет
+     * @param pages страницы отчета
+     * @return ключ для получения страниц из кнопок листания
+     */
+    String put(Long chatId, List<String> pages);
+
+    /**
+     * Возвращает страницы отчета, если они еще хранятся в кеше и принадлежат чату.
+     *
+     * @param key ключ, полученный при сохранении
+     * @param chatId идентификатор чата, из которого пришел запрос
+     * @return Optional со страницами или пустой Optional, если отчет устарел
+     */
+    Optional<List<String>> getPages(String key, Long chatId);
+}
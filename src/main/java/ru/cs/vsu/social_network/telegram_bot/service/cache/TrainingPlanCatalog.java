@@ -0,0 +1,45 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanCatalogData;
+
+import java.util.Optional;
+
+/**
+ * Каталог заранее сгенерированных тренировочных планов.
+ * Хранит закодированные XLSX и PNG цикла по умолчанию для значений жима из настроенной сетки.
+ * Попадание в каталог не требует работы с POI и AWT; при промахе план генерируется обычным образом.
+ */
+public interface TrainingPlanCatalog {
+
+    /**
+     * Возвращает готовую Excel книгу для шаблона и значения жима.
+     *
+     * @param templatePath путь к шаблону тренировочного цикла
+     * @param maxBenchPress значение жима, кг
+     * @return содержимое XLSX или пустой Optional, если значения нет в каталоге
+     *         или каталог построен для другого шаблона или его версии
+     */
+    Optional<byte[]> findWorkbook(String templatePath, double maxBenchPress);
+
+    /**
+     * Возвращает готовое изображение плана для шаблона и значения жима.
+     *
+     * @param templatePath путь к шаблону тренировочного цикла
+     * @param maxBenchPress значение жима, кг
+     * @return содержимое PNG или пустой Optional, если значения нет в каталоге
+     *         или каталог построен для другого шаблона или его версии
+     */
+    Optional<byte[]> findImage(String templatePath, double maxBenchPress);
+
+    /**
+     * Заменяет содержимое каталога новым снимком.
+     *
+     * @param data построенный снимок каталога
+     */
+    void publish(TrainingPlanCatalogData data);
+
+    /**
+     * Очищает каталог, все запросы будут обслуживаться генерацией.
+     */
+    void clear();
+}
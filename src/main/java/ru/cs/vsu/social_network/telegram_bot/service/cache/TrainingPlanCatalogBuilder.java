@@ -0,0 +1,14 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+/**
+ * Фоновое построение каталога готовых тренировочных планов.
+ * Запускается при старте приложения и при изменении шаблона.
+ */
+public interface TrainingPlanCatalogBuilder {
+
+    /**
+     * Запускает перестроение каталога в фоне.
+     * Незавершенное предыдущее построение прерывается.
+     */
+    void rebuildAsync();
+}
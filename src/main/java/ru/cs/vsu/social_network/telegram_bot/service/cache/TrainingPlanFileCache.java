@@ -0,0 +1,64 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+import java.util.Optional;
+
+/**
+ * Кеш идентификаторов файлов Telegram для отправленных тренировочных планов.
+ * После загрузки документа Telegram возвращает file_id, по которому тот же файл
+ * можно отправить повторно без загрузки. Ключ записи - версия шаблона, версия итогового файла
+ * (отрисовки и кодирования), нормализованное значение жима и формат файла.
+ * Кеш хранится в базе и переживает перезапуск; записи старше заданного срока удаляются,
+ * в том числе оставшиеся от прежних версий отрисовки.
+ */
+public interface TrainingPlanFileCache {
+
+    /**
+     * Ищет идентификатор ранее загруженного файла.
+     *
+     * @param templateVersion версия шаблона
+     * @param outputVersion версия итогового файла
+     * @param benchPress максимальный жим лежа, кг
+     * @param format формат файла, например png или xlsx
+     * @return file_id или пустой Optional, если файл еще не загружался
+     */
+    Optional<String> findFileId(String templateVersion, String outputVersion, double benchPress, String format);
+
+    /**
+     * Сохраняет идентификатор загруженного файла.
+     *
+     * @param templateVersion версия шаблона
+     * @param outputVersion версия итогового файла
+     * @param benchPress максимальный жим лежа, кг
+     * @param format формат файла
+     * @param fileId идентификатор файла в Telegram
+     */
+    void saveFileId(String templateVersion, String outputVersion, double benchPress, String format, String fileId);
+
+    /**
+     * Удаляет идентификатор, который Telegram отказался принять.
+     *
+     * @param templateVersion версия шаблона
+     * @param outputVersion версия итогового файла
+     * @param benchPress максимальный жим лежа, кг
+     * @param format формат файла
+     */
+    void evict(String templateVersion, String outputVersion, double benchPress, String format);
+
+    /**
+     * Удаляет записи старше заданного срока хранения.
+     *
+     * @return число удаленных записей
+     */
+    int purgeExpired();
+
+    /**
+     * Приводит значение жима к точности ввода: пользователь вводит не больше двух знаков после запятой,
+     * и план строится по точному значению, поэтому разные введенные значения дают разные ключи.
+     *
+     * @param benchPress максимальный жим лежа, кг
+     * @return значение, округленное до 0.01 кг
+     */
+    static double normalizeBenchPress(double benchPress) {
+        return Math.round(benchPress * 100.0) / 100.0;
+    }
+}
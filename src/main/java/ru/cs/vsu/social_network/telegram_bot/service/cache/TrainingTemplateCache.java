@@ -0,0 +1,51 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.CompiledTrainingTemplate;
+
+import java.util.Optional;
+
+/**
+ * Кеш шаблонов тренировочных программ.
+ * Шаблон читается из ресурсов или, для путей с префиксом {@code file:}, из файловой системы
+ * один раз и хранится в памяти; каждый запрос получает собственную книгу, которую можно изменять.
+ */
+public interface TrainingTemplateCache {
+
+    /**
+     * Создает новую книгу из закешированного шаблона.
+     * Вызывающий код владеет книгой и обязан ее закрыть.
+     *
+     * @param templatePath путь к шаблону
+     * @return новая книга Excel
+     * @throws ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException
+     *         если шаблон не найден или не может быть разобран
+     */
+    Workbook openWorkbook(String templatePath);
+
+    /**
+     * Возвращает скомпилированную модель формул шаблона.
+     * Компиляция выполняется один раз при первом обращении.
+     *
+     * @param templatePath путь к шаблону
+     * @return модель формул или пустой Optional, если шаблон нельзя скомпилировать
+     *         и формулы нужно вычислять через POI
+     */
+    Optional<CompiledTrainingTemplate> getCompiledTemplate(String templatePath);
+
+    /**
+     * Возвращает версию шаблона, вычисленную по его содержимому.
+     * Используется как часть ключей кешей, зависящих от шаблона.
+     *
+     * @param templatePath путь к шаблону
+     * @return версия шаблона
+     */
+    String getTemplateVersion(String templatePath);
+
+    /**
+     * Удаляет шаблон из кеша, следующее обращение перечитает его заново.
+     *
+     * @param templatePath путь к шаблону
+     */
+    void invalidate(String templatePath);
+}
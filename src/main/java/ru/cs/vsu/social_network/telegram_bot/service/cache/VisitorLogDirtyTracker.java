@@ -0,0 +1,47 @@
+package ru.cs.vsu.social_network.telegram_bot.service.cache;
+
+import java.time.LocalDate;
+
+/**
+ * Отслеживает дни, журнал посещений которых устарел относительно таблицы посещений.
+ * День считается "грязным", пока после последней отметки в зале журнал
+ * за этот день не был пересобран. Дни, о которых трекер ничего не знает
+ * (например, после перезапуска приложения), также считаются грязными.
+ */
+public interface VisitorLogDirtyTracker {
+
+    /**
+     * Помечает день как измененный.
+     * Если вызвано внутри транзакции, отметка выставляется после ее фиксации,
+     * чтобы параллельная пересборка не увидела день чистым до появления данных в БД.
+     *
+     * @param date дата, за которую появилось новое посещение
+     */
+    void markDirty(LocalDate date);
+
+    /**
+     * Возвращает текущую версию дня. Версию нужно получить до чтения посещений,
+     * а после сохранения журнала передать в {@link #markClean(LocalDate, long)}.
+     *
+     * @param date дата журнала
+     * @return текущая версия дня
+     */
+    long getVersion(LocalDate date);
+
+    /**
+     * Помечает день как актуальный, если с момента получения версии
+     * не было новых отметок.
+     *
+     * @param date    дата журнала
+     * @param version версия, полученная до пересборки журнала
+     */
+    void markClean(LocalDate date, long version);
+
+    /**
+     * Проверяет, требуется ли пересборка журнала за указанный день.
+     *
+     * @param date дата журнала
+     * @return true если журнал необходимо пересобрать
+     */
+    boolean isDirty(LocalDate date);
+}
@@ -1,23 +1,31 @@
 package ru.cs.vsu.social_network.telegram_bot.service.image;
 
 import org.apache.poi.ss.usermodel.Sheet;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanTable;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
 
 /**
- * Конвертер Excel файлов в изображения.
+ * Конвертер Excel файлов и таблиц тренировочных планов в изображения.
  */
 public interface ExcelToImageConverter {
 
     /**
-     * Конвертирует Excel файл в изображение.
+     * Версия отрисовки изображений планов. Увеличивается при любом изменении,
+     * которое меняет итоговое изображение: шрифтов, разметки, цветов или исправлении ошибок отрисовки.
+     * Входит в ключи долговременных кешей, чтобы пользователи не получали изображения прежней версии.
+     */
+    int RENDER_VERSION = 1;
+
+    /**
+     * Конвертирует содержимое Excel книги в изображение.
+     * Формат книги (XLSX или XLS) определяется по содержимому.
      *
-     * @param excelFile исходный Excel файл
+     * @param workbookContent содержимое Excel книги
      * @param outputFormat формат выходного изображения
      * @return BufferedImage с содержимым Excel
      */
-    BufferedImage convertExcelToImage(File excelFile, String outputFormat);
+    BufferedImage convertExcelToImage(byte[] workbookContent, String outputFormat);
 
     /**
      * Рендерит лист Excel в изображение.
@@ -26,4 +34,12 @@ public interface ExcelToImageConverter {
      * @return BufferedImage с содержимым листа
      */
     BufferedImage renderSheetToImage(Sheet sheet);
-}
\ No newline at end of file
+
+    /**
+     * Рендерит таблицу тренировочного плана в изображение без промежуточной книги Excel.
+     *
+     * @param table таблица тренировочного плана
+     * @return BufferedImage с содержимым таблицы
+     */
+    BufferedImage renderPlanToImage(TrainingPlanTable table);
+}
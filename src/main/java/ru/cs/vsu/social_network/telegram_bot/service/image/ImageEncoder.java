@@ -0,0 +1,32 @@
+package ru.cs.vsu.social_network.telegram_bot.service.image;
+
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * Кодировщик изображений тренировочных планов для отправки и кеширования.
+ */
+public interface ImageEncoder {
+
+    /**
+     * Кодирует изображение в указанный формат.
+     * Время кодирования и размер результата пишутся в журнал.
+     *
+     * @param image изображение плана
+     * @param imageFormat формат изображения, например png
+     * @return закодированное изображение с метаданными
+     * @throws IOException если произошла ошибка кодирования
+     */
+    EncodedImage encode(BufferedImage image, String imageFormat) throws IOException;
+
+    /**
+     * Возвращает версию итогового изображения: версию отрисовки
+     * {@link ExcelToImageConverter#RENDER_VERSION} и параметры кодирования.
+     * Меняется при изменении отрисовки или настроек PNG и входит в ключи долговременных кешей.
+     *
+     * @return версия итогового изображения, например r1-png8-z6-none
+     */
+    String getOutputVersion();
+}
@@ -1,21 +1,21 @@
 package ru.cs.vsu.social_network.telegram_bot.service.image;
 
-import org.apache.poi.ss.usermodel.Sheet;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanTable;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
 import java.util.List;
 
 /**
- * Рендерер для отрисовки Excel данных в изображение.
+ * Рендерер для отрисовки таблицы тренировочного плана в изображение.
  */
 public interface ImageRenderer {
 
     /**
-     * Рисует содержимое Excel листа на изображении.
+     * Рисует содержимое таблицы на изображении.
      *
      * @param graphics объект Graphics2D для рисования
-     * @param sheet лист Excel
+     * @param table таблица тренировочного плана
      * @param columnCount количество колонок
      * @param rowCount количество строк
      * @param imageHeight высота изображения
@@ -24,7 +24,7 @@ public interface ImageRenderer {
      * @param columnIndices индексы колонок
      * @param rowIndices индексы строк
      */
-    void drawImageContent(Graphics2D graphics, Sheet sheet, int columnCount, int rowCount,
+    void drawImageContent(Graphics2D graphics, TrainingPlanTable table, int columnCount, int rowCount,
                           int imageHeight, int imageWidth, int columnWidth,
                           List<Integer> columnIndices, List<Integer> rowIndices);
 
@@ -40,7 +40,7 @@ public interface ImageRenderer {
      * Рисует таблицу на изображении.
      *
      * @param graphics объект Graphics2D
-     * @param sheet лист Excel
+     * @param table таблица тренировочного плана
      * @param columnCount количество колонок
      * @param rowCount количество строк
      * @param imageWidth ширина изображения
@@ -48,7 +48,7 @@ public interface ImageRenderer {
      * @param columnIndices индексы колонок
      * @param rowIndices индексы строк
      */
-    void drawTable(Graphics2D graphics, Sheet sheet, int columnCount, int rowCount,
+    void drawTable(Graphics2D graphics, TrainingPlanTable table, int columnCount, int rowCount,
                    int imageWidth, int columnWidth,
                    List<Integer> columnIndices, List<Integer> rowIndices);
 
@@ -65,7 +65,7 @@ public interface ImageRenderer {
      * Рисует строки таблицы.
      *
      * @param graphics объект Graphics2D
-     * @param sheet лист Excel
+     * @param table таблица тренировочного плана
      * @param tableWidth ширина таблицы
      * @param colWidth ширина колонки
      * @param tableStartY начальная Y координата таблицы
@@ -75,7 +75,7 @@ public interface ImageRenderer {
      * @param columnIndices индексы колонок
      * @param rowIndices индексы строк
      */
-    void drawTableRows(Graphics2D graphics, Sheet sheet, int tableWidth, int colWidth,
+    void drawTableRows(Graphics2D graphics, TrainingPlanTable table, int tableWidth, int colWidth,
                        int tableStartY, int rowCount, int columnCount, int tableStartX,
                        List<Integer> columnIndices, List<Integer> rowIndices);
 
@@ -83,7 +83,7 @@ public interface ImageRenderer {
      * Рисует заголовок таблицы.
      *
      * @param graphics объект Graphics2D
-     * @param sheet лист Excel
+     * @param table таблица тренировочного плана
      * @param tableWidth ширина таблицы
      * @param colWidth ширина колонки
      * @param tableStartY начальная Y координата таблицы
@@ -91,7 +91,7 @@ public interface ImageRenderer {
      * @param tableStartX начальная X координата таблицы
      * @param columnIndices индексы колонок
      */
-    void drawTableHeader(Graphics2D graphics, Sheet sheet, int tableWidth, int colWidth,
+    void drawTableHeader(Graphics2D graphics, TrainingPlanTable table, int tableWidth, int colWidth,
                          int tableStartY, int columnCount, int tableStartX,
                          List<Integer> columnIndices);
 }
\ No newline at end of file
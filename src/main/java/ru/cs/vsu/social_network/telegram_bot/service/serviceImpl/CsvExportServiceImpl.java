@@ -0,0 +1,161 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.cs.vsu.social_network.telegram_bot.exception.VisitExportException;
+import ru.cs.vsu.social_network.telegram_bot.service.CsvExportService;
+import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
+import ru.cs.vsu.social_network.telegram_bot.utils.export.CsvExportDataset;
+import ru.cs.vsu.social_network.telegram_bot.utils.export.CsvWriter;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Реализация потоковой выгрузки в CSV на JDBC.
+ * Запрос выполняется в транзакции только для чтения с заданным fetch size,
+ * поэтому PostgreSQL отдает строки порциями через серверный курсор.
+ * Каждая строка сразу записывается в буферизованный поток, сущности JPA и списки не создаются.
+ */
+@Slf4j
+@Service
+public class CsvExportServiceImpl implements CsvExportService {
+
+    private static final String SERVICE_NAME = "ВЫГРУЗКА_CSV";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String VISITS_SQL =
+            "SELECT v.visit_date, u.telegram_id, u.username, u.first_name, u.last_name, u.display_name " +
+                    "FROM visit v JOIN app_user u ON u.id = v.user_id " +
+                    "WHERE v.visit_date >= ? AND v.visit_date < ? " +
+                    "ORDER BY v.visit_date, v.id";
+
+    private static final String DAILY_STATS_SQL =
+            "SELECT d.visit_day, d.unique_visitors, d.total_visits, COALESCE(n.new_users, 0) " +
+                    "FROM (SELECT CAST(v.visit_date AS DATE) AS visit_day, " +
+                    "COUNT(DISTINCT v.user_id) AS unique_visitors, COUNT(*) AS total_visits " +
+                    "FROM visit v WHERE v.visit_date >= ? AND v.visit_date < ? " +
+                    "GROUP BY CAST(v.visit_date AS DATE)) d " +
+                    "LEFT JOIN (SELECT f.first_day, COUNT(*) AS new_users " +
+                    "FROM (SELECT CAST(MIN(v2.visit_date) AS DATE) AS first_day " +
+                    "FROM visit v2 GROUP BY v2.user_id) f GROUP BY f.first_day) n " +
+                    "ON n.first_day = d.visit_day " +
+                    "ORDER BY d.visit_day";
+
+    private static final String VISITOR_LOGS_SQL =
+            "SELECT vl.log_date, vl.visitor_count, vl.new_users_count, e.position, e.user_id, e.display_name " +
+                    "FROM visitor_log vl " +
+                    "LEFT JOIN visitor_log_entry e ON e.visitor_log_id = vl.id " +
+                    "WHERE vl.log_date >= ? AND vl.log_date <= ? " +
+                    "ORDER BY vl.log_date, e.position";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CsvExportServiceImpl(final DataSource dataSource,
+                                @Value("${app.export.fetch-size:500}") final int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCsv(final CsvExportDataset dataset,
+                          final LocalDate startDate,
+                          final LocalDate endDate,
+                          final boolean gzip,
+                          final OutputStream outputStream) {
+        log.info("{}_НАЧАЛО: набор {}, период {} - {}, gzip {}",
+                SERVICE_NAME, dataset.getPathName(), startDate, endDate, gzip);
+
+        final long start = System.nanoTime();
+        try {
+            final GZIPOutputStream gzipStream = gzip ? new GZIPOutputStream(outputStream, BUFFER_SIZE) : null;
+            final Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    gzipStream != null ? gzipStream : outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+            final CsvWriter csvWriter = new CsvWriter(writer);
+            csvWriter.writeRow(dataset.getHeaders());
+
+            final int columnCount = dataset.getHeaders().size();
+            final RowCallbackHandler rowWriter = resultSet -> writeRow(csvWriter, resultSet, columnCount);
+            jdbcTemplate.query(getSql(dataset), rowWriter, getParameters(dataset, startDate, endDate));
+
+            writer.flush();
+            if (gzipStream != null) {
+                gzipStream.finish();
+            }
+
+            final long rowCount = csvWriter.getRowCount() - 1;
+            final long elapsedNanos = Math.max(System.nanoTime() - start, 1);
+            log.info("{}_УСПЕХ: набор {}, строк {}, за {} мс, {} строк/с",
+                    SERVICE_NAME, dataset.getPathName(), rowCount, elapsedNanos / 1_000_000,
+                    rowCount * 1_000_000_000L / elapsedNanos);
+
+            return rowCount;
+
+        } catch (IOException | UncheckedIOException e) {
+            log.error("{}_ОШИБКА: набор {}, ошибка: {}", SERVICE_NAME, dataset.getPathName(), e.getMessage());
+            throw new VisitExportException(MessageConstants.VISIT_EXPORT_FAILURE);
+        }
+    }
+
+    private void writeRow(final CsvWriter csvWriter, final ResultSet resultSet, final int columnCount)
+            throws SQLException {
+        try {
+            for (int column = 1; column <= columnCount; column++) {
+                csvWriter.writeField(toCsvValue(resultSet.getObject(column)));
+            }
+            csvWriter.endRow();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Приводит значения даты и времени JDBC к ISO-8601.
+     */
+    private static Object toCsvValue(final Object value) {
+        if (value instanceof Timestamp timestamp) {
+            return timestamp.toLocalDateTime();
+        }
+        if (value instanceof Date date) {
+            return date.toLocalDate();
+        }
+        return value;
+    }
+
+    private static String getSql(final CsvExportDataset dataset) {
+        return switch (dataset) {
+            case VISITS -> VISITS_SQL;
+            case DAILY_STATS -> DAILY_STATS_SQL;
+            case VISITOR_LOGS -> VISITOR_LOGS_SQL;
+        };
+    }
+
+    private static Object[] getParameters(final CsvExportDataset dataset,
+                                          final LocalDate startDate,
+                                          final LocalDate endDate) {
+        if (dataset == CsvExportDataset.VISITOR_LOGS) {
+            return new Object[]{startDate, endDate};
+        }
+        return new Object[]{startDate.atStartOfDay(), endDate.plusDays(1).atStartOfDay()};
+    }
+}
@@ -5,55 +5,121 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
 import org.telegram.telegrambots.meta.api.objects.InputFile;
+import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 import ru.cs.vsu.social_network.telegram_bot.bot.GymTelegramBot;
+import ru.cs.vsu.social_network.telegram_bot.exception.MessageDeliveryException;
 import ru.cs.vsu.social_network.telegram_bot.service.DocumentSenderService;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingPlanArchiveService;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
 
-import java.io.File;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
 
 @Slf4j
 @Service
 public class DocumentSenderServiceImpl implements DocumentSenderService {
 
     private static final String SERVICE_NAME = "ДОКУМЕНТ_СЕРВИС";
+    private static final int BAD_REQUEST_CODE = 400;
 
     private final ApplicationContext applicationContext;
+    private final TrainingPlanArchiveService trainingPlanArchiveService;
 
-    public DocumentSenderServiceImpl(ApplicationContext applicationContext) {
+    public DocumentSenderServiceImpl(ApplicationContext applicationContext,
+                                     TrainingPlanArchiveService trainingPlanArchiveService) {
         this.applicationContext = applicationContext;
+        this.trainingPlanArchiveService = trainingPlanArchiveService;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public void sendDocument(final Long telegramId,
-                             final File file,
-                             final String caption) {
-        log.info("{}_ОТПРАВКА_ДОКУМЕНТА_НАЧАЛО: отправка файла пользователю {}, файл: {}",
-                SERVICE_NAME, telegramId, file.getName());
+    public String sendDocument(final Long telegramId,
+                               final GeneratedDocument document,
+                               final String caption) {
+        log.info("{}_ОТПРАВКА_ДОКУМЕНТА_НАЧАЛО: отправка файла пользователю {}, файл: {}, размер: {} байт",
+                SERVICE_NAME, telegramId, document.fileName(), document.size());
 
-        try {
-            GymTelegramBot gymTelegramBot = applicationContext.getBean(GymTelegramBot.class);
+        final Message message = execute(telegramId, new InputFile(
+                new ByteArrayInputStream(document.content()), document.fileName()), caption);
 
-            if (gymTelegramBot == null) {
-                log.error("{}_БОТ_НЕ_НАЙДЕН: не удалось получить бота из контекста", SERVICE_NAME);
-                throw new RuntimeException("Бот не инициализирован");
-            }
+        log.info("{}_ОТПРАВКА_ДОКУМЕНТА_УСПЕХ: файл отправлен пользователю {}, файл: {}",
+                SERVICE_NAME, telegramId, document.fileName());
+
+        trainingPlanArchiveService.archive(document);
+
+        return message != null && message.getDocument() != null ? message.getDocument().getFileId() : null;
+    }
 
-            final SendDocument sendDocument = new SendDocument();
-            sendDocument.setChatId(telegramId.toString());
-            sendDocument.setDocument(new InputFile(file, file.getName()));
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean sendDocumentById(final Long telegramId, final String fileId, final String caption) {
+        log.info("{}_ОТПРАВКА_ПО_ID_НАЧАЛО: отправка ранее загруженного файла пользователю {}",
+                SERVICE_NAME, telegramId);
 
-            if (caption != null && !caption.isEmpty()) {
-                sendDocument.setCaption(caption);
+        try {
+            executeOrThrow(buildSendDocument(telegramId, new InputFile(fileId), caption));
+        } catch (TelegramApiRequestException e) {
+            if (isFileIdRejected(e)) {
+                log.warn("{}_ОТПРАВКА_ПО_ID_ОТКЛОНЕНА: пользователь {}, код {}, ответ: {}",
+                        SERVICE_NAME, telegramId, e.getErrorCode(), e.getApiResponse());
+                return false;
             }
+            log.error("{}_ОТПРАВКА_ПО_ID_ОШИБКА: пользователь {}, код {}, ответ: {}",
+                    SERVICE_NAME, telegramId, e.getErrorCode(), e.getApiResponse(), e);
+            throw new MessageDeliveryException("Не удалось отправить документ пользователю " + telegramId, e);
+        } catch (TelegramApiException e) {
+            log.error("{}_ОТПРАВКА_ПО_ID_ОШИБКА: пользователь {}: {}", SERVICE_NAME, telegramId, e.getMessage(), e);
+            throw new MessageDeliveryException("Не удалось отправить документ пользователю " + telegramId, e);
+        }
+
+        log.info("{}_ОТПРАВКА_ПО_ID_УСПЕХ: файл отправлен пользователю {} без повторной загрузки",
+                SERVICE_NAME, telegramId);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sendFile(final Long telegramId,
+                         final Path file,
+                         final String fileName,
+                         final String caption) {
+        log.info("{}_ОТПРАВКА_ФАЙЛА_НАЧАЛО: отправка файла пользователю {}, файл: {}",
+                SERVICE_NAME, telegramId, fileName);
 
-            gymTelegramBot.execute(sendDocument);
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            execute(telegramId, new InputFile(inputStream, fileName), caption);
+        } catch (IOException e) {
+            log.error("{}_ОТПРАВКА_ФАЙЛА_ОШИБКА_ЧТЕНИЯ: файл {}: {}", SERVICE_NAME, file, e.getMessage(), e);
+            throw new RuntimeException("Ошибка чтения файла для отправки: " + e.getMessage(), e);
+        }
 
-            log.info("{}_ОТПРАВКА_ДОКУМЕНТА_УСПЕХ: файл отправлен пользователю {}, файл: {}",
-                    SERVICE_NAME, telegramId, file.getName());
+        log.info("{}_ОТПРАВКА_ФАЙЛА_УСПЕХ: файл отправлен пользователю {}, файл: {}",
+                SERVICE_NAME, telegramId, fileName);
+    }
 
+    /**
+     * Отправляет документ через бота.
+     *
+     * @param telegramId Telegram ID пользователя
+     * @param inputFile содержимое и имя файла
+     * @param caption подпись к файлу
+     * @return отправленное сообщение
+     */
+    private Message execute(final Long telegramId, final InputFile inputFile, final String caption) {
+        try {
+            return executeOrThrow(buildSendDocument(telegramId, inputFile, caption));
         } catch (TelegramApiException e) {
             log.error("{}_ОТПРАВКА_ДОКУМЕНТА_ОШИБКА: не удалось отправить документ пользователю {}: {}",
                     SERVICE_NAME, telegramId, e.getMessage(), e);
@@ -64,4 +130,39 @@ public class DocumentSenderServiceImpl implements DocumentSenderService {
             throw new RuntimeException("Ошибка отправки документа: " + e.getMessage(), e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Проверяет, что Telegram отклонил именно идентификатор файла, а не запрос в целом.
+     * Ограничение частоты (429), блокировка бота пользователем (403) и прочие ошибки
+     * не означают, что идентификатор устарел, и не должны приводить к его удалению из кеша.
+     */
+    private boolean isFileIdRejected(final TelegramApiRequestException e) {
+        if (e.getErrorCode() == null || e.getErrorCode() != BAD_REQUEST_CODE || e.getApiResponse() == null) {
+            return false;
+        }
+        final String response = e.getApiResponse().toLowerCase(Locale.ROOT);
+        return response.contains("file identifier") || response.contains("file_id");
+    }
+
+    private SendDocument buildSendDocument(final Long telegramId, final InputFile inputFile, final String caption) {
+        final SendDocument sendDocument = new SendDocument();
+        sendDocument.setChatId(telegramId.toString());
+        sendDocument.setDocument(inputFile);
+
+        if (caption != null && !caption.isEmpty()) {
+            sendDocument.setCaption(caption);
+        }
+        return sendDocument;
+    }
+
+    private Message executeOrThrow(final SendDocument sendDocument) throws TelegramApiException {
+        GymTelegramBot gymTelegramBot = applicationContext.getBean(GymTelegramBot.class);
+
+        if (gymTelegramBot == null) {
+            log.error("{}_БОТ_НЕ_НАЙДЕН: не удалось получить бота из контекста", SERVICE_NAME);
+            throw new RuntimeException("Бот не инициализирован");
+        }
+
+        return gymTelegramBot.execute(sendDocument);
+    }
+}
@@ -2,55 +2,75 @@ package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
 
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Service;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
 import ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException;
 import ru.cs.vsu.social_network.telegram_bot.provider.UserTrainingEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.service.ExcelTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingCycleRegistry;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.RenderedArtifactCache;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanCatalog;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanFileCache;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
 import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
 import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.CompiledTrainingTemplate;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingFormulaCompiler;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanTable;
 
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.InputStream;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Реализация сервиса для генерации Excel файлов тренировочных планов.
  * Использует шаблоны Excel для создания персонализированных планов тренировок.
+ * Готовая книга записывается в буфер в памяти; книги вне каталога сохраняются в дисковом кеше
+ * с ключом из кода цикла, версии шаблона и значения жима и выдаются из него при повторном запросе.
+ * Для изображения книга не формируется: таблица плана собирается из скомпилированной модели шаблона.
  */
 @Slf4j
 @Service
 public class ExcelTrainingServiceImpl implements ExcelTrainingService {
 
-    @Value("${training.template.path:training_cycles/gusenica_cycle.xlsx}")
-    private String templatePath;
-
-    @Value("${training.output.dir:generatedTrainingPlans}")
-    private String outputDirPath;
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
 
     private final UserTrainingEntityProvider userTrainingEntityProvider;
+    private final TrainingTemplateCache trainingTemplateCache;
+    private final TrainingPlanCatalog trainingPlanCatalog;
+    private final TrainingCycleRegistry trainingCycleRegistry;
+    private final RenderedArtifactCache renderedArtifactCache;
 
     /**
-     * Конструктор для внедрения зависимости провайдера данных пользователя.
+     * Конструктор для внедрения зависимостей провайдера данных пользователя, кеша шаблонов,
+     * каталога готовых планов, реестра тренировочных циклов и дискового кеша.
      *
      * @param userTrainingEntityProvider провайдер данных тренировок пользователя
+     * @param trainingTemplateCache кеш разобранных шаблонов
+     * @param trainingPlanCatalog каталог заранее сгенерированных планов
+     * @param trainingCycleRegistry реестр тренировочных циклов
+     * @param renderedArtifactCache дисковый кеш готовых планов
      */
-    public ExcelTrainingServiceImpl(UserTrainingEntityProvider userTrainingEntityProvider) {
+    public ExcelTrainingServiceImpl(UserTrainingEntityProvider userTrainingEntityProvider,
+                                    TrainingTemplateCache trainingTemplateCache,
+                                    TrainingPlanCatalog trainingPlanCatalog,
+                                    TrainingCycleRegistry trainingCycleRegistry,
+                                    RenderedArtifactCache renderedArtifactCache) {
         this.userTrainingEntityProvider = userTrainingEntityProvider;
+        this.trainingTemplateCache = trainingTemplateCache;
+        this.trainingPlanCatalog = trainingPlanCatalog;
+        this.trainingCycleRegistry = trainingCycleRegistry;
+        this.renderedArtifactCache = renderedArtifactCache;
     }
 
     /** {@inheritDoc} */
     @Override
-    public File generateTrainingPlan(UUID userId, UserBenchPressRequest userBenchPressRequest) {
+    public GeneratedDocument generateTrainingPlan(UUID userId, UserBenchPressRequest userBenchPressRequest) {
         log.info("EXCEL_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_НАЧАЛО: пользователь {}, жим лежа: {} кг",
                 userId, userBenchPressRequest.getMaxBenchPress());
 
@@ -80,107 +100,121 @@ public class ExcelTrainingServiceImpl implements ExcelTrainingService {
                         logPrefix);
             }
 
-            log.info("{}_ШАБЛОН_ЗАГРУЗКА: путь '{}'", logPrefix, templatePath);
-
-            ClassPathResource resource = new ClassPathResource(templatePath);
-
-            validateTemplateResource(resource, logPrefix);
-
-            log.info("{}_ДИРЕКТОРИЯ_СОЗДАНИЕ: {}", logPrefix, outputDirPath);
-            Path outputDir = createOutputDirectory(outputDirPath, logPrefix);
+            double benchPressValue = userBenchPressRequest.getMaxBenchPress();
+            TrainingCycle trainingCycle = trainingCycleRegistry.resolve(userBenchPressRequest.getTrainingCycle());
+            log.info("{}_ЦИКЛ: {}", logPrefix, trainingCycle.code());
 
-            log.info("{}_EXCEL_ОТКРЫТИЕ: начало чтения шаблона", logPrefix);
-
-            try (InputStream inputStream = resource.getInputStream()) {
-                Workbook workbook = ExcelUtils.createWorkbook(new File(templatePath), inputStream);
+            Optional<byte[]> catalogWorkbook =
+                    trainingPlanCatalog.findWorkbook(trainingCycle.templatePath(), benchPressValue);
+            byte[] content;
+            if (catalogWorkbook.isPresent()) {
+                log.info("{}_КАТАЛОГ_ПОПАДАНИЕ: книга для {} кг взята из каталога", logPrefix, benchPressValue);
+                content = catalogWorkbook.get();
+            } else {
+                content = findOrRenderWorkbook(trainingCycle, benchPressValue, logPrefix);
+            }
 
-                log.info("{}_EXCEL_ШАБЛОН_ПРОЧИТАН: листов в книге {}", logPrefix,
-                        workbook.getNumberOfSheets());
+            GeneratedDocument document = new GeneratedDocument(buildFileName(userId), content);
 
-                Sheet sheet = ExcelUtils.getFirstSheet(workbook);
+            log.info("EXCEL_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_УСПЕХ: пользователь {}, файл: {}, размер {} байт",
+                    userId, document.fileName(), document.size());
 
-                writeBenchPressValue(sheet, userBenchPressRequest.getMaxBenchPress(), logPrefix);
+            return document;
 
-                recalculateFormulas(workbook, logPrefix);
+        } catch (GenerateTrainingPlanException e) {
+            log.error("{}_ГЕНЕРАЦИЯ_ОШИБКА: {}", logPrefix, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("EXCEL_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_ОШИБКА: пользователь {}, ошибка: {}",
+                    userId, e.getMessage(), e);
+            throw new GenerateTrainingPlanException(MessageConstants.GENERATE_PLAN_FAILURE);
+        }
+    }
 
-                Path outputPath = createOutputFilePath(userId, outputDir, logPrefix);
+    /** {@inheritDoc} */
+    @Override
+    public byte[] renderTrainingPlan(TrainingCycle trainingCycle, double maxBenchPress) {
+        String logPrefix = "EXCEL_ТРЕНИРОВОЧНЫЙ_ПЛАН";
+        String templatePath = trainingCycle.templatePath();
 
-                saveWorkbookToFile(workbook, outputPath, logPrefix);
+        log.info("{}_ШАБЛОН_ЗАГРУЗКА: путь '{}'", logPrefix, templatePath);
 
-                workbook.close();
+        try (Workbook workbook = trainingTemplateCache.openWorkbook(templatePath)) {
+            log.info("{}_EXCEL_ШАБЛОН_ПРОЧИТАН: листов в книге {}", logPrefix,
+                    workbook.getNumberOfSheets());
 
-                long fileSize = Files.size(outputPath);
-                log.info("{}_ФАЙЛ_УСПЕШНО_СОЗДАН: размер {} байт, путь: {}",
-                        logPrefix, fileSize, outputPath.toAbsolutePath());
+            Sheet sheet = ExcelUtils.getFirstSheet(workbook);
 
-                File resultFile = outputPath.toFile();
-                log.info("EXCEL_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_УСПЕХ: пользователь {}, файл: {}",
-                        userId, resultFile.getAbsolutePath());
+            writeBenchPressValue(sheet, maxBenchPress, logPrefix);
 
-                return resultFile;
+            fillFormulaResults(workbook, sheet, templatePath, maxBenchPress, logPrefix);
 
-            } catch (Exception e) {
-                log.error("{}_ОШИБКА_ОБРАБОТКИ_EXCEL: {}", logPrefix, e.getMessage(), e);
-                throw new GenerateTrainingPlanException("Ошибка обработки Excel файла: " + e.getMessage());
-            }
+            return writeWorkbook(workbook, logPrefix);
 
         } catch (GenerateTrainingPlanException e) {
-            log.error("{}_ГЕНЕРАЦИЯ_ОШИБКА: {}", logPrefix, e.getMessage());
             throw e;
         } catch (Exception e) {
-            log.error("EXCEL_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_ОШИБКА: пользователь {}, ошибка: {}",
-                    userId, e.getMessage(), e);
-            throw new GenerateTrainingPlanException(MessageConstants.GENERATE_PLAN_FAILURE);
+            log.error("{}_ОШИБКА_ОБРАБОТКИ_EXCEL: {}", logPrefix, e.getMessage(), e);
+            throw new GenerateTrainingPlanException("Ошибка обработки Excel файла: " + e.getMessage());
         }
     }
 
-    /**
-     * Проверяет доступность ресурса шаблона.
-     *
-     * @param resource ресурс шаблона
-     * @param logPrefix префикс для логирования
-     * @throws GenerateTrainingPlanException если ресурс недоступен
-     */
-    private void validateTemplateResource(ClassPathResource resource, String logPrefix) {
-        if (!resource.exists()) {
-            log.error("{}_ШАБЛОН_НЕ_НАЙДЕН: {}", logPrefix, templatePath);
+    /** {@inheritDoc} */
+    @Override
+    public TrainingPlanTable buildPlanTable(TrainingCycle trainingCycle, double maxBenchPress) {
+        String logPrefix = "ТАБЛИЦА_ТРЕНИРОВОЧНЫЙ_ПЛАН";
+        String templatePath = trainingCycle.templatePath();
+
+        Optional<CompiledTrainingTemplate> compiledTemplate = trainingTemplateCache.getCompiledTemplate(templatePath);
+        if (compiledTemplate.isPresent()) {
             try {
-                log.error("{}_ШАБЛОН_ПОЛНЫЙ_ПУТЬ: {}", logPrefix, resource.getURL());
-            } catch (Exception urlEx) {
-                log.error("{}_ШАБЛОН_URL_ОШИБКА: {}", logPrefix, urlEx.getMessage());
+                TrainingPlanTable table = compiledTemplate.get().buildTable(maxBenchPress)
+                        .withLayoutKey(templatePath + "@" + trainingTemplateCache.getTemplateVersion(templatePath));
+                log.info("{}_ИЗ_МОДЕЛИ: цикл {}, жим {} кг, строк {}",
+                        logPrefix, trainingCycle.code(), maxBenchPress, table.getRowCount());
+                return table;
+            } catch (ArithmeticException e) {
+                log.warn("{}_МОДЕЛЬ_ОШИБКА: {}, вычисление через POI", logPrefix, e.getMessage());
             }
-            throw new GenerateTrainingPlanException("Шаблон тренировочного плана не найден: " + templatePath);
         }
 
-        try {
-            long fileSize = resource.contentLength();
-            log.info("{}_ШАБЛОН_РАЗМЕР: {} байт", logPrefix, fileSize);
+        log.info("{}_ИЗ_КНИГИ: цикл {}, жим {} кг", logPrefix, trainingCycle.code(), maxBenchPress);
 
-            if (fileSize == 0) {
-                log.error("{}_ШАБЛОН_ПУСТОЙ: файл имеет размер 0 байт", logPrefix);
-                throw new GenerateTrainingPlanException("Файл шаблона пустой");
-            }
-        } catch (Exception sizeEx) {
-            log.warn("{}_ШАБЛОН_РАЗМЕР_ОШИБКА: не удалось определить размер файла: {}",
-                    logPrefix, sizeEx.getMessage());
+        try (Workbook workbook = trainingTemplateCache.openWorkbook(templatePath)) {
+            Sheet sheet = ExcelUtils.getFirstSheet(workbook);
+            writeBenchPressValue(sheet, maxBenchPress, logPrefix);
+            recalculateFormulas(workbook, logPrefix);
+            return TrainingPlanTable.fromSheet(sheet, sheet.getLastRowNum() + 1);
+        } catch (GenerateTrainingPlanException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("{}_ОШИБКА: {}", logPrefix, e.getMessage(), e);
+            throw new GenerateTrainingPlanException("Ошибка обработки Excel файла: " + e.getMessage());
         }
     }
 
     /**
-     * Создает выходную директорию если она не существует.
+     * Возвращает книгу из дискового кеша или формирует ее и сохраняет в кеш.
      *
-     * @param outputDirPath путь к директории
+     * @param trainingCycle тренировочный цикл
+     * @param benchPressValue значение жима лежа
      * @param logPrefix префикс для логирования
-     * @return путь к созданной директории
-     * @throws Exception если не удалось создать директорию
+     * @return содержимое книги в формате XLSX
      */
-    private Path createOutputDirectory(String outputDirPath, String logPrefix) throws Exception {
-        Path outputDir = Paths.get(outputDirPath);
-        if (!Files.exists(outputDir)) {
-            Files.createDirectories(outputDir);
-            log.info("{}_ДИРЕКТОРИЯ_СОЗДАНА: {}", logPrefix, outputDir.toAbsolutePath());
+    private byte[] findOrRenderWorkbook(TrainingCycle trainingCycle, double benchPressValue, String logPrefix) {
+        String cacheKey = String.format(Locale.ROOT, "%s_%s_x%d_%.2f", trainingCycle.code(),
+                trainingTemplateCache.getTemplateVersion(trainingCycle.templatePath()), OUTPUT_VERSION,
+                TrainingPlanFileCache.normalizeBenchPress(benchPressValue));
+
+        Optional<byte[]> cachedWorkbook = renderedArtifactCache.getWorkbook(cacheKey);
+        if (cachedWorkbook.isPresent()) {
+            log.info("{}_ДИСК_ПОПАДАНИЕ: книга {} взята из дискового кеша", logPrefix, cacheKey);
+            return cachedWorkbook.get();
         }
-        return outputDir;
+
+        byte[] content = renderTrainingPlan(trainingCycle, benchPressValue);
+        renderedArtifactCache.putWorkbook(cacheKey, content);
+        return content;
     }
 
     /**
@@ -194,8 +228,8 @@ public class ExcelTrainingServiceImpl implements ExcelTrainingService {
         log.info("{}_ДАННЫЕ_ЗАПИСЬ: максимальный жим лежа {} кг в ячейку B2",
                 logPrefix, benchPressValue);
 
-        int baseRow = 2;
-        int baseColumn = 1;
+        int baseRow = TrainingFormulaCompiler.BENCH_PRESS_ROW;
+        int baseColumn = TrainingFormulaCompiler.BENCH_PRESS_COLUMN;
 
         Row row = sheet.getRow(baseRow);
         if (row == null) {
@@ -215,6 +249,32 @@ public class ExcelTrainingServiceImpl implements ExcelTrainingService {
                 logPrefix, benchPressValue, baseRow + 1);
     }
 
+    /**
+     * Заполняет результаты формул значениями скомпилированной модели шаблона.
+     * Если шаблон не удалось скомпилировать или модель дала ошибку,
+     * формулы пересчитываются через FormulaEvaluator.
+     *
+     * @param workbook книга Excel
+     * @param sheet лист с программой
+     * @param templatePath путь к шаблону
+     * @param benchPressValue значение жима лежа
+     * @param logPrefix префикс для логирования
+     */
+    private void fillFormulaResults(Workbook workbook, Sheet sheet, String templatePath,
+                                    double benchPressValue, String logPrefix) {
+        Optional<CompiledTrainingTemplate> compiledTemplate = trainingTemplateCache.getCompiledTemplate(templatePath);
+        if (compiledTemplate.isPresent()) {
+            try {
+                compiledTemplate.get().writeResults(sheet, benchPressValue);
+                log.info("{}_ФОРМУЛЫ_ИЗ_МОДЕЛИ: записано значений {}", logPrefix, compiledTemplate.get().size());
+                return;
+            } catch (ArithmeticException e) {
+                log.warn("{}_ФОРМУЛЫ_МОДЕЛЬ_ОШИБКА: {}, пересчет через POI", logPrefix, e.getMessage());
+            }
+        }
+        recalculateFormulas(workbook, logPrefix);
+    }
+
     /**
      * Пересчитывает формулы в книге Excel.
      *
@@ -229,34 +289,28 @@ public class ExcelTrainingServiceImpl implements ExcelTrainingService {
     }
 
     /**
-     * Создает путь для выходного файла.
+     * Формирует имя файла, под которым пользователь получит программу.
      *
      * @param userId идентификатор пользователя
-     * @param outputDir выходная директория
-     * @param logPrefix префикс для логирования
-     * @return путь к выходному файлу
+     * @return имя файла
      */
-    private Path createOutputFilePath(UUID userId, Path outputDir, String logPrefix) {
+    private String buildFileName(UUID userId) {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = String.format("training_plan_%s_%s.xlsx", userId, timestamp);
-        Path outputPath = outputDir.resolve(filename);
-
-        log.info("{}_ФАЙЛ_СОЗДАНИЕ: {}", logPrefix, outputPath.toAbsolutePath());
-        return outputPath;
+        return String.format("training_plan_%s_%s.xlsx", userId, timestamp);
     }
 
     /**
-     * Сохраняет книгу Excel в файл.
+     * Записывает книгу Excel в массив байт.
      *
      * @param workbook книга Excel
-     * @param outputPath путь к выходному файлу
      * @param logPrefix префикс для логирования
-     * @throws Exception если не удалось сохранить файл
+     * @return содержимое книги в формате XLSX
+     * @throws Exception если не удалось записать книгу
      */
-    private void saveWorkbookToFile(Workbook workbook, Path outputPath, String logPrefix) throws Exception {
-        try (FileOutputStream fileOut = new FileOutputStream(outputPath.toFile())) {
-            workbook.write(fileOut);
-            log.info("{}_ФАЙЛ_СОХРАНЕН: {}", logPrefix, outputPath.toAbsolutePath());
-        }
+    private byte[] writeWorkbook(Workbook workbook, String logPrefix) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        workbook.write(outputStream);
+        log.info("{}_КНИГА_ЗАПИСАНА: {} байт", logPrefix, outputStream.size());
+        return outputStream.toByteArray();
     }
-}
\ No newline at end of file
+}
@@ -7,126 +7,145 @@ import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
 import ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException;
 import ru.cs.vsu.social_network.telegram_bot.service.ExcelTrainingService;
 import ru.cs.vsu.social_network.telegram_bot.service.ImageTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingCycleRegistry;
 import ru.cs.vsu.social_network.telegram_bot.service.cache.ImageCacheService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.RenderedArtifactCache;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanCatalog;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
 import ru.cs.vsu.social_network.telegram_bot.service.image.ExcelToImageConverter;
-import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+import ru.cs.vsu.social_network.telegram_bot.service.image.ImageEncoder;
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
 import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanTable;
 
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * Реализация сервиса для генерации изображений тренировочных планов.
  * Координирует работу ExcelTrainingService и ExcelToImageConverter,
- * управляет кэшированием изображений.
+ * управляет кэшированием закодированных изображений. Сначала проверяется каталог готовых планов,
+ * затем кеш изображений в куче, затем дисковый кеш, и только после этого выполняется генерация.
+ * Попадание в дисковый кеш переносится в кеш в куче.
+ * Изображение рисуется напрямую из таблицы плана, собранной по скомпилированному шаблону:
+ * книга Excel при этом не создается, не записывается и не разбирается повторно.
  */
 @Slf4j
 @Service
 public class ImageTrainingServiceImpl implements ImageTrainingService {
 
-    @Value("${training.image.output.dir:generatedTrainingImages}")
-    private String imageOutputDirPath;
-
     @Value("${training.image.format:png}")
     private String defaultImageFormat;
 
-    @Value("${training.template.path:training_cycles/gusenica_cycle.xlsx}")
-    private String templatePath;
-
     private final ExcelTrainingService excelTrainingService;
     private final ExcelToImageConverter excelToImageConverter;
+    private final ImageEncoder imageEncoder;
     private final ImageCacheService imageCacheService;
+    private final TrainingPlanCatalog trainingPlanCatalog;
+    private final TrainingCycleRegistry trainingCycleRegistry;
+    private final TrainingTemplateCache trainingTemplateCache;
+    private final RenderedArtifactCache renderedArtifactCache;
 
     public ImageTrainingServiceImpl(ExcelTrainingService excelTrainingService,
                                     ExcelToImageConverter excelToImageConverter,
-                                    ImageCacheService imageCacheService) {
+                                    ImageEncoder imageEncoder,
+                                    ImageCacheService imageCacheService,
+                                    TrainingPlanCatalog trainingPlanCatalog,
+                                    TrainingCycleRegistry trainingCycleRegistry,
+                                    TrainingTemplateCache trainingTemplateCache,
+                                    RenderedArtifactCache renderedArtifactCache) {
         this.excelTrainingService = excelTrainingService;
         this.excelToImageConverter = excelToImageConverter;
+        this.imageEncoder = imageEncoder;
         this.imageCacheService = imageCacheService;
+        this.trainingPlanCatalog = trainingPlanCatalog;
+        this.trainingCycleRegistry = trainingCycleRegistry;
+        this.trainingTemplateCache = trainingTemplateCache;
+        this.renderedArtifactCache = renderedArtifactCache;
     }
 
     /** {@inheritDoc} */
     @Override
-    public File generateTrainingPlanImage(UUID userId, UserBenchPressRequest userBenchPressRequest) {
+    public GeneratedDocument generateTrainingPlanImage(UUID userId, UserBenchPressRequest userBenchPressRequest) {
         log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_НАЧАЛО: пользователь {} жим лежа {} кг",
                 userId, userBenchPressRequest.getMaxBenchPress());
 
         try {
-            if (imageCacheService.isCacheEnabled()) {
-                String simpleCacheKey = imageCacheService.generateSimpleCacheKey(
-                        userBenchPressRequest.getMaxBenchPress(),
-                        templatePath
-                );
+            TrainingCycle trainingCycle = trainingCycleRegistry.resolve(userBenchPressRequest.getTrainingCycle());
+            Optional<byte[]> catalogImage = trainingPlanCatalog.findImage(
+                    trainingCycle.templatePath(), userBenchPressRequest.getMaxBenchPress());
+            if (catalogImage.isPresent()) {
+                GeneratedDocument document = new GeneratedDocument(buildFileName(userId), catalogImage.get());
 
-                BufferedImage cachedImage = imageCacheService.getImageFromCache(simpleCacheKey);
+                log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_КАТАЛОГ_ПОПАДАНИЕ: файл {} размер {} байт",
+                        document.fileName(), document.size());
 
-                if (cachedImage != null) {
-                    log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_КЕШ_ПОПАДАНИЕ: изображение загружено из кеша ключ {}",
-                            simpleCacheKey);
+                return document;
+            }
 
-                    Path outputPath = createOutputPath(userId);
-                    saveImageToFile(cachedImage, outputPath);
+            String simpleCacheKey = imageCacheService.generateSimpleCacheKey(
+                    userBenchPressRequest.getMaxBenchPress(),
+                    buildCacheTemplateName(trainingCycle)
+            );
 
-                    log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ИЗ_КЕША_СОЗДАНО: файл {} размер {}x{}",
-                            outputPath.toAbsolutePath(), cachedImage.getWidth(), cachedImage.getHeight());
+            if (imageCacheService.isCacheEnabled()) {
+                Optional<EncodedImage> cachedImage = imageCacheService.getImage(simpleCacheKey);
+
+                if (cachedImage.isPresent()) {
+                    GeneratedDocument document = new GeneratedDocument(buildFileName(userId), cachedImage.get().content());
+
+                    log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_КЕШ_ПОПАДАНИЕ: ключ {} файл {} размер {}x{} {} байт",
+                            simpleCacheKey, document.fileName(), cachedImage.get().width(),
+                            cachedImage.get().height(), document.size());
 
-                    return outputPath.toFile();
+                    return document;
                 } else {
                     log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_КЕШ_ПРОМАХ: ключ {} не найден в кеше",
                             simpleCacheKey);
                 }
             }
 
-            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_EXCEL_ГЕНЕРАЦИЯ: создание Excel файла для пользователя {}", userId);
+            Optional<EncodedImage> diskImage = renderedArtifactCache.getImage(simpleCacheKey);
+            if (diskImage.isPresent()) {
+                imageCacheService.putImage(simpleCacheKey, diskImage.get());
+                GeneratedDocument document = new GeneratedDocument(buildFileName(userId), diskImage.get().content());
 
-            File excelFile = excelTrainingService.generateTrainingPlan(userId, userBenchPressRequest);
-            validateGeneratedExcelFile(excelFile);
+                log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ДИСК_ПОПАДАНИЕ: ключ {} файл {} размер {} байт",
+                        simpleCacheKey, document.fileName(), document.size());
 
-            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_КОНВЕРТАЦИЯ_В_ИЗОБРАЖЕНИЕ: формат {}", defaultImageFormat);
+                return document;
+            }
 
-            BufferedImage image = excelToImageConverter.convertExcelToImage(excelFile, defaultImageFormat);
-            validateGeneratedImage(image);
+            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ДАННЫЕ_ПЛАНА: цикл {} для пользователя {}",
+                    trainingCycle.code(), userId);
 
-            Path outputPath = createOutputPath(userId);
-            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_СОХРАНЕНИЕ_ИЗОБРАЖЕНИЯ {}", outputPath.toAbsolutePath());
+            TrainingPlanTable planTable = excelTrainingService.buildPlanTable(
+                    trainingCycle, userBenchPressRequest.getMaxBenchPress());
 
-            saveImageToFile(image, outputPath);
+            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ОТРИСОВКА: формат {}", defaultImageFormat);
 
-            long fileSize = Files.size(outputPath);
-            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ИЗОБРАЖЕНИЕ_СОХРАНЕНО: размер {} байт путь {}",
-                    fileSize, outputPath.toAbsolutePath());
+            BufferedImage image = excelToImageConverter.renderPlanToImage(planTable);
+            validateGeneratedImage(image);
 
-            File resultImage = outputPath.toFile();
+            EncodedImage encodedImage = imageEncoder.encode(image, defaultImageFormat);
+            GeneratedDocument document = new GeneratedDocument(buildFileName(userId), encodedImage.content());
 
             if (imageCacheService.isCacheEnabled()) {
-                String simpleCacheKey = imageCacheService.generateSimpleCacheKey(
-                        userBenchPressRequest.getMaxBenchPress(),
-                        templatePath
-                );
-
-                imageCacheService.cacheImage(
-                        simpleCacheKey,
-                        image,
-                        outputPath.toString(),
-                        image.getWidth(),
-                        image.getHeight()
-                );
+                imageCacheService.putImage(simpleCacheKey, encodedImage);
 
                 log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_КЕШ_СОХРАНЕНО: ключ {}", simpleCacheKey);
             }
+            renderedArtifactCache.putImage(simpleCacheKey, encodedImage);
 
-            ExcelUtils.deleteTempFile(excelFile);
-
-            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_УСПЕХ: пользователь {} файл {}",
-                    userId, resultImage.getAbsolutePath());
+            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_УСПЕХ: пользователь {} файл {} размер {} байт",
+                    userId, document.fileName(), document.size());
 
-            return resultImage;
+            return document;
 
         } catch (GenerateTrainingPlanException e) {
             log.error("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ГЕНЕРАЦИЯ_ОШИБКА: {}", e.getMessage());
@@ -139,21 +158,17 @@ public class ImageTrainingServiceImpl implements ImageTrainingService {
 
     /** {@inheritDoc} */
     @Override
-    public BufferedImage convertExcelToImage(File excelFile, String outputFormat) {
-        return excelToImageConverter.convertExcelToImage(excelFile, outputFormat);
+    public BufferedImage convertExcelToImage(byte[] workbookContent, String outputFormat) {
+        return excelToImageConverter.convertExcelToImage(workbookContent, outputFormat);
     }
 
     /**
-     * Проверяет сгенерированный Excel файл.
+     * Формирует имя шаблона для ключа кеша с учетом версии шаблона и версии итогового изображения,
+     * чтобы после замены файла цикла или изменения отрисовки не выдавались изображения старой версии.
      */
-    private void validateGeneratedExcelFile(File excelFile) {
-        if (excelFile == null || !excelFile.exists()) {
-            log.error("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_EXCEL_ФАЙЛ_НЕ_СОЗДАН: не удалось создать Excel файл");
-            throw new GenerateTrainingPlanException("Не удалось создать Excel файл для конвертации");
-        }
-
-        log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_EXCEL_ФАЙЛ_СОЗДАН: размер {} байт путь {}",
-                excelFile.length(), excelFile.getAbsolutePath());
+    private String buildCacheTemplateName(TrainingCycle trainingCycle) {
+        return trainingCycle.code() + "_" + trainingTemplateCache.getTemplateVersion(trainingCycle.templatePath())
+                + "_" + imageEncoder.getOutputVersion();
     }
 
     /**
@@ -170,24 +185,10 @@ public class ImageTrainingServiceImpl implements ImageTrainingService {
     }
 
     /**
-     * Создает путь для сохранения изображения.
+     * Формирует имя файла изображения для пользователя.
      */
-    private Path createOutputPath(UUID userId) throws Exception {
-        Path imageOutputDir = Paths.get(imageOutputDirPath);
-        if (!Files.exists(imageOutputDir)) {
-            Files.createDirectories(imageOutputDir);
-            log.info("ИЗОБРАЖЕНИЕ_ТРЕНИРОВОЧНЫЙ_ПЛАН_ДИРЕКТОРИЯ_СОЗДАНИЕ {}", imageOutputDir.toAbsolutePath());
-        }
-
+    private String buildFileName(UUID userId) {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = String.format("training_plan_%s_%s.%s", userId, timestamp, defaultImageFormat);
-        return imageOutputDir.resolve(filename);
-    }
-
-    /**
-     * Сохраняет изображение в файл.
-     */
-    private void saveImageToFile(BufferedImage image, Path outputPath) throws Exception {
-        ExcelUtils.saveImageWithCompression(image, defaultImageFormat, outputPath.toFile());
+        return String.format("training_plan_%s_%s.%s", userId, timestamp, defaultImageFormat);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,68 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Service;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import ru.cs.vsu.social_network.telegram_bot.bot.GymTelegramBot;
+import ru.cs.vsu.social_network.telegram_bot.exception.MessageDeliveryException;
+import ru.cs.vsu.social_network.telegram_bot.service.MessageSenderService;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportPageSplitter;
+
+import java.util.List;
+
+/**
+ * Реализация сервиса отправки текстовых сообщений по инициативе приложения.
+ * Бот зависит от сервисов приложения, поэтому берется из контекста при первой отправке
+ * и затем переиспользуется. Ошибки Telegram API оборачиваются в {@link MessageDeliveryException}.
+ */
+@Slf4j
+@Service
+public class MessageSenderServiceImpl implements MessageSenderService {
+
+    private static final String SERVICE_NAME = "СООБЩЕНИЕ_СЕРВИС";
+
+    private final ApplicationContext applicationContext;
+    private volatile GymTelegramBot gymTelegramBot;
+
+    public MessageSenderServiceImpl(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void sendMessage(final Long telegramId, final String text) {
+        log.info("{}_ОТПРАВКА_СООБЩЕНИЯ_НАЧАЛО: отправка сообщения пользователю {}, длина: {}",
+                SERVICE_NAME, telegramId, text.length());
+
+        final GymTelegramBot bot = getBot();
+        final List<String> parts = ReportPageSplitter.split(text, ReportPageSplitter.TELEGRAM_MESSAGE_LIMIT);
+        try {
+            for (final String part : parts) {
+                final SendMessage message = new SendMessage();
+                message.setChatId(telegramId.toString());
+                message.setText(part);
+                bot.execute(message);
+            }
+        } catch (TelegramApiException e) {
+            log.error("{}_ОТПРАВКА_СООБЩЕНИЯ_ОШИБКА: не удалось отправить сообщение пользователю {}: {}",
+                    SERVICE_NAME, telegramId, e.getMessage(), e);
+            throw new MessageDeliveryException("Не удалось отправить сообщение пользователю " + telegramId, e);
+        }
+
+        log.info("{}_ОТПРАВКА_СООБЩЕНИЯ_УСПЕХ: пользователю {} отправлено частей: {}",
+                SERVICE_NAME, telegramId, parts.size());
+    }
+
+    private GymTelegramBot getBot() {
+        GymTelegramBot bot = gymTelegramBot;
+        if (bot == null) {
+            bot = applicationContext.getBean(GymTelegramBot.class);
+            gymTelegramBot = bot;
+        }
+        return bot;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.ReportResponse;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitorLogResponse;
+import ru.cs.vsu.social_network.telegram_bot.entity.User;
+import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
+import ru.cs.vsu.social_network.telegram_bot.exception.MessageDeliveryException;
+import ru.cs.vsu.social_network.telegram_bot.provider.UserEntityProvider;
+import ru.cs.vsu.social_network.telegram_bot.service.MessageSenderService;
+import ru.cs.vsu.social_network.telegram_bot.service.NightlyReportService;
+import ru.cs.vsu.social_network.telegram_bot.service.ReportService;
+import ru.cs.vsu.social_network.telegram_bot.service.SchedulerLockService;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+/**
+ * Реализация ежевечернего закрытия дня.
+ * Задача защищена блокировкой в БД, поэтому при нескольких экземплярах
+ * приложения отчеты собираются и рассылаются один раз.
+ * Включается свойством app.scheduler.report.enabled: в профиле prod включена по умолчанию,
+ * в локальной и dev-конфигурации выключена.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.scheduler.report.enabled", havingValue = "true")
+public class NightlyReportServiceImpl implements NightlyReportService {
+
+    private static final String SERVICE_NAME = "ВЕЧЕРНИЙ_ОТЧЕТ_СЕРВИС";
+    private static final String LOCK_NAME = "nightly_report";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+
+    private final ReportService reportService;
+    private final UserEntityProvider userEntityProvider;
+    private final MessageSenderService messageSenderService;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${app.scheduler.report.lock-at-most-for:PT30M}")
+    private Duration lockAtMostFor = Duration.ofMinutes(30);
+
+    @Value("${app.scheduler.report.lock-at-least-for:PT5M}")
+    private Duration lockAtLeastFor = Duration.ofMinutes(5);
+
+    public NightlyReportServiceImpl(final ReportService reportService,
+                                    final UserEntityProvider userEntityProvider,
+                                    final MessageSenderService messageSenderService,
+                                    final SchedulerLockService schedulerLockService) {
+        this.reportService = reportService;
+        this.userEntityProvider = userEntityProvider;
+        this.messageSenderService = messageSenderService;
+        this.schedulerLockService = schedulerLockService;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Scheduled(cron = "${app.scheduler.report.cron:0 0 20 * * ?}")
+    public void runScheduledReport() {
+        final LocalDate today = LocalDate.now();
+
+        final boolean executed = schedulerLockService.runExclusively(
+                LOCK_NAME, lockAtMostFor, lockAtLeastFor, () -> publishDailyReports(today));
+
+        if (!executed) {
+            log.info("{}_ЗАПУСК_ПРОПУЩЕН: отчет за {} формируется другим экземпляром", SERVICE_NAME, today);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int publishDailyReports(final LocalDate date) {
+        log.info("{}_ЗАКРЫТИЕ_ДНЯ_НАЧАЛО: дата: {}", SERVICE_NAME, date);
+
+        final VisitorLogResponse dailyReport = reportService.finalizeDailyReport(date);
+
+        final LocalDate weekStart = date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        final ReportResponse weekReport = reportService.precomputePeriodReport(weekStart, date);
+
+        final String dailyText = "Отчет посещений за " + date.format(DATE_FORMATTER) + "\n\n" +
+                dailyReport.getFormattedReport();
+        final String weekText = weekReport.getTelegramFormattedReport();
+
+        final List<User> admins = userEntityProvider.findAllByRole(ROLE.ADMIN);
+        int delivered = 0;
+        for (final User admin : admins) {
+            if (admin.getTelegramId() == null) {
+                continue;
+            }
+            try {
+                messageSenderService.sendMessage(admin.getTelegramId(), dailyText);
+                messageSenderService.sendMessage(admin.getTelegramId(), weekText);
+                delivered++;
+            } catch (MessageDeliveryException e) {
+                log.error("{}_РАССЫЛКА_ОШИБКА: не удалось отправить отчеты администратору {}: {}",
+                        SERVICE_NAME, admin.getTelegramId(), e.getMessage());
+            }
+        }
+
+        log.info("{}_ЗАКРЫТИЕ_ДНЯ_УСПЕХ: дата: {}, посетителей: {}, отчеты отправлены {} из {} администраторов",
+                SERVICE_NAME, date, dailyReport.getVisitorCount(), delivered, admins.size());
+
+        return delivered;
+    }
+}
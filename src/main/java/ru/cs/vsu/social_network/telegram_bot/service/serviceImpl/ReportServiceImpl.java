@@ -1,40 +1,51 @@
 package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageCursor;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.DailyStatsResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.ReportResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitorLogResponse;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
 import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLog;
+import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLogEntry;
 import ru.cs.vsu.social_network.telegram_bot.mapping.EntityMapper;
 import ru.cs.vsu.social_network.telegram_bot.provider.VisitEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.provider.VisitorLogEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.repository.VisitorLogRepository;
 import ru.cs.vsu.social_network.telegram_bot.service.ReportService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.VisitorLogDirtyTracker;
 import ru.cs.vsu.social_network.telegram_bot.utils.factory.VisitorLogFactory;
 import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportFormatterService;
 import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportStatisticsService;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitDataVersion;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitStatisticsAccumulator;
 import ru.cs.vsu.social_network.telegram_bot.validation.VisitorLogValidator;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Реализация сервиса для генерации отчетов и статистики посещений.
  * Координирует работу специализированных сервисов для формирования отчетов.
+ * Готовые отчеты кешируются вместе с версией данных о посещениях из общей БД,
+ * поэтому отметки, сделанные на других узлах приложения, делают кеш устаревшим.
  */
 @Slf4j
 @Service
 public class ReportServiceImpl implements ReportService {
 
     private static final String SERVICE_NAME = "ОТЧЕТ_СЕРВИС";
+    private static final int DAILY_REPORT_CACHE_DAYS = 7;
+    private static final int PERIOD_REPORT_CACHE_SIZE = 16;
 
     private final VisitEntityProvider visitEntityProvider;
     private final VisitorLogEntityProvider visitorLogEntityProvider;
@@ -44,6 +55,17 @@ public class ReportServiceImpl implements ReportService {
     private final EntityMapper entityMapper;
     private final ReportStatisticsService reportStatisticsService;
     private final ReportFormatterService reportFormatterService;
+    private final VisitorLogDirtyTracker visitorLogDirtyTracker;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<LocalDate, CachedReport<VisitorLogResponse>> dailyReportCache = new ConcurrentHashMap<>();
+    private final Map<String, CachedReport<ReportResponse>> periodReportCache =
+            Collections.synchronizedMap(new LinkedHashMap<>(PERIOD_REPORT_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, CachedReport<ReportResponse>> eldest) {
+                    return size() > PERIOD_REPORT_CACHE_SIZE;
+                }
+            });
 
     public ReportServiceImpl(final VisitEntityProvider visitEntityProvider,
                              final VisitorLogEntityProvider visitorLogEntityProvider,
@@ -52,7 +74,9 @@ public class ReportServiceImpl implements ReportService {
                              final VisitorLogValidator visitorLogValidator,
                              final EntityMapper entityMapper,
                              final ReportStatisticsService reportStatisticsService,
-                             final ReportFormatterService reportFormatterService) {
+                             final ReportFormatterService reportFormatterService,
+                             final VisitorLogDirtyTracker visitorLogDirtyTracker,
+                             final PlatformTransactionManager transactionManager) {
         this.visitEntityProvider = visitEntityProvider;
         this.visitorLogEntityProvider = visitorLogEntityProvider;
         this.visitorLogRepository = visitorLogRepository;
@@ -61,13 +85,16 @@ public class ReportServiceImpl implements ReportService {
         this.entityMapper = entityMapper;
         this.reportStatisticsService = reportStatisticsService;
         this.reportFormatterService = reportFormatterService;
+        this.visitorLogDirtyTracker = visitorLogDirtyTracker;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @Transactional
     public VisitorLogResponse generateDailyReport(final UUID adminUserId) {
         log.info("{}_ГЕНЕРАЦИЯ_ЕЖЕДНЕВНОГО_ОТЧЕТА_НАЧАЛО: администратор {}",
                 SERVICE_NAME, adminUserId);
@@ -75,21 +102,22 @@ public class ReportServiceImpl implements ReportService {
         visitorLogValidator.validateAdminAccessForLogs(adminUserId);
 
         final LocalDate today = LocalDate.now();
-        return generateAndSaveVisitorLog(today);
+        return findUpToDateVisitorLog(today)
+                .orElseGet(() -> generateAndSaveVisitorLog(today));
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    @Transactional
     public VisitorLogResponse generateDailyReportForDate(final UUID adminUserId, final LocalDate date) {
         log.info("{}_ГЕНЕРАЦИЯ_ОТЧЕТА_ПО_ДАТЕ_НАЧАЛО: " +
                 "администратор {}, дата: {}", SERVICE_NAME, adminUserId, date);
 
         visitorLogValidator.validateAdminAccessForLogs(adminUserId);
 
-        return generateAndSaveVisitorLog(date);
+        return findUpToDateVisitorLog(date)
+                .orElseGet(() -> generateAndSaveVisitorLog(date));
     }
 
     /**
@@ -105,54 +133,23 @@ public class ReportServiceImpl implements ReportService {
 
         visitorLogValidator.validateAdminAccessForLogs(adminUserId);
 
-        final List<Visit> visits = visitEntityProvider.findAllByDateRange(startDate, endDate);
-
-        final long[] overallStats = reportStatisticsService.calculateOverallStatistics(visits);
-        final long totalVisits = overallStats[0];
-        final long uniqueVisitors = overallStats[1];
-
-        final Map<LocalDate, List<Visit>> visitsByDate = reportStatisticsService.groupVisitsByDate(visits);
-
-        final int totalNewUsers = visitEntityProvider.countNewUsersByDateRange(startDate, endDate);
-
-        final Map<LocalDate, DailyStatsResponse> dailyStats = new TreeMap<>();
-        for (final Map.Entry<LocalDate, List<Visit>> entry : visitsByDate.entrySet()) {
-            final LocalDate date = entry.getKey();
-            final List<Visit> dailyVisits = entry.getValue();
-
-            final DailyStatsResponse dailyStat = reportStatisticsService.createDailyStats(date, dailyVisits);
-            dailyStats.put(date, dailyStat);
+        final String cacheKey = periodCacheKey(startDate, endDate);
+        final VisitDataVersion version = visitEntityProvider.getDataVersion(startDate, endDate);
+        final CachedReport<ReportResponse> cached = periodReportCache.get(cacheKey);
+        if (cached != null && Objects.equals(cached.version(), version)) {
+            log.info("{}_ОТЧЕТ_ЗА_ПЕРИОД_ИЗ_КЕША: отчет за период {} - {} выдан без чтения посещений",
+                    SERVICE_NAME, startDate, endDate);
+            return cached.report();
         }
 
-        final double averageDailyVisits = reportStatisticsService.calculateAverageDailyVisits(
-                totalVisits, dailyStats.size());
-
-        final String telegramReport = reportFormatterService.formatPeriodTelegramReport(
-                startDate, endDate, dailyStats,
-                totalVisits, uniqueVisitors, totalNewUsers, averageDailyVisits);
-
-        final ReportResponse report = ReportResponse.builder()
-                .startDate(startDate)
-                .endDate(endDate)
-                .totalVisits((int) totalVisits)
-                .uniqueVisitors((int) uniqueVisitors)
-                .totalNewUsers(totalNewUsers)
-                .averageDailyVisits(averageDailyVisits)
-                .dailyStats(dailyStats)
-                .telegramFormattedReport(telegramReport)
-                .build();
-
-        log.info("{}_ГЕНЕРАЦИЯ_ОТЧЕТА_ЗА_ПЕРИОД_УСПЕХ: " +
-                        "отчет за период {} - {} сгенерирован, всего посещений: {}, новых пользователей: {}",
-                SERVICE_NAME, startDate, endDate, totalVisits, totalNewUsers);
-
-        return report;
+        return buildAndCachePeriodReport(startDate, endDate, version);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
+    @Transactional(readOnly = true)
     public List<DailyStatsResponse> generateDailyStats(final UUID adminUserId,
                                                        final LocalDate startDate,
                                                        final LocalDate endDate) {
@@ -162,11 +159,13 @@ public class ReportServiceImpl implements ReportService {
 
         visitorLogValidator.validateAdminAccessForLogs(adminUserId);
 
-        final List<Visit> visits = visitEntityProvider.findAllByDateRange(startDate, endDate);
-        final Map<LocalDate, List<Visit>> visitsByDate = reportStatisticsService.groupVisitsByDate(visits);
+        final VisitStatisticsAccumulator statistics;
+        try (Stream<Visit> visits = visitEntityProvider.streamAllByDateRange(startDate, endDate)) {
+            statistics = reportStatisticsService.aggregateVisits(visits);
+        }
 
         final List<DailyStatsResponse> stats = reportStatisticsService.generateDailyStatsForPeriod(
-                startDate, endDate, visitsByDate);
+                startDate, endDate, statistics);
 
         log.info("{}_ГЕНЕРАЦИЯ_ЕЖЕДНЕВНОЙ_СТАТИСТИКИ_УСПЕХ: " +
                 "сгенерировано {} записей статистики", SERVICE_NAME, stats.size());
@@ -174,6 +173,32 @@ public class ReportServiceImpl implements ReportService {
         return stats;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VisitorLogResponse finalizeDailyReport(final LocalDate date) {
+        log.info("{}_ЗАКРЫТИЕ_ДНЯ_НАЧАЛО: дата: {}", SERVICE_NAME, date);
+
+        final VisitorLogResponse response = generateAndSaveVisitorLog(date);
+
+        log.info("{}_ЗАКРЫТИЕ_ДНЯ_УСПЕХ: журнал за дату {} собран, посетителей: {}",
+                SERVICE_NAME, date, response.getVisitorCount());
+
+        return response;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ReportResponse precomputePeriodReport(final LocalDate startDate, final LocalDate endDate) {
+        log.info("{}_ПРЕДВАРИТЕЛЬНЫЙ_ОТЧЕТ_ЗА_ПЕРИОД_НАЧАЛО: период: {} - {}",
+                SERVICE_NAME, startDate, endDate);
+
+        return buildAndCachePeriodReport(startDate, endDate, visitEntityProvider.getDataVersion(startDate, endDate));
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -239,6 +264,19 @@ public class ReportServiceImpl implements ReportService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<VisitorLogResponse> getUpToDateVisitorLog(final UUID adminUserId, final LocalDate date) {
+        log.info("{}_ПОЛУЧЕНИЕ_АКТУАЛЬНОГО_ЖУРНАЛА_НАЧАЛО: " +
+                "администратор {}, дата: {}", SERVICE_NAME, adminUserId, date);
+
+        visitorLogValidator.validateAdminAccessForLogs(adminUserId);
+
+        return findUpToDateVisitorLog(date);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -283,22 +321,28 @@ public class ReportServiceImpl implements ReportService {
      * {@inheritDoc}
      */
     @Override
-    public List<VisitorLogResponse> getAllVisitorLogsPaginated(final UUID adminUserId,
-                                                               final int page,
-                                                               final int size) {
+    public PageResponse<VisitorLogResponse> getAllVisitorLogsPaginated(final UUID adminUserId,
+                                                                       final CursorPageRequest pageRequest) {
         log.info("{}_ПОЛУЧЕНИЕ_ВСЕХ_ЖУРНАЛОВ_С_ПАГИНАЦИЕЙ_НАЧАЛО: " +
-                "администратор {}, страница: {}, размер: {}", SERVICE_NAME, adminUserId, page, size);
+                        "администратор {}, размер: {}, первая страница: {}",
+                SERVICE_NAME, adminUserId, pageRequest.getEffectiveSize(), pageRequest.isFirstPage());
 
         visitorLogValidator.validateAdminAccessForLogs(adminUserId);
 
-        final Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "logDate"));
-        final Page<VisitorLog> logsPage = visitorLogRepository.findAll(pageable);
-        final List<VisitorLogResponse> responses = entityMapper.mapList(logsPage.getContent(), VisitorLogResponse.class);
+        final List<VisitorLog> logs = pageRequest.isFirstPage()
+                ? visitorLogRepository.findLatest(pageRequest.toLimit())
+                : visitorLogRepository.findLatestBefore(
+                        pageRequest.decodeCursor().getDateKey(), pageRequest.toLimit());
+
+        final PageResponse<VisitorLogResponse> response = PageResponse.ofKeyset(logs, pageRequest,
+                visitorLog -> PageCursor.encode(visitorLog.getLogDate(), visitorLog.getId()),
+                visitorLog -> entityMapper.map(visitorLog, VisitorLogResponse.class));
 
         log.info("{}_ПОЛУЧЕНИЕ_ВСЕХ_ЖУРНАЛОВ_С_ПАГИНАЦИЕЙ_УСПЕХ: " +
-                "получено {} журналов на странице {}", SERVICE_NAME, responses.size(), page);
+                        "получено {} журналов, последняя страница: {}",
+                SERVICE_NAME, response.getContent().size(), response.isLast());
 
-        return responses;
+        return response;
     }
 
     /**
@@ -320,35 +364,162 @@ public class ReportServiceImpl implements ReportService {
     }
 
     /**
-     * Генерирует и сохраняет журнал посещений для указанной даты.
+     * Пересобирает и сохраняет журнал посещений для указанной даты
+     * в отдельной транзакции на запись. После фиксации день помечается актуальным.
      *
      * @param date дата для генерации журнала
      * @return DTO сохраненного журнала посещений
      */
+    public VisitorLogResponse generateAndSaveVisitorLog(final LocalDate date) {
+        final long version = visitorLogDirtyTracker.getVersion(date);
+        final VisitDataVersion dataVersion = visitEntityProvider.getDataVersion(date, date);
+
+        final VisitorLogResponse response = writeTransaction.execute(status -> rebuildVisitorLog(date));
+        visitorLogDirtyTracker.markClean(date, version);
+        cacheDailyReport(date, dataVersion, response);
+
+        return response;
+    }
+
+    /**
+     * Возвращает сохраненный журнал за дату, если данные о посещениях за день не менялись.
+     * Закешированный отчет проверяется по версии данных из общей БД: если она отличается,
+     * посещения изменились, в том числе на другом узле, и журнал пересобирается.
+     * Без записи в кеше решение принимает локальный трекер измененных дней.
+     * Чтение выполняется в транзакции только для чтения, журнал не перезаписывается.
+     *
+     * @param date дата журнала
+     * @return Optional с журналом и отформатированным отчетом
+     */
+    private Optional<VisitorLogResponse> findUpToDateVisitorLog(final LocalDate date) {
+        final VisitDataVersion version = visitEntityProvider.getDataVersion(date, date);
+        final CachedReport<VisitorLogResponse> cached = dailyReportCache.get(date);
+        if (cached != null) {
+            if (Objects.equals(cached.version(), version)) {
+                log.debug("{}_ЖУРНАЛ_ИЗ_КЕША: журнал за дату {} выдан без чтения посещений", SERVICE_NAME, date);
+                return Optional.of(cached.report());
+            }
+            log.debug("{}_ЖУРНАЛ_УСТАРЕЛ: посещения за дату {} изменились после построения отчета",
+                    SERVICE_NAME, date);
+            return Optional.empty();
+        }
+
+        if (visitorLogDirtyTracker.isDirty(date)) {
+            log.debug("{}_ЖУРНАЛ_УСТАРЕЛ: журнал за дату {} требует пересборки", SERVICE_NAME, date);
+            return Optional.empty();
+        }
+
+        return readOnlyTransaction.execute(status -> visitorLogEntityProvider.findByLogDate(date)
+                .map(visitorLog -> {
+                    final List<String> visitorNames = visitorLog.getVisitorNames();
+                    final List<String> newUserNames = findNewUserNames(date);
+
+                    final VisitorLogResponse response = entityMapper.map(visitorLog, VisitorLogResponse.class);
+                    response.setFormattedReport(formatTelegramReport(date, visitorNames, newUserNames));
+
+                    cacheDailyReport(date, version, response);
+
+                    log.info("{}_ЖУРНАЛ_АКТУАЛЕН: журнал за дату {} выдан без пересборки, посетителей: {}",
+                            SERVICE_NAME, date, visitorNames.size());
+
+                    return response;
+                }));
+    }
+
+    /**
+     * Формирует отчет за период в транзакции только для чтения и сохраняет его в кеше.
+     *
+     * @param startDate начальная дата периода
+     * @param endDate конечная дата периода
+     * @param version версия данных периода, полученная до чтения посещений
+     * @return DTO отчета за период
+     */
+    private ReportResponse buildAndCachePeriodReport(final LocalDate startDate,
+                                                     final LocalDate endDate,
+                                                     final VisitDataVersion version) {
+        final ReportResponse report = readOnlyTransaction.execute(status -> buildPeriodReport(startDate, endDate));
+        periodReportCache.put(periodCacheKey(startDate, endDate), new CachedReport<>(version, report));
+        return report;
+    }
+
+    private ReportResponse buildPeriodReport(final LocalDate startDate, final LocalDate endDate) {
+        final VisitStatisticsAccumulator statistics;
+        try (Stream<Visit> visits = visitEntityProvider.streamAllByDateRange(startDate, endDate)) {
+            statistics = reportStatisticsService.aggregateVisits(visits);
+        }
+
+        final long totalVisits = statistics.getTotalVisits();
+        final long uniqueVisitors = statistics.getUniqueVisitors();
+        final Map<LocalDate, DailyStatsResponse> dailyStats = statistics.getDailyStats();
+
+        final int totalNewUsers = visitEntityProvider.countNewUsersByDateRange(startDate, endDate);
+
+        final double averageDailyVisits = reportStatisticsService.calculateAverageDailyVisits(
+                totalVisits, dailyStats.size());
+
+        final String telegramReport = reportFormatterService.formatPeriodTelegramReport(
+                startDate, endDate, dailyStats,
+                totalVisits, uniqueVisitors, totalNewUsers, averageDailyVisits);
+
+        final ReportResponse report = ReportResponse.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .totalVisits((int) totalVisits)
+                .uniqueVisitors((int) uniqueVisitors)
+                .totalNewUsers(totalNewUsers)
+                .averageDailyVisits(averageDailyVisits)
+                .dailyStats(dailyStats)
+                .telegramFormattedReport(telegramReport)
+                .build();
+
+        log.info("{}_ГЕНЕРАЦИЯ_ОТЧЕТА_ЗА_ПЕРИОД_УСПЕХ: " +
+                        "отчет за период {} - {} сгенерирован, всего посещений: {}, новых пользователей: {}",
+                SERVICE_NAME, startDate, endDate, totalVisits, totalNewUsers);
+
+        return report;
+    }
+
+    private String periodCacheKey(final LocalDate startDate, final LocalDate endDate) {
+        return startDate + ":" + endDate;
+    }
+
+    private void cacheDailyReport(final LocalDate date,
+                                  final VisitDataVersion version,
+                                  final VisitorLogResponse response) {
+        if (response == null) {
+            return;
+        }
+        dailyReportCache.put(date, new CachedReport<>(version, response));
+
+        final LocalDate cutoff = LocalDate.now().minusDays(DAILY_REPORT_CACHE_DAYS);
+        dailyReportCache.keySet().removeIf(cachedDate -> cachedDate.isBefore(cutoff));
+    }
+
     /**
      * Генерирует и сохраняет журнал посещений для указанной даты.
      *
      * @param date дата для генерации журнала
      * @return DTO сохраненного журнала посещений
      */
-    public VisitorLogResponse generateAndSaveVisitorLog(final LocalDate date) {
+    private VisitorLogResponse rebuildVisitorLog(final LocalDate date) {
         log.debug("{}_ГЕНЕРАЦИЯ_ЖУРНАЛА_ДЛЯ_ДАТЫ_НАЧАЛО: дата: {}", SERVICE_NAME, date);
 
-        final List<Visit> visits = visitEntityProvider.findAllWithUsersByDate(date);
-
-        final List<String> visitorNames = visits.stream()
-                .map(visit -> visit.getUser().getDisplayName())
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
-
-        final List<Visit> newUsersVisits = visitEntityProvider.findNewUsersByDate(date);
+        final List<VisitorLogEntry> visitors;
+        try (Stream<Visit> visits = visitEntityProvider.streamAllWithUsersByDate(date)) {
+            visitors = visits
+                    .map(Visit::getUser)
+                    .filter(user -> user.getDisplayName() != null)
+                    .map(user -> VisitorLogEntry.builder()
+                            .userId(user.getId())
+                            .displayName(user.getDisplayName())
+                            .build())
+                    .collect(Collectors.toList());
+        }
 
-        final List<String> newUserNames = newUsersVisits.stream()
-                .map(visit -> visit.getUser().getDisplayName())
-                .filter(Objects::nonNull)
+        final List<String> visitorNames = visitors.stream()
+                .map(VisitorLogEntry::getDisplayName)
                 .collect(Collectors.toList());
-
-        final String rawData = String.join(", ", visitorNames);
+        final List<String> newUserNames = findNewUserNames(date);
 
         final int newUsersCount = newUserNames.size();
 
@@ -357,10 +528,10 @@ public class ReportServiceImpl implements ReportService {
 
         VisitorLog visitorLog = visitorLogEntityProvider.findByLogDate(date)
                 .orElseGet(() -> visitorLogFactory.createWithData(
-                        visitorNames.size(), rawData, date, newUsersCount));
+                        visitorNames.size(), visitors, date, newUsersCount));
 
         visitorLog.setVisitorCount(visitorNames.size());
-        visitorLog.setRawData(rawData);
+        visitorLog.replaceVisitors(visitors);
         visitorLog.setLogDate(date);
         visitorLog.setNewUsersCount(newUsersCount);
 
@@ -375,4 +546,17 @@ public class ReportServiceImpl implements ReportService {
 
         return response;
     }
-}
\ No newline at end of file
+
+    private List<String> findNewUserNames(final LocalDate date) {
+        return visitEntityProvider.findNewUsersByDate(date).stream()
+                .map(visit -> visit.getUser().getDisplayName())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Закешированный отчет вместе с версией данных, на которой он был построен.
+     */
+    private record CachedReport<T>(VisitDataVersion version, T report) {
+    }
+}
@@ -0,0 +1,108 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.cs.vsu.social_network.telegram_bot.entity.SchedulerLock;
+import ru.cs.vsu.social_network.telegram_bot.repository.SchedulerLockRepository;
+import ru.cs.vsu.social_network.telegram_bot.service.SchedulerLockService;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Реализация блокировок запланированных задач на основе таблицы scheduler_lock.
+ * Захват и освобождение выполняются в отдельных коротких транзакциях,
+ * сама задача выполняется вне транзакции блокировки.
+ */
+@Slf4j
+@Service
+public class SchedulerLockServiceImpl implements SchedulerLockService {
+
+    private static final String SERVICE_NAME = "БЛОКИРОВКА_ПЛАНИРОВЩИКА";
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate lockTransaction;
+    private final String instanceId;
+
+    public SchedulerLockServiceImpl(final SchedulerLockRepository schedulerLockRepository,
+                                    final PlatformTransactionManager transactionManager) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        this.lockTransaction = new TransactionTemplate(transactionManager);
+        this.lockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.instanceId = ManagementFactory.getRuntimeMXBean().getName();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean runExclusively(final String lockName,
+                                  final Duration lockAtMostFor,
+                                  final Duration lockAtLeastFor,
+                                  final Runnable task) {
+        final LocalDateTime startedAt = LocalDateTime.now();
+
+        if (!tryAcquire(lockName, startedAt, startedAt.plus(lockAtMostFor))) {
+            log.info("{}_БЛОКИРОВКА_ЗАНЯТА: задача {} выполняется другим экземпляром",
+                    SERVICE_NAME, lockName);
+            return false;
+        }
+
+        log.info("{}_БЛОКИРОВКА_ЗАХВАЧЕНА: задача {}, экземпляр {}", SERVICE_NAME, lockName, instanceId);
+
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(lockName, startedAt.plus(lockAtLeastFor));
+        }
+    }
+
+    private boolean tryAcquire(final String lockName,
+                               final LocalDateTime now,
+                               final LocalDateTime lockedUntil) {
+        final Integer updated = lockTransaction.execute(status ->
+                schedulerLockRepository.tryAcquire(lockName, now, lockedUntil, instanceId));
+        if (updated != null && updated > 0) {
+            return true;
+        }
+
+        try {
+            return Boolean.TRUE.equals(lockTransaction.execute(status -> {
+                if (schedulerLockRepository.existsById(lockName)) {
+                    return false;
+                }
+                schedulerLockRepository.saveAndFlush(SchedulerLock.builder()
+                        .name(lockName)
+                        .lockedAt(now)
+                        .lockedUntil(lockedUntil)
+                        .lockedBy(instanceId)
+                        .build());
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("{}_БЛОКИРОВКА_СОЗДАНА_ДРУГИМ_ЭКЗЕМПЛЯРОМ: {}", SERVICE_NAME, lockName);
+            return false;
+        }
+    }
+
+    private void release(final String lockName, final LocalDateTime minimalLockedUntil) {
+        final LocalDateTime now = LocalDateTime.now();
+        final LocalDateTime lockedUntil = minimalLockedUntil.isAfter(now) ? minimalLockedUntil : now;
+
+        try {
+            lockTransaction.executeWithoutResult(status ->
+                    schedulerLockRepository.release(lockName, instanceId, lockedUntil));
+
+            log.info("{}_БЛОКИРОВКА_ОСВОБОЖДЕНА: задача {}, удерживается до {}",
+                    SERVICE_NAME, lockName, lockedUntil);
+        } catch (Exception e) {
+            log.error("{}_ОСВОБОЖДЕНИЕ_ОШИБКА: задача {}: {}", SERVICE_NAME, lockName, e.getMessage(), e);
+        }
+    }
+}
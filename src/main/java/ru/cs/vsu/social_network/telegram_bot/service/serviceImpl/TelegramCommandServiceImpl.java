@@ -4,6 +4,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserCreateRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.OccupancyResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.ReportResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.UserInfoResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.UserTrainingResponse;
@@ -11,22 +12,31 @@ import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitorLogResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
 import ru.cs.vsu.social_network.telegram_bot.provider.UserTrainingEntityProvider;
-import ru.cs.vsu.social_network.telegram_bot.service.ExcelTrainingService;
-import ru.cs.vsu.social_network.telegram_bot.service.ImageTrainingService;
 import ru.cs.vsu.social_network.telegram_bot.service.ReportService;
 import ru.cs.vsu.social_network.telegram_bot.service.TelegramCommandService;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingCycleRegistry;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingPlanDeliveryService;
 import ru.cs.vsu.social_network.telegram_bot.service.UserService;
 import ru.cs.vsu.social_network.telegram_bot.service.UserTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.VisitExportService;
 import ru.cs.vsu.social_network.telegram_bot.service.VisitService;
 import ru.cs.vsu.social_network.telegram_bot.service.DocumentSenderService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.GymOccupancyTracker;
 import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
 import ru.cs.vsu.social_network.telegram_bot.utils.table.TableFormatterService;
-
-import java.io.File;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -48,10 +58,12 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
     private final VisitService visitService;
     private final ReportService reportService;
     private final TableFormatterService tableFormatterService;
-    private final ExcelTrainingService excelTrainingService;
-    private final ImageTrainingService imageTrainingService;
+    private final TrainingPlanDeliveryService trainingPlanDeliveryService;
     private final UserTrainingService userTrainingService;
     private final DocumentSenderService documentSenderService;
+    private final GymOccupancyTracker gymOccupancyTracker;
+    private final TrainingCycleRegistry trainingCycleRegistry;
+    private final VisitExportService visitExportService;
 
     private static final DateTimeFormatter INPUT_DATE_FORMATTER =
             DateTimeFormatter.ofPattern("dd.MM.yyyy");
@@ -68,19 +80,23 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
                                       final VisitService visitService,
                                       final ReportService reportService,
                                       final TableFormatterService tableFormatterService,
-                                      final ExcelTrainingService excelTrainingService,
-                                      final ImageTrainingService imageTrainingService,
+                                      final TrainingPlanDeliveryService trainingPlanDeliveryService,
                                       final UserTrainingService userTrainingService,
-                                      final DocumentSenderService documentSenderService) {
+                                      final DocumentSenderService documentSenderService,
+                                      final GymOccupancyTracker gymOccupancyTracker,
+                                      final TrainingCycleRegistry trainingCycleRegistry,
+                                      final VisitExportService visitExportService) {
         this.userService = userService;
         this.userTrainingEntityProvider = userTrainingEntityProvider;
         this.visitService = visitService;
         this.reportService = reportService;
         this.tableFormatterService = tableFormatterService;
-        this.excelTrainingService = excelTrainingService;
-        this.imageTrainingService = imageTrainingService;
+        this.trainingPlanDeliveryService = trainingPlanDeliveryService;
         this.userTrainingService = userTrainingService;
         this.documentSenderService = documentSenderService;
+        this.gymOccupancyTracker = gymOccupancyTracker;
+        this.trainingCycleRegistry = trainingCycleRegistry;
+        this.visitExportService = visitExportService;
     }
 
     /**
@@ -167,6 +183,43 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
         }
     }
 
+    /**
+     * Обрабатывает команду "Сколько в зале?".
+     *
+     * @param telegramId идентификатор Telegram пользователя
+     * @return сообщение о загруженности зала
+     */
+    @Override
+    public String handleOccupancyCommand(final Long telegramId) {
+        log.info("{}_OCCUPANCY_COMMAND_BEGIN: запрос загруженности зала от Telegram ID: {}",
+                SERVICE_NAME, telegramId);
+
+        final OccupancyResponse occupancy = gymOccupancyTracker.getOccupancy();
+
+        final StringBuilder response = new StringBuilder();
+        response.append("Загруженность зала\n\n");
+        response.append(String.format("Отметились за последние %d мин: %d\n",
+                occupancy.getWindowMinutes(), occupancy.getRecentCheckIns()));
+        response.append(String.format("Всего за сегодня: %d\n", occupancy.getTodayCheckIns()));
+
+        final List<Long> hourlyCheckIns = occupancy.getHourlyCheckIns();
+        final int currentHour = occupancy.getGeneratedAt().getHour();
+        if (occupancy.getTodayCheckIns() > 0) {
+            response.append("\nОтметки по часам:\n");
+            for (int hour = 0; hour <= currentHour; hour++) {
+                final long count = hourlyCheckIns.get(hour);
+                if (count > 0) {
+                    response.append(String.format("%02d:00 — %d\n", hour, count));
+                }
+            }
+        }
+
+        log.info("{}_OCCUPANCY_COMMAND_SUCCESS: недавних отметок {}, за сегодня {}",
+                SERVICE_NAME, occupancy.getRecentCheckIns(), occupancy.getTodayCheckIns());
+
+        return response.toString().trim();
+    }
+
     /**
      * Обрабатывает ввод имени пользователя.
      *
@@ -288,10 +341,13 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
             final UserTrainingResponse trainingResponse =
                     userTrainingService.saveOrUpdateMaxBenchPressByTelegramId(telegramId, benchPressRequest);
 
-            log.info("{}_BENCH_PRESS_SAVING_SUCCESS: данные сохранены, запись ID {}",
-                    SERVICE_NAME, trainingResponse.getId());
+            log.info("{}_BENCH_PRESS_SAVING_SUCCESS: данные сохранены, запись ID {}, цикл {}",
+                    SERVICE_NAME, trainingResponse.getId(), trainingResponse.getTrainingCycle());
 
-            File trainingFile = null;
+            final TrainingCycle trainingCycle = trainingCycleRegistry.resolve(trainingResponse.getTrainingCycle());
+            benchPressRequest.setTrainingCycle(trainingCycle.code());
+
+            TrainingPlanFormat planFormat;
             String formatType = "";
 
             String trimmedChoice = formatChoice.trim();
@@ -303,22 +359,16 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
                 log.info("{}_IMAGE_GENERATION_BEGIN: пользователь {} выбрал '1' - изображение",
                         SERVICE_NAME, telegramId);
 
-                trainingFile = imageTrainingService.generateTrainingPlanImage(user.getId(), benchPressRequest);
+                planFormat = TrainingPlanFormat.IMAGE;
                 formatType = "изображение";
 
-                log.info("{}_IMAGE_GENERATION_SUCCESS: файл создан: {}",
-                        SERVICE_NAME, trainingFile.getAbsolutePath());
-
             } else if ("2".equals(trimmedChoice) || "два".equalsIgnoreCase(trimmedChoice)) {
                 log.info("{}_EXCEL_GENERATION_BEGIN: пользователь {} выбрал '2' - Excel",
                         SERVICE_NAME, telegramId);
 
-                trainingFile = excelTrainingService.generateTrainingPlan(user.getId(), benchPressRequest);
+                planFormat = TrainingPlanFormat.EXCEL;
                 formatType = "Excel таблица";
 
-                log.info("{}_EXCEL_GENERATION_SUCCESS: файл создан: {}",
-                        SERVICE_NAME, trainingFile.getAbsolutePath());
-
             } else {
                 String normalizedChoice = trimmedChoice.toLowerCase();
 
@@ -331,12 +381,9 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
                     log.info("{}_IMAGE_GENERATION_BEGIN: пользователь {} выбрал '{}' - изображение",
                             SERVICE_NAME, telegramId, formatChoice);
 
-                    trainingFile = imageTrainingService.generateTrainingPlanImage(user.getId(), benchPressRequest);
+                    planFormat = TrainingPlanFormat.IMAGE;
                     formatType = "изображение";
 
-                    log.info("{}_IMAGE_GENERATION_SUCCESS: файл создан: {}",
-                            SERVICE_NAME, trainingFile.getAbsolutePath());
-
                 } else if ("excel".equals(normalizedChoice) ||
                         "таблица".equals(normalizedChoice) ||
                         "exl".equals(normalizedChoice) ||
@@ -346,12 +393,9 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
                     log.info("{}_EXCEL_GENERATION_BEGIN: пользователь {} выбрал '{}' - Excel",
                             SERVICE_NAME, telegramId, formatChoice);
 
-                    trainingFile = excelTrainingService.generateTrainingPlan(user.getId(), benchPressRequest);
+                    planFormat = TrainingPlanFormat.EXCEL;
                     formatType = "Excel таблица";
 
-                    log.info("{}_EXCEL_GENERATION_SUCCESS: файл создан: {}",
-                            SERVICE_NAME, trainingFile.getAbsolutePath());
-
                 } else {
                     log.warn("{}_FORMAT_SELECTION_UNKNOWN: неизвестный формат '{}' (trimmed: '{}')",
                             SERVICE_NAME, formatChoice, trimmedChoice);
@@ -362,8 +406,9 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
                 }
             }
 
-            final String caption = buildTrainingProgramCaption(user, benchPressValue, formatType);
-            documentSenderService.sendDocument(telegramId, trainingFile, caption);
+            final String caption = buildTrainingProgramCaption(user, benchPressValue, trainingCycle, formatType);
+            trainingPlanDeliveryService.deliverTrainingPlan(
+                    telegramId, user.getId(), benchPressRequest, trainingCycle, planFormat, caption);
 
             userStates.remove(telegramId);
             pendingBenchPressValues.remove(telegramId);
@@ -552,6 +597,97 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
         }
     }
 
+    /**
+     * Обрабатывает команду выгрузки посещений в Excel.
+     * Книга записывается во временный файл и отправляется из него потоком,
+     * поэтому выгрузка за несколько лет не загружается в память целиком.
+     *
+     * @param telegramId идентификатор Telegram администратора
+     * @param input      две даты периода
+     * @return сообщение о результате выгрузки
+     */
+    @Override
+    public String handleExportCommand(final Long telegramId, final String input) {
+        log.info("{}_EXPORT_COMMAND_BEGIN: администратор {}, ввод: {}",
+                SERVICE_NAME, telegramId, input);
+
+        final String usage = "Используйте формат: /export ДД.ММ.ГГГГ ДД.ММ.ГГГГ\n" +
+                "Пример: /export 01.01.2024 31.12.2025";
+
+        Path exportFile = null;
+        try {
+            final UserInfoResponse user = userService.getUserByTelegramId(telegramId);
+
+            if (user.getRole() != ROLE.ADMIN) {
+                log.warn("{}_EXPORT_COMMAND_ACCESS_DENIED: пользователь {} не является администратором",
+                        SERVICE_NAME, telegramId);
+                return "Доступ запрещен! Эта команда доступна только администраторам.";
+            }
+
+            final String[] parts = input == null ? new String[0] : input.trim().split("\\s+");
+            if (parts.length != 2) {
+                log.warn("{}_EXPORT_COMMAND_INVALID_FORMAT: неверное количество параметров: {}",
+                        SERVICE_NAME, parts.length);
+                return "Укажите период выгрузки.\n\n" + usage;
+            }
+
+            final LocalDate startDate = LocalDate.parse(parts[0], INPUT_DATE_FORMATTER);
+            final LocalDate endDate = LocalDate.parse(parts[1], INPUT_DATE_FORMATTER);
+
+            if (startDate.isAfter(endDate)) {
+                log.warn("{}_EXPORT_COMMAND_INVALID_DATES: дата начала {} позже даты окончания {}",
+                        SERVICE_NAME, startDate, endDate);
+                return "Дата начала не может быть позже даты окончания!";
+            }
+
+            exportFile = Files.createTempFile("visits_export_", ".xlsx");
+            final long rowCount;
+            try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(exportFile))) {
+                rowCount = visitExportService.exportVisits(user.getId(), startDate, endDate, outputStream);
+            }
+
+            final String fileName = String.format("visits_%s_%s.xlsx",
+                    startDate.format(INPUT_DATE_FORMATTER), endDate.format(INPUT_DATE_FORMATTER));
+            final String caption = String.format("Посещения за период %s - %s\nЗаписей: %d",
+                    startDate.format(INPUT_DATE_FORMATTER), endDate.format(INPUT_DATE_FORMATTER), rowCount);
+            documentSenderService.sendFile(telegramId, exportFile, fileName, caption);
+
+            log.info("{}_EXPORT_COMMAND_SUCCESS: администратору {} отправлено {} посещений, файл {} байт",
+                    SERVICE_NAME, telegramId, rowCount, Files.size(exportFile));
+
+            return "Выгрузка готова!\n\n" +
+                    "Файл с посещениями за период загружается...";
+
+        } catch (DateTimeParseException e) {
+            log.warn("{}_EXPORT_COMMAND_INVALID_DATE: неверный формат дат: {}", SERVICE_NAME, input);
+            return "Неверный формат даты!\n\n" + usage;
+        } catch (Exception e) {
+            log.error("{}_EXPORT_COMMAND_ERROR: ошибка выгрузки для {}: {}",
+                    SERVICE_NAME, telegramId, e.getMessage(), e);
+            return "Не удалось выгрузить посещения.\n\n" +
+                    "Пожалуйста, попробуйте позже.";
+        } finally {
+            deleteExportFile(exportFile);
+        }
+    }
+
+    /**
+     * Удаляет временный файл выгрузки.
+     *
+     * @param exportFile файл выгрузки, может быть null
+     */
+    private void deleteExportFile(final Path exportFile) {
+        if (exportFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(exportFile);
+        } catch (IOException e) {
+            log.warn("{}_EXPORT_FILE_DELETE_ERROR: не удалось удалить {}: {}",
+                    SERVICE_NAME, exportFile, e.getMessage());
+        }
+    }
+
     /**
      * Обрабатывает команды администраторского меню.
      *
@@ -674,8 +810,10 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
             response.append("Основные команды:\n");
             response.append("• /start — Начать работу с ботом\n");
             response.append("• Я в зале — Отметиться в тренажерном зале\n");
+            response.append("• Сколько в зале? — Узнать загруженность зала\n");
             response.append("• Сменить имя — Изменить имя для обращения\n");
             response.append("• Составить программу тренировок — Создать индивидуальную программу\n");
+            response.append("• /cycle — Выбрать тренировочный цикл\n");
             response.append("• /help — Показать эту справку\n");
 
             if (user.getRole() == ROLE.ADMIN) {
@@ -688,6 +826,7 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
                 response.append("• /table — Таблица посещений за сегодня\n");
                 response.append("• /table дата — Таблица за определенный день\n");
                 response.append("• /table дата-начало дата-конец — Таблица за период\n");
+                response.append("• /export дата-начало дата-конец — Выгрузка посещений в Excel\n");
 
                 response.append("\nКнопки меню администратора:\n");
                 response.append("• Получить журнал за сегодня\n");
@@ -774,8 +913,10 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
             response.append("Основные команды:\n");
             response.append("• /start — Начать работу с ботом\n");
             response.append("• Я в зале — Отметиться в тренажерном зале\n");
+            response.append("• Сколько в зале? — Узнать загруженность зала\n");
             response.append("• Сменить имя — Изменить имя для обращения\n");
             response.append("• Составить программу тренировок — Создать индивидуальную программу\n");
+            response.append("• /cycle — Выбрать тренировочный цикл\n");
             response.append("• /help — Показать справку по командам\n");
 
             if (user.getRole() == ROLE.ADMIN) {
@@ -788,6 +929,7 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
                 response.append("• /table — Таблица посещений за сегодня\n");
                 response.append("• /table дата — Таблица за определенный день\n");
                 response.append("• /table дата-начало дата-конец — Таблица за период\n");
+                response.append("• /export дата-начало дата-конец — Выгрузка посещений в Excel\n");
 
                 response.append("\nКнопки меню администратора:\n");
                 response.append("• Получить журнал за сегодня\n");
@@ -877,6 +1019,15 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
             response.append("Пример: 102,5 или 105\n");
             response.append("Введите число в килограммах (можно с десятичной точкой):");
 
+            if (trainingCycleRegistry.getAvailableCycles().size() > 1) {
+                final TrainingCycle currentCycle = trainingCycleRegistry.resolve(
+                        userTrainingService.getUserTrainingByTelegramId(telegramId)
+                                .map(UserTrainingResponse::getTrainingCycle)
+                                .orElse(null));
+                response.append(String.format("\n\nТренировочный цикл: «%s». Сменить цикл: /cycle",
+                        currentCycle.title()));
+            }
+
             log.info("{}_TRAINING_PROGRAM_COMMAND_SUCCESS: пользователь {} ожидает ввода жима лежа",
                     SERVICE_NAME, telegramId);
 
@@ -958,16 +1109,108 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
         }
     }
 
+    /**
+     * Обрабатывает команду /cycle: без аргумента показывает доступные циклы,
+     * с аргументом выбирает цикл по номеру из списка, коду или названию.
+     *
+     * @param telegramId идентификатор Telegram пользователя
+     * @param argument   номер, код или название цикла, может быть null
+     * @return список циклов или сообщение о результате выбора
+     */
+    @Override
+    public String handleTrainingCycleCommand(final Long telegramId, final String argument) {
+        log.info("{}_TRAINING_CYCLE_COMMAND_BEGIN: пользователь {}, аргумент '{}'",
+                SERVICE_NAME, telegramId, argument);
+
+        try {
+            final UserInfoResponse user = userService.getUserByTelegramId(telegramId);
+            final List<TrainingCycle> cycles = trainingCycleRegistry.getAvailableCycles();
+
+            if (argument == null || argument.isBlank()) {
+                final TrainingCycle currentCycle = trainingCycleRegistry.resolve(
+                        userTrainingService.getUserTrainingByTelegramId(telegramId)
+                                .map(UserTrainingResponse::getTrainingCycle)
+                                .orElse(null));
+
+                final StringBuilder response = new StringBuilder();
+                response.append(String.format("%s, доступные тренировочные циклы:\n\n",
+                        user.getDisplayName() != null ? user.getDisplayName() : user.getFirstName()));
+
+                for (int i = 0; i < cycles.size(); i++) {
+                    final TrainingCycle cycle = cycles.get(i);
+                    response.append(String.format("%d. %s", i + 1, cycle.title()));
+                    if (cycle.code().equals(currentCycle.code())) {
+                        response.append(" (выбран)");
+                    }
+                    response.append("\n");
+                    if (!cycle.description().isEmpty()) {
+                        response.append("   ").append(cycle.description()).append("\n");
+                    }
+                }
+
+                response.append("\nЧтобы выбрать цикл, введите /cycle и номер из списка.\n");
+                response.append("Пример: /cycle 1");
+
+                return response.toString();
+            }
+
+            final Optional<TrainingCycle> selectedCycle = findCycleByArgument(cycles, argument.trim());
+            if (selectedCycle.isEmpty()) {
+                log.warn("{}_TRAINING_CYCLE_NOT_FOUND: цикл '{}' не найден", SERVICE_NAME, argument);
+                return "Такой тренировочный цикл не найден.\n\n" +
+                        "Введите /cycle, чтобы посмотреть список доступных циклов.";
+            }
+
+            final TrainingCycle cycle = selectedCycle.get();
+            userTrainingService.selectTrainingCycleByTelegramId(telegramId, cycle.code());
+
+            log.info("{}_TRAINING_CYCLE_COMMAND_SUCCESS: пользователь {} выбрал цикл {}",
+                    SERVICE_NAME, telegramId, cycle.code());
+
+            return String.format("Выбран тренировочный цикл «%s».\n\n", cycle.title()) +
+                    "Следующая программа тренировок будет составлена по этому циклу.\n" +
+                    "Нажмите «Составить программу тренировок», чтобы получить ее.";
+
+        } catch (Exception e) {
+            log.error("{}_TRAINING_CYCLE_COMMAND_ERROR: ошибка для {}: {}",
+                    SERVICE_NAME, telegramId, e.getMessage());
+
+            return "Произошла ошибка при выборе тренировочного цикла.\n\n" +
+                    "Пожалуйста, попробуйте позже.";
+        }
+    }
+
+    /**
+     * Ищет цикл по номеру в списке, коду или названию.
+     *
+     * @param cycles   список доступных циклов
+     * @param argument номер, код или название цикла
+     * @return найденный цикл или пустой Optional
+     */
+    private Optional<TrainingCycle> findCycleByArgument(final List<TrainingCycle> cycles, final String argument) {
+        try {
+            final int number = Integer.parseInt(argument);
+            if (number >= 1 && number <= cycles.size()) {
+                return Optional.of(cycles.get(number - 1));
+            }
+            return Optional.empty();
+        } catch (NumberFormatException e) {
+            return trainingCycleRegistry.findCycle(argument);
+        }
+    }
+
     /**
      * Создает подпись для программы тренировок.
      *
      * @param user              информация о пользователе
      * @param currentBenchPress текущий жим лежа
+     * @param trainingCycle     тренировочный цикл программы
      * @param formatType        тип формата
      * @return текст подписи
      */
     private String buildTrainingProgramCaption(final UserInfoResponse user,
                                                final double currentBenchPress,
+                                               final TrainingCycle trainingCycle,
                                                final String formatType) {
         final StringBuilder caption = new StringBuilder();
 
@@ -976,12 +1219,15 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
 
         caption.append(String.format("Максимальный жим лежа: %.1f кг\n\n", currentBenchPress));
 
-        caption.append("Тренировочная система «Гусеница новая»\n");
-        caption.append("Автор: заслуженный тренер России Суровецкий А.Е.\n\n");
+        caption.append(String.format("Тренировочная система «%s»\n", trainingCycle.title()));
+        if (!trainingCycle.description().isEmpty()) {
+            caption.append(trainingCycle.description()).append("\n");
+        }
+        caption.append("\n");
 
         caption.append("Файл содержит:\n");
         caption.append("• Расчет рабочих весов по формуле\n");
-        caption.append("• План тренировок на 8-недельный цикл\n");
+        caption.append("• План тренировок на весь цикл\n");
         caption.append("• Процентные соотношения от вашего максимума\n");
         caption.append("• Рекомендации по прогрессии нагрузки\n\n");
 
@@ -1001,7 +1247,7 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
         log.info("{}_TABLE_FOR_TODAY_BEGIN: администратор {}", SERVICE_NAME, adminUserId);
 
         final LocalDate today = LocalDate.now();
-        final Optional<VisitorLogResponse> existingLog = reportService.getVisitorLogByDate(adminUserId, today);
+        final Optional<VisitorLogResponse> existingLog = reportService.getUpToDateVisitorLog(adminUserId, today);
 
         return tableFormatterService.formatTableForToday(adminUserId.toString(), existingLog);
     }
@@ -1019,7 +1265,7 @@ public class TelegramCommandServiceImpl implements TelegramCommandService {
 
         try {
             final LocalDate date = LocalDate.parse(dateStr.trim(), INPUT_DATE_FORMATTER);
-            final Optional<VisitorLogResponse> existingLog = reportService.getVisitorLogByDate(adminUserId, date);
+            final Optional<VisitorLogResponse> existingLog = reportService.getUpToDateVisitorLog(adminUserId, date);
 
             return tableFormatterService.formatTableForDate(adminUserId.toString(), date, existingLog);
         } catch (DateTimeParseException e) {
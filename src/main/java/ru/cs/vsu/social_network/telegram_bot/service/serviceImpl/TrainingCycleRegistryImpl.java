@@ -0,0 +1,317 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ResourceUtils;
+import ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingCycleRegistry;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Реализация реестра тренировочных циклов.
+ * Циклы ищутся по файлам *.xlsx в ресурсах training_cycles и, если задана,
+ * во внешней директории training.cycles.dir; шаблон из внешней директории заменяет шаблон
+ * с тем же кодом из ресурсов. Названия циклов берутся из файла cycles.properties.
+ * Внешняя директория отслеживается WatchService: при изменении файлов реестр перечитывается,
+ * а измененный шаблон сбрасывается из кеша и будет скомпилирован заново при следующем запросе.
+ */
+@Slf4j
+@Service
+public class TrainingCycleRegistryImpl implements TrainingCycleRegistry {
+
+    private static final String SERVICE_NAME = "РЕЕСТР_ЦИКЛОВ";
+    private static final String CLASSPATH_DIR = "training_cycles/";
+    private static final String TEMPLATE_EXTENSION = ".xlsx";
+    private static final String DESCRIPTOR_FILE = "cycles.properties";
+
+    private final TrainingTemplateCache trainingTemplateCache;
+    private final String defaultCycleCode;
+    private final String externalDirPath;
+
+    private volatile Map<String, TrainingCycle> cycles = Map.of();
+    private volatile WatchService watchService;
+
+    public TrainingCycleRegistryImpl(
+            final TrainingTemplateCache trainingTemplateCache,
+            @Value("${training.cycles.default:gusenica_cycle}") final String defaultCycleCode,
+            @Value("${training.cycles.dir:}") final String externalDirPath) {
+        this.trainingTemplateCache = trainingTemplateCache;
+        this.defaultCycleCode = defaultCycleCode;
+        this.externalDirPath = externalDirPath;
+    }
+
+    @PostConstruct
+    public void init() {
+        scan();
+        startWatcher();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        final WatchService current = watchService;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.warn("{}_ОСТАНОВКА_ОШИБКА: {}", SERVICE_NAME, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<TrainingCycle> getAvailableCycles() {
+        return List.copyOf(cycles.values());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TrainingCycle getDefaultCycle() {
+        final Map<String, TrainingCycle> current = cycles;
+        final TrainingCycle defaultCycle = current.get(defaultCycleCode);
+        if (defaultCycle != null) {
+            return defaultCycle;
+        }
+        if (current.isEmpty()) {
+            log.error("{}_ЦИКЛЫ_НЕ_НАЙДЕНЫ: нет ни одного шаблона", SERVICE_NAME);
+            throw new GenerateTrainingPlanException("Тренировочные циклы не найдены");
+        }
+        return current.values().iterator().next();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<TrainingCycle> findCycle(final String codeOrTitle) {
+        if (codeOrTitle == null || codeOrTitle.isBlank()) {
+            return Optional.empty();
+        }
+        final Map<String, TrainingCycle> current = cycles;
+        final TrainingCycle byCode = current.get(codeOrTitle.trim());
+        if (byCode != null) {
+            return Optional.of(byCode);
+        }
+        return current.values().stream()
+                .filter(cycle -> cycle.matches(codeOrTitle))
+                .findFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TrainingCycle resolve(final String codeOrTitle) {
+        return findCycle(codeOrTitle).orElseGet(this::getDefaultCycle);
+    }
+
+    /**
+     * Находит шаблоны и описания циклов и атомарно заменяет содержимое реестра.
+     * Шаблоны не читаются, поэтому стоимость не зависит от их размера.
+     */
+    private synchronized void scan() {
+        final Properties descriptors = new Properties();
+        final Map<String, String> templatePaths = new TreeMap<>();
+
+        scanClasspath(descriptors, templatePaths);
+        final Path externalDir = getExternalDir();
+        if (externalDir != null) {
+            scanExternalDir(externalDir, descriptors, templatePaths);
+        }
+
+        final Map<String, TrainingCycle> scanned = new LinkedHashMap<>();
+        for (final Map.Entry<String, String> entry : templatePaths.entrySet()) {
+            final String code = entry.getKey();
+            scanned.put(code, new TrainingCycle(
+                    code,
+                    descriptors.getProperty(code + ".title", code),
+                    descriptors.getProperty(code + ".description", ""),
+                    parseAliases(descriptors.getProperty(code + ".aliases", "")),
+                    entry.getValue()));
+        }
+        cycles = Collections.unmodifiableMap(scanned);
+
+        log.info("{}_СКАНИРОВАНИЕ: найдено циклов {}: {}, по умолчанию {}",
+                SERVICE_NAME, scanned.size(), scanned.keySet(), defaultCycleCode);
+    }
+
+    private void scanClasspath(final Properties descriptors, final Map<String, String> templatePaths) {
+        try {
+            final Resource[] resources = new PathMatchingResourcePatternResolver()
+                    .getResources(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX + CLASSPATH_DIR + "*" + TEMPLATE_EXTENSION);
+            for (final Resource resource : resources) {
+                final String fileName = resource.getFilename();
+                if (fileName != null) {
+                    templatePaths.put(toCode(fileName), CLASSPATH_DIR + fileName);
+                }
+            }
+        } catch (IOException e) {
+            log.error("{}_РЕСУРСЫ_ОШИБКА: {}", SERVICE_NAME, e.getMessage(), e);
+        }
+
+        final ClassPathResource descriptorResource = new ClassPathResource(CLASSPATH_DIR + DESCRIPTOR_FILE);
+        if (descriptorResource.exists()) {
+            try (InputStream inputStream = descriptorResource.getInputStream()) {
+                loadDescriptors(descriptors, inputStream);
+            } catch (IOException e) {
+                log.warn("{}_ОПИСАНИЯ_ОШИБКА: {}", SERVICE_NAME, e.getMessage());
+            }
+        }
+    }
+
+    private void scanExternalDir(final Path externalDir,
+                                 final Properties descriptors,
+                                 final Map<String, String> templatePaths) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(externalDir, "*" + TEMPLATE_EXTENSION)) {
+            for (final Path file : files) {
+                templatePaths.put(toCode(file.getFileName().toString()), toTemplatePath(file));
+            }
+        } catch (IOException e) {
+            log.error("{}_ДИРЕКТОРИЯ_ОШИБКА: {}, {}", SERVICE_NAME, externalDir, e.getMessage());
+        }
+
+        final Path descriptorFile = externalDir.resolve(DESCRIPTOR_FILE);
+        if (Files.isRegularFile(descriptorFile)) {
+            try (InputStream inputStream = Files.newInputStream(descriptorFile)) {
+                loadDescriptors(descriptors, inputStream);
+            } catch (IOException e) {
+                log.warn("{}_ОПИСАНИЯ_ОШИБКА: {}, {}", SERVICE_NAME, descriptorFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Запускает отслеживание внешней директории шаблонов, если она задана.
+     */
+    private void startWatcher() {
+        final Path externalDir = getExternalDir();
+        if (externalDir == null) {
+            return;
+        }
+
+        try {
+            final WatchService service = FileSystems.getDefault().newWatchService();
+            externalDir.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+            watchService = service;
+
+            final Thread watcher = new Thread(() -> watch(externalDir, service), "training-cycle-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+
+            log.info("{}_НАБЛЮДЕНИЕ_ЗАПУЩЕНО: {}", SERVICE_NAME, externalDir);
+        } catch (IOException e) {
+            log.warn("{}_НАБЛЮДЕНИЕ_ОШИБКА: изменения в {} не будут подхвачены: {}",
+                    SERVICE_NAME, externalDir, e.getMessage());
+        }
+    }
+
+    private void watch(final Path externalDir, final WatchService service) {
+        try {
+            while (true) {
+                final WatchKey key = service.take();
+                boolean changed = false;
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    if (!(event.context() instanceof Path fileName)) {
+                        continue;
+                    }
+                    final String name = fileName.toString();
+                    if (name.endsWith(TEMPLATE_EXTENSION)) {
+                        final String templatePath = toTemplatePath(externalDir.resolve(fileName));
+                        log.info("{}_ШАБЛОН_ИЗМЕНЕН: {} ({})", SERVICE_NAME, templatePath, event.kind().name());
+                        changed = true;
+                        trainingTemplateCache.invalidate(templatePath);
+                    } else if (DESCRIPTOR_FILE.equals(name)) {
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    scan();
+                }
+                if (!key.reset()) {
+                    log.warn("{}_НАБЛЮДЕНИЕ_ОСТАНОВЛЕНО: директория {} недоступна", SERVICE_NAME, externalDir);
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            log.debug("{}_НАБЛЮДЕНИЕ_ЗАВЕРШЕНО", SERVICE_NAME);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Path getExternalDir() {
+        if (externalDirPath == null || externalDirPath.isBlank()) {
+            return null;
+        }
+        final Path externalDir = Paths.get(externalDirPath).toAbsolutePath();
+        if (!Files.isDirectory(externalDir)) {
+            log.warn("{}_ДИРЕКТОРИЯ_НЕ_НАЙДЕНА: {}", SERVICE_NAME, externalDir);
+            return null;
+        }
+        return externalDir;
+    }
+
+    private static void loadDescriptors(final Properties descriptors, final InputStream inputStream)
+            throws IOException {
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            descriptors.load(reader);
+        }
+    }
+
+    private static List<String> parseAliases(final String aliases) {
+        final List<String> result = new ArrayList<>();
+        Arrays.stream(aliases.split(","))
+                .map(String::trim)
+                .filter(alias -> !alias.isEmpty())
+                .forEach(result::add);
+        return result;
+    }
+
+    private static String toCode(final String fileName) {
+        return fileName.substring(0, fileName.length() - TEMPLATE_EXTENSION.length());
+    }
+
+    private static String toTemplatePath(final Path file) {
+        return ResourceUtils.FILE_URL_PREFIX + file.toAbsolutePath();
+    }
+}
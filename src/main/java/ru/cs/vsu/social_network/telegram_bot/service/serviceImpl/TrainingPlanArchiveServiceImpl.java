@@ -0,0 +1,85 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingPlanArchiveService;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+
+/**
+ * Реализация сервиса архивирования документов.
+ * Каждый документ записывается в отдельный файл с уникальным суффиксом,
+ * поэтому документы, созданные в одну секунду, не перезаписывают друг друга.
+ */
+@Slf4j
+@Service
+public class TrainingPlanArchiveServiceImpl implements TrainingPlanArchiveService {
+
+    private static final String SERVICE_NAME = "АРХИВ_ДОКУМЕНТОВ";
+
+    private final boolean archiveEnabled;
+    private final String archiveDirPath;
+
+    public TrainingPlanArchiveServiceImpl(
+            @Value("${training.archive.enabled:false}") final boolean archiveEnabled,
+            @Value("${training.archive.dir:generatedTrainingPlans}") final String archiveDirPath) {
+        this.archiveEnabled = archiveEnabled;
+        this.archiveDirPath = archiveDirPath;
+        log.info("{}_ИНИЦИАЛИЗАЦИЯ: архивирование {}, директория {}",
+                SERVICE_NAME, archiveEnabled ? "включено" : "выключено", archiveDirPath);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void archive(final GeneratedDocument document) {
+        if (!archiveEnabled) {
+            return;
+        }
+
+        try {
+            final Path archiveDir = Paths.get(archiveDirPath);
+            Files.createDirectories(archiveDir);
+
+            final Path archivePath = archiveDir.resolve(buildArchiveFileName(document.fileName()));
+            Files.write(archivePath, document.content(), StandardOpenOption.CREATE_NEW);
+
+            log.info("{}_СОХРАНЕНИЕ_УСПЕХ: файл {}, размер {} байт",
+                    SERVICE_NAME, archivePath.toAbsolutePath(), document.size());
+        } catch (IOException e) {
+            log.warn("{}_СОХРАНЕНИЕ_ОШИБКА: документ {} не сохранен: {}",
+                    SERVICE_NAME, document.fileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    /**
+     * Добавляет к имени файла случайный суффикс перед расширением.
+     *
+     * @param fileName исходное имя файла
+     * @return уникальное имя файла в архиве
+     */
+    private String buildArchiveFileName(final String fileName) {
+        final String suffix = UUID.randomUUID().toString().substring(0, 8);
+        final int extensionIndex = fileName.lastIndexOf('.');
+        if (extensionIndex <= 0) {
+            return fileName + "_" + suffix;
+        }
+        return fileName.substring(0, extensionIndex) + "_" + suffix + fileName.substring(extensionIndex);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
+import ru.cs.vsu.social_network.telegram_bot.service.DocumentSenderService;
+import ru.cs.vsu.social_network.telegram_bot.service.ExcelTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.ImageTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingPlanDeliveryService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanFileCache;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
+import ru.cs.vsu.social_network.telegram_bot.service.image.ImageEncoder;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanFormat;
+
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Реализация доставки тренировочных программ с повторным использованием file_id.
+ * Загруженный файл сохраняет свое имя при повторной отправке по file_id, поэтому
+ * программа загружается под общим именем из кода цикла и значения жима, без идентификатора пользователя.
+ */
+@Slf4j
+@Service
+public class TrainingPlanDeliveryServiceImpl implements TrainingPlanDeliveryService {
+
+    private static final String SERVICE_NAME = "ДОСТАВКА_ПРОГРАММЫ";
+    private static final String EXCEL_FORMAT = "xlsx";
+
+    private final ImageTrainingService imageTrainingService;
+    private final ExcelTrainingService excelTrainingService;
+    private final DocumentSenderService documentSenderService;
+    private final TrainingPlanFileCache trainingPlanFileCache;
+    private final TrainingTemplateCache trainingTemplateCache;
+    private final ImageEncoder imageEncoder;
+    private final String imageFormat;
+    private final boolean fileCacheEnabled;
+
+    public TrainingPlanDeliveryServiceImpl(
+            final ImageTrainingService imageTrainingService,
+            final ExcelTrainingService excelTrainingService,
+            final DocumentSenderService documentSenderService,
+            final TrainingPlanFileCache trainingPlanFileCache,
+            final TrainingTemplateCache trainingTemplateCache,
+            final ImageEncoder imageEncoder,
+            @Value("${training.image.format:png}") final String imageFormat,
+            @Value("${training.file-cache.enabled:true}") final boolean fileCacheEnabled) {
+        this.imageTrainingService = imageTrainingService;
+        this.excelTrainingService = excelTrainingService;
+        this.documentSenderService = documentSenderService;
+        this.trainingPlanFileCache = trainingPlanFileCache;
+        this.trainingTemplateCache = trainingTemplateCache;
+        this.imageEncoder = imageEncoder;
+        this.imageFormat = imageFormat;
+        this.fileCacheEnabled = fileCacheEnabled;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void deliverTrainingPlan(final Long telegramId,
+                                    final UUID userId,
+                                    final UserBenchPressRequest benchPressRequest,
+                                    final TrainingCycle trainingCycle,
+                                    final TrainingPlanFormat format,
+                                    final String caption) {
+        final double benchPress = benchPressRequest.getMaxBenchPress();
+        final String fileFormat = format == TrainingPlanFormat.IMAGE ? imageFormat : EXCEL_FORMAT;
+        final String templateVersion = fileCacheEnabled
+                ? trainingTemplateCache.getTemplateVersion(trainingCycle.templatePath())
+                : null;
+        final String outputVersion = format == TrainingPlanFormat.IMAGE
+                ? imageEncoder.getOutputVersion()
+                : "x" + ExcelTrainingService.OUTPUT_VERSION;
+
+        if (templateVersion != null) {
+            final Optional<String> fileId = trainingPlanFileCache.findFileId(
+                    templateVersion, outputVersion, benchPress, fileFormat);
+            if (fileId.isPresent()) {
+                if (documentSenderService.sendDocumentById(telegramId, fileId.get(), caption)) {
+                    log.info("{}_ПОВТОРНАЯ_ОТПРАВКА: пользователь {}, цикл {}, жим {} кг, формат {}",
+                            SERVICE_NAME, telegramId, trainingCycle.code(), benchPress, fileFormat);
+                    return;
+                }
+                log.warn("{}_FILE_ID_ОТКЛОНЕН: загружаем файл заново", SERVICE_NAME);
+                trainingPlanFileCache.evict(templateVersion, outputVersion, benchPress, fileFormat);
+            }
+        }
+
+        final GeneratedDocument generated = format == TrainingPlanFormat.IMAGE
+                ? imageTrainingService.generateTrainingPlanImage(userId, benchPressRequest)
+                : excelTrainingService.generateTrainingPlan(userId, benchPressRequest);
+        final GeneratedDocument document = new GeneratedDocument(
+                buildSharedFileName(trainingCycle, benchPress, fileFormat), generated.content());
+
+        log.info("{}_ЗАГРУЗКА: пользователь {}, файл {}, размер {} байт",
+                SERVICE_NAME, telegramId, document.fileName(), document.size());
+
+        final String uploadedFileId = documentSenderService.sendDocument(telegramId, document, caption);
+        if (templateVersion != null && uploadedFileId != null) {
+            trainingPlanFileCache.saveFileId(templateVersion, outputVersion, benchPress, fileFormat, uploadedFileId);
+        }
+    }
+
+    /**
+     * Формирует имя файла, одинаковое для всех пользователей с тем же планом.
+     */
+    private String buildSharedFileName(final TrainingCycle trainingCycle,
+                                       final double benchPress,
+                                       final String fileFormat) {
+        return String.format(Locale.ROOT, "training_plan_%s_%.2fkg.%s", trainingCycle.code(),
+                TrainingPlanFileCache.normalizeBenchPress(benchPress), fileFormat);
+    }
+}
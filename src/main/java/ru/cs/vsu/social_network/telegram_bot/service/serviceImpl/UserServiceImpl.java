@@ -1,13 +1,12 @@
 package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserCreateRequest;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserUpdateRequest;
-import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageCursor;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.UserInfoResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
@@ -19,6 +18,7 @@ import ru.cs.vsu.social_network.telegram_bot.service.UserService;
 import ru.cs.vsu.social_network.telegram_bot.utils.factory.UserFactory;
 import ru.cs.vsu.social_network.telegram_bot.validation.UserValidator;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -148,19 +148,27 @@ public class UserServiceImpl implements UserService {
      * {@inheritDoc}
      */
     @Override
-    public PageResponse<UserInfoResponse> getUsersByRole(final ROLE role, final PageRequest pageRequest) {
-        log.info("{}_ПОЛУЧЕНИЕ_ПО_РОЛИ_НАЧАЛО: запрос пользователей с ролью: {}, страница: {}",
-                SERVICE_NAME, role, pageRequest.getPageNumber());
+    public PageResponse<UserInfoResponse> getUsersByRole(final ROLE role, final CursorPageRequest pageRequest) {
+        log.info("{}_ПОЛУЧЕНИЕ_ПО_РОЛИ_НАЧАЛО: запрос пользователей с ролью: {}, первая страница: {}",
+                SERVICE_NAME, role, pageRequest.isFirstPage());
+
+        final List<User> users;
+        if (pageRequest.isFirstPage()) {
+            users = userRepository.findLatestByRole(role, pageRequest.toLimit());
+        } else {
+            final PageCursor cursor = pageRequest.decodeCursor();
+            users = userRepository.findLatestByRoleBefore(
+                    role, cursor.getDateTimeKey(), cursor.getId(), pageRequest.toLimit());
+        }
 
-        final Pageable pageable = pageRequest.toPageable();
-        final Page<User> usersPage = userRepository.findAllByRole(role, pageable);
-        final Page<UserInfoResponse> responsePage = usersPage.map(user ->
-                entityMapper.map(user, UserInfoResponse.class));
+        final PageResponse<UserInfoResponse> response = PageResponse.ofKeyset(users, pageRequest,
+                user -> PageCursor.encode(user.getCreatedAt(), user.getId()),
+                user -> entityMapper.map(user, UserInfoResponse.class));
 
-        log.info("{}_ПОЛУЧЕНИЕ_ПО_РОЛИ_УСПЕХ: найдено {} пользователей с ролью: {}",
-                SERVICE_NAME, usersPage.getTotalElements(), role);
+        log.info("{}_ПОЛУЧЕНИЕ_ПО_РОЛИ_УСПЕХ: получено {} пользователей с ролью: {}",
+                SERVICE_NAME, response.getContent().size(), role);
 
-        return PageResponse.of(responsePage);
+        return response;
     }
 
     /**
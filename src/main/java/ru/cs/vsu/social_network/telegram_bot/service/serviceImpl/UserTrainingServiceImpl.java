@@ -12,6 +12,7 @@ import ru.cs.vsu.social_network.telegram_bot.mapping.EntityMapper;
 import ru.cs.vsu.social_network.telegram_bot.provider.UserEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.provider.UserTrainingEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.repository.UserTrainingRepository;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingCycleRegistry;
 import ru.cs.vsu.social_network.telegram_bot.service.UserTrainingService;
 import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
 
@@ -30,21 +31,23 @@ import java.util.UUID;
 public class UserTrainingServiceImpl implements UserTrainingService {
 
     private static final String SERVICE_NAME = "USER_TRAINING_СЕРВИС";
-    private static final String DEFAULT_TRAINING_CYCLE = "Гусеница_8_недель";
 
     private final UserTrainingRepository userTrainingRepository;
     private final UserTrainingEntityProvider userTrainingEntityProvider;
     private final UserEntityProvider userEntityProvider;
     private final EntityMapper entityMapper;
+    private final TrainingCycleRegistry trainingCycleRegistry;
 
     public UserTrainingServiceImpl(final UserTrainingRepository userTrainingRepository,
                                    final UserTrainingEntityProvider userTrainingEntityProvider,
                                    final UserEntityProvider userEntityProvider,
-                                   final EntityMapper entityMapper) {
+                                   final EntityMapper entityMapper,
+                                   final TrainingCycleRegistry trainingCycleRegistry) {
         this.userTrainingRepository = userTrainingRepository;
         this.userTrainingEntityProvider = userTrainingEntityProvider;
         this.userEntityProvider = userEntityProvider;
         this.entityMapper = entityMapper;
+        this.trainingCycleRegistry = trainingCycleRegistry;
     }
 
     /**
@@ -91,6 +94,35 @@ public class UserTrainingServiceImpl implements UserTrainingService {
         return response;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    public UserTrainingResponse selectTrainingCycleByTelegramId(final Long telegramId, final String cycleCode) {
+        log.info("{}_ВЫБОР_ЦИКЛА_НАЧАЛО: Telegram ID {}, цикл {}", SERVICE_NAME, telegramId, cycleCode);
+
+        final User user = userEntityProvider.findByTelegramId(telegramId)
+                .orElseThrow(() -> new UserNotFoundException(MessageConstants.USER_NOT_FOUND_FAILURE));
+        final String trainingCycle = trainingCycleRegistry.resolve(cycleCode).code();
+        final LocalDateTime now = LocalDateTime.now();
+
+        final UserTraining training = userTrainingEntityProvider.findByUserId(user.getId())
+                .orElseGet(() -> {
+                    final UserTraining newTraining = new UserTraining();
+                    newTraining.setUser(user);
+                    newTraining.setCreatedAt(now);
+                    return newTraining;
+                });
+        training.setTrainingCycle(trainingCycle);
+        training.setUpdatedAt(now);
+
+        final UserTraining savedTraining = userTrainingRepository.save(training);
+
+        log.info("{}_ВЫБОР_ЦИКЛА_УСПЕХ: запись ID {}, цикл {}", SERVICE_NAME, savedTraining.getId(), trainingCycle);
+
+        return entityMapper.map(savedTraining, UserTrainingResponse.class);
+    }
 
     /**
      * {@inheritDoc}
@@ -156,7 +188,7 @@ public class UserTrainingServiceImpl implements UserTrainingService {
         training.setMaxBenchPress(benchPressRequest.getMaxBenchPress());
         training.setLastTrainingDate(now);
         training.setUpdatedAt(now);
-        training.setTrainingCycle(DEFAULT_TRAINING_CYCLE);
+        training.setTrainingCycle(resolveTrainingCycle(benchPressRequest, training.getTrainingCycle()));
 
         final UserTraining updatedTraining = userTrainingRepository.save(training);
 
@@ -190,7 +222,7 @@ public class UserTrainingServiceImpl implements UserTrainingService {
         training.setLastTrainingDate(now);
         training.setCreatedAt(now);
         training.setUpdatedAt(now);
-        training.setTrainingCycle(DEFAULT_TRAINING_CYCLE);
+        training.setTrainingCycle(resolveTrainingCycle(benchPressRequest, null));
 
         final UserTraining savedTraining = userTrainingRepository.save(training);
 
@@ -199,4 +231,20 @@ public class UserTrainingServiceImpl implements UserTrainingService {
 
         return savedTraining;
     }
-}
\ No newline at end of file
+
+    /**
+     * Определяет код цикла для записи: цикл из запроса, иначе ранее сохраненный, иначе цикл по умолчанию.
+     * Сохраненные ранее названия циклов приводятся к коду через реестр.
+     *
+     * @param benchPressRequest запрос с необязательным кодом цикла
+     * @param currentCycle ранее сохраненный цикл, может быть null
+     * @return код тренировочного цикла
+     */
+    private String resolveTrainingCycle(final UserBenchPressRequest benchPressRequest, final String currentCycle) {
+        final String requestedCycle = benchPressRequest.getTrainingCycle();
+        if (requestedCycle != null && !requestedCycle.isBlank()) {
+            return trainingCycleRegistry.resolve(requestedCycle).code();
+        }
+        return trainingCycleRegistry.resolve(currentCycle).code();
+    }
+}
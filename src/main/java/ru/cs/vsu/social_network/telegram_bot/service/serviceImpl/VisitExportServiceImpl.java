@@ -0,0 +1,252 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.cs.vsu.social_network.telegram_bot.entity.User;
+import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
+import ru.cs.vsu.social_network.telegram_bot.exception.VisitExportException;
+import ru.cs.vsu.social_network.telegram_bot.provider.VisitEntityProvider;
+import ru.cs.vsu.social_network.telegram_bot.service.VisitExportService;
+import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
+import ru.cs.vsu.social_network.telegram_bot.validation.VisitorLogValidator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Реализация выгрузки посещений на основе SXSSF.
+ * В памяти держится только окно из последних строк листа, остальные строки
+ * сбрасываются во временный сжатый файл POI, который удаляется при закрытии книги.
+ * Посещения читаются курсором с отсоединением сущностей, в памяти накапливается
+ * только сводка по посетителям, размер которой зависит от числа пользователей, а не посещений.
+ */
+@Slf4j
+@Service
+public class VisitExportServiceImpl implements VisitExportService {
+
+    private static final String SERVICE_NAME = "ВЫГРУЗКА_ПОСЕЩЕНИЙ";
+    private static final String VISITS_SHEET_NAME = "Посещения";
+    private static final String USERS_SHEET_NAME = "Посетители";
+    private static final String DATE_TIME_FORMAT = "dd.mm.yyyy hh:mm";
+    private static final int LOG_PROGRESS_ROWS = 50_000;
+    private static final int COLUMN_WIDTH_NARROW = 14 * 256;
+    private static final int COLUMN_WIDTH_WIDE = 24 * 256;
+    private static final int MAX_ROW_INDEX = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+
+    private static final String[] VISIT_HEADERS = {
+            "Дата и время", "Telegram ID", "Username", "Имя", "Фамилия", "Отображаемое имя"
+    };
+    private static final String[] USER_HEADERS = {
+            "Telegram ID", "Username", "Имя", "Фамилия", "Отображаемое имя",
+            "Посещений", "Первое посещение", "Последнее посещение"
+    };
+
+    private final VisitEntityProvider visitEntityProvider;
+    private final VisitorLogValidator visitorLogValidator;
+    private final int rowAccessWindowSize;
+
+    public VisitExportServiceImpl(final VisitEntityProvider visitEntityProvider,
+                                  final VisitorLogValidator visitorLogValidator,
+                                  @Value("${app.export.row-window:100}") final int rowAccessWindowSize) {
+        this.visitEntityProvider = visitEntityProvider;
+        this.visitorLogValidator = visitorLogValidator;
+        this.rowAccessWindowSize = rowAccessWindowSize;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportVisits(final UUID adminUserId,
+                             final LocalDate startDate,
+                             final LocalDate endDate,
+                             final OutputStream outputStream) {
+        log.info("{}_НАЧАЛО: администратор {}, период {} - {}, окно {} строк",
+                SERVICE_NAME, adminUserId, startDate, endDate, rowAccessWindowSize);
+
+        visitorLogValidator.validateAdminAccessForLogs(adminUserId);
+
+        final long start = System.nanoTime();
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(rowAccessWindowSize)) {
+            workbook.setCompressTempFiles(true);
+
+            final CellStyle headerStyle = createHeaderStyle(workbook);
+            final CellStyle dateTimeStyle = createDateTimeStyle(workbook);
+
+            Sheet visitsSheet = workbook.createSheet(VISITS_SHEET_NAME);
+            writeHeader(visitsSheet, VISIT_HEADERS, headerStyle);
+
+            final Map<UUID, UserVisitSummary> summaries = new LinkedHashMap<>();
+            long rowCount = 0;
+            int rowIndex = 0;
+            int sheetNumber = 1;
+
+            try (Stream<Visit> visits = visitEntityProvider.streamAllByDateRange(startDate, endDate)) {
+                final Iterator<Visit> iterator = visits.iterator();
+                while (iterator.hasNext()) {
+                    final Visit visit = iterator.next();
+                    if (rowIndex == MAX_ROW_INDEX) {
+                        sheetNumber++;
+                        visitsSheet = workbook.createSheet(VISITS_SHEET_NAME + " " + sheetNumber);
+                        writeHeader(visitsSheet, VISIT_HEADERS, headerStyle);
+                        rowIndex = 0;
+                    }
+                    rowCount++;
+                    rowIndex++;
+                    writeVisitRow(visitsSheet.createRow(rowIndex), visit, dateTimeStyle);
+
+                    final User user = visit.getUser();
+                    summaries.computeIfAbsent(user.getId(), id -> new UserVisitSummary(user))
+                            .register(visit.getVisitDate());
+
+                    if (rowCount % LOG_PROGRESS_ROWS == 0) {
+                        log.debug("{}_ПРОГРЕСС: записано {} посещений", SERVICE_NAME, rowCount);
+                    }
+                }
+            }
+
+            final Sheet usersSheet = workbook.createSheet(USERS_SHEET_NAME);
+            writeHeader(usersSheet, USER_HEADERS, headerStyle);
+            int userRowIndex = 1;
+            for (final UserVisitSummary summary : summaries.values()) {
+                writeUserRow(usersSheet.createRow(userRowIndex++), summary, dateTimeStyle);
+            }
+
+            workbook.write(outputStream);
+
+            log.info("{}_УСПЕХ: посещений {}, посетителей {}, за {} мс",
+                    SERVICE_NAME, rowCount, summaries.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            return rowCount;
+
+        } catch (IOException e) {
+            log.error("{}_ОШИБКА: период {} - {}, ошибка: {}", SERVICE_NAME, startDate, endDate, e.getMessage(), e);
+            throw new VisitExportException(MessageConstants.VISIT_EXPORT_FAILURE);
+        }
+    }
+
+    /**
+     * Записывает строку заголовка и задает ширину колонок.
+     * Автоподбор ширины в SXSSF требует отслеживания всех строк, поэтому ширина фиксирована.
+     */
+    private void writeHeader(final Sheet sheet, final String[] headers, final CellStyle headerStyle) {
+        final Row header = sheet.createRow(0);
+        for (int column = 0; column < headers.length; column++) {
+            final Cell cell = header.createCell(column);
+            cell.setCellValue(headers[column]);
+            cell.setCellStyle(headerStyle);
+            sheet.setColumnWidth(column, column == 0 ? COLUMN_WIDTH_NARROW : COLUMN_WIDTH_WIDE);
+        }
+        sheet.createFreezePane(0, 1);
+    }
+
+    private void writeVisitRow(final Row row, final Visit visit, final CellStyle dateTimeStyle) {
+        final User user = visit.getUser();
+        setDateTime(row.createCell(0), visit.getVisitDate(), dateTimeStyle);
+        setTelegramId(row.createCell(1), user.getTelegramId());
+        setText(row.createCell(2), user.getUsername());
+        setText(row.createCell(3), user.getFirstName());
+        setText(row.createCell(4), user.getLastName());
+        setText(row.createCell(5), user.getDisplayName());
+    }
+
+    private void writeUserRow(final Row row, final UserVisitSummary summary, final CellStyle dateTimeStyle) {
+        setTelegramId(row.createCell(0), summary.telegramId);
+        setText(row.createCell(1), summary.username);
+        setText(row.createCell(2), summary.firstName);
+        setText(row.createCell(3), summary.lastName);
+        setText(row.createCell(4), summary.displayName);
+        row.createCell(5).setCellValue(summary.visitCount);
+        setDateTime(row.createCell(6), summary.firstVisit, dateTimeStyle);
+        setDateTime(row.createCell(7), summary.lastVisit, dateTimeStyle);
+    }
+
+    private void setDateTime(final Cell cell, final LocalDateTime value, final CellStyle dateTimeStyle) {
+        if (value != null) {
+            cell.setCellValue(value);
+            cell.setCellStyle(dateTimeStyle);
+        }
+    }
+
+    private void setTelegramId(final Cell cell, final Long telegramId) {
+        if (telegramId != null) {
+            cell.setCellValue(telegramId.toString());
+        }
+    }
+
+    private void setText(final Cell cell, final String value) {
+        if (value != null) {
+            cell.setCellValue(value);
+        }
+    }
+
+    private CellStyle createHeaderStyle(final SXSSFWorkbook workbook) {
+        final Font font = workbook.createFont();
+        font.setBold(true);
+        final CellStyle style = workbook.createCellStyle();
+        style.setFont(font);
+        return style;
+    }
+
+    private CellStyle createDateTimeStyle(final SXSSFWorkbook workbook) {
+        final CellStyle style = workbook.createCellStyle();
+        style.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat(DATE_TIME_FORMAT));
+        return style;
+    }
+
+    /**
+     * Сводка посещений одного пользователя. Копирует нужные поля,
+     * чтобы не удерживать отсоединенные сущности.
+     */
+    private static final class UserVisitSummary {
+
+        private final Long telegramId;
+        private final String username;
+        private final String firstName;
+        private final String lastName;
+        private final String displayName;
+        private long visitCount;
+        private LocalDateTime firstVisit;
+        private LocalDateTime lastVisit;
+
+        private UserVisitSummary(final User user) {
+            this.telegramId = user.getTelegramId();
+            this.username = user.getUsername();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.displayName = user.getDisplayName();
+        }
+
+        private void register(final LocalDateTime visitDate) {
+            visitCount++;
+            if (visitDate == null) {
+                return;
+            }
+            if (firstVisit == null || visitDate.isBefore(firstVisit)) {
+                firstVisit = visitDate;
+            }
+            if (lastVisit == null || visitDate.isAfter(lastVisit)) {
+                lastVisit = visitDate;
+            }
+        }
+    }
+}
@@ -5,7 +5,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageCursor;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
@@ -14,10 +15,14 @@ import ru.cs.vsu.social_network.telegram_bot.provider.UserEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.provider.VisitEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.repository.VisitRepository;
 import ru.cs.vsu.social_network.telegram_bot.service.VisitService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.GymOccupancyTracker;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.VisitorLogDirtyTracker;
 import ru.cs.vsu.social_network.telegram_bot.utils.factory.VisitFactory;
 import ru.cs.vsu.social_network.telegram_bot.validation.VisitValidator;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -36,19 +41,25 @@ public class VisitServiceImpl implements VisitService {
     private final VisitFactory visitFactory;
     private final VisitValidator visitValidator;
     private final EntityMapper entityMapper;
+    private final VisitorLogDirtyTracker visitorLogDirtyTracker;
+    private final GymOccupancyTracker gymOccupancyTracker;
 
     public VisitServiceImpl(final VisitRepository visitRepository,
                             final VisitEntityProvider visitEntityProvider,
                             final UserEntityProvider userEntityProvider,
                             final VisitFactory visitFactory,
                             final VisitValidator visitValidator,
-                            final EntityMapper entityMapper) {
+                            final EntityMapper entityMapper,
+                            final VisitorLogDirtyTracker visitorLogDirtyTracker,
+                            final GymOccupancyTracker gymOccupancyTracker) {
         this.visitRepository = visitRepository;
         this.visitEntityProvider = visitEntityProvider;
         this.userEntityProvider = userEntityProvider;
         this.visitFactory = visitFactory;
         this.visitValidator = visitValidator;
         this.entityMapper = entityMapper;
+        this.visitorLogDirtyTracker = visitorLogDirtyTracker;
+        this.gymOccupancyTracker = gymOccupancyTracker;
     }
 
     /**
@@ -64,6 +75,7 @@ public class VisitServiceImpl implements VisitService {
 
         final Visit visit = visitFactory.create(userId, null);
         final Visit savedVisit = visitRepository.save(visit);
+        trackSavedVisit(savedVisit);
 
         log.info("{}_СОЗДАНИЕ_ПОСЕЩЕНИЯ_УСПЕХ: посещение создано с ID: {} для пользователя: {}",
                 SERVICE_NAME, savedVisit.getId(), userId);
@@ -91,6 +103,7 @@ public class VisitServiceImpl implements VisitService {
 
         final Visit visit = visitFactory.createForUser(user);
         final Visit savedVisit = visitRepository.save(visit);
+        trackSavedVisit(savedVisit);
 
         log.info("{}_СОЗДАНИЕ_ПОСЕЩЕНИЯ_ПО_TELEGRAM_УСПЕХ: " +
                         "посещение создано для пользователя: {} (Telegram ID: {})",
@@ -120,41 +133,56 @@ public class VisitServiceImpl implements VisitService {
      * {@inheritDoc}
      */
     @Override
-    public PageResponse<VisitResponse> getVisitsByDate(final LocalDate date, final PageRequest pageRequest) {
-        log.info("{}_ПОЛУЧЕНИЕ_ПО_ДАТЕ_НАЧАЛО: запрос посещений за дату: {}, страница: {}",
-                SERVICE_NAME, date, pageRequest.getPageNumber());
+    public PageResponse<VisitResponse> getVisitsByDate(final LocalDate date, final CursorPageRequest pageRequest) {
+        log.info("{}_ПОЛУЧЕНИЕ_ПО_ДАТЕ_НАЧАЛО: запрос посещений за дату: {}, первая страница: {}",
+                SERVICE_NAME, date, pageRequest.isFirstPage());
+
+        final LocalDateTime dayStart = date.atStartOfDay();
+        final LocalDateTime nextDay = date.plusDays(1).atStartOfDay();
+        final List<Visit> visits;
+        if (pageRequest.isFirstPage()) {
+            visits = visitRepository.findFirstByDate(dayStart, nextDay, pageRequest.toLimit());
+        } else {
+            final PageCursor cursor = pageRequest.decodeCursor();
+            visits = visitRepository.findByDateAfter(
+                    dayStart, nextDay, cursor.getDateTimeKey(), cursor.getId(), pageRequest.toLimit());
+        }
+
+        final PageResponse<VisitResponse> response = toVisitPage(visits, pageRequest);
+
+        log.info("{}_ПОЛУЧЕНИЕ_ПО_ДАТЕ_УСПЕХ: получено {} посещений за дату: {}",
+                SERVICE_NAME, response.getContent().size(), date);
 
-        final Pageable pageable = pageRequest.toPageable();
-        final Page<Visit> visitsPage = visitRepository.findAllByDate(date, pageable);
-        final Page<VisitResponse> responsePage = visitsPage.map(visit ->
-                entityMapper.map(visit, VisitResponse.class));
-
-        log.info("{}_ПОЛУЧЕНИЕ_ПО_ДАТЕ_УСПЕХ: найдено {} посещений за дату: {}",
-                SERVICE_NAME, visitsPage.getTotalElements(), date);
-
-        return PageResponse.of(responsePage);
+        return response;
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public PageResponse<VisitResponse> getVisitsByUser(final UUID userId, final PageRequest pageRequest) {
+    public PageResponse<VisitResponse> getVisitsByUser(final UUID userId, final CursorPageRequest pageRequest) {
         log.info("{}_ПОЛУЧЕНИЕ_ПО_ПОЛЬЗОВАТЕЛЮ_НАЧАЛО: " +
-                        "запрос посещений пользователя: {}, страница: {}",
-                SERVICE_NAME, userId, pageRequest.getPageNumber());
+                        "запрос посещений пользователя: {}, первая страница: {}",
+                SERVICE_NAME, userId, pageRequest.isFirstPage());
 
         final var user = userEntityProvider.getById(userId);
-        final Pageable pageable = pageRequest.toPageable();
-        final Page<Visit> visitsPage = visitRepository.findAllByUser(user, pageable);
-        final Page<VisitResponse> responsePage = visitsPage.map(visit ->
-                entityMapper.map(visit, VisitResponse.class));
+
+        final List<Visit> visits;
+        if (pageRequest.isFirstPage()) {
+            visits = visitRepository.findLatestByUser(user, pageRequest.toLimit());
+        } else {
+            final PageCursor cursor = pageRequest.decodeCursor();
+            visits = visitRepository.findLatestByUserBefore(
+                    user, cursor.getDateTimeKey(), cursor.getId(), pageRequest.toLimit());
+        }
+
+        final PageResponse<VisitResponse> response = toVisitPage(visits, pageRequest);
 
         log.info("{}_ПОЛУЧЕНИЕ_ПО_ПОЛЬЗОВАТЕЛЮ_УСПЕХ: " +
-                        "найдено {} посещений для пользователя: {}",
-                SERVICE_NAME, visitsPage.getTotalElements(), userId);
+                        "получено {} посещений для пользователя: {}",
+                SERVICE_NAME, response.getContent().size(), userId);
 
-        return PageResponse.of(responsePage);
+        return response;
     }
 
     /**
@@ -208,4 +236,32 @@ public class VisitServiceImpl implements VisitService {
 
         return count;
     }
-}
\ No newline at end of file
+
+    /**
+     * Помечает журнал посещений за день отметки как устаревший
+     * и учитывает отметку в счетчике загруженности зала.
+     *
+     * @param visit сохраненное посещение
+     */
+    private void trackSavedVisit(final Visit visit) {
+        final LocalDateTime visitTime = visit.getVisitDate() != null
+                ? visit.getVisitDate()
+                : LocalDateTime.now();
+        visitorLogDirtyTracker.markDirty(visitTime.toLocalDate());
+        gymOccupancyTracker.recordCheckIn(visitTime);
+    }
+
+    /**
+     * Формирует страницу посещений с курсором по ключу (visitDate, id).
+     *
+     * @param visits посещения, выбранные с запасом в одну запись
+     * @param pageRequest параметры запроса
+     * @return страница посещений
+     */
+    private PageResponse<VisitResponse> toVisitPage(final List<Visit> visits,
+                                                    final CursorPageRequest pageRequest) {
+        return PageResponse.ofKeyset(visits, pageRequest,
+                visit -> PageCursor.encode(visit.getVisitDate(), visit.getId()),
+                visit -> entityMapper.map(visit, VisitResponse.class));
+    }
+}
@@ -0,0 +1,183 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.OccupancyResponse;
+import ru.cs.vsu.social_network.telegram_bot.repository.VisitRepository;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.GymOccupancyTracker;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Реализация счетчика загруженности зала на атомарных массивах без блокировок.
+ * Каждая ячейка хранит в одном long номер минуты (или часа) и количество отметок,
+ * поэтому устаревшая ячейка сбрасывается той же CAS-операцией, что и увеличивает счетчик.
+ * При старте приложения счетчики восстанавливаются по таблице посещений.
+ */
+@Slf4j
+@Service
+public class GymOccupancyTrackerImpl implements GymOccupancyTracker {
+
+    private static final String SERVICE_NAME = "СЧЕТЧИК_ЗАГРУЖЕННОСТИ";
+    private static final int HOURS_PER_DAY = 24;
+    private static final int COUNT_BITS = 20;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final VisitRepository visitRepository;
+    private final int windowMinutes;
+    private final AtomicLongArray minuteSlots;
+    private final AtomicLongArray hourSlots = new AtomicLongArray(HOURS_PER_DAY);
+
+    public GymOccupancyTrackerImpl(final VisitRepository visitRepository,
+                                   @Value("${app.occupancy.window-minutes:90}") final int windowMinutes) {
+        this.visitRepository = visitRepository;
+        this.windowMinutes = Math.max(1, windowMinutes);
+        this.minuteSlots = new AtomicLongArray(this.windowMinutes);
+    }
+
+    /**
+     * Восстанавливает счетчики по отметкам за текущий день и последнее окно.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromVisits() {
+        log.info("{}_ВОССТАНОВЛЕНИЕ_НАЧАЛО: окно {} мин", SERVICE_NAME, windowMinutes);
+
+        try {
+            final LocalDateTime now = LocalDateTime.now();
+            final LocalDateTime windowStart = now.minusMinutes(windowMinutes);
+            final LocalDateTime dayStart = now.toLocalDate().atStartOfDay();
+            final LocalDateTime since = windowStart.isBefore(dayStart) ? windowStart : dayStart;
+
+            final List<LocalDateTime> checkInTimes = visitRepository.findVisitTimesSince(since);
+            rebuild(checkInTimes);
+
+            log.info("{}_ВОССТАНОВЛЕНИЕ_УСПЕХ: учтено {} отметок с {}",
+                    SERVICE_NAME, checkInTimes.size(), since);
+        } catch (Exception e) {
+            log.error("{}_ВОССТАНОВЛЕНИЕ_ОШИБКА: счетчики начнут заполняться с новых отметок: {}",
+                    SERVICE_NAME, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void recordCheckIn(final LocalDateTime checkInTime) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(checkInTime);
+                }
+            });
+            return;
+        }
+        increment(checkInTime);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rebuild(final Collection<LocalDateTime> checkInTimes) {
+        for (int i = 0; i < minuteSlots.length(); i++) {
+            minuteSlots.set(i, 0L);
+        }
+        for (int i = 0; i < hourSlots.length(); i++) {
+            hourSlots.set(i, 0L);
+        }
+        checkInTimes.forEach(this::increment);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public OccupancyResponse getOccupancy() {
+        final LocalDateTime now = LocalDateTime.now();
+
+        final long currentMinute = minuteKey(now);
+        long recentCheckIns = 0;
+        for (long minute = currentMinute - windowMinutes + 1; minute <= currentMinute; minute++) {
+            recentCheckIns += countFor(minuteSlots.get(slotIndex(minute, windowMinutes)), minute);
+        }
+
+        final long firstHourOfDay = hourKey(now.toLocalDate().atStartOfDay());
+        final List<Long> hourlyCheckIns = new ArrayList<>(HOURS_PER_DAY);
+        long todayCheckIns = 0;
+        for (int hour = 0; hour < HOURS_PER_DAY; hour++) {
+            final long count = countFor(hourSlots.get(hour), firstHourOfDay + hour);
+            hourlyCheckIns.add(count);
+            todayCheckIns += count;
+        }
+
+        return OccupancyResponse.builder()
+                .recentCheckIns(recentCheckIns)
+                .windowMinutes(windowMinutes)
+                .todayCheckIns(todayCheckIns)
+                .hourlyCheckIns(hourlyCheckIns)
+                .generatedAt(now)
+                .build();
+    }
+
+    private void increment(final LocalDateTime checkInTime) {
+        final long minute = minuteKey(checkInTime);
+        incrementSlot(minuteSlots, slotIndex(minute, windowMinutes), minute);
+        incrementSlot(hourSlots, checkInTime.getHour(), hourKey(checkInTime));
+
+        log.debug("{}_ОТМЕТКА_УЧТЕНА: время {}", SERVICE_NAME, checkInTime);
+    }
+
+    /**
+     * Увеличивает счетчик ячейки. Если ячейка хранит более ранний период,
+     * она начинается заново; отметки за более ранний период, чем в ячейке, отбрасываются.
+     */
+    private void incrementSlot(final AtomicLongArray slots, final int index, final long key) {
+        while (true) {
+            final long current = slots.get(index);
+            final long currentKey = current >>> COUNT_BITS;
+
+            final long next;
+            if (currentKey == key) {
+                if ((current & COUNT_MASK) == COUNT_MASK) {
+                    return;
+                }
+                next = current + 1;
+            } else if (currentKey < key) {
+                next = (key << COUNT_BITS) | 1L;
+            } else {
+                return;
+            }
+
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private long countFor(final long slot, final long key) {
+        return (slot >>> COUNT_BITS) == key ? slot & COUNT_MASK : 0L;
+    }
+
+    private int slotIndex(final long key, final int size) {
+        return (int) Math.floorMod(key, (long) size);
+    }
+
+    private long hourKey(final LocalDateTime time) {
+        return time.toLocalDate().toEpochDay() * HOURS_PER_DAY + time.getHour();
+    }
+
+    private long minuteKey(final LocalDateTime time) {
+        return hourKey(time) * 60 + time.getMinute();
+    }
+}
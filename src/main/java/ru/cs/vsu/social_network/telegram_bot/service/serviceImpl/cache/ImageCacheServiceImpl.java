@@ -6,64 +6,57 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import ru.cs.vsu.social_network.telegram_bot.service.cache.ImageCacheService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanFileCache;
+import org.springframework.util.unit.DataSize;
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+import ru.cs.vsu.social_network.telegram_bot.utils.cache.CacheStats;
+import ru.cs.vsu.social_network.telegram_bot.utils.cache.WeightedLruCache;
 
-
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
-import javax.imageio.ImageIO;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Реализация кеша изображений тренировочных планов.
+ * Хранит закодированные байты изображения и его метаданные; при попадании
+ * изображение выдается как есть, без декодирования, повторного кодирования и записи на диск.
+ * Объем кеша ограничен суммарным размером изображений в байтах; при переполнении
+ * вытесняются самые давно использованные изображения. Просроченные записи удаляются
+ * при чтении, периодическая очистка только освобождает память от записей, к которым не обращаются.
+ */
 @Slf4j
 @Service
 public class ImageCacheServiceImpl implements ImageCacheService {
 
-    @Value("${training.image.cache.enabled:true}")
-    private boolean cacheEnabled;
-
-    @Value("${training.image.cache.ttl.minutes:60}")
-    private long cacheTTLMinutes;
-
-    @Value("${training.image.cache.max.size:50}")
-    private int cacheMaxSize;
+    private final boolean cacheEnabled;
+    private final long cacheTTLMinutes;
+    private final DataSize cacheMaxBytes;
 
-    private final ConcurrentHashMap<String, CachedImage> imageCache;
+    private final WeightedLruCache<String, EncodedImage> imageCache;
     private ScheduledExecutorService cleanupScheduler;
 
-    private static class CachedImage {
-        final byte[] compressedImageData;
-        final long creationTime;
-        final int width;
-        final int height;
-
-        CachedImage(byte[] compressedImageData, int width, int height) {
-            this.compressedImageData = compressedImageData;
-            this.creationTime = System.currentTimeMillis();
-            this.width = width;
-            this.height = height;
-        }
-
-        boolean isExpired(long ttlMillis) {
-            return System.currentTimeMillis() - creationTime > ttlMillis;
-        }
-    }
-
-    public ImageCacheServiceImpl() {
-        this.imageCache = new ConcurrentHashMap<>();
+    public ImageCacheServiceImpl(@Value("${training.image.cache.enabled:true}") boolean cacheEnabled,
+                                 @Value("${training.image.cache.ttl.minutes:60}") long cacheTTLMinutes,
+                                 @Value("${training.image.cache.max-bytes:8MB}") DataSize cacheMaxBytes) {
+        this.cacheEnabled = cacheEnabled;
+        this.cacheTTLMinutes = cacheTTLMinutes;
+        this.cacheMaxBytes = cacheMaxBytes;
+        this.imageCache = new WeightedLruCache<>(cacheMaxBytes.toBytes(),
+                TimeUnit.MINUTES.toMillis(cacheTTLMinutes), EncodedImage::size);
     }
 
     @PostConstruct
     public void init() {
         if (cacheEnabled) {
+            final long cleanupPeriod = Math.max(1, cacheTTLMinutes / 2);
             cleanupScheduler = Executors.newSingleThreadScheduledExecutor();
             cleanupScheduler.scheduleAtFixedRate(this::cleanupCache,
-                    cacheTTLMinutes, cacheTTLMinutes / 2, TimeUnit.MINUTES);
-            log.info("КЕШ_СЕРВИС_ИНИЦИАЛИЗАЦИЯ: кеширование включено, TTL: {} минут, максимальный размер: {}",
-                    cacheTTLMinutes, cacheMaxSize);
+                    cleanupPeriod, cleanupPeriod, TimeUnit.MINUTES);
+            log.info("КЕШ_СЕРВИС_ИНИЦИАЛИЗАЦИЯ: кеширование включено, TTL: {} минут, максимальный объем: {} байт",
+                    cacheTTLMinutes, cacheMaxBytes.toBytes());
         } else {
             log.info("КЕШ_СЕРВИС_ИНИЦИАЛИЗАЦИЯ: кеширование отключено");
         }
@@ -86,55 +79,42 @@ public class ImageCacheServiceImpl implements ImageCacheService {
         log.info("КЕШ_СЕРВИС_ОСТАНОВКА: кеш очищен");
     }
 
+    /**
+     * {@inheritDoc}
+     */
     @Override
-    public BufferedImage getImageFromCache(String cacheKey) {
+    public Optional<EncodedImage> getImage(String cacheKey) {
         if (!cacheEnabled) {
-            return null;
+            return Optional.empty();
         }
 
-        CachedImage cached = imageCache.get(cacheKey);
-        if (cached != null && !cached.isExpired(TimeUnit.MINUTES.toMillis(cacheTTLMinutes))) {
-            try {
-                ByteArrayInputStream bais = new ByteArrayInputStream(cached.compressedImageData);
-                BufferedImage image = ImageIO.read(bais);
-                if (image != null) {
-                    log.info("КЕШ_СЕРВИС_ПОПАДАНИЕ: изображение загружено из кеша ключ {} размер {}x{}",
-                            cacheKey, cached.width, cached.height);
-                    return image;
-                }
-            } catch (Exception e) {
-                log.warn("КЕШ_СЕРВИС_ОШИБКА_ПОЛУЧЕНИЯ: ошибка при загрузке изображения из кеша: {}", e.getMessage());
-                imageCache.remove(cacheKey);
-            }
-        } else if (cached != null) {
-            imageCache.remove(cacheKey);
-            log.debug("КЕШ_СЕРВИС_УДАЛЕНИЕ: просроченная запись удалена ключ {}", cacheKey);
+        EncodedImage cached = imageCache.get(cacheKey);
+        if (cached == null) {
+            log.debug("КЕШ_СЕРВИС_ПРОМАХ: ключ {}", cacheKey);
+            return Optional.empty();
         }
 
-        return null;
+        log.info("КЕШ_СЕРВИС_ПОПАДАНИЕ: изображение выдано из кеша ключ {} размер {}x{} {} байт",
+                cacheKey, cached.width(), cached.height(), cached.size());
+        return Optional.of(cached);
     }
 
+    /**
+     * {@inheritDoc}
+     */
     @Override
-    public void cacheImage(String cacheKey, BufferedImage image, String filePath, int width, int height) {
+    public void putImage(String cacheKey, EncodedImage image) {
         if (!cacheEnabled || image == null) {
             return;
         }
 
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            if (ImageIO.write(image, "png", baos)) {
-                byte[] compressedData = baos.toByteArray();
-                imageCache.put(cacheKey, new CachedImage(compressedData, width, height));
-                log.info("КЕШ_СЕРВИС_СОХРАНЕНИЕ: изображение закэшировано ключ {} размер данных {} байт",
-                        cacheKey, compressedData.length);
-
-                if (imageCache.size() > cacheMaxSize) {
-                    cleanupCache();
-                }
-            }
-        } catch (Exception e) {
-            log.warn("КЕШ_СЕРВИС_ОШИБКА_СОХРАНЕНИЯ: ошибка при кэшировании изображения: {}", e.getMessage());
+        if (!imageCache.put(cacheKey, image)) {
+            log.warn("КЕШ_СЕРВИС_ПРОПУСК: изображение {} байт больше объема кеша {} байт, ключ {}",
+                    image.size(), cacheMaxBytes.toBytes(), cacheKey);
+            return;
         }
+        log.info("КЕШ_СЕРВИС_СОХРАНЕНИЕ: изображение закэшировано ключ {} формат {} размер данных {} байт",
+                cacheKey, image.format(), image.size());
     }
 
     @Override
@@ -143,8 +123,8 @@ public class ImageCacheServiceImpl implements ImageCacheService {
         long fileSize = excelFile.length();
 
         if (maxBenchPress != null) {
-            double roundedBenchPress = Math.round(maxBenchPress * 10.0) / 10.0;
-            return String.format("training_plan_%d_%.1f", fileSize, roundedBenchPress);
+            double roundedBenchPress = TrainingPlanFileCache.normalizeBenchPress(maxBenchPress);
+            return String.format(Locale.ROOT, "training_plan_%d_%.2f", fileSize, roundedBenchPress);
         } else {
             return String.format("training_plan_%d", fileSize);
         }
@@ -158,39 +138,36 @@ public class ImageCacheServiceImpl implements ImageCacheService {
         String templateName = new File(templatePath).getName();
 
         if (maxBenchPress != null) {
-            double roundedBenchPress = Math.round(maxBenchPress * 10.0) / 10.0;
-            return String.format("%s_%.1f", templateName, roundedBenchPress);
+            double roundedBenchPress = TrainingPlanFileCache.normalizeBenchPress(maxBenchPress);
+            return String.format(Locale.ROOT, "%s_%.2f", templateName, roundedBenchPress);
         } else {
             return templateName;
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
     @Override
     public void cleanupCache() {
         if (!cacheEnabled) {
             return;
         }
 
-        long ttlMillis = TimeUnit.MINUTES.toMillis(cacheTTLMinutes);
-        int initialSize = imageCache.size();
-
-        imageCache.entrySet().removeIf(entry -> entry.getValue().isExpired(ttlMillis));
-
-        int removedCount = initialSize - imageCache.size();
-        if (removedCount > 0) {
-            log.info("КЕШ_СЕРВИС_ОЧИСТКА: удалено {} просроченных записей", removedCount);
-        }
-
-        if (imageCache.size() > cacheMaxSize) {
-            int toRemove = imageCache.size() - cacheMaxSize;
-            imageCache.entrySet().stream()
-                    .sorted((e1, e2) -> Long.compare(e1.getValue().creationTime, e2.getValue().creationTime))
-                    .limit(toRemove)
-                    .forEach(entry -> imageCache.remove(entry.getKey()));
-            log.info("КЕШ_СЕРВИС_ОЧИСТКА: удалено {} старых записей для ограничения размера", toRemove);
-        }
+        int removedCount = imageCache.removeExpired();
+        CacheStats stats = imageCache.stats();
+        log.info("КЕШ_СЕРВИС_ОЧИСТКА: удалено просроченных {}, записей {}, объем {} из {} байт, "
+                        + "попаданий {}, промахов {}, вытеснено {}, доля попаданий {}",
+                removedCount, stats.entryCount(), stats.weightBytes(), stats.maxWeightBytes(),
+                stats.hits(), stats.misses(), stats.evictions(), String.format("%.2f", stats.hitRate()));
+    }
 
-        System.gc();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheStats getStats() {
+        return imageCache.stats();
     }
 
     @Override
@@ -202,8 +179,7 @@ public class ImageCacheServiceImpl implements ImageCacheService {
      * Очищает весь кэш (для тестирования).
      */
     public void clearAllCache() {
-        int size = imageCache.size();
-        imageCache.clear();
+        int size = imageCache.clear();
         log.info("КЕШ_СЕРВИС_ПОЛНАЯ_ОЧИСТКА: удалено {} записей", size);
     }
 
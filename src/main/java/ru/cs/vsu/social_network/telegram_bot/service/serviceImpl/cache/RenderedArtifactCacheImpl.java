@@ -0,0 +1,168 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.RenderedArtifactCache;
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+import ru.cs.vsu.social_network.telegram_bot.utils.cache.CacheStats;
+import ru.cs.vsu.social_network.telegram_bot.utils.cache.SegmentFileStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * Реализация дискового уровня кеша на основе файла сегмента.
+ * Изображение хранится вместе с метаданными: перед байтами изображения записываются
+ * формат, ширина и высота, чтобы при попадании не декодировать изображение.
+ * Если файл кеша не удалось открыть, кеш отключается, и планы генерируются как обычно.
+ */
+@Slf4j
+@Service
+public class RenderedArtifactCacheImpl implements RenderedArtifactCache {
+
+    private static final String SERVICE_NAME = "ДИСКОВЫЙ_КЕШ";
+    private static final String SEGMENT_FILE = "artifacts.seg";
+    private static final String IMAGE_PREFIX = "image:";
+    private static final String WORKBOOK_PREFIX = "xlsx:";
+    private static final CacheStats EMPTY_STATS = new CacheStats(0, 0, 0, 0, 0, 0, 0);
+
+    private final boolean enabled;
+    private final String directory;
+    private final DataSize maxBytes;
+
+    private volatile SegmentFileStore store;
+
+    public RenderedArtifactCacheImpl(
+            @Value("${training.disk-cache.enabled:true}") final boolean enabled,
+            @Value("${training.disk-cache.dir:${java.io.tmpdir}/gen-strong-cache}") final String directory,
+            @Value("${training.disk-cache.max-bytes:256MB}") final DataSize maxBytes) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            log.info("{}_ИНИЦИАЛИЗАЦИЯ: дисковый кеш отключен", SERVICE_NAME);
+            return;
+        }
+        final Path file = Paths.get(directory).resolve(SEGMENT_FILE);
+        try {
+            store = SegmentFileStore.open(file, maxBytes.toBytes());
+            log.info("{}_ИНИЦИАЛИЗАЦИЯ: файл {}, предел {} байт, записей {}",
+                    SERVICE_NAME, file, maxBytes.toBytes(), store.size());
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("{}_ИНИЦИАЛИЗАЦИЯ_ОШИБКА: файл {}, дисковый кеш отключен: {}",
+                    SERVICE_NAME, file, e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        final SegmentFileStore current = store;
+        store = null;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.warn("{}_ОСТАНОВКА_ОШИБКА: {}", SERVICE_NAME, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<EncodedImage> getImage(final String cacheKey) {
+        final byte[] value = read(IMAGE_PREFIX + cacheKey);
+        if (value == null) {
+            return Optional.empty();
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(value);
+        final byte[] format = new byte[buffer.get()];
+        buffer.get(format);
+        final int width = buffer.getInt();
+        final int height = buffer.getInt();
+        final byte[] content = new byte[buffer.remaining()];
+        buffer.get(content);
+        return Optional.of(new EncodedImage(content, new String(format, StandardCharsets.US_ASCII), width, height));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putImage(final String cacheKey, final EncodedImage image) {
+        final byte[] format = image.format().getBytes(StandardCharsets.US_ASCII);
+        final byte[] value = ByteBuffer.allocate(1 + format.length + 2 * Integer.BYTES + image.size())
+                .put((byte) format.length)
+                .put(format)
+                .putInt(image.width())
+                .putInt(image.height())
+                .put(image.content())
+                .array();
+        write(IMAGE_PREFIX + cacheKey, value);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<byte[]> getWorkbook(final String cacheKey) {
+        return Optional.ofNullable(read(WORKBOOK_PREFIX + cacheKey));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void putWorkbook(final String cacheKey, final byte[] content) {
+        write(WORKBOOK_PREFIX + cacheKey, content);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CacheStats getStats() {
+        final SegmentFileStore current = store;
+        return current != null ? current.stats() : EMPTY_STATS;
+    }
+
+    private byte[] read(final String key) {
+        final SegmentFileStore current = store;
+        if (current == null) {
+            return null;
+        }
+        final byte[] value = current.get(key);
+        log.debug("{}_{}: ключ {}", SERVICE_NAME, value != null ? "ПОПАДАНИЕ" : "ПРОМАХ", key);
+        return value;
+    }
+
+    private void write(final String key, final byte[] value) {
+        final SegmentFileStore current = store;
+        if (current == null) {
+            return;
+        }
+        try {
+            if (current.put(key, value)) {
+                log.debug("{}_СОХРАНЕНИЕ: ключ {}, {} байт, файл {} байт",
+                        SERVICE_NAME, key, value.length, current.fileSize());
+            } else {
+                log.warn("{}_ПРОПУСК: ключ {}, {} байт не помещается в кеш", SERVICE_NAME, key, value.length);
+            }
+        } catch (IOException e) {
+            log.error("{}_СОХРАНЕНИЕ_ОШИБКА: ключ {}: {}", SERVICE_NAME, key, e.getMessage(), e);
+        }
+    }
+}
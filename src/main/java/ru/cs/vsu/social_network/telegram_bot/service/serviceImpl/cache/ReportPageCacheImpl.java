@@ -0,0 +1,88 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.ReportPageCache;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Реализация кеша страниц отчетов в памяти приложения.
+ * Записи живут ограниченное время, количество записей ограничено;
+ * при переполнении удаляются записи, срок жизни которых истекает раньше всех.
+ */
+@Slf4j
+@Service
+public class ReportPageCacheImpl implements ReportPageCache {
+
+    private static final String SERVICE_NAME = "КЕШ_СТРАНИЦ_ОТЧЕТОВ";
+
+    private final ConcurrentHashMap<String, CachedPages> entries = new ConcurrentHashMap<>();
+
+    @Value("${app.report.pages.ttl:PT15M}")
+    private Duration ttl = Duration.ofMinutes(15);
+
+    @Value("${app.report.pages.max-entries:200}")
+    private int maxEntries = 200;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String put(final Long chatId, final List<String> pages) {
+        evictExpired();
+        while (entries.size() >= maxEntries) {
+            entries.entrySet().stream()
+                    .min(Comparator.comparing(entry -> entry.getValue().expiresAt()))
+                    .map(Map.Entry::getKey)
+                    .ifPresent(entries::remove);
+        }
+
+        final String key = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        entries.put(key, new CachedPages(chatId, List.copyOf(pages), Instant.now().plus(ttl)));
+
+        log.debug("{}_СТРАНИЦЫ_СОХРАНЕНЫ: ключ {}, чат {}, страниц {}", SERVICE_NAME, key, chatId, pages.size());
+
+        return key;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<List<String>> getPages(final String key, final Long chatId) {
+        final CachedPages cached = entries.get(key);
+        if (cached == null) {
+            return Optional.empty();
+        }
+        if (cached.expiresAt().isBefore(Instant.now())) {
+            entries.remove(key, cached);
+            log.debug("{}_СТРАНИЦЫ_УСТАРЕЛИ: ключ {}", SERVICE_NAME, key);
+            return Optional.empty();
+        }
+        if (!cached.chatId().equals(chatId)) {
+            log.warn("{}_ЧУЖОЙ_ЧАТ: ключ {} запрошен из чата {}", SERVICE_NAME, key, chatId);
+            return Optional.empty();
+        }
+        return Optional.of(cached.pages());
+    }
+
+    private void evictExpired() {
+        final Instant now = Instant.now();
+        entries.values().removeIf(cached -> cached.expiresAt().isBefore(now));
+    }
+
+    /**
+     * Страницы отчета вместе с владельцем и сроком жизни.
+     */
+    private record CachedPages(Long chatId, List<String> pages, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,175 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.cs.vsu.social_network.telegram_bot.service.ExcelTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingCycleRegistry;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanCatalog;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanCatalogBuilder;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
+import ru.cs.vsu.social_network.telegram_bot.service.image.ExcelToImageConverter;
+import ru.cs.vsu.social_network.telegram_bot.service.image.ImageEncoder;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.BenchPressGrid;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanCatalogData;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingTemplateChangedEvent;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация фонового построения каталога тренировочных планов.
+ * Каталог строится только для цикла по умолчанию, остальные циклы компилируются при первом обращении.
+ * Планы генерируются последовательно в отдельном потоке для каждого узла сетки жима,
+ * пока не исчерпан лимит памяти каталога. Готовый снимок публикуется целиком.
+ */
+@Slf4j
+@Service
+public class TrainingPlanCatalogBuilderImpl implements TrainingPlanCatalogBuilder {
+
+    private static final String SERVICE_NAME = "КАТАЛОГ_ПЛАНОВ_ПОСТРОЕНИЕ";
+
+    private final ExcelTrainingService excelTrainingService;
+    private final ExcelToImageConverter excelToImageConverter;
+    private final ImageEncoder imageEncoder;
+    private final TrainingTemplateCache trainingTemplateCache;
+    private final TrainingPlanCatalog trainingPlanCatalog;
+    private final TrainingCycleRegistry trainingCycleRegistry;
+    private final boolean catalogEnabled;
+    private final BenchPressGrid grid;
+    private final long maxBytes;
+    private final String imageFormat;
+    private final AtomicLong buildGeneration = new AtomicLong();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "training-plan-catalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public TrainingPlanCatalogBuilderImpl(
+            final ExcelTrainingService excelTrainingService,
+            final ExcelToImageConverter excelToImageConverter,
+            final ImageEncoder imageEncoder,
+            final TrainingTemplateCache trainingTemplateCache,
+            final TrainingPlanCatalog trainingPlanCatalog,
+            final TrainingCycleRegistry trainingCycleRegistry,
+            @Value("${training.catalog.enabled:true}") final boolean catalogEnabled,
+            @Value("${training.catalog.min-bench-press:20}") final double minBenchPress,
+            @Value("${training.catalog.max-bench-press:300}") final double maxBenchPress,
+            @Value("${training.catalog.step:2.5}") final double step,
+            @Value("${training.catalog.max-size-mb:16}") final long maxSizeMb,
+            @Value("${training.image.format:png}") final String imageFormat) {
+        this.excelTrainingService = excelTrainingService;
+        this.excelToImageConverter = excelToImageConverter;
+        this.imageEncoder = imageEncoder;
+        this.trainingTemplateCache = trainingTemplateCache;
+        this.trainingPlanCatalog = trainingPlanCatalog;
+        this.trainingCycleRegistry = trainingCycleRegistry;
+        this.catalogEnabled = catalogEnabled;
+        this.grid = new BenchPressGrid(minBenchPress, maxBenchPress, step);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+        this.imageFormat = imageFormat;
+    }
+
+    /**
+     * Строит каталог после запуска приложения.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuildAsync();
+    }
+
+    /**
+     * Перестраивает каталог после изменения шаблона цикла по умолчанию.
+     *
+     * @param event событие изменения шаблона
+     */
+    @EventListener
+    public void onTemplateChanged(final TrainingTemplateChangedEvent event) {
+        if (trainingCycleRegistry.getDefaultCycle().templatePath().equals(event.templatePath())) {
+            rebuildAsync();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void rebuildAsync() {
+        if (!catalogEnabled) {
+            log.info("{}_ОТКЛЮЧЕНО: каталог не строится", SERVICE_NAME);
+            return;
+        }
+        final long generation = buildGeneration.incrementAndGet();
+        executor.execute(() -> rebuild(generation));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        buildGeneration.incrementAndGet();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Генерирует планы для узлов сетки и публикует снимок каталога.
+     *
+     * @param generation номер запуска; построение прекращается, если запущено более новое
+     */
+    private void rebuild(final long generation) {
+        if (generation != buildGeneration.get()) {
+            return;
+        }
+
+        final long start = System.nanoTime();
+        try {
+            trainingPlanCatalog.clear();
+            final TrainingCycle trainingCycle = trainingCycleRegistry.getDefaultCycle();
+            final String templatePath = trainingCycle.templatePath();
+            final String templateVersion = trainingTemplateCache.getTemplateVersion(templatePath);
+            log.info("{}_НАЧАЛО: шаблон {}, версия {}, {}, лимит {} байт",
+                    SERVICE_NAME, templatePath, templateVersion, grid, maxBytes);
+
+            final TrainingPlanCatalogData.Builder builder =
+                    TrainingPlanCatalogData.builder(templateVersion, grid, maxBytes);
+            int added = 0;
+            for (int index = 0; index < grid.size(); index++) {
+                if (generation != buildGeneration.get() || Thread.currentThread().isInterrupted()) {
+                    log.info("{}_ПРЕРВАНО: построено {} из {} планов", SERVICE_NAME, added, grid.size());
+                    return;
+                }
+
+                final double benchPress = grid.valueAt(index);
+                final byte[] workbook = excelTrainingService.renderTrainingPlan(trainingCycle, benchPress);
+                final BufferedImage image = excelToImageConverter.renderPlanToImage(
+                        excelTrainingService.buildPlanTable(trainingCycle, benchPress));
+                final byte[] encodedImage = imageEncoder.encode(image, imageFormat).content();
+
+                if (!builder.add(index, workbook, encodedImage)) {
+                    log.warn("{}_ЛИМИТ_ПАМЯТИ: каталог заполнен на {} кг, построено {} из {} планов",
+                            SERVICE_NAME, benchPress, added, grid.size());
+                    break;
+                }
+                added++;
+            }
+
+            if (!templateVersion.equals(trainingTemplateCache.getTemplateVersion(templatePath))) {
+                log.info("{}_ШАБЛОН_ИЗМЕНИЛСЯ: снимок версии {} не публикуется", SERVICE_NAME, templateVersion);
+                return;
+            }
+            trainingPlanCatalog.publish(builder.build());
+
+            log.info("{}_УСПЕХ: построено {} планов за {} мс",
+                    SERVICE_NAME, added, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (Exception e) {
+            log.error("{}_ОШИБКА: каталог не построен, планы будут генерироваться по запросу: {}",
+                    SERVICE_NAME, e.getMessage(), e);
+        }
+    }
+}
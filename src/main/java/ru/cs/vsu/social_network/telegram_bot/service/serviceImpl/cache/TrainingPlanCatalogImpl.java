@@ -0,0 +1,103 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanCatalog;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanCatalogData;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация каталога готовых тренировочных планов.
+ * Текущий снимок публикуется атомарно, чтение идет без блокировок.
+ * Перед выдачей проверяется, что снимок построен для актуальной версии запрошенного шаблона:
+ * версия вычисляется по содержимому, поэтому планы другого цикла из снимка не выдаются.
+ */
+@Slf4j
+@Service
+public class TrainingPlanCatalogImpl implements TrainingPlanCatalog {
+
+    private static final String SERVICE_NAME = "КАТАЛОГ_ПЛАНОВ";
+
+    private final TrainingTemplateCache trainingTemplateCache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile TrainingPlanCatalogData data;
+
+    public TrainingPlanCatalogImpl(final TrainingTemplateCache trainingTemplateCache) {
+        this.trainingTemplateCache = trainingTemplateCache;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<byte[]> findWorkbook(final String templatePath, final double maxBenchPress) {
+        final TrainingPlanCatalogData current = currentData(templatePath);
+        return record(current != null ? current.findWorkbook(maxBenchPress) : null, maxBenchPress);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<byte[]> findImage(final String templatePath, final double maxBenchPress) {
+        final TrainingPlanCatalogData current = currentData(templatePath);
+        return record(current != null ? current.findImage(maxBenchPress) : null, maxBenchPress);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void publish(final TrainingPlanCatalogData data) {
+        this.data = data;
+        log.info("{}_ПУБЛИКАЦИЯ: версия шаблона {}, сетка {}, планов {}, размер {} байт",
+                SERVICE_NAME, data.getTemplateVersion(), data.getGrid(), data.getEntries(), data.getTotalBytes());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        if (data != null) {
+            data = null;
+            log.info("{}_ОЧИСТКА: каталог очищен", SERVICE_NAME);
+        }
+    }
+
+    /**
+     * Возвращает текущий снимок, если он соответствует актуальной версии шаблона.
+     *
+     * @param templatePath путь к запрошенному шаблону
+     * @return снимок или null
+     */
+    private TrainingPlanCatalogData currentData(final String templatePath) {
+        final TrainingPlanCatalogData current = data;
+        if (current == null) {
+            return null;
+        }
+        if (!current.getTemplateVersion().equals(trainingTemplateCache.getTemplateVersion(templatePath))) {
+            log.debug("{}_УСТАРЕЛ: каталог построен для версии {}", SERVICE_NAME, current.getTemplateVersion());
+            return null;
+        }
+        return current;
+    }
+
+    private Optional<byte[]> record(final byte[] content, final double maxBenchPress) {
+        if (content == null) {
+            final long missCount = misses.incrementAndGet();
+            log.debug("{}_ПРОМАХ: жим {} кг, попаданий {}, промахов {}",
+                    SERVICE_NAME, maxBenchPress, hits.get(), missCount);
+            return Optional.empty();
+        }
+        final long hitCount = hits.incrementAndGet();
+        log.debug("{}_ПОПАДАНИЕ: жим {} кг, попаданий {}, промахов {}",
+                SERVICE_NAME, maxBenchPress, hitCount, misses.get());
+        return Optional.of(content);
+    }
+}
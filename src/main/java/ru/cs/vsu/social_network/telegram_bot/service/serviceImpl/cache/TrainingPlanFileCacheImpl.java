@@ -0,0 +1,104 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.cs.vsu.social_network.telegram_bot.entity.TelegramFileCache;
+import ru.cs.vsu.social_network.telegram_bot.repository.TelegramFileCacheRepository;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanFileCache;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Реализация кеша идентификаторов файлов Telegram на основе таблицы telegram_file_cache.
+ * Запись об одном и том же плане может прийти одновременно от нескольких запросов,
+ * поэтому конфликт первичного ключа при сохранении не считается ошибкой.
+ * Раз в сутки удаляются записи старше срока хранения: после смены версии отрисовки
+ * записи под прежними ключами больше не читаются и иначе оставались бы в таблице навсегда.
+ */
+@Slf4j
+@Service
+public class TrainingPlanFileCacheImpl implements TrainingPlanFileCache {
+
+    private static final String SERVICE_NAME = "КЕШ_ФАЙЛОВ_TELEGRAM";
+
+    private final TelegramFileCacheRepository telegramFileCacheRepository;
+    private final Duration maxAge;
+
+    public TrainingPlanFileCacheImpl(final TelegramFileCacheRepository telegramFileCacheRepository,
+                                     @Value("${training.file-cache.max-age:P30D}") final Duration maxAge) {
+        this.telegramFileCacheRepository = telegramFileCacheRepository;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<String> findFileId(final String templateVersion, final String outputVersion,
+                                       final double benchPress, final String format) {
+        final String cacheKey = buildKey(templateVersion, outputVersion, benchPress, format);
+        final Optional<String> fileId = telegramFileCacheRepository.findById(cacheKey)
+                .map(TelegramFileCache::getFileId);
+
+        log.info("{}_ПОИСК: ключ {}, найден: {}", SERVICE_NAME, cacheKey, fileId.isPresent());
+        return fileId;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveFileId(final String templateVersion, final String outputVersion, final double benchPress,
+                           final String format, final String fileId) {
+        final String cacheKey = buildKey(templateVersion, outputVersion, benchPress, format);
+        try {
+            telegramFileCacheRepository.save(TelegramFileCache.builder()
+                    .cacheKey(cacheKey)
+                    .templateVersion(templateVersion)
+                    .benchPress(TrainingPlanFileCache.normalizeBenchPress(benchPress))
+                    .format(format)
+                    .fileId(fileId)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            log.info("{}_СОХРАНЕНИЕ: ключ {}", SERVICE_NAME, cacheKey);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("{}_СОХРАНЕНИЕ_КОНФЛИКТ: ключ {} уже сохранен другим запросом", SERVICE_NAME, cacheKey);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void evict(final String templateVersion, final String outputVersion,
+                      final double benchPress, final String format) {
+        final String cacheKey = buildKey(templateVersion, outputVersion, benchPress, format);
+        telegramFileCacheRepository.deleteById(cacheKey);
+        log.info("{}_УДАЛЕНИЕ: ключ {}", SERVICE_NAME, cacheKey);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${training.file-cache.purge-cron:0 30 4 * * ?}")
+    public int purgeExpired() {
+        final int removed = telegramFileCacheRepository.deleteByCreatedAtBefore(LocalDateTime.now().minus(maxAge));
+        log.info("{}_ОЧИСТКА: удалено записей старше {}: {}", SERVICE_NAME, maxAge, removed);
+        return removed;
+    }
+
+    private String buildKey(final String templateVersion, final String outputVersion,
+                            final double benchPress, final String format) {
+        return String.format(Locale.ROOT, "%s_%s_%.2f_%s", templateVersion, outputVersion,
+                TrainingPlanFileCache.normalizeBenchPress(benchPress), format.toLowerCase(Locale.ROOT));
+    }
+}
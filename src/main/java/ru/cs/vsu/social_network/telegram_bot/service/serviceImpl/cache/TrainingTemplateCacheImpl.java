@@ -0,0 +1,180 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ResourceUtils;
+import ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.CompiledTrainingTemplate;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingFormulaCompiler;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingTemplateChangedEvent;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация кеша шаблонов тренировочных программ.
+ * Хранит байты шаблона, поэтому чтение ресурса и распаковка файла из архива приложения
+ * выполняются один раз. Новая книга разбирается из массива в памяти на каждый запрос,
+ * время разбора учитывается и пишется в журнал.
+ * При сбросе шаблона публикуется {@link TrainingTemplateChangedEvent}.
+ */
+@Slf4j
+@Service
+public class TrainingTemplateCacheImpl implements TrainingTemplateCache {
+
+    private static final String SERVICE_NAME = "КЕШ_ШАБЛОНОВ";
+    private static final int VERSION_LENGTH = 16;
+
+    private final Map<String, TemplateBytes> templates = new ConcurrentHashMap<>();
+    private final Map<String, Optional<CompiledTrainingTemplate>> compiledTemplates = new ConcurrentHashMap<>();
+    private final AtomicLong parseCount = new AtomicLong();
+    private final AtomicLong parseNanos = new AtomicLong();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public TrainingTemplateCacheImpl(final ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Workbook openWorkbook(final String templatePath) {
+        final TemplateBytes template = getTemplate(templatePath);
+
+        final long start = System.nanoTime();
+        try {
+            final Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(template.content()));
+            final long elapsed = System.nanoTime() - start;
+            final long count = parseCount.incrementAndGet();
+            final long total = parseNanos.addAndGet(elapsed);
+
+            log.debug("{}_РАЗБОР_КНИГИ: шаблон {}, {} мкс, среднее {} мкс за {} разборов",
+                    SERVICE_NAME, templatePath, TimeUnit.NANOSECONDS.toMicros(elapsed),
+                    TimeUnit.NANOSECONDS.toMicros(total / count), count);
+            return workbook;
+        } catch (IOException e) {
+            log.error("{}_РАЗБОР_КНИГИ_ОШИБКА: шаблон {}, ошибка: {}",
+                    SERVICE_NAME, templatePath, e.getMessage(), e);
+            throw new GenerateTrainingPlanException("Ошибка чтения шаблона: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<CompiledTrainingTemplate> getCompiledTemplate(final String templatePath) {
+        return compiledTemplates.computeIfAbsent(templatePath, this::compileTemplate);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getTemplateVersion(final String templatePath) {
+        return getTemplate(templatePath).version();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void invalidate(final String templatePath) {
+        compiledTemplates.remove(templatePath);
+        if (templates.remove(templatePath) != null) {
+            log.info("{}_ИНВАЛИДАЦИЯ: шаблон {} будет перечитан", SERVICE_NAME, templatePath);
+        }
+        eventPublisher.publishEvent(new TrainingTemplateChangedEvent(templatePath));
+    }
+
+    private TemplateBytes getTemplate(final String templatePath) {
+        return templates.computeIfAbsent(templatePath, this::loadTemplate);
+    }
+
+    /**
+     * Компилирует формулы шаблона в модель вычислений.
+     *
+     * @param templatePath путь к шаблону
+     * @return модель формул или пустой Optional
+     */
+    private Optional<CompiledTrainingTemplate> compileTemplate(final String templatePath) {
+        try (Workbook workbook = openWorkbook(templatePath)) {
+            final Optional<CompiledTrainingTemplate> compiled = TrainingFormulaCompiler.compile(workbook,
+                    TrainingFormulaCompiler.BENCH_PRESS_ROW, TrainingFormulaCompiler.BENCH_PRESS_COLUMN);
+            log.info("{}_КОМПИЛЯЦИЯ: шаблон {}, скомпилирован: {}",
+                    SERVICE_NAME, templatePath, compiled.isPresent());
+            return compiled;
+        } catch (IOException e) {
+            log.warn("{}_КОМПИЛЯЦИЯ_ОШИБКА: шаблон {}, ошибка: {}", SERVICE_NAME, templatePath, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Читает шаблон из ресурсов или файловой системы и вычисляет его версию.
+     *
+     * @param templatePath путь к шаблону в ресурсах или {@code file:} путь
+     * @return содержимое шаблона
+     */
+    private TemplateBytes loadTemplate(final String templatePath) {
+        log.info("{}_ЗАГРУЗКА_НАЧАЛО: шаблон {}", SERVICE_NAME, templatePath);
+
+        final Resource resource = templatePath.startsWith(ResourceUtils.FILE_URL_PREFIX)
+                ? new FileSystemResource(templatePath.substring(ResourceUtils.FILE_URL_PREFIX.length()))
+                : new ClassPathResource(templatePath);
+        if (!resource.exists()) {
+            log.error("{}_ШАБЛОН_НЕ_НАЙДЕН: {}", SERVICE_NAME, templatePath);
+            throw new GenerateTrainingPlanException("Шаблон тренировочного плана не найден: " + templatePath);
+        }
+
+        final byte[] content;
+        try (InputStream inputStream = resource.getInputStream()) {
+            content = inputStream.readAllBytes();
+        } catch (IOException e) {
+            log.error("{}_ЗАГРУЗКА_ОШИБКА: шаблон {}, ошибка: {}", SERVICE_NAME, templatePath, e.getMessage(), e);
+            throw new GenerateTrainingPlanException("Ошибка чтения шаблона: " + e.getMessage());
+        }
+
+        if (content.length == 0) {
+            log.error("{}_ШАБЛОН_ПУСТОЙ: {}", SERVICE_NAME, templatePath);
+            throw new GenerateTrainingPlanException("Файл шаблона пустой");
+        }
+
+        final TemplateBytes template = new TemplateBytes(content, computeVersion(content));
+        log.info("{}_ЗАГРУЗКА_УСПЕХ: шаблон {}, размер {} байт, версия {}",
+                SERVICE_NAME, templatePath, content.length, template.version());
+        return template;
+    }
+
+    private String computeVersion(final byte[] content) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest).substring(0, VERSION_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 недоступен", e);
+        }
+    }
+
+    /**
+     * Содержимое шаблона и его версия.
+     */
+    private record TemplateBytes(byte[] content, String version) {
+    }
+}
@@ -0,0 +1,88 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.VisitorLogDirtyTracker;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация трекера устаревших журналов посещений в памяти приложения.
+ * Для каждого дня хранится счетчик отметок и версия, на которой журнал был пересобран.
+ * Записи старше окна хранения удаляются при обращении к трекеру.
+ */
+@Slf4j
+@Service
+public class VisitorLogDirtyTrackerImpl implements VisitorLogDirtyTracker {
+
+    private static final String SERVICE_NAME = "ТРЕКЕР_ЖУРНАЛОВ";
+
+    private final ConcurrentHashMap<LocalDate, AtomicLong> versions = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDate, Long> cleanVersions = new ConcurrentHashMap<>();
+
+    @Value("${app.report.dirty-tracking.retention-days:62}")
+    private int retentionDays = 62;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markDirty(final LocalDate date) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    incrementVersion(date);
+                }
+            });
+            return;
+        }
+        incrementVersion(date);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getVersion(final LocalDate date) {
+        final AtomicLong version = versions.get(date);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void markClean(final LocalDate date, final long version) {
+        cleanVersions.merge(date, version, Math::max);
+        evictExpired();
+
+        log.debug("{}_ДЕНЬ_АКТУАЛЕН: дата {}, версия {}", SERVICE_NAME, date, version);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isDirty(final LocalDate date) {
+        final Long cleanVersion = cleanVersions.get(date);
+        return cleanVersion == null || cleanVersion != getVersion(date);
+    }
+
+    private void incrementVersion(final LocalDate date) {
+        final long version = versions.computeIfAbsent(date, key -> new AtomicLong()).incrementAndGet();
+
+        log.debug("{}_ДЕНЬ_ИЗМЕНЕН: дата {}, версия {}", SERVICE_NAME, date, version);
+    }
+
+    private void evictExpired() {
+        final LocalDate cutoff = LocalDate.now().minusDays(retentionDays);
+        versions.keySet().removeIf(date -> date.isBefore(cutoff));
+        cleanVersions.keySet().removeIf(date -> date.isBefore(cutoff));
+    }
+}
@@ -1,33 +1,39 @@
 package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.image;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException;
 import ru.cs.vsu.social_network.telegram_bot.service.image.ExcelToImageConverter;
 import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+import ru.cs.vsu.social_network.telegram_bot.utils.image.ImageRenderContext;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanTable;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingTemplateChangedEvent;
 
-import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.Color;
-import java.awt.Font;
 import java.awt.image.BufferedImage;
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.ByteArrayInputStream;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 /**
  * Реализация конвертера Excel файлов в изображения с использованием
  * оптимизированного алгоритма рендеринга для работы с большими таблицами.
- * Использует чанковый рендеринг и рендеринг напрямую в файл для экономии памяти.
+ * Большие таблицы рисуются полосами параллельно в ограниченном пуле ForkJoin;
+ * книга читается из памяти, временные файлы не создаются.
+ * Отрисовка выполняется по {@link TrainingPlanTable}: лист Excel сначала переводится в таблицу значений,
+ * а таблица плана, собранная из скомпилированного шаблона, рисуется напрямую без книги Excel.
+ * Разметка изображения таблиц с ключом разметки кешируется по версии шаблона.
  */
 @Slf4j
 @Service
@@ -60,13 +66,18 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
     @Value("${training.image.chunk.size:10}")
     private int chunkSize;
 
-    @Value("${training.image.direct.file.rendering.threshold:100}")
-    private int directFileRenderingThreshold;
+    @Value("${training.image.render.parallelism:0}")
+    private int renderParallelism;
 
-    @Value("${training.image.temp.dir:temp_images}")
-    private String tempImageDir;
+    @Value("${training.image.render.parallel-min-rows:40}")
+    private int parallelMinRows;
+
+    private static final int COLUMN_WIDTH_SAMPLE_SIZE = 30;
+    private static final int MAX_COLUMN_WIDTH = 350;
 
     private final ImageRendererImpl imageRenderer;
+    private final Map<String, ImageLayout> layoutCache = new ConcurrentHashMap<>();
+    private ForkJoinPool renderPool;
 
     /**
      * Конструктор для внедрения зависимости рендерера изображений.
@@ -77,36 +88,48 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
         this.imageRenderer = imageRenderer;
     }
 
-    /** {@inheritDoc} */
-    @Override
-    public BufferedImage convertExcelToImage(File excelFile, String outputFormat) {
-        log.info("EXCEL_В_ИЗОБРАЖЕНИЕ_КОНВЕРТАЦИЯ_НАЧАЛО: файл {} формат {}", excelFile.getName(), outputFormat);
+    /**
+     * Создает пул потоков для параллельной отрисовки полос таблицы.
+     * Размер пула ограничен настройкой, по умолчанию равен числу процессоров.
+     */
+    @PostConstruct
+    public void init() {
+        int parallelism = renderParallelism > 0 ? renderParallelism : Runtime.getRuntime().availableProcessors();
+        renderPool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("plan-render-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        log.info("EXCEL_КОНВЕРТАЦИЯ_ПУЛ_ОТРИСОВКИ: потоков {} полоса {} строк параллельно от {} строк",
+                parallelism, chunkSize, parallelMinRows);
+    }
 
-        ExcelUtils.validateExcelFile(excelFile);
+    @PreDestroy
+    public void destroy() {
+        renderPool.shutdownNow();
+    }
 
-        try (InputStream inputStream = new FileInputStream(excelFile)) {
-            Workbook workbook = createWorkbook(excelFile, inputStream);
+    /** {@inheritDoc} */
+    @Override
+    public BufferedImage convertExcelToImage(byte[] workbookContent, String outputFormat) {
+        if (workbookContent == null || workbookContent.length == 0) {
+            log.error("EXCEL_КОНВЕРТАЦИЯ_ПУСТАЯ_КНИГА: содержимое книги отсутствует");
+            throw new GenerateTrainingPlanException("Excel файл пустой");
+        }
 
-            try {
-                log.info("EXCEL_КОНВЕРТАЦИЯ_EXCEL_ОБРАБОТКА: листов в книге {}", workbook.getNumberOfSheets());
+        log.info("EXCEL_В_ИЗОБРАЖЕНИЕ_КОНВЕРТАЦИЯ_НАЧАЛО: размер книги {} байт формат {}",
+                workbookContent.length, outputFormat);
 
-                Sheet sheet = getFirstSheet(workbook);
-                return renderSheetToImageOptimized(sheet);
+        try (Workbook workbook = WorkbookFactory.create(new ByteArrayInputStream(workbookContent))) {
+            log.info("EXCEL_КОНВЕРТАЦИЯ_EXCEL_ОБРАБОТКА: листов в книге {}", workbook.getNumberOfSheets());
 
-            } finally {
-                workbook.close();
-            }
+            Sheet sheet = getFirstSheet(workbook);
+            return renderTableToImage(TrainingPlanTable.fromSheet(sheet, maxRows));
 
+        } catch (GenerateTrainingPlanException e) {
+            throw e;
         } catch (OutOfMemoryError e) {
-            log.error("EXCEL_КОНВЕРТАЦИЯ_ПЕРЕПОЛНЕНИЕ_ПАМЯТИ: {} запуск очистки памяти", e.getMessage());
-
-            System.gc();
-            try {
-                Thread.sleep(500);
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-            }
-
+            log.error("EXCEL_КОНВЕРТАЦИЯ_ПЕРЕПОЛНЕНИЕ_ПАМЯТИ: {}", e.getMessage());
             throw new GenerateTrainingPlanException("Недостаточно памяти для создания изображения. Попробуйте уменьшить размер таблицы.");
         } catch (Exception e) {
             log.error("EXCEL_КОНВЕРТАЦИЯ_КОНВЕРТАЦИЯ_ОШИБКА {}", e.getMessage(), e);
@@ -117,18 +140,84 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
     /** {@inheritDoc} */
     @Override
     public BufferedImage renderSheetToImage(Sheet sheet) {
-        return renderSheetToImageOptimized(sheet);
+        return renderTableToImage(TrainingPlanTable.fromSheet(sheet, maxRows));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public BufferedImage renderPlanToImage(TrainingPlanTable table) {
+        if (table == null || table.getRowCount() == 0) {
+            log.error("EXCEL_КОНВЕРТАЦИЯ_ПУСТАЯ_ТАБЛИЦА: данные плана отсутствуют");
+            throw new GenerateTrainingPlanException("Таблица тренировочного плана пустая");
+        }
+
+        log.info("EXCEL_КОНВЕРТАЦИЯ_ТАБЛИЦА_ПЛАНА: строк {} колонок {}", table.getRowCount(), table.getColumnCount());
+
+        try {
+            return renderTableToImage(table);
+        } catch (OutOfMemoryError e) {
+            log.error("EXCEL_КОНВЕРТАЦИЯ_ПЕРЕПОЛНЕНИЕ_ПАМЯТИ: {}", e.getMessage());
+            throw new GenerateTrainingPlanException("Недостаточно памяти для создания изображения. Попробуйте уменьшить размер таблицы.");
+        }
     }
 
     /**
-     * Оптимизированный метод рендеринга листа в изображение.
+     * Сбрасывает закешированные разметки после изменения шаблона.
+     * Ключи разметки включают версию шаблона, поэтому сброс только освобождает устаревшие записи.
+     *
+     * @param event событие изменения шаблона
+     */
+    @EventListener
+    public void onTemplateChanged(TrainingTemplateChangedEvent event) {
+        int removed = layoutCache.size();
+        layoutCache.clear();
+        log.info("EXCEL_КОНВЕРТАЦИЯ_РАЗМЕТКА_СБРОС: шаблон {} удалено разметок {}", event.templatePath(), removed);
+    }
+
+    /**
+     * Оптимизированный метод рендеринга таблицы в изображение.
      * Использует различные стратегии в зависимости от размера таблицы.
+     * Разметка таблицы с ключом разметки вычисляется один раз и берется из кеша,
+     * на каждый запрос измеряются только числовые ячейки и рисуется изображение.
+     * Большие таблицы рисуются полосами параллельно.
      *
-     * @param sheet лист Excel для рендеринга
+     * @param table таблица значений для рендеринга
      * @return изображение таблицы
      */
-    private BufferedImage renderSheetToImageOptimized(Sheet sheet) {
-        SheetAnalysisResult analysis = analyzeSheetWithOptimization(sheet);
+    private BufferedImage renderTableToImage(TrainingPlanTable table) {
+        String layoutKey = table.getLayoutKey();
+        ImageLayout layout = layoutKey != null
+                ? layoutCache.computeIfAbsent(layoutKey, key -> buildLayout(table))
+                : buildLayout(table);
+
+        int columnWidth = layout.resolveColumnWidth(table, imageRenderer.getRenderContext().getMeasureMetrics());
+        ImageGeometry geometry = columnWidth == layout.baseColumnWidth
+                ? layout.geometry
+                : calculateGeometry(columnWidth, layout.actualRows, layout.actualColumns);
+
+        if (geometry.chunked() || layout.actualRows >= parallelMinRows) {
+            log.info("EXCEL_КОНВЕРТАЦИЯ_ПАРАЛЛЕЛЬНЫЙ_РЕЖИМ: отрисовка полосами, строк {} большое изображение {}",
+                    layout.actualRows, geometry.chunked());
+            return renderImageBanded(table, layout.actualColumns, layout.actualRows, geometry.imageWidth(),
+                    geometry.imageHeight(), geometry.columnWidth(), layout.columnIndices, layout.rowIndices);
+        }
+
+        log.info("EXCEL_КОНВЕРТАЦИЯ_РАСЧЕТ_РАЗМЕРОВ: изображение {}x{} таблица {}px столбец {}px",
+                geometry.imageWidth(), geometry.imageHeight(), geometry.tableWidth(), geometry.columnWidth());
+
+        return renderImageDirect(table, layout.actualColumns, layout.actualRows, geometry.imageWidth(),
+                geometry.imageHeight(), geometry.columnWidth(), layout.columnIndices, layout.rowIndices);
+    }
+
+    /**
+     * Вычисляет разметку таблицы: непустые строки и столбцы, ширину столбца по текстовым ячейкам,
+     * положения числовых ячеек, которые измеряются при каждой отрисовке, и размеры изображения.
+     *
+     * @param table таблица значений
+     * @return разметка изображения
+     */
+    private ImageLayout buildLayout(TrainingPlanTable table) {
+        SheetAnalysisResult analysis = analyzeTableWithOptimization(table);
         int actualRows = analysis.actualRows;
         int actualColumns = analysis.actualColumns;
         List<Integer> nonEmptyColumnIndices = analysis.nonEmptyColumnIndices;
@@ -149,7 +238,43 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
             nonEmptyColumnIndices = nonEmptyColumnIndices.subList(0, actualColumns);
         }
 
-        int columnWidth = calculateOptimalColumnWidth(sheet, nonEmptyColumnIndices, nonEmptyRowIndices);
+        FontMetrics metrics = imageRenderer.getRenderContext().getMeasureMetrics();
+        int textColumnWidth = minColumnWidth;
+        List<int[]> numericCells = new ArrayList<>();
+        int rowsToAnalyze = Math.min(nonEmptyRowIndices.size(), COLUMN_WIDTH_SAMPLE_SIZE);
+        int columnsToAnalyze = Math.min(nonEmptyColumnIndices.size(), COLUMN_WIDTH_SAMPLE_SIZE);
+        for (int i = 0; i < rowsToAnalyze; i++) {
+            int rowIndex = nonEmptyRowIndices.get(i);
+            for (int j = 0; j < columnsToAnalyze; j++) {
+                int columnIndex = nonEmptyColumnIndices.get(j);
+                if (table.getType(rowIndex, columnIndex) == CellType.NUMERIC) {
+                    numericCells.add(new int[]{rowIndex, columnIndex});
+                } else {
+                    textColumnWidth = Math.max(textColumnWidth,
+                            measureCellWidth(table.getText(rowIndex, columnIndex), metrics));
+                }
+            }
+        }
+
+        int[][] numericCellPositions = numericCells.toArray(new int[0][]);
+        int baseColumnWidth = resolveColumnWidth(table, metrics, textColumnWidth, numericCellPositions);
+
+        log.info("EXCEL_КОНВЕРТАЦИЯ_РАЗМЕТКА: ключ {} числовых ячеек {} ширина текста {}px",
+                table.getLayoutKey(), numericCellPositions.length, textColumnWidth);
+        return new ImageLayout(actualRows, actualColumns, nonEmptyColumnIndices, nonEmptyRowIndices,
+                textColumnWidth, numericCellPositions, baseColumnWidth,
+                calculateGeometry(baseColumnWidth, actualRows, actualColumns));
+    }
+
+    /**
+     * Рассчитывает размеры изображения и выбирает стратегию отрисовки по ширине столбца.
+     *
+     * @param columnWidth ширина столбца
+     * @param actualRows количество отображаемых строк
+     * @param actualColumns количество отображаемых столбцов
+     * @return размеры изображения
+     */
+    private ImageGeometry calculateGeometry(int columnWidth, int actualRows, int actualColumns) {
         int tableWidth = columnWidth * actualColumns;
 
         if (tableWidth > 8000) {
@@ -166,33 +291,13 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
         long estimatedMemory = (long) imageWidth * imageHeight * 4L;
         log.info("EXCEL_КОНВЕРТАЦИЯ_РАСЧЕТ_ПАМЯТИ требуется примерно {} байт для {}x{}", estimatedMemory, imageWidth, imageHeight);
 
-        if (estimatedMemory > 100_000_000L || actualRows > directFileRenderingThreshold) {
-            log.info("EXCEL_КОНВЕРТАЦИЯ_РЕЖИМ_ФАЙЛОВОГО_РЕНДЕРИНГА: использование рендеринга напрямую в файл");
-            try {
-                return renderToFileAndLoad(sheet, actualColumns, actualRows, imageWidth, imageHeight,
-                        columnWidth, nonEmptyColumnIndices, nonEmptyRowIndices);
-            } catch (IOException e) {
-                log.warn("EXCEL_КОНВЕРТАЦИЯ_ФАЙЛОВЫЙ_РЕНДЕРИНГ_ОШИБКА: возвращаемся к чанковому рендерингу: {}", e.getMessage());
-            }
-        }
-
-        if (estimatedMemory > 50_000_000L) {
-            log.info("EXCEL_КОНВЕРТАЦИЯ_БЕЗОПАСНЫЙ_РЕЖИМ: использование чанковой отрисовки");
-            return renderImageChunked(sheet, actualColumns, actualRows, imageWidth, imageHeight,
-                    columnWidth, nonEmptyColumnIndices, nonEmptyRowIndices);
-        }
-
-        log.info("EXCEL_КОНВЕРТАЦИЯ_РАСЧЕТ_РАЗМЕРОВ: изображение {}x{} таблица {}px столбец {}px",
-                imageWidth, imageHeight, tableWidth, columnWidth);
-
-        return renderImageDirect(sheet, actualColumns, actualRows, imageWidth, imageHeight,
-                columnWidth, nonEmptyColumnIndices, nonEmptyRowIndices);
+        return new ImageGeometry(columnWidth, tableWidth, imageWidth, imageHeight, estimatedMemory > 50_000_000L);
     }
 
     /**
      * Оптимизированный прямой рендеринг в память.
      *
-     * @param sheet лист Excel
+     * @param table таблица значений
      * @param columnCount количество столбцов
      * @param rowCount количество строк
      * @param imageWidth ширина изображения
@@ -202,7 +307,7 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
      * @param rowIndices индексы строк
      * @return изображение таблицы
      */
-    private BufferedImage renderImageDirect(Sheet sheet, int columnCount, int rowCount,
+    private BufferedImage renderImageDirect(TrainingPlanTable table, int columnCount, int rowCount,
                                             int imageWidth, int imageHeight, int columnWidth,
                                             List<Integer> columnIndices, List<Integer> rowIndices) {
         BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
@@ -210,7 +315,7 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
 
         try {
             ExcelUtils.configureGraphicsQuality(graphics);
-            imageRenderer.drawImageContent(graphics, sheet, columnCount, rowCount, imageHeight, imageWidth,
+            imageRenderer.drawImageContent(graphics, table, columnCount, rowCount, imageHeight, imageWidth,
                     columnWidth, columnIndices, rowIndices);
         } finally {
             graphics.dispose();
@@ -221,9 +326,13 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
     }
 
     /**
-     * Рендерит изображение чанками для экономии памяти.
+     * Рендерит изображение полосами строк параллельно.
+     * Таблица делится на горизонтальные полосы по {@code chunkSize} строк; каждая полоса рисуется
+     * в пуле отрисовки собственным Graphics2D на подызображении, которое разделяет с итоговым изображением
+     * один растр DataBufferInt, поэтому полосы пишут в общий массив пикселей без копирования и пересечений.
+     * Заголовок и шапка таблицы рисуются до полос, сетка и подвал - после.
      *
-     * @param sheet лист Excel
+     * @param table таблица значений
      * @param columnCount количество столбцов
      * @param rowCount количество строк
      * @param imageWidth ширина изображения
@@ -233,17 +342,19 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
      * @param rowIndices индексы строк
      * @return изображение таблицы
      */
-    private BufferedImage renderImageChunked(Sheet sheet, int columnCount, int rowCount,
-                                             int imageWidth, int imageHeight, int columnWidth,
-                                             List<Integer> columnIndices, List<Integer> rowIndices) {
-        log.info("ЧАНКОВЫЙ_РЕНДЕРИНГ_НАЧАЛО: {}x{} строк {} колонок {}", imageWidth, imageHeight, rowCount, columnCount);
+    private BufferedImage renderImageBanded(TrainingPlanTable table, int columnCount, int rowCount,
+                                            int imageWidth, int imageHeight, int columnWidth,
+                                            List<Integer> columnIndices, List<Integer> rowIndices) {
+        log.info("ПАРАЛЛЕЛЬНЫЙ_РЕНДЕРИНГ_НАЧАЛО: {}x{} строк {} колонок {}", imageWidth, imageHeight, rowCount, columnCount);
 
         BufferedImage image = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
         Graphics2D graphics = image.createGraphics();
 
+        ImageRenderContext renderContext = imageRenderer.getRenderContext();
+
         try {
             ExcelUtils.configureGraphicsQuality(graphics);
-            graphics.setColor(imageRenderer.getBackgroundColor());
+            graphics.setColor(renderContext.getBackgroundColor());
             graphics.fillRect(0, 0, imageWidth, imageHeight);
 
             imageRenderer.drawHeader(graphics, imageWidth);
@@ -256,27 +367,24 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
                 tableStartX = (imageWidth - tableWidth) / 2;
             }
 
-            imageRenderer.drawTableHeader(graphics, sheet, tableWidth, columnWidth, tableStartY, columnCount, tableStartX, columnIndices);
-
-            Font cellFont = new Font("Arial", Font.PLAIN, 18);
-            graphics.setFont(cellFont);
-
-            int actualChunkSize = Math.min(chunkSize, rowCount);
-
-            for (int chunkStart = 0; chunkStart < rowCount; chunkStart += actualChunkSize) {
-                int chunkEnd = Math.min(chunkStart + actualChunkSize, rowCount);
-
-                for (int i = chunkStart; i < chunkEnd && i < rowIndices.size(); i++) {
-                    drawSingleRow(graphics, sheet, rowIndices.get(i), i, tableStartX, tableStartY,
-                            tableWidth, columnWidth, columnCount, columnIndices, cellFont);
-                }
-
-                if (chunkStart > 0 && chunkStart % 50 == 0) {
-                    System.gc();
-                    log.debug("ЧАНКОВЫЙ_РЕНДЕРИНГ_ПРОГРЕСС: обработано {} строк из {}", chunkStart, rowCount);
-                }
+            imageRenderer.drawTableHeader(graphics, table, tableWidth, columnWidth, tableStartY, columnCount, tableStartX, columnIndices);
+
+            int bandRows = Math.max(1, chunkSize);
+            int drawnRows = Math.min(rowCount, rowIndices.size());
+            List<ForkJoinTask<?>> bands = new ArrayList<>();
+            for (int bandStart = 0; bandStart < drawnRows; bandStart += bandRows) {
+                int firstRow = bandStart;
+                int lastRow = Math.min(bandStart + bandRows, drawnRows);
+                int bandX = tableStartX;
+                bands.add(renderPool.submit(() -> drawBand(image, table, firstRow, lastRow, bandX, tableStartY,
+                        tableWidth, columnWidth, columnCount, columnIndices, rowIndices, renderContext)));
+            }
+            for (ForkJoinTask<?> band : bands) {
+                band.join();
             }
+            log.debug("ПАРАЛЛЕЛЬНЫЙ_РЕНДЕРИНГ_ПОЛОСЫ: нарисовано полос {} строк {}", bands.size(), drawnRows);
 
+            graphics.setColor(renderContext.getCellBorderColor());
             drawTableGrid(graphics, tableStartX, tableStartY, tableWidth, columnWidth,
                     columnCount, rowCount, cellHeight);
 
@@ -286,16 +394,57 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
             graphics.dispose();
         }
 
-        log.info("ЧАНКОВЫЙ_РЕНДЕРИНГ_УСПЕХ: изображение создано");
+        log.info("ПАРАЛЛЕЛЬНЫЙ_РЕНДЕРИНГ_УСПЕХ: изображение создано");
         return image;
     }
 
+    /**
+     * Рисует полосу строк таблицы на подызображении, разделяющем растр с итоговым изображением.
+     * Подызображение ограничивает запись пикселей границами полосы.
+     *
+     * @param image итоговое изображение
+     * @param table таблица значений
+     * @param firstRow первая строка полосы, включительно
+     * @param lastRow последняя строка полосы, не включительно
+     * @param tableStartX начальная X координата таблицы
+     * @param tableStartY начальная Y координата таблицы
+     * @param tableWidth ширина таблицы
+     * @param columnWidth ширина столбца
+     * @param columnCount количество столбцов
+     * @param columnIndices индексы столбцов
+     * @param rowIndices индексы строк
+     * @param renderContext общий контекст отрисовки
+     */
+    private void drawBand(BufferedImage image, TrainingPlanTable table, int firstRow, int lastRow,
+                          int tableStartX, int tableStartY, int tableWidth, int columnWidth, int columnCount,
+                          List<Integer> columnIndices, List<Integer> rowIndices, ImageRenderContext renderContext) {
+        int bandTop = tableStartY + (firstRow + 1) * cellHeight;
+        int bandBottom = Math.min(tableStartY + (lastRow + 1) * cellHeight, image.getHeight());
+        if (bandTop >= bandBottom) {
+            return;
+        }
+
+        BufferedImage band = image.getSubimage(0, bandTop, image.getWidth(), bandBottom - bandTop);
+        Graphics2D graphics = band.createGraphics();
+        try {
+            ExcelUtils.configureGraphicsQuality(graphics);
+            graphics.translate(0, -bandTop);
+            graphics.setFont(renderContext.getCellFont());
+            for (int i = firstRow; i < lastRow; i++) {
+                drawSingleRow(graphics, table, rowIndices.get(i), i, tableStartX, tableStartY,
+                        tableWidth, columnWidth, columnCount, columnIndices, renderContext);
+            }
+        } finally {
+            graphics.dispose();
+        }
+    }
+
     /**
      * Рисует одиночную строку таблицы.
      *
      * @param graphics контекст графики
-     * @param sheet лист Excel
-     * @param rowIndex индекс строки в Excel
+     * @param table таблица значений
+     * @param rowIndex индекс строки в таблице
      * @param displayIndex индекс отображения строки
      * @param tableStartX начальная X координата таблицы
      * @param tableStartY начальная Y координата таблицы
@@ -303,25 +452,22 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
      * @param columnWidth ширина столбца
      * @param columnCount количество столбцов
      * @param columnIndices индексы столбцов
-     * @param cellFont шрифт для ячеек
+     * @param renderContext общий контекст отрисовки
      */
-    private void drawSingleRow(Graphics2D graphics, Sheet sheet, int rowIndex, int displayIndex,
+    private void drawSingleRow(Graphics2D graphics, TrainingPlanTable table, int rowIndex, int displayIndex,
                                int tableStartX, int tableStartY, int tableWidth, int columnWidth,
-                               int columnCount, List<Integer> columnIndices, Font cellFont) {
-        Row row = sheet.getRow(rowIndex);
+                               int columnCount, List<Integer> columnIndices, ImageRenderContext renderContext) {
         int y = tableStartY + (displayIndex + 1) * cellHeight;
 
-        Color rowColor = (displayIndex % 2 == 0) ? imageRenderer.getOddRowColor() : imageRenderer.getEvenRowColor();
+        Color rowColor = (displayIndex % 2 == 0) ? renderContext.getOddRowColor() : renderContext.getEvenRowColor();
         graphics.setColor(rowColor);
         graphics.fillRect(tableStartX, y, tableWidth, cellHeight);
 
-        graphics.setColor(imageRenderer.getCellBorderColor());
+        graphics.setColor(renderContext.getCellBorderColor());
         graphics.drawRect(tableStartX, y, tableWidth, cellHeight);
 
-        if (row != null) {
-            for (int j = 0; j < columnCount && j < columnIndices.size(); j++) {
-                drawSingleCell(graphics, row, columnIndices.get(j), j, tableStartX, y, columnWidth, cellFont);
-            }
+        for (int j = 0; j < columnCount && j < columnIndices.size(); j++) {
+            drawSingleCell(graphics, table, rowIndex, columnIndices.get(j), j, tableStartX, y, columnWidth, renderContext);
         }
     }
 
@@ -329,36 +475,29 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
      * Рисует одиночную ячейку таблицы.
      *
      * @param graphics контекст графики
-     * @param row строка Excel
-     * @param columnIndex индекс столбца в Excel
+     * @param table таблица значений
+     * @param rowIndex индекс строки в таблице
+     * @param columnIndex индекс столбца в таблице
      * @param displayColumnIndex индекс отображения столбца
      * @param tableStartX начальная X координата таблицы
      * @param y Y координата строки
      * @param columnWidth ширина столбца
-     * @param cellFont шрифт для ячеек
+     * @param renderContext общий контекст отрисовки
      */
-    private void drawSingleCell(Graphics2D graphics, Row row, int columnIndex, int displayColumnIndex,
-                                int tableStartX, int y, int columnWidth, Font cellFont) {
-        Cell cell = row.getCell(columnIndex);
+    private void drawSingleCell(Graphics2D graphics, TrainingPlanTable table, int rowIndex, int columnIndex, int displayColumnIndex,
+                                int tableStartX, int y, int columnWidth, ImageRenderContext renderContext) {
         int x = tableStartX + displayColumnIndex * columnWidth;
         int textY = y + cellHeight - 15;
 
-        String cellValue = ExcelUtils.getCellValueAsString(cell);
-        if (cellValue != null && !cellValue.isEmpty()) {
-            FontMetrics metrics = graphics.getFontMetrics(cellFont);
-
-            if (displayColumnIndex == 0) {
-                graphics.setColor(imageRenderer.getVerticalTextColor());
-            } else {
-                graphics.setColor(imageRenderer.getHorizontalTextColor());
-            }
-
-            String trimmedValue = ExcelUtils.trimTextToFit(cellValue, metrics, columnWidth - 20);
-            int textX = x + (columnWidth - metrics.stringWidth(trimmedValue)) / 2;
-            graphics.drawString(trimmedValue, textX, textY);
+        String cellValue = table.getText(rowIndex, columnIndex);
+        if (!cellValue.isEmpty()) {
+            graphics.setColor(displayColumnIndex == 0
+                    ? renderContext.getVerticalTextColor()
+                    : renderContext.getHorizontalTextColor());
+            renderContext.drawCenteredText(graphics, cellValue, renderContext.getCellMetrics(), x, columnWidth, textY);
         }
 
-        graphics.setColor(imageRenderer.getCellBorderColor());
+        graphics.setColor(renderContext.getCellBorderColor());
         graphics.drawLine(x, y, x, y + cellHeight);
     }
 
@@ -389,129 +528,25 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
     }
 
     /**
-     * Рендерит напрямую в файл для очень больших изображений.
-     *
-     * @param sheet лист Excel
-     * @param columnCount количество столбцов
-     * @param rowCount количество строк
-     * @param imageWidth ширина изображения
-     * @param imageHeight высота изображения
-     * @param columnWidth ширина столбца
-     * @param columnIndices индексы столбцов
-     * @param rowIndices индексы строк
-     * @return изображение таблицы
-     */
-    private BufferedImage renderToFileAndLoad(Sheet sheet, int columnCount, int rowCount,
-                                              int imageWidth, int imageHeight, int columnWidth,
-                                              List<Integer> columnIndices, List<Integer> rowIndices)
-            throws IOException {
-        log.info("ФАЙЛОВЫЙ_РЕНДЕРИНГ_НАЧАЛО: {}x{} строк {} колонок", imageWidth, imageHeight, rowCount);
-
-        Path tempDir = Paths.get(tempImageDir);
-        if (!Files.exists(tempDir)) {
-            Files.createDirectories(tempDir);
-        }
-
-        Path tempFile = tempDir.resolve("temp_render_" + System.currentTimeMillis() + ".png");
-
-        try {
-            renderToFile(sheet, columnCount, rowCount, imageWidth, imageHeight,
-                    columnWidth, columnIndices, rowIndices, tempFile);
-
-            long fileSize = Files.size(tempFile);
-            log.info("ФАЙЛОВЫЙ_РЕНДЕРИНГ_СОХРАНЕНИЕ: файл создан {} размер {} байт",
-                    tempFile, fileSize);
-
-            BufferedImage image = ImageIO.read(tempFile.toFile());
-
-            if (image != null) {
-                log.info("ФАЙЛОВЫЙ_РЕНДЕРИНГ_ЗАГРУЗКА: изображение загружено {}x{}",
-                        image.getWidth(), image.getHeight());
-            } else {
-                log.error("ФАЙЛОВЫЙ_РЕНДЕРИНГ_ОШИБКА: не удалось загрузить изображение из файла");
-                throw new IOException("Не удалось загрузить изображение из временного файла");
-            }
-
-            return image;
-
-        } finally {
-            try {
-                Files.deleteIfExists(tempFile);
-                log.debug("ФАЙЛОВЫЙ_РЕНДЕРИНГ_ОЧИСТКА: временный файл удален");
-            } catch (IOException e) {
-                log.warn("ФАЙЛОВЫЙ_РЕНДЕРИНГ_ОЧИСТКА_ОШИБКА: не удалось удалить временный файл: {}", e.getMessage());
-            }
-        }
-    }
-
-    /**
-     * Выполняет рендеринг напрямую в файл.
+     * Анализирует таблицу с оптимизацией пустых столбцов и строк.
+     * Непустые строки и границы заполненных столбцов берутся из снимка таблицы, ячейки повторно не обходятся.
      *
-     * @param sheet лист Excel
-     * @param columnCount количество столбцов
-     * @param rowCount количество строк
-     * @param imageWidth ширина изображения
-     * @param imageHeight высота изображения
-     * @param columnWidth ширина столбца
-     * @param columnIndices индексы столбцов
-     * @param rowIndices индексы строк
-     * @param outputFile файл для сохранения
+     * @param table таблица значений для анализа
+     * @return результат анализа таблицы
      */
-    private void renderToFile(Sheet sheet, int columnCount, int rowCount,
-                              int imageWidth, int imageHeight, int columnWidth,
-                              List<Integer> columnIndices, List<Integer> rowIndices,
-                              Path outputFile) throws IOException {
-        BufferedImage fullImage = new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_RGB);
-        Graphics2D graphics = fullImage.createGraphics();
-
-        try {
-            ExcelUtils.configureGraphicsQuality(graphics);
-            imageRenderer.drawImageContent(graphics, sheet, columnCount, rowCount, imageHeight, imageWidth,
-                    columnWidth, columnIndices, rowIndices);
-        } finally {
-            graphics.dispose();
-        }
-
-        try (FileOutputStream fos = new FileOutputStream(outputFile.toFile())) {
-            boolean written = ImageIO.write(fullImage, "png", fos);
-            if (!written) {
-                throw new IOException("Не удалось сохранить изображение в формате PNG");
-            }
-        }
-    }
-
-    /**
-     * Анализирует лист Excel с оптимизацией пустых столбцов и строк.
-     *
-     * @param sheet лист Excel для анализа
-     * @return результат анализа листа
-     */
-    private SheetAnalysisResult analyzeSheetWithOptimization(Sheet sheet) {
-        int totalRows = Math.min(sheet.getLastRowNum() + 1, maxRows);
-        List<Integer> nonEmptyRowIndices = new ArrayList<>();
-        Set<Integer> nonEmptyColumnSet = new HashSet<>();
+    private SheetAnalysisResult analyzeTableWithOptimization(TrainingPlanTable table) {
+        List<Integer> nonEmptyRowIndices = table.getNonEmptyRowIndices();
         int firstDataColumn = Integer.MAX_VALUE;
         int lastDataColumn = -1;
 
-        for (int i = 0; i < totalRows; i++) {
-            Row row = sheet.getRow(i);
-            if (row != null) {
-                boolean rowHasData = false;
-                int lastCellNum = row.getLastCellNum();
-                for (int j = 0; j < lastCellNum; j++) {
-                    Cell cell = row.getCell(j);
-                    if (ExcelUtils.hasCellContent(cell)) {
-                        rowHasData = true;
-                        nonEmptyColumnSet.add(j);
-                        if (j < firstDataColumn) firstDataColumn = j;
-                        if (j > lastDataColumn) lastDataColumn = j;
-                    }
-                }
-                if (rowHasData) {
-                    nonEmptyRowIndices.add(i);
-                }
-            }
+        int rowsInRange = 0;
+        while (rowsInRange < nonEmptyRowIndices.size() && nonEmptyRowIndices.get(rowsInRange) < maxRows) {
+            int rowIndex = nonEmptyRowIndices.get(rowsInRange);
+            firstDataColumn = Math.min(firstDataColumn, table.getFirstContentColumn(rowIndex));
+            lastDataColumn = Math.max(lastDataColumn, table.getLastContentColumn(rowIndex));
+            rowsInRange++;
         }
+        nonEmptyRowIndices = nonEmptyRowIndices.subList(0, rowsInRange);
 
         List<Integer> nonEmptyColumnIndices = new ArrayList<>();
 
@@ -539,70 +574,33 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
     }
 
     /**
-     * Рассчитывает оптимальную ширину столбцов на основе содержимого ячеек.
+     * Рассчитывает ширину столбца, нужную для текста ячейки.
      *
-     * @param sheet лист Excel
-     * @param columnIndices индексы столбцов для анализа
-     * @param rowIndices индексы строк для анализа
-     * @return оптимальная ширина столбца в пикселях
+     * @param cellValue текст ячейки
+     * @param metrics метрики шрифта для измерения
+     * @return ширина столбца в пикселях или 0 для пустой ячейки
      */
-    private int calculateOptimalColumnWidth(Sheet sheet, List<Integer> columnIndices, List<Integer> rowIndices) {
-        int maxCellWidth = minColumnWidth;
-        Font tempFont = new Font("Arial", Font.BOLD, 18);
-
-        try {
-            BufferedImage tempImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
-            Graphics2D tempGraphics = tempImage.createGraphics();
-            tempGraphics.setFont(tempFont);
-            FontMetrics metrics = tempGraphics.getFontMetrics();
-
-            int rowsToAnalyze = Math.min(rowIndices.size(), 30);
-            int columnsToAnalyze = Math.min(columnIndices.size(), 30);
-
-            for (int i = 0; i < rowsToAnalyze && i < rowIndices.size(); i++) {
-                int rowIndex = rowIndices.get(i);
-                Row row = sheet.getRow(rowIndex);
-                if (row != null) {
-                    for (int j = 0; j < columnsToAnalyze && j < columnIndices.size(); j++) {
-                        int colIndex = columnIndices.get(j);
-                        Cell cell = row.getCell(colIndex);
-                        String cellValue = ExcelUtils.getCellValueAsString(cell);
-                        if (cellValue != null && !cellValue.isEmpty()) {
-                            int textWidth = metrics.stringWidth(cellValue);
-                            maxCellWidth = Math.max(maxCellWidth, textWidth + 30);
-                        }
-                    }
-                }
-            }
-
-            tempGraphics.dispose();
-        } catch (Exception e) {
-            log.warn("ОПТИМАЛЬНАЯ_ШИРИНА_СТОЛБЦА_ОШИБКА {}", e.getMessage());
-            return minColumnWidth;
-        }
-
-        return Math.min(maxCellWidth, 350);
+    private static int measureCellWidth(String cellValue, FontMetrics metrics) {
+        return cellValue.isEmpty() ? 0 : metrics.stringWidth(cellValue) + 30;
     }
 
     /**
-     * Создает объект Workbook в зависимости от формата файла.
+     * Вычисляет ширину столбца: ширина текстовых ячеек уже известна,
+     * измеряются только числовые ячейки, значения которых зависят от запроса.
      *
-     * @param excelFile Excel файл
-     * @param inputStream поток данных файла
-     * @return объект Workbook
-     * @throws IOException если произошла ошибка чтения файла
+     * @param table таблица значений
+     * @param metrics метрики шрифта для измерения
+     * @param textColumnWidth ширина столбца по текстовым ячейкам
+     * @param numericCells положения числовых ячеек: индекс строки и индекс столбца
+     * @return ширина столбца в пикселях
      */
-    private Workbook createWorkbook(File excelFile, InputStream inputStream) throws IOException {
-        if (excelFile.getName().toLowerCase().endsWith(".xlsx")) {
-            log.info("EXCEL_КОНВЕРТАЦИЯ_EXCEL_ФОРМАТ: XLSX");
-            return new XSSFWorkbook(inputStream);
-        } else if (excelFile.getName().toLowerCase().endsWith(".xls")) {
-            log.info("EXCEL_КОНВЕРТАЦИЯ_EXCEL_ФОРМАТ: XLS");
-            return new HSSFWorkbook(inputStream);
-        } else {
-            log.error("EXCEL_КОНВЕРТАЦИЯ_НЕПОДДЕРЖИВАЕМЫЙ_ФОРМАТ {}", excelFile.getName());
-            throw new GenerateTrainingPlanException("Неподдерживаемый формат Excel файла");
+    private static int resolveColumnWidth(TrainingPlanTable table, FontMetrics metrics,
+                                          int textColumnWidth, int[][] numericCells) {
+        int maxCellWidth = textColumnWidth;
+        for (int[] cell : numericCells) {
+            maxCellWidth = Math.max(maxCellWidth, measureCellWidth(table.getText(cell[0], cell[1]), metrics));
         }
+        return Math.min(maxCellWidth, MAX_COLUMN_WIDTH);
     }
 
     /**
@@ -626,7 +624,49 @@ public class ExcelToImageConverterImpl implements ExcelToImageConverter {
     }
 
     /**
-     * Результат анализа листа Excel.
+     * Разметка изображения таблицы. Для таблиц с ключом разметки вычисляется один раз
+     * на версию шаблона и используется всеми отрисовками.
+     */
+    private static final class ImageLayout {
+        final int actualRows;
+        final int actualColumns;
+        final List<Integer> columnIndices;
+        final List<Integer> rowIndices;
+        final int textColumnWidth;
+        final int[][] numericCells;
+        final int baseColumnWidth;
+        final ImageGeometry geometry;
+
+        ImageLayout(int actualRows, int actualColumns, List<Integer> columnIndices, List<Integer> rowIndices,
+                    int textColumnWidth, int[][] numericCells, int baseColumnWidth, ImageGeometry geometry) {
+            this.actualRows = actualRows;
+            this.actualColumns = actualColumns;
+            this.columnIndices = columnIndices;
+            this.rowIndices = rowIndices;
+            this.textColumnWidth = textColumnWidth;
+            this.numericCells = numericCells;
+            this.baseColumnWidth = baseColumnWidth;
+            this.geometry = geometry;
+        }
+
+        /**
+         * @param table таблица с той же разметкой
+         * @param metrics метрики шрифта для измерения
+         * @return ширина столбца для значений таблицы
+         */
+        int resolveColumnWidth(TrainingPlanTable table, FontMetrics metrics) {
+            return ExcelToImageConverterImpl.resolveColumnWidth(table, metrics, textColumnWidth, numericCells);
+        }
+    }
+
+    /**
+     * Размеры изображения и выбранная стратегия отрисовки.
+     */
+    private record ImageGeometry(int columnWidth, int tableWidth, int imageWidth, int imageHeight, boolean chunked) {
+    }
+
+    /**
+     * Результат анализа таблицы.
      */
     private static class SheetAnalysisResult {
         final int actualRows;
@@ -0,0 +1,101 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.image;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import ru.cs.vsu.social_network.telegram_bot.service.image.ExcelToImageConverter;
+import ru.cs.vsu.social_network.telegram_bot.service.image.ImageEncoder;
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+import ru.cs.vsu.social_network.telegram_bot.utils.image.IndexedPngEncoder;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Реализация кодировщика изображений тренировочных планов.
+ * PNG кодируется с палитрой из цветов контекста отрисовки через {@link IndexedPngEncoder},
+ * уровень сжатия и фильтр строк задаются настройками. Остальные форматы, а также PNG
+ * при отключенной палитре, кодируются через ImageIO.
+ * Для каждого кодирования в журнал пишутся время и размер, а также средние значения с момента запуска.
+ */
+@Slf4j
+@Service
+public class ImageEncoderImpl implements ImageEncoder {
+
+    private static final String SERVICE_NAME = "КОДИРОВАНИЕ_ИЗОБРАЖЕНИЯ";
+    private static final String PNG_FORMAT = "png";
+
+    private final ImageRendererImpl imageRenderer;
+    private final boolean indexedPng;
+    private final int compressionLevel;
+    private final IndexedPngEncoder.Filter filter;
+    private final AtomicLong encodeCount = new AtomicLong();
+    private final AtomicLong encodeNanos = new AtomicLong();
+    private final AtomicLong encodedBytes = new AtomicLong();
+
+    private IndexedPngEncoder indexedPngEncoder;
+
+    public ImageEncoderImpl(final ImageRendererImpl imageRenderer,
+                            @Value("${training.image.png.indexed:true}") final boolean indexedPng,
+                            @Value("${training.image.png.compression-level:6}") final int compressionLevel,
+                            @Value("${training.image.png.filter:none}") final String filter) {
+        this.imageRenderer = imageRenderer;
+        this.indexedPng = indexedPng;
+        this.compressionLevel = compressionLevel;
+        this.filter = IndexedPngEncoder.Filter.valueOf(filter.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Строит палитру по контексту отрисовки, созданному рендерером.
+     */
+    @PostConstruct
+    public void init() {
+        if (!indexedPng) {
+            log.info("{}_ИНИЦИАЛИЗАЦИЯ: PNG с палитрой отключен, используется ImageIO", SERVICE_NAME);
+            return;
+        }
+        indexedPngEncoder = IndexedPngEncoder.create(imageRenderer.getRenderContext(), compressionLevel, filter);
+        log.info("{}_ИНИЦИАЛИЗАЦИЯ: PNG с палитрой, цветов {}, уровень сжатия {}, фильтр {}",
+                SERVICE_NAME, indexedPngEncoder.getPaletteSize(), compressionLevel, filter);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public EncodedImage encode(final BufferedImage image, final String imageFormat) throws IOException {
+        final boolean indexed = indexedPngEncoder != null && PNG_FORMAT.equalsIgnoreCase(imageFormat);
+
+        final long start = System.nanoTime();
+        final byte[] content = indexed
+                ? indexedPngEncoder.encode(image)
+                : ExcelUtils.encodeImage(image, imageFormat);
+        final long elapsed = System.nanoTime() - start;
+
+        final long count = encodeCount.incrementAndGet();
+        final long totalNanos = encodeNanos.addAndGet(elapsed);
+        final long totalBytes = encodedBytes.addAndGet(content.length);
+        log.info("{}_ГОТОВО: формат {}, палитра {}, {}x{}, {} байт, {} мкс; среднее {} байт, {} мкс за {} изображений",
+                SERVICE_NAME, imageFormat, indexed, image.getWidth(), image.getHeight(), content.length,
+                TimeUnit.NANOSECONDS.toMicros(elapsed), totalBytes / count,
+                TimeUnit.NANOSECONDS.toMicros(totalNanos / count), count);
+
+        return new EncodedImage(content, imageFormat, image.getWidth(), image.getHeight());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getOutputVersion() {
+        final String encoding = indexedPng
+                ? "png8-z" + compressionLevel + "-" + filter.name().toLowerCase(Locale.ROOT)
+                : "imageio";
+        return "r" + ExcelToImageConverter.RENDER_VERSION + "-" + encoding;
+    }
+}
@@ -0,0 +1,31 @@
+package ru.cs.vsu.social_network.telegram_bot.utils;
+
+import java.util.Objects;
+
+/**
+ * Закодированное изображение тренировочного плана вместе с метаданными.
+ * Хранится в кеше в готовом для отправки виде, поэтому выдача из кеша не требует
+ * декодирования и повторного кодирования. Массив байт не копируется и не должен изменяться.
+ *
+ * @param content закодированное изображение
+ * @param format формат изображения, например png
+ * @param width ширина изображения в пикселях
+ * @param height высота изображения в пикселях
+ */
+public record EncodedImage(byte[] content, String format, int width, int height) {
+
+    /**
+     * Проверяет, что содержимое и формат заданы.
+     */
+    public EncodedImage {
+        Objects.requireNonNull(content, "content");
+        Objects.requireNonNull(format, "format");
+    }
+
+    /**
+     * @return размер изображения в байтах
+     */
+    public int size() {
+        return content.length;
+    }
+}
@@ -1,17 +1,13 @@
 package ru.cs.vsu.social_network.telegram_bot.utils;
 
 import lombok.extern.slf4j.Slf4j;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException;
 
 import javax.imageio.ImageIO;
 import java.awt.*;
-import java.awt.Font;
 import java.awt.image.BufferedImage;
 import java.io.*;
-import java.nio.file.Path;
 
 /**
  * Утилитарный класс для работы с Excel файлами и изображениями.
@@ -24,32 +20,6 @@ public class ExcelUtils {
         throw new IllegalStateException("Utility class");
     }
 
-    /**
-     * Проверяет доступность Excel файла.
-     *
-     * @param excelFile файл для проверки
-     * @throws GenerateTrainingPlanException если файл недоступен
-     */
-    public static void validateExcelFile(File excelFile) {
-        if (!excelFile.exists()) {
-            log.error("EXCEL_УТИЛИТЫ_ФАЙЛ_НЕ_СУЩЕСТВУЕТ {}", excelFile.getAbsolutePath());
-            throw new GenerateTrainingPlanException("Excel файл не существует: " + excelFile.getAbsolutePath());
-        }
-
-        if (!excelFile.canRead()) {
-            log.error("EXCEL_УТИЛИТЫ_ФАЙЛ_НЕДОСТУПЕН {}", excelFile.getAbsolutePath());
-            throw new GenerateTrainingPlanException("Excel файл недоступен для чтения: " + excelFile.getAbsolutePath());
-        }
-
-        long fileSize = excelFile.length();
-        if (fileSize == 0) {
-            log.error("EXCEL_УТИЛИТЫ_ФАЙЛ_ПУСТОЙ {}", excelFile.getAbsolutePath());
-            throw new GenerateTrainingPlanException("Excel файл пустой: " + excelFile.getAbsolutePath());
-        }
-
-        log.info("EXCEL_УТИЛИТЫ_ПРОВЕРКА_ФАЙЛА размер файла {} байт, путь: {}", fileSize, excelFile.getAbsolutePath());
-    }
-
     /**
      * Проверяет наличие содержимого в ячейке Excel.
      *
@@ -82,6 +52,19 @@ public class ExcelUtils {
      * @return строковое представление значения ячейки
      */
     public static String getCellValueAsString(Cell cell) {
+        return getCellValueAsString(cell, null);
+    }
+
+    /**
+     * Преобразует значение ячейки в строку, вычисляя формулы переданным вычислителем.
+     * Один вычислитель используется для всех ячеек листа, поэтому его кеш результатов
+     * переиспользуется, а вычислитель не создается заново для каждой ячейки.
+     *
+     * @param cell ячейка Excel
+     * @param evaluator вычислитель формул книги ячейки или null, чтобы создать его при необходимости
+     * @return строковое представление значения ячейки
+     */
+    public static String getCellValueAsString(Cell cell, FormulaEvaluator evaluator) {
         if (cell == null) {
             return "";
         }
@@ -93,29 +76,23 @@ public class ExcelUtils {
                 if (DateUtil.isCellDateFormatted(cell)) {
                     return cell.getDateCellValue().toString();
                 } else {
-                    double value = cell.getNumericCellValue();
-                    if (value == Math.floor(value)) {
-                        return String.format("%.0f", value);
-                    } else {
-                        return String.format("%.1f", value);
-                    }
+                    return formatNumber(cell.getNumericCellValue());
                 }
             case BOOLEAN:
                 return Boolean.toString(cell.getBooleanCellValue());
             case FORMULA:
+                if (cell.getCachedFormulaResultType() == CellType.NUMERIC) {
+                    return formatNumber(cell.getNumericCellValue());
+                }
                 try {
-                    Workbook workbook = cell.getSheet().getWorkbook();
-                    FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
-                    CellValue cellValue = evaluator.evaluate(cell);
+                    FormulaEvaluator formulaEvaluator = evaluator != null
+                            ? evaluator
+                            : cell.getSheet().getWorkbook().getCreationHelper().createFormulaEvaluator();
+                    CellValue cellValue = formulaEvaluator.evaluate(cell);
 
                     switch (cellValue.getCellType()) {
                         case NUMERIC:
-                            double value = cellValue.getNumberValue();
-                            if (value == Math.floor(value)) {
-                                return String.format("%.0f", value);
-                            } else {
-                                return String.format("%.1f", value);
-                            }
+                            return formatNumber(cellValue.getNumberValue());
                         case STRING:
                             return cellValue.getStringValue();
                         default:
@@ -130,6 +107,21 @@ public class ExcelUtils {
         }
     }
 
+    /**
+     * Форматирует число так, как оно показывается в таблице программы:
+     * целые без дробной части, остальные с одним знаком после запятой.
+     *
+     * @param value число
+     * @return строковое представление числа
+     */
+    public static String formatNumber(double value) {
+        if (value == Math.floor(value)) {
+            return String.format("%.0f", value);
+        } else {
+            return String.format("%.1f", value);
+        }
+    }
+
     /**
      * Настраивает качество графики для Graphics2D.
      *
@@ -178,58 +170,34 @@ public class ExcelUtils {
     }
 
     /**
-     * Сохраняет изображение с компрессией.
+     * Кодирует изображение в указанный формат в памяти.
      *
-     * @param image изображение для сохранения
-     * @param defaultImageFormat формат изображения
-     * @param outputFile файл для сохранения
-     * @throws IOException если произошла ошибка сохранения
+     * @param image изображение для кодирования
+     * @param imageFormat формат изображения
+     * @return закодированное изображение
+     * @throws IOException если произошла ошибка кодирования
      */
-    public static void saveImageWithCompression(BufferedImage image, String defaultImageFormat, File outputFile) throws IOException {
-        log.info("EXCEL_УТИЛИТЫ_СОХРАНЕНИЕ_ИЗОБРАЖЕНИЯ формат {} размер {}x{}",
-                defaultImageFormat, image.getWidth(), image.getHeight());
-
-        try (FileOutputStream imageOut = new FileOutputStream(outputFile)) {
-            if ("jpg".equalsIgnoreCase(defaultImageFormat) || "jpeg".equalsIgnoreCase(defaultImageFormat)) {
-                BufferedImage rgbImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
-                Graphics2D g = rgbImage.createGraphics();
-                g.drawImage(image, 0, 0, null);
-                g.dispose();
-
-                ImageIO.write(rgbImage, "jpg", imageOut);
-            } else {
-                boolean written = ImageIO.write(image, defaultImageFormat, imageOut);
-                if (!written) {
-                    throw new GenerateTrainingPlanException("Формат изображения не поддерживается: " + defaultImageFormat);
-                }
+    public static byte[] encodeImage(BufferedImage image, String imageFormat) throws IOException {
+        log.info("EXCEL_УТИЛИТЫ_КОДИРОВАНИЕ_ИЗОБРАЖЕНИЯ формат {} размер {}x{}",
+                imageFormat, image.getWidth(), image.getHeight());
+
+        ByteArrayOutputStream imageOut = new ByteArrayOutputStream(image.getWidth() * image.getHeight() / 8 + 1024);
+        if ("jpg".equalsIgnoreCase(imageFormat) || "jpeg".equalsIgnoreCase(imageFormat)) {
+            BufferedImage rgbImage = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgbImage.createGraphics();
+            g.drawImage(image, 0, 0, null);
+            g.dispose();
+
+            ImageIO.write(rgbImage, "jpg", imageOut);
+        } else {
+            boolean written = ImageIO.write(image, imageFormat, imageOut);
+            if (!written) {
+                throw new GenerateTrainingPlanException("Формат изображения не поддерживается: " + imageFormat);
             }
-
-            log.info("EXCEL_УТИЛИТЫ_ИЗОБРАЖЕНИЕ_СОХРАНЕНО файл {} размер {} байт",
-                    outputFile.getAbsolutePath(), outputFile.length());
         }
-    }
 
-    /**
-     * Создает объект Workbook в зависимости от формата файла.
-     *
-     * @param excelFile Excel файл
-     * @param inputStream поток данных файла
-     * @return объект Workbook
-     * @throws IOException если произошла ошибка чтения файла
-     */
-    public static Workbook createWorkbook(File excelFile, InputStream inputStream) throws IOException {
-        String fileName = excelFile.getName().toLowerCase();
-
-        if (fileName.endsWith(".xlsx")) {
-            log.info("EXCEL_УТИЛИТЫ_СОЗДАНИЕ_WORKBOOK формат XLSX файл {}", excelFile.getName());
-            return new XSSFWorkbook(inputStream);
-        } else if (fileName.endsWith(".xls")) {
-            log.info("EXCEL_УТИЛИТЫ_СОЗДАНИЕ_WORKBOOK формат XLS файл {}", excelFile.getName());
-            return new HSSFWorkbook(inputStream);
-        } else {
-            log.error("EXCEL_УТИЛИТЫ_НЕПОДДЕРЖИВАЕМЫЙ_ФОРМАТ {}", excelFile.getName());
-            throw new GenerateTrainingPlanException("Неподдерживаемый формат Excel файла: " + excelFile.getName());
-        }
+        log.info("EXCEL_УТИЛИТЫ_ИЗОБРАЖЕНИЕ_ЗАКОДИРОВАНО размер {} байт", imageOut.size());
+        return imageOut.toByteArray();
     }
 
     /**
@@ -309,91 +277,6 @@ public class ExcelUtils {
         return new int[]{minRow, maxRow, minCol, maxCol};
     }
 
-    /**
-     * Вычисляет ширину столбца на основе содержимого ячеек.
-     *
-     * @param sheet лист Excel
-     * @param columnIndices индексы столбцов
-     * @param rowIndices индексы строк
-     * @param minColumnWidth минимальная ширина столбца
-     * @return оптимальная ширина столбца
-     */
-    public static int calculateOptimalColumnWidth(Sheet sheet, java.util.List<Integer> columnIndices,
-                                                  java.util.List<Integer> rowIndices, int minColumnWidth) {
-        int maxCellWidth = minColumnWidth;
-        Font tempFont = new Font("Arial", Font.BOLD, 18);
-
-        try {
-            BufferedImage tempImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
-            Graphics2D tempGraphics = tempImage.createGraphics();
-            tempGraphics.setFont(tempFont);
-            FontMetrics metrics = tempGraphics.getFontMetrics();
-
-            int rowsToAnalyze = Math.min(rowIndices.size(), 30);
-            int columnsToAnalyze = Math.min(columnIndices.size(), 30);
-
-            for (int i = 0; i < rowsToAnalyze && i < rowIndices.size(); i++) {
-                int rowIndex = rowIndices.get(i);
-                Row row = sheet.getRow(rowIndex);
-                if (row != null) {
-                    for (int j = 0; j < columnsToAnalyze && j < columnIndices.size(); j++) {
-                        int colIndex = columnIndices.get(j);
-                        Cell cell = row.getCell(colIndex);
-                        String cellValue = getCellValueAsString(cell);
-                        if (cellValue != null && !cellValue.isEmpty()) {
-                            int textWidth = metrics.stringWidth(cellValue);
-                            maxCellWidth = Math.max(maxCellWidth, textWidth + 30);
-                        }
-                    }
-                }
-            }
-
-            tempGraphics.dispose();
-        } catch (Exception e) {
-            log.warn("EXCEL_УТИЛИТЫ_ОПТИМАЛЬНАЯ_ШИРИНА_ОШИБКА {}", e.getMessage());
-            return minColumnWidth;
-        }
-
-        return Math.min(maxCellWidth, 350);
-    }
-
-    /**
-     * Создает временный файл для работы с изображением.
-     *
-     * @param prefix префикс имени файла
-     * @param suffix суффикс имени файла
-     * @param tempDir директория для временных файлов
-     * @return путь к созданному временному файлу
-     * @throws IOException если не удалось создать файл
-     */
-    public static Path createTempFile(String prefix, String suffix, String tempDir) throws IOException {
-        java.nio.file.Path tempDirPath = java.nio.file.Paths.get(tempDir);
-        if (!java.nio.file.Files.exists(tempDirPath)) {
-            java.nio.file.Files.createDirectories(tempDirPath);
-            log.info("EXCEL_УТИЛИТЫ_ДИРЕКТОРИЯ_СОЗДАНА {}", tempDirPath.toAbsolutePath());
-        }
-
-        String timestamp = java.time.LocalDateTime.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = String.format("%s_%s_%s", prefix, timestamp, suffix);
-        return tempDirPath.resolve(filename);
-    }
-
-    /**
-     * Удаляет временный файл с логированием.
-     *
-     * @param file файл для удаления
-     */
-    public static void deleteTempFile(File file) {
-        if (file != null && file.exists()) {
-            log.info("EXCEL_УТИЛИТЫ_УДАЛЕНИЕ_ВРЕМЕННОГО_ФАЙЛА {}", file.getAbsolutePath());
-            if (file.delete()) {
-                log.info("EXCEL_УТИЛИТЫ_ВРЕМЕННЫЙ_ФАЙЛ_УДАЛЕН");
-            } else {
-                log.warn("EXCEL_УТИЛИТЫ_ВРЕМЕННЫЙ_ФАЙЛ_НЕ_УДАЛЕН требуется ручное удаление");
-            }
-        }
-    }
-
     /**
      * Проверяет требования к памяти для обработки таблицы.
      *
@@ -407,27 +290,6 @@ public class ExcelUtils {
         if (estimatedMemory > warningThreshold) {
             log.warn("EXCEL_УТИЛИТЫ_ПРОВЕРКА_ПАМЯТИ оценка памяти {} байт для {} строк {} колонок",
                     estimatedMemory, rows, columns);
-            System.gc();
         }
     }
-
-    /**
-     * Загружает изображение из файла.
-     *
-     * @param imageFile файл с изображением
-     * @return BufferedImage изображение
-     * @throws IOException если не удалось загрузить изображение
-     */
-    public static BufferedImage loadImageFromFile(File imageFile) throws IOException {
-        log.info("EXCEL_УТИЛИТЫ_ЗАГРУЗКА_ИЗОБРАЖЕНИЯ файл {} размер {} байт",
-                imageFile.getAbsolutePath(), imageFile.length());
-
-        BufferedImage image = ImageIO.read(imageFile);
-        if (image == null) {
-            throw new IOException("Не удалось загрузить изображение из файла: " + imageFile.getAbsolutePath());
-        }
-
-        log.info("EXCEL_УТИЛИТЫ_ИЗОБРАЖЕНИЕ_ЗАГРУЖЕНО размер {}x{}", image.getWidth(), image.getHeight());
-        return image;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package ru.cs.vsu.social_network.telegram_bot.utils;
+
+import java.util.Objects;
+
+/**
+ * Сгенерированный документ, который хранится в памяти и отправляется пользователю без записи на диск.
+ * Содержимое не копируется: после создания документа массив байт не должен изменяться.
+ *
+ * @param fileName имя файла, под которым документ увидит пользователь
+ * @param content содержимое документа
+ */
+public record GeneratedDocument(String fileName, byte[] content) {
+
+    /**
+     * Проверяет, что имя файла и содержимое заданы.
+     */
+    public GeneratedDocument {
+        Objects.requireNonNull(fileName, "fileName");
+        Objects.requireNonNull(content, "content");
+    }
+
+    /**
+     * @return размер документа в байтах
+     */
+    public int size() {
+        return content.length;
+    }
+}
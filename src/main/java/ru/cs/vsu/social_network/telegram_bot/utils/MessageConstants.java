@@ -20,7 +20,13 @@ public class MessageConstants {
     public final static String ADMIN_ACCESS_REQUIRED = "Ошибка! Пользователь не является администратором";
     public final static String ROLE_ACCESS_REQUIRED = "Ошибка! Пользователь не имеет требуемую роль";
 
+    // PAGINATION
+    public final static String INVALID_PAGE_CURSOR_FAILURE = "Ошибка! Некорректный курсор страницы";
+
     // TRAINING PLAN
     public final static String GENERATE_PLAN_FAILURE = "Ошибка! Не удалось сгенерировать тренировочный план";
     public static final String USER_TRAINING_NOT_FOUND_FAILURE = "Ошибка! Запись тренировок пользователя не найдена";
+
+    // EXPORT
+    public final static String VISIT_EXPORT_FAILURE = "Ошибка! Не удалось выгрузить посещения";
 }
@@ -0,0 +1,180 @@
+package ru.cs.vsu.social_network.telegram_bot.utils;
+
+import java.util.Collection;
+
+/**
+ * Построитель текстовых сообщений Telegram с экранированием MarkdownV2.
+ * Разметка шаблона добавляется как есть, пользовательские данные (имена посетителей)
+ * экранируются за один проход по таблице специальных символов без промежуточных строк.
+ * Не является потокобезопасным.
+ */
+public final class TelegramMessageComposer {
+
+    private static final char ESCAPE_CHAR = '\\';
+    private static final String SPECIAL_CHARACTERS = "_*[]()~`>#+-=|{}.!\\";
+    private static final boolean[] SPECIAL = new boolean[128];
+
+    static {
+        for (int i = 0; i < SPECIAL_CHARACTERS.length(); i++) {
+            SPECIAL[SPECIAL_CHARACTERS.charAt(i)] = true;
+        }
+    }
+
+    private final StringBuilder builder;
+
+    private TelegramMessageComposer(final int capacity) {
+        this.builder = new StringBuilder(Math.max(16, capacity));
+    }
+
+    /**
+     * Создает построитель с заранее выделенным буфером.
+     *
+     * @param expectedLength ожидаемая длина сообщения
+     * @return новый построитель
+     */
+    public static TelegramMessageComposer withCapacity(final int expectedLength) {
+        return new TelegramMessageComposer(expectedLength);
+    }
+
+    /**
+     * Оценивает размер буфера для сообщения со списком имен.
+     * Учитывает заголовок, нумерацию строк и возможное экранирование части символов.
+     *
+     * @param headerLength ожидаемая длина заголовка и итогов
+     * @param names имена, которые войдут в сообщение
+     * @return рекомендуемая емкость буфера
+     */
+    public static int estimateCapacity(final int headerLength, final Collection<String> names) {
+        int capacity = headerLength;
+        for (final String name : names) {
+            if (name != null) {
+                capacity += name.length() + name.length() / 8 + 8;
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Экранирует специальные символы MarkdownV2.
+     * Если экранировать нечего, возвращается исходная строка без копирования.
+     *
+     * @param text исходный текст
+     * @return экранированный текст или пустая строка для null
+     */
+    public static String escape(final String text) {
+        if (text == null) {
+            return "";
+        }
+        final int firstSpecial = indexOfSpecial(text);
+        if (firstSpecial < 0) {
+            return text;
+        }
+        final StringBuilder escaped = new StringBuilder(text.length() + 8);
+        escaped.append(text, 0, firstSpecial);
+        escapeTo(text, firstSpecial, escaped);
+        return escaped.toString();
+    }
+
+    /**
+     * Добавляет разметку или текст шаблона без экранирования.
+     *
+     * @param markup фрагмент сообщения
+     * @return этот построитель
+     */
+    public TelegramMessageComposer append(final String markup) {
+        builder.append(markup);
+        return this;
+    }
+
+    /**
+     * Добавляет целое число.
+     *
+     * @param value число
+     * @return этот построитель
+     */
+    public TelegramMessageComposer append(final long value) {
+        builder.append(value);
+        return this;
+    }
+
+    /**
+     * Добавляет один символ без экранирования.
+     *
+     * @param value символ
+     * @return этот построитель
+     */
+    public TelegramMessageComposer append(final char value) {
+        builder.append(value);
+        return this;
+    }
+
+    /**
+     * Добавляет пользовательский текст с экранированием MarkdownV2.
+     *
+     * @param text текст; null добавляется как пустая строка
+     * @return этот построитель
+     */
+    public TelegramMessageComposer appendEscaped(final String text) {
+        if (text != null) {
+            escapeTo(text, 0, builder);
+        }
+        return this;
+    }
+
+    /**
+     * Добавляет нумерованную строку списка: "N. имя\n".
+     *
+     * @param number номер строки
+     * @param name имя, экранируется
+     * @return этот построитель
+     */
+    public TelegramMessageComposer appendNumbered(final int number, final String name) {
+        builder.append(number).append(". ");
+        appendEscaped(name);
+        builder.append('\n');
+        return this;
+    }
+
+    /**
+     * Длина собранного текста в единицах UTF-16, включая символы экранирования.
+     *
+     * @return длина текста
+     */
+    public int length() {
+        return builder.length();
+    }
+
+    /**
+     * @return собранное сообщение
+     */
+    public String build() {
+        return builder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return build();
+    }
+
+    private static int indexOfSpecial(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < 128 && SPECIAL[c]) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static void escapeTo(final String text, final int from, final StringBuilder target) {
+        int chunkStart = from;
+        for (int i = from; i < text.length(); i++) {
+            final char c = text.charAt(i);
+            if (c < 128 && SPECIAL[c]) {
+                target.append(text, chunkStart, i).append(ESCAPE_CHAR).append(c);
+                chunkStart = i + 1;
+            }
+        }
+        target.append(text, chunkStart, text.length());
+    }
+}
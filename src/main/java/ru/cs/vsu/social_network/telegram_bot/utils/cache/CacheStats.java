@@ -0,0 +1,29 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.cache;
+
+/**
+ * Снимок счетчиков кеша.
+ *
+ * @param hits число попаданий
+ * @param misses число промахов, включая обращения к просроченным записям
+ * @param evictions число записей, вытесненных из-за ограничения объема
+ * @param expirations число записей, удаленных по истечении срока жизни
+ * @param entryCount текущее число записей
+ * @param weightBytes текущий объем записей в байтах
+ * @param maxWeightBytes максимальный объем записей в байтах
+ */
+public record CacheStats(long hits,
+                         long misses,
+                         long evictions,
+                         long expirations,
+                         int entryCount,
+                         long weightBytes,
+                         long maxWeightBytes) {
+
+    /**
+     * @return доля попаданий от всех обращений или 0, если обращений не было
+     */
+    public double hitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,457 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Хранилище пар ключ - массив байт в одном файле сегмента на локальном диске.
+ * Записи только дописываются в конец файла, более поздняя запись с тем же ключом заменяет предыдущую.
+ * Чтение идет из отображенного в память файла без системных вызовов на каждое обращение,
+ * поэтому данные хранятся вне кучи и переживают перезапуск приложения.
+ * Индекс ключей восстанавливается при открытии по содержимому файла; запись с неверной контрольной
+ * суммой считается оборванной, и файл обрезается перед ней.
+ * Когда размер файла превышает предел, файл уплотняется: переписываются только актуальные записи,
+ * а если их объем все еще велик, отбрасываются самые старые из них.
+ *
+ * <p>Файл отображается с запасом, и отображение пересоздается только когда файл выходит за его границу;
+ * емкость при этом удваивается. Поэтому число отображений за цикл заполнения логарифмическое,
+ * а не равно числу записей. Отображение расширяет файл нулями до своей емкости; при закрытии файл
+ * обрезается до последней записи, а нулевой хвост после аварийной остановки отбрасывается при открытии.
+ * Прежние отображения освобождаются только сборщиком мусора, поэтому замененный при уплотнении файл
+ * перед закрытием обрезается до нуля и не удерживает место на диске.</p>
+ *
+ * <p>Формат записи: магическое число, длина ключа, длина значения, CRC32 ключа и значения,
+ * ключ в UTF-8, значение.</p>
+ */
+@Slf4j
+public final class SegmentFileStore implements Closeable {
+
+    private static final String LOG_PREFIX = "СЕГМЕНТ_КЕША";
+    private static final int MAGIC = 0x47534331;
+    private static final int HEADER_SIZE = 16;
+    private static final String COMPACT_SUFFIX = ".compact";
+    private static final long MIN_MAPPED_BYTES = 1024 * 1024;
+
+    private final Path file;
+    private final long maxBytes;
+    private final long compactTargetBytes;
+    private final long maxMappedBytes;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LinkedHashMap<String, Location> index = new LinkedHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private FileChannel channel;
+    private MappedByteBuffer mapped;
+    private long mappedCapacity;
+    private long fileSize;
+    private long liveBytes;
+    private long evictions;
+
+    private SegmentFileStore(final Path file, final long maxBytes) {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.compactTargetBytes = maxBytes / 4 * 3;
+        this.maxMappedBytes = maxBytes + compactTargetBytes;
+    }
+
+    /**
+     * Открывает файл сегмента, создавая его при необходимости, и восстанавливает индекс.
+     *
+     * @param file путь к файлу сегмента
+     * @param maxBytes максимальный размер файла в байтах, не больше 1 ГБ
+     * @return открытое хранилище
+     * @throws IOException если файл не удалось открыть или прочитать
+     */
+    public static SegmentFileStore open(final Path file, final long maxBytes) throws IOException {
+        if (maxBytes <= HEADER_SIZE || maxBytes > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Недопустимый размер сегмента: " + maxBytes);
+        }
+        final Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.deleteIfExists(compactFile(file));
+
+        final SegmentFileStore store = new SegmentFileStore(file, maxBytes);
+        store.openChannel();
+        store.rebuildIndex();
+        return store;
+    }
+
+    /**
+     * Возвращает копию значения по ключу.
+     *
+     * @param key ключ
+     * @return значение или null, если ключа нет
+     */
+    public byte[] get(final String key) {
+        lock.readLock().lock();
+        try {
+            final Location location = index.get(key);
+            if (location == null || mapped == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            final byte[] value = new byte[location.valueLength];
+            mapped.get(location.valueOffset(), value);
+            hits.incrementAndGet();
+            return value;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Дописывает значение в конец файла. При превышении предельного размера файл уплотняется.
+     *
+     * @param key ключ
+     * @param value значение
+     * @return true, если значение записано; false, если запись больше предельного размера
+     *         или хранилище закрыто после ошибки уплотнения
+     * @throws IOException если запись на диск не удалась
+     */
+    public boolean put(final String key, final byte[] value) throws IOException {
+        final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        final long recordSize = (long) HEADER_SIZE + keyBytes.length + value.length;
+        if (recordSize > compactTargetBytes) {
+            return false;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return false;
+            }
+            final long offset = fileSize;
+            writeRecord(channel, offset, keyBytes, value);
+            fileSize += recordSize;
+
+            final Location previous = index.remove(key);
+            if (previous != null) {
+                liveBytes -= previous.recordSize();
+            }
+            index.put(key, new Location(offset, keyBytes.length, value.length));
+            liveBytes += recordSize;
+
+            ensureMapped();
+            if (fileSize > maxBytes) {
+                compactLocked();
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Переписывает файл, оставляя только актуальные записи.
+     *
+     * @throws IOException если новый файл не удалось записать
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            compactLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return число ключей в хранилище
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return текущий размер файла сегмента в байтах, включая устаревшие записи
+     */
+    public long fileSize() {
+        lock.readLock().lock();
+        try {
+            return fileSize;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return снимок счетчиков; объемом считается размер актуальных записей
+     */
+    public CacheStats stats() {
+        lock.readLock().lock();
+        try {
+            return new CacheStats(hits.get(), misses.get(), evictions, 0,
+                    index.size(), liveBytes, maxBytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Обрезает файл до последней записи и закрывает его. Отображение в память освобождается сборщиком мусора.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            mapped = null;
+            mappedCapacity = 0;
+            if (channel != null) {
+                try {
+                    channel.truncate(fileSize);
+                } finally {
+                    channel.close();
+                    channel = null;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void openChannel() throws IOException {
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        fileSize = channel.size();
+        mapped = null;
+        mappedCapacity = 0;
+        ensureMapped();
+    }
+
+    /**
+     * Восстанавливает индекс последовательным чтением записей.
+     * Файл обрезается по первой неполной или поврежденной записи.
+     */
+    private void rebuildIndex() throws IOException {
+        final CRC32 crc = new CRC32();
+        long offset = 0;
+        while (offset + HEADER_SIZE <= fileSize) {
+            final int position = (int) offset;
+            final int magic = mapped.getInt(position);
+            final int keyLength = mapped.getInt(position + 4);
+            final int valueLength = mapped.getInt(position + 8);
+            final int checksum = mapped.getInt(position + 12);
+            final long recordSize = (long) HEADER_SIZE + keyLength + valueLength;
+            if (magic != MAGIC || keyLength < 0 || valueLength < 0 || offset + recordSize > fileSize) {
+                break;
+            }
+
+            final byte[] keyBytes = new byte[keyLength];
+            mapped.get(position + HEADER_SIZE, keyBytes);
+            crc.reset();
+            crc.update(keyBytes);
+            crc.update(mapped.slice(position + HEADER_SIZE + keyLength, valueLength));
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            final String key = new String(keyBytes, StandardCharsets.UTF_8);
+            final Location previous = index.remove(key);
+            if (previous != null) {
+                liveBytes -= previous.recordSize();
+            }
+            index.put(key, new Location(offset, keyLength, valueLength));
+            liveBytes += recordSize;
+            offset += recordSize;
+        }
+
+        if (offset < fileSize) {
+            if (isZeroTail(offset)) {
+                log.info("{}_ОБРЕЗКА: файл {} дополнен нулями после {} байт из {}, хвост отброшен",
+                        LOG_PREFIX, file, offset, fileSize);
+            } else {
+                log.warn("{}_ОБРЕЗКА: файл {} поврежден после {} байт из {}, хвост отброшен",
+                        LOG_PREFIX, file, offset, fileSize);
+            }
+            mapped = null;
+            mappedCapacity = 0;
+            channel.truncate(offset);
+            fileSize = offset;
+            ensureMapped();
+        }
+
+        log.info("{}_ОТКРЫТ: файл {}, записей {}, актуальных {} байт из {}",
+                LOG_PREFIX, file, index.size(), liveBytes, fileSize);
+    }
+
+    private void compactLocked() throws IOException {
+        int dropped = 0;
+        final Iterator<Location> eldest = index.values().iterator();
+        while (liveBytes > compactTargetBytes && eldest.hasNext()) {
+            liveBytes -= eldest.next().recordSize();
+            eldest.remove();
+            dropped++;
+        }
+        evictions += dropped;
+
+        final long previousSize = fileSize;
+        final Path compactFile = compactFile(file);
+        final LinkedHashMap<String, Location> compacted = new LinkedHashMap<>();
+        long offset = 0;
+        try (FileChannel target = FileChannel.open(compactFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (final Map.Entry<String, Location> entry : index.entrySet()) {
+                final Location location = entry.getValue();
+                final int recordSize = (int) location.recordSize();
+                final ByteBuffer record = mapped.slice((int) location.offset, recordSize);
+                while (record.hasRemaining()) {
+                    target.write(record, offset + record.position());
+                }
+                compacted.put(entry.getKey(), new Location(offset, location.keyLength, location.valueLength));
+                offset += recordSize;
+            }
+            target.force(true);
+            Files.move(compactFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(compactFile);
+            throw e;
+        }
+
+        index.clear();
+        index.putAll(compacted);
+        liveBytes = offset;
+        releaseReplacedFile();
+        try {
+            openChannel();
+        } catch (IOException e) {
+            disable();
+            throw e;
+        }
+
+        log.info("{}_УПЛОТНЕНИЕ: файл {}, {} -> {} байт, записей {}, вытеснено {}",
+                LOG_PREFIX, file, previousSize, fileSize, index.size(), dropped);
+    }
+
+    /**
+     * Отображает файл заново, если записи вышли за границу текущего отображения.
+     * Емкость удваивается, но не превышает наибольший возможный размер файла перед уплотнением,
+     * если только сам файл не больше него.
+     */
+    private void ensureMapped() throws IOException {
+        if (mapped != null && fileSize <= mappedCapacity) {
+            return;
+        }
+        final long capacity = Math.max(fileSize,
+                Math.min(maxMappedBytes, Math.max(MIN_MAPPED_BYTES, mappedCapacity * 2)));
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, capacity);
+        mappedCapacity = capacity;
+    }
+
+    /**
+     * Освобождает место, занятое замененным файлом. Файл уже отсоединен от каталога,
+     * но его отображения живут до сборки мусора; обрезка до нуля освобождает блоки на диске сразу.
+     * К прежним отображениям после этого не обращаются: ссылки на них сбрасываются под блокировкой записи.
+     */
+    private void releaseReplacedFile() {
+        mapped = null;
+        mappedCapacity = 0;
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            log.warn("{}_ОСВОБОЖДЕНИЕ_ОШИБКА: замененный файл {} не обрезан: {}", LOG_PREFIX, file, e.getMessage());
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("{}_ЗАКРЫТИЕ_ОШИБКА: замененный файл {} не закрыт: {}", LOG_PREFIX, file, e.getMessage());
+        }
+        channel = null;
+    }
+
+    /**
+     * Отключает хранилище, если после уплотнения файл не удалось открыть заново.
+     * Чтения становятся промахами, записи отклоняются.
+     */
+    private void disable() {
+        log.error("{}_ОТКЛЮЧЕН: файл {} недоступен после уплотнения", LOG_PREFIX, file);
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("{}_ЗАКРЫТИЕ_ОШИБКА: файл {}: {}", LOG_PREFIX, file, e.getMessage());
+            }
+        }
+        channel = null;
+        mapped = null;
+        mappedCapacity = 0;
+        index.clear();
+        liveBytes = 0;
+        fileSize = 0;
+    }
+
+    private boolean isZeroTail(final long offset) {
+        final int end = (int) Math.min(fileSize, offset + HEADER_SIZE);
+        for (int position = (int) offset; position < end; position++) {
+            if (mapped.get(position) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeRecord(final FileChannel target,
+                                    final long offset,
+                                    final byte[] keyBytes,
+                                    final byte[] value) throws IOException {
+        final CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(value);
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putInt(MAGIC)
+                .putInt(keyBytes.length)
+                .putInt(value.length)
+                .putInt((int) crc.getValue())
+                .flip();
+        final ByteBuffer[] record = {header, ByteBuffer.wrap(keyBytes), ByteBuffer.wrap(value)};
+
+        long position = offset;
+        for (final ByteBuffer buffer : record) {
+            while (buffer.hasRemaining()) {
+                position += target.write(buffer, position);
+            }
+        }
+    }
+
+    private static Path compactFile(final Path file) {
+        return file.resolveSibling(file.getFileName() + COMPACT_SUFFIX);
+    }
+
+    private record Location(long offset, int keyLength, int valueLength) {
+
+        int valueOffset() {
+            return (int) offset + HEADER_SIZE + keyLength;
+        }
+
+        long recordSize() {
+            return (long) HEADER_SIZE + keyLength + valueLength;
+        }
+    }
+}
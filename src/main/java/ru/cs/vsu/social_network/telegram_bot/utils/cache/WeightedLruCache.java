@@ -0,0 +1,199 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * Потокобезопасный LRU-кеш, ограниченный суммарным объемом записей в байтах.
+ * Записи хранятся в LinkedHashMap с порядком доступа, поэтому обращение, вставка
+ * и вытеснение самой давно использованной записи выполняются за O(1).
+ * Срок жизни проверяется лениво при чтении; полный обход просроченных записей
+ * выполняется только по явному вызову {@link #removeExpired()}.
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значения
+ */
+public final class WeightedLruCache<K, V> {
+
+    private final long maxWeightBytes;
+    private final long ttlNanos;
+    private final ToLongFunction<V> weigher;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weightBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+
+    /**
+     * @param maxWeightBytes максимальный суммарный объем записей в байтах
+     * @param ttlMillis срок жизни записи в миллисекундах
+     * @param weigher функция, возвращающая объем значения в байтах
+     */
+    public WeightedLruCache(final long maxWeightBytes, final long ttlMillis, final ToLongFunction<V> weigher) {
+        this.maxWeightBytes = maxWeightBytes;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.weigher = weigher;
+    }
+
+    /**
+     * Возвращает значение и отмечает запись как недавно использованную.
+     * Просроченная запись удаляется и считается промахом.
+     *
+     * @param key ключ
+     * @return значение или null, если записи нет или она просрочена
+     */
+    public V get(final K key) {
+        lock.lock();
+        try {
+            final Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                misses++;
+                return null;
+            }
+            if (isExpired(entry, System.nanoTime())) {
+                entries.remove(key);
+                weightBytes -= entry.weight;
+                expirations++;
+                misses++;
+                return null;
+            }
+            hits++;
+            return entry.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сохраняет значение и вытесняет самые давно использованные записи, пока объем превышает предел.
+     * Значение, которое само больше предела, не сохраняется.
+     *
+     * @param key ключ
+     * @param value значение
+     * @return true, если значение сохранено
+     */
+    public boolean put(final K key, final V value) {
+        final long weight = weigher.applyAsLong(value);
+        if (weight > maxWeightBytes) {
+            return false;
+        }
+        lock.lock();
+        try {
+            final Entry<V> previous = entries.put(key, new Entry<>(value, weight, System.nanoTime()));
+            if (previous != null) {
+                weightBytes -= previous.weight;
+            }
+            weightBytes += weight;
+
+            final Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+            while (weightBytes > maxWeightBytes && eldest.hasNext()) {
+                final Entry<V> evicted = eldest.next().getValue();
+                eldest.remove();
+                weightBytes -= evicted.weight;
+                evictions++;
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет запись.
+     *
+     * @param key ключ
+     */
+    public void remove(final K key) {
+        lock.lock();
+        try {
+            final Entry<V> removed = entries.remove(key);
+            if (removed != null) {
+                weightBytes -= removed.weight;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все просроченные записи.
+     *
+     * @return число удаленных записей
+     */
+    public int removeExpired() {
+        lock.lock();
+        try {
+            final long now = System.nanoTime();
+            int removed = 0;
+            final Iterator<Entry<V>> iterator = entries.values().iterator();
+            while (iterator.hasNext()) {
+                final Entry<V> entry = iterator.next();
+                if (isExpired(entry, now)) {
+                    iterator.remove();
+                    weightBytes -= entry.weight;
+                    removed++;
+                }
+            }
+            expirations += removed;
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Удаляет все записи. Счетчики обращений сохраняются.
+     *
+     * @return число удаленных записей
+     */
+    public int clear() {
+        lock.lock();
+        try {
+            final int size = entries.size();
+            entries.clear();
+            weightBytes = 0;
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return текущее число записей
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return снимок счетчиков кеша
+     */
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return new CacheStats(hits, misses, evictions, expirations,
+                    entries.size(), weightBytes, maxWeightBytes);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isExpired(final Entry<V> entry, final long now) {
+        return now - entry.createdAtNanos > ttlNanos;
+    }
+
+    private record Entry<V>(V value, long weight, long createdAtNanos) {
+    }
+}
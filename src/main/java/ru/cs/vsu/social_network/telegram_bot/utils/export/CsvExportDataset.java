@@ -0,0 +1,51 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.export;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Наборы данных, доступные для выгрузки в CSV.
+ * Хранит имя набора в адресе запроса и заголовок CSV файла.
+ */
+public enum CsvExportDataset {
+
+    VISITS("visits", List.of(
+            "visit_date", "telegram_id", "username", "first_name", "last_name", "display_name")),
+
+    DAILY_STATS("daily-stats", List.of(
+            "date", "unique_visitors", "total_visits", "new_users")),
+
+    VISITOR_LOGS("visitor-logs", List.of(
+            "log_date", "visitor_count", "new_users_count", "position", "user_id", "display_name"));
+
+    private final String pathName;
+    private final List<String> headers;
+
+    CsvExportDataset(final String pathName, final List<String> headers) {
+        this.pathName = pathName;
+        this.headers = headers;
+    }
+
+    /**
+     * Находит набор данных по имени из адреса запроса.
+     *
+     * @param pathName имя набора, например visits
+     * @return набор данных или пустой Optional
+     */
+    public static Optional<CsvExportDataset> fromPathName(final String pathName) {
+        for (final CsvExportDataset dataset : values()) {
+            if (dataset.pathName.equalsIgnoreCase(pathName)) {
+                return Optional.of(dataset);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public String getPathName() {
+        return pathName;
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+}
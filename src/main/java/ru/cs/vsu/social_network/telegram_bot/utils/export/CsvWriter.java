@@ -0,0 +1,97 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.export;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Построчная запись CSV по RFC 4180 без промежуточных коллекций.
+ * Значения, содержащие разделитель, кавычки или перевод строки, заключаются в кавычки.
+ * Не является потокобезопасным и не закрывает переданный Writer.
+ */
+public final class CsvWriter {
+
+    private static final char SEPARATOR = ',';
+    private static final char QUOTE = '"';
+    private static final String LINE_END = "\r\n";
+
+    private final Writer writer;
+    private boolean firstField = true;
+    private long rowCount;
+
+    public CsvWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Записывает значение очередного поля текущей строки.
+     *
+     * @param value значение поля, null записывается как пустое поле
+     * @throws IOException если запись не удалась
+     */
+    public void writeField(final Object value) throws IOException {
+        if (!firstField) {
+            writer.write(SEPARATOR);
+        }
+        firstField = false;
+        if (value == null) {
+            return;
+        }
+
+        final String text = value.toString();
+        if (!requiresQuoting(text)) {
+            writer.write(text);
+            return;
+        }
+
+        writer.write(QUOTE);
+        for (int i = 0; i < text.length(); i++) {
+            final char symbol = text.charAt(i);
+            if (symbol == QUOTE) {
+                writer.write(QUOTE);
+            }
+            writer.write(symbol);
+        }
+        writer.write(QUOTE);
+    }
+
+    /**
+     * Завершает текущую строку.
+     *
+     * @throws IOException если запись не удалась
+     */
+    public void endRow() throws IOException {
+        writer.write(LINE_END);
+        firstField = true;
+        rowCount++;
+    }
+
+    /**
+     * Записывает строку из нескольких полей.
+     *
+     * @param values значения полей
+     * @throws IOException если запись не удалась
+     */
+    public void writeRow(final Iterable<?> values) throws IOException {
+        for (final Object value : values) {
+            writeField(value);
+        }
+        endRow();
+    }
+
+    /**
+     * @return количество записанных строк, включая заголовок
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    private static boolean requiresQuoting(final String text) {
+        for (int i = 0; i < text.length(); i++) {
+            final char symbol = text.charAt(i);
+            if (symbol == SEPARATOR || symbol == QUOTE || symbol == '\n' || symbol == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,8 +2,10 @@ package ru.cs.vsu.social_network.telegram_bot.utils.factory;
 
 import ru.cs.vsu.social_network.telegram_bot.dto.request.AddVisitorRequest;
 import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLog;
+import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLogEntry;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Фабрика для создания сущностей VisitorLog.
@@ -23,25 +25,25 @@ public interface VisitorLogFactory {
      * Создает журнал посещений с указанными данными.
      *
      * @param visitorCount количество посетителей
-     * @param rawData сырые данные о посетителях
+     * @param visitors посетители в порядке посещений
      * @param logDate дата журнала
      * @return новый экземпляр VisitorLog
      */
     VisitorLog createWithData(Integer visitorCount,
-                              String rawData,
+                              List<VisitorLogEntry> visitors,
                               LocalDate logDate);
 
     /**
      * Создает журнал посещений с указанными данными, включая количество новых пользователей.
      *
      * @param visitorCount количество посетителей
-     * @param rawData сырые данные о посетителях
+     * @param visitors посетители в порядке посещений
      * @param logDate дата журнала
      * @param newUsersCount количество новых пользователей
      * @return новый экземпляр VisitorLog
      */
     VisitorLog createWithData(Integer visitorCount,
-                              String rawData,
+                              List<VisitorLogEntry> visitors,
                               LocalDate logDate,
                               int newUsersCount);
 }
\ No newline at end of file
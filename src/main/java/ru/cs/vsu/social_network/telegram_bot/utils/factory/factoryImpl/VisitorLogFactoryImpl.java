@@ -4,10 +4,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.AddVisitorRequest;
 import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLog;
+import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLogEntry;
 import ru.cs.vsu.social_network.telegram_bot.utils.factory.VisitorLogFactory;
 
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Реализация фабрики для создания сущностей VisitorLog.
@@ -29,7 +32,7 @@ public final class VisitorLogFactoryImpl implements VisitorLogFactory {
 
         if (request == null) {
             log.warn("{}_ФАБРИКА_ИЗ_ЗАПРОСА: запрос null", ENTITY_NAME);
-            return createWithData(0, "", LocalDate.now());
+            return createWithData(0, List.of(), LocalDate.now());
         }
 
         LocalDate date = request.getVisitDate() != null
@@ -41,32 +44,35 @@ public final class VisitorLogFactoryImpl implements VisitorLogFactory {
                 ? request.getDisplayName().trim()
                 : "Анонимный посетитель";
 
-        return createWithData(1, displayName, date);
+        return createWithData(1, List.of(VisitorLogEntry.builder()
+                .displayName(displayName)
+                .build()), date);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public VisitorLog createWithData(Integer visitorCount, String rawData, LocalDate logDate) {
-        return createWithData(visitorCount, rawData, logDate, 0);
+    public VisitorLog createWithData(Integer visitorCount, List<VisitorLogEntry> visitors, LocalDate logDate) {
+        return createWithData(visitorCount, visitors, logDate, 0);
     }
 
     /**
      * {@inheritDoc}
      */
     @Override
-    public VisitorLog createWithData(Integer visitorCount, String rawData, LocalDate logDate, int newUsersCount) {
+    public VisitorLog createWithData(Integer visitorCount, List<VisitorLogEntry> visitors,
+                                     LocalDate logDate, int newUsersCount) {
         log.info("{}_ФАБРИКА_С_ДАННЫМИ: создание журнала, количество: {}, дата: {}",
                 ENTITY_NAME, visitorCount, logDate);
 
         LocalDate date = logDate != null ? logDate : LocalDate.now();
         Integer count = visitorCount != null ? visitorCount : 0;
-        String data = rawData != null ? rawData : "";
+        List<VisitorLogEntry> entries = visitors != null ? new ArrayList<>(visitors) : new ArrayList<>();
 
         VisitorLog visitorLog = VisitorLog.builder()
                 .visitorCount(count)
-                .rawData(data)
+                .visitors(entries)
                 .logDate(date)
                 .newUsersCount(newUsersCount)
 
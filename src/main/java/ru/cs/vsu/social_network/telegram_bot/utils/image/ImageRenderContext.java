@@ -0,0 +1,128 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.image;
+
+import lombok.Getter;
+import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Неизменяемый контекст отрисовки изображений тренировочных планов.
+ * Шрифты, их метрики, цвета и ширина постоянных строк вычисляются один раз
+ * и используются всеми отрисовками, поэтому на каждое изображение и каждую ячейку
+ * не создаются шрифты, метрики и вспомогательные изображения для измерения текста.
+ * Метрики получены из графического контекста с теми же настройками качества,
+ * что и при отрисовке, поэтому измеренная ширина совпадает с нарисованной.
+ * Метрики шрифтов потокобезопасны, контекст можно использовать из нескольких потоков.
+ */
+@Getter
+public final class ImageRenderContext {
+
+    /**
+     * Заголовок изображения.
+     */
+    public static final String TITLE = "ТРЕНИРОВОЧНЫЙ ПЛАН";
+
+    /**
+     * Постоянная часть подписи в подвале изображения.
+     */
+    public static final String FOOTER_PREFIX = "Сгенерировано Gen Strong ботом • ";
+
+    /**
+     * Отступ текста от границ ячейки по горизонтали, суммарно с двух сторон.
+     */
+    public static final int CELL_TEXT_PADDING = 20;
+
+    private static final String FONT_NAME = "Arial";
+    private static final int MEASURE_FONT_SIZE = 18;
+    private static final int FOOTER_FONT_SIZE = 14;
+
+    private final Font titleFont;
+    private final Font headerFont;
+    private final Font cellFont;
+    private final Font footerFont;
+    private final Font measureFont;
+
+    private final FontMetrics titleMetrics;
+    private final FontMetrics headerMetrics;
+    private final FontMetrics cellMetrics;
+    private final FontMetrics footerMetrics;
+    private final FontMetrics measureMetrics;
+
+    private final Color backgroundColor = new Color(250, 250, 250);
+    private final Color headerColor = new Color(52, 152, 219);
+    private final Color tableHeaderColor = new Color(41, 128, 185);
+    private final Color cellBorderColor = new Color(220, 220, 220);
+    private final Color oddRowColor = new Color(255, 255, 255);
+    private final Color evenRowColor = new Color(245, 245, 245);
+    private final Color horizontalTextColor = new Color(220, 0, 0);
+    private final Color verticalTextColor = Color.BLACK;
+    private final Color footerTextColor = new Color(100, 100, 100);
+    private final Color titleTextColor = Color.WHITE;
+
+    private final int titleWidth;
+    private final int footerPrefixWidth;
+
+    private ImageRenderContext(final int titleFontSize, final int headerFontSize, final int cellFontSize) {
+        this.titleFont = new Font(FONT_NAME, Font.BOLD, titleFontSize);
+        this.headerFont = new Font(FONT_NAME, Font.BOLD, headerFontSize);
+        this.cellFont = new Font(FONT_NAME, Font.PLAIN, cellFontSize);
+        this.footerFont = new Font(FONT_NAME, Font.ITALIC, FOOTER_FONT_SIZE);
+        this.measureFont = new Font(FONT_NAME, Font.BOLD, MEASURE_FONT_SIZE);
+
+        final BufferedImage measureImage = new BufferedImage(1, 1, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = measureImage.createGraphics();
+        try {
+            ExcelUtils.configureGraphicsQuality(graphics);
+            this.titleMetrics = graphics.getFontMetrics(titleFont);
+            this.headerMetrics = graphics.getFontMetrics(headerFont);
+            this.cellMetrics = graphics.getFontMetrics(cellFont);
+            this.footerMetrics = graphics.getFontMetrics(footerFont);
+            this.measureMetrics = graphics.getFontMetrics(measureFont);
+        } finally {
+            graphics.dispose();
+        }
+
+        this.titleWidth = titleMetrics.stringWidth(TITLE);
+        this.footerPrefixWidth = footerMetrics.stringWidth(FOOTER_PREFIX);
+    }
+
+    /**
+     * Создает контекст отрисовки.
+     *
+     * @param titleFontSize размер шрифта заголовка
+     * @param headerFontSize размер шрифта шапки таблицы
+     * @param cellFontSize размер шрифта ячеек
+     * @return контекст отрисовки
+     */
+    public static ImageRenderContext create(final int titleFontSize, final int headerFontSize, final int cellFontSize) {
+        return new ImageRenderContext(titleFontSize, headerFontSize, cellFontSize);
+    }
+
+    /**
+     * Рисует текст по центру ячейки, обрезая его с многоточием, если он не помещается.
+     * Ширина текста измеряется один раз, если обрезка не нужна.
+     * Шрифт графического контекста должен соответствовать переданным метрикам.
+     *
+     * @param graphics графический контекст
+     * @param text текст ячейки
+     * @param metrics метрики текущего шрифта
+     * @param x левая граница ячейки
+     * @param width ширина ячейки
+     * @param baselineY координата базовой линии текста
+     */
+    public void drawCenteredText(final Graphics2D graphics, final String text, final FontMetrics metrics,
+                                 final int x, final int width, final int baselineY) {
+        final int maxTextWidth = width - CELL_TEXT_PADDING;
+        String fitted = text;
+        int textWidth = metrics.stringWidth(text);
+        if (textWidth > maxTextWidth) {
+            fitted = ExcelUtils.trimTextToFit(text, metrics, maxTextWidth);
+            textWidth = metrics.stringWidth(fitted);
+        }
+        graphics.drawString(fitted, x + (width - textWidth) / 2, baselineY);
+    }
+}
@@ -0,0 +1,347 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.image;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Кодировщик изображений тренировочных планов в PNG с палитрой.
+ * Изображение плана состоит из десятка однотонных цветов и оттенков сглаживания между ними,
+ * поэтому оно переводится в {@link BufferedImage#TYPE_BYTE_INDEXED} с постоянной палитрой:
+ * базовые цвета контекста отрисовки и равномерные переходы между парами цвет текста или линии - фон,
+ * которые встречаются на изображении. Каждый пиксель заменяется ближайшим цветом палитры,
+ * отклонение не превышает половины шага перехода и на глаз незаметно.
+ * Пиксель занимает один байт вместо трех, поэтому файл меньше, а сжатие быстрее.
+ * Уровень сжатия и фильтр строк PNG задаются при создании. Неизменяем и потокобезопасен.
+ */
+public final class IndexedPngEncoder {
+
+    /**
+     * Фильтр строк PNG.
+     */
+    public enum Filter {
+        /**
+         * Без фильтра; рекомендуется спецификацией PNG для изображений с палитрой.
+         */
+        NONE(0),
+        /**
+         * Разность с левым пикселем.
+         */
+        SUB(1),
+        /**
+         * Разность с пикселем строки выше.
+         */
+        UP(2),
+        /**
+         * Разность со средним левого и верхнего пикселей.
+         */
+        AVERAGE(3),
+        /**
+         * Предсказатель Паэта.
+         */
+        PAETH(4),
+        /**
+         * Для каждой строки выбирается фильтр с наименьшей суммой модулей разностей.
+         */
+        ADAPTIVE(-1);
+
+        private final int code;
+
+        Filter(final int code) {
+            this.code = code;
+        }
+    }
+
+    private static final int PALETTE_SIZE = 256;
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int BIT_DEPTH = 8;
+    private static final int COLOR_TYPE_PALETTE = 3;
+    private static final Filter[] ROW_FILTERS = {Filter.NONE, Filter.SUB, Filter.UP, Filter.AVERAGE, Filter.PAETH};
+
+    private final int[] palette;
+    private final IndexColorModel colorModel;
+    private final int compressionLevel;
+    private final Filter filter;
+
+    private IndexedPngEncoder(final int[] palette, final int compressionLevel, final Filter filter) {
+        this.palette = palette;
+        this.compressionLevel = compressionLevel;
+        this.filter = filter;
+
+        final byte[] reds = new byte[palette.length];
+        final byte[] greens = new byte[palette.length];
+        final byte[] blues = new byte[palette.length];
+        for (int i = 0; i < palette.length; i++) {
+            reds[i] = (byte) (palette[i] >> 16);
+            greens[i] = (byte) (palette[i] >> 8);
+            blues[i] = (byte) palette[i];
+        }
+        this.colorModel = new IndexColorModel(BIT_DEPTH, palette.length, reds, greens, blues);
+    }
+
+    /**
+     * Создает кодировщик с палитрой, построенной по цветам контекста отрисовки.
+     *
+     * @param renderContext контекст отрисовки изображений планов
+     * @param compressionLevel уровень сжатия deflate от 0 до 9
+     * @param filter фильтр строк PNG
+     * @return кодировщик
+     */
+    public static IndexedPngEncoder create(final ImageRenderContext renderContext,
+                                           final int compressionLevel, final Filter filter) {
+        if (compressionLevel < Deflater.NO_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Недопустимый уровень сжатия PNG: " + compressionLevel);
+        }
+        return new IndexedPngEncoder(buildPalette(renderContext), compressionLevel, filter);
+    }
+
+    /**
+     * Строит палитру: базовые цвета и переходы между цветами, которые рисуются друг на друге.
+     * Число оттенков на переход выбирается наибольшим, при котором палитра помещается в 256 цветов.
+     *
+     * @param renderContext контекст отрисовки
+     * @return цвета палитры в формате RGB, не больше 256
+     */
+    static int[] buildPalette(final ImageRenderContext renderContext) {
+        final Color[] baseColors = {
+                renderContext.getBackgroundColor(), renderContext.getHeaderColor(),
+                renderContext.getTableHeaderColor(), renderContext.getCellBorderColor(),
+                renderContext.getOddRowColor(), renderContext.getEvenRowColor(),
+                renderContext.getHorizontalTextColor(), renderContext.getVerticalTextColor(),
+                renderContext.getFooterTextColor(), renderContext.getTitleTextColor()
+        };
+        final Color[][] blends = {
+                {renderContext.getTitleTextColor(), renderContext.getHeaderColor()},
+                {renderContext.getTitleTextColor(), renderContext.getTableHeaderColor()},
+                {renderContext.getCellBorderColor(), renderContext.getTableHeaderColor()},
+                {renderContext.getVerticalTextColor(), renderContext.getOddRowColor()},
+                {renderContext.getVerticalTextColor(), renderContext.getEvenRowColor()},
+                {renderContext.getHorizontalTextColor(), renderContext.getOddRowColor()},
+                {renderContext.getHorizontalTextColor(), renderContext.getEvenRowColor()},
+                {renderContext.getCellBorderColor(), renderContext.getOddRowColor()},
+                {renderContext.getCellBorderColor(), renderContext.getEvenRowColor()},
+                {renderContext.getCellBorderColor(), renderContext.getBackgroundColor()},
+                {renderContext.getFooterTextColor(), renderContext.getBackgroundColor()}
+        };
+
+        Set<Integer> palette = buildPalette(baseColors, blends, 1);
+        for (int steps = 2; ; steps++) {
+            final Set<Integer> finer = buildPalette(baseColors, blends, steps);
+            if (finer.size() > PALETTE_SIZE) {
+                break;
+            }
+            palette = finer;
+        }
+        return palette.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Строит палитру с заданным числом промежуточных оттенков на каждый переход.
+     * Совпадающие цвета разных переходов хранятся один раз.
+     */
+    private static Set<Integer> buildPalette(final Color[] baseColors, final Color[][] blends, final int steps) {
+        final Set<Integer> colors = new LinkedHashSet<>();
+        for (final Color color : baseColors) {
+            colors.add(color.getRGB() & 0xFFFFFF);
+        }
+        for (final Color[] blend : blends) {
+            for (int step = 1; step <= steps; step++) {
+                colors.add(mix(blend[0], blend[1], (double) step / (steps + 1)));
+            }
+        }
+        return colors;
+    }
+
+    /**
+     * Переводит изображение в палитру кодировщика, заменяя каждый цвет ближайшим цветом палитры.
+     * Ближайший цвет ищется один раз для каждого различного цвета изображения.
+     *
+     * @param image исходное изображение
+     * @return изображение типа {@link BufferedImage#TYPE_BYTE_INDEXED}
+     */
+    public BufferedImage toIndexed(final BufferedImage image) {
+        final int width = image.getWidth();
+        final int height = image.getHeight();
+        final BufferedImage indexed = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_INDEXED, colorModel);
+        final byte[] indices = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+
+        final int[] pixels = image.getType() == BufferedImage.TYPE_INT_RGB
+                && image.getRaster().getDataBuffer() instanceof DataBufferInt buffer
+                && image.getRaster().getParent() == null
+                ? buffer.getData()
+                : image.getRGB(0, 0, width, height, null, 0, width);
+
+        final Map<Integer, Byte> nearest = new HashMap<>();
+        int lastColor = -1;
+        byte lastIndex = 0;
+        for (int i = 0; i < indices.length; i++) {
+            final int color = pixels[i] & 0xFFFFFF;
+            if (color != lastColor) {
+                lastColor = color;
+                lastIndex = nearest.computeIfAbsent(color, this::findNearest);
+            }
+            indices[i] = lastIndex;
+        }
+        return indexed;
+    }
+
+    /**
+     * Кодирует изображение в PNG с палитрой.
+     *
+     * @param image исходное изображение
+     * @return содержимое PNG файла
+     * @throws IOException если запись не удалась
+     */
+    public byte[] encode(final BufferedImage image) throws IOException {
+        final BufferedImage indexed = toIndexed(image);
+        final int width = indexed.getWidth();
+        final int height = indexed.getHeight();
+        final byte[] indices = ((DataBufferByte) indexed.getRaster().getDataBuffer()).getData();
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream(indices.length / 8 + 1024);
+        final Deflater deflater = new Deflater(compressionLevel);
+        try (DeflaterOutputStream deflaterOut = new DeflaterOutputStream(compressed, deflater, 64 * 1024)) {
+            final byte[] filtered = new byte[width];
+            final byte[] best = new byte[width];
+            for (int y = 0; y < height; y++) {
+                final int offset = y * width;
+                final int previous = y > 0 ? offset - width : -1;
+                Filter rowFilter = filter;
+                if (filter == Filter.ADAPTIVE) {
+                    long bestScore = Long.MAX_VALUE;
+                    for (final Filter candidate : ROW_FILTERS) {
+                        applyFilter(candidate, indices, offset, previous, width, filtered);
+                        final long score = score(filtered);
+                        if (score < bestScore) {
+                            bestScore = score;
+                            rowFilter = candidate;
+                            System.arraycopy(filtered, 0, best, 0, width);
+                        }
+                    }
+                    deflaterOut.write(rowFilter.code);
+                    deflaterOut.write(best);
+                } else {
+                    applyFilter(rowFilter, indices, offset, previous, width, filtered);
+                    deflaterOut.write(rowFilter.code);
+                    deflaterOut.write(filtered);
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+
+        final byte[] paletteBytes = new byte[palette.length * 3];
+        for (int i = 0; i < palette.length; i++) {
+            paletteBytes[i * 3] = (byte) (palette[i] >> 16);
+            paletteBytes[i * 3 + 1] = (byte) (palette[i] >> 8);
+            paletteBytes[i * 3 + 2] = (byte) palette[i];
+        }
+
+        final ByteArrayOutputStream png = new ByteArrayOutputStream(compressed.size() + paletteBytes.length + 64);
+        final DataOutputStream out = new DataOutputStream(png);
+        out.write(SIGNATURE);
+        writeChunk(out, "IHDR", new byte[]{
+                (byte) (width >>> 24), (byte) (width >>> 16), (byte) (width >>> 8), (byte) width,
+                (byte) (height >>> 24), (byte) (height >>> 16), (byte) (height >>> 8), (byte) height,
+                BIT_DEPTH, COLOR_TYPE_PALETTE, 0, 0, 0});
+        writeChunk(out, "PLTE", paletteBytes);
+        writeChunk(out, "IDAT", compressed.toByteArray());
+        writeChunk(out, "IEND", new byte[0]);
+        out.flush();
+        return png.toByteArray();
+    }
+
+    /**
+     * @return количество цветов палитры
+     */
+    public int getPaletteSize() {
+        return palette.length;
+    }
+
+    private byte findNearest(final int color) {
+        final int red = (color >> 16) & 0xFF;
+        final int green = (color >> 8) & 0xFF;
+        final int blue = color & 0xFF;
+        int bestIndex = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = 0; i < palette.length; i++) {
+            final int dr = red - ((palette[i] >> 16) & 0xFF);
+            final int dg = green - ((palette[i] >> 8) & 0xFF);
+            final int db = blue - (palette[i] & 0xFF);
+            final int distance = dr * dr + dg * dg + db * db;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestIndex = i;
+            }
+        }
+        return (byte) bestIndex;
+    }
+
+    private static void applyFilter(final Filter rowFilter, final byte[] indices, final int offset,
+                                    final int previous, final int width, final byte[] target) {
+        for (int x = 0; x < width; x++) {
+            final int current = indices[offset + x] & 0xFF;
+            final int left = x > 0 ? indices[offset + x - 1] & 0xFF : 0;
+            final int up = previous >= 0 ? indices[previous + x] & 0xFF : 0;
+            final int upLeft = previous >= 0 && x > 0 ? indices[previous + x - 1] & 0xFF : 0;
+            final int predicted = switch (rowFilter) {
+                case SUB -> left;
+                case UP -> up;
+                case AVERAGE -> (left + up) >>> 1;
+                case PAETH -> paeth(left, up, upLeft);
+                default -> 0;
+            };
+            target[x] = (byte) (current - predicted);
+        }
+    }
+
+    private static int paeth(final int left, final int up, final int upLeft) {
+        final int estimate = left + up - upLeft;
+        final int distanceLeft = Math.abs(estimate - left);
+        final int distanceUp = Math.abs(estimate - up);
+        final int distanceUpLeft = Math.abs(estimate - upLeft);
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    private static long score(final byte[] filtered) {
+        long sum = 0;
+        for (final byte value : filtered) {
+            sum += Math.abs((int) value);
+        }
+        return sum;
+    }
+
+    private static int mix(final Color foreground, final Color background, final double ratio) {
+        final int red = (int) Math.round(background.getRed() + (foreground.getRed() - background.getRed()) * ratio);
+        final int green = (int) Math.round(background.getGreen() + (foreground.getGreen() - background.getGreen()) * ratio);
+        final int blue = (int) Math.round(background.getBlue() + (foreground.getBlue() - background.getBlue()) * ratio);
+        return (red << 16) | (green << 8) | blue;
+    }
+
+    private static void writeChunk(final DataOutputStream out, final String type, final byte[] data) throws IOException {
+        final byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        final CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
@@ -0,0 +1,59 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Разбивает текст отчета на страницы заданной длины.
+ * Страницы режутся по границам строк; строка длиннее страницы режется
+ * посимвольно без разрыва суррогатных пар.
+ */
+public final class ReportPageSplitter {
+
+    /**
+     * Максимальная длина текстового сообщения в Telegram.
+     */
+    public static final int TELEGRAM_MESSAGE_LIMIT = 4096;
+
+    private ReportPageSplitter() {
+    }
+
+    /**
+     * Разбивает текст на страницы.
+     *
+     * @param text текст отчета
+     * @param maxPageLength максимальная длина страницы
+     * @return список страниц; для текста короче страницы — одна страница
+     */
+    public static List<String> split(final String text, final int maxPageLength) {
+        if (maxPageLength <= 1) {
+            throw new IllegalArgumentException("Длина страницы должна быть больше 1");
+        }
+
+        final List<String> pages = new ArrayList<>();
+        if (text == null || text.length() <= maxPageLength) {
+            pages.add(text == null ? "" : text);
+            return pages;
+        }
+
+        int start = 0;
+        while (text.length() - start > maxPageLength) {
+            int end = text.lastIndexOf('\n', start + maxPageLength);
+            boolean lineBreak = end > start;
+            if (!lineBreak) {
+                end = start + maxPageLength;
+                if (Character.isHighSurrogate(text.charAt(end - 1))) {
+                    end--;
+                }
+            }
+
+            pages.add(text.substring(start, end));
+            start = lineBreak ? end + 1 : end;
+        }
+
+        if (start < text.length()) {
+            pages.add(text.substring(start));
+        }
+        return pages;
+    }
+}
@@ -6,6 +6,7 @@ import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Сервис для расчета статистики посещений тренажерного зала.
@@ -85,4 +86,27 @@ public interface ReportStatisticsService {
      */
     int countTotalNewUsersForPeriod(LocalDate startDate, LocalDate endDate,
                                     Map<LocalDate, List<Visit>> visitsByDate);
-}
\ No newline at end of file
+
+    /**
+     * Агрегирует поток посещений за один проход.
+     * Посещения не накапливаются: в памяти остаются только счетчики,
+     * идентификаторы и имена посетителей по дням.
+     *
+     * @param visits поток посещений с загруженными пользователями
+     * @return заполненный накопитель статистики
+     */
+    VisitStatisticsAccumulator aggregateVisits(Stream<Visit> visits);
+
+    /**
+     * Формирует ежедневную статистику за каждый день периода по уже агрегированным данным.
+     * Для дней без посещений создается пустая статистика.
+     *
+     * @param startDate начальная дата периода
+     * @param endDate конечная дата периода
+     * @param accumulator накопитель статистики за период
+     * @return список статистики за каждый день периода
+     */
+    List<DailyStatsResponse> generateDailyStatsForPeriod(LocalDate startDate,
+                                                         LocalDate endDate,
+                                                         VisitStatisticsAccumulator accumulator);
+}
@@ -0,0 +1,18 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.report;
+
+import java.time.LocalDateTime;
+
+/**
+ * Версия данных о посещениях за диапазон дат, вычисленная по общей БД.
+ * Меняется при любой новой отметке, удалении посещения или изменении имени посетителя,
+ * на каком бы узле приложения это ни произошло. Используется для проверки
+ * актуальности закешированных отчетов.
+ *
+ * @param visitCount число посещений в диапазоне
+ * @param lastVisitUpdatedAt время последнего изменения посещения в диапазоне, null если посещений нет
+ * @param lastUserUpdatedAt время последнего изменения посетителя из диапазона, null если посещений нет
+ */
+public record VisitDataVersion(long visitCount,
+                               LocalDateTime lastVisitUpdatedAt,
+                               LocalDateTime lastUserUpdatedAt) {
+}
@@ -0,0 +1,109 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.report;
+
+import ru.cs.vsu.social_network.telegram_bot.dto.response.DailyStatsResponse;
+import ru.cs.vsu.social_network.telegram_bot.entity.User;
+import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Накопитель статистики посещений, заполняемый по одному посещению за раз.
+ * Хранит только итоговые счетчики, идентификаторы пользователей и имена посетителей
+ * по дням, поэтому может потреблять поток посещений без материализации сущностей.
+ * Не является потокобезопасным.
+ */
+public final class VisitStatisticsAccumulator implements Consumer<Visit> {
+
+    private final Map<LocalDate, DailyBucket> buckets = new TreeMap<>();
+    private final Set<UUID> uniqueVisitorIds = new HashSet<>();
+    private long totalVisits;
+
+    /**
+     * Учитывает одно посещение.
+     *
+     * @param visit посещение с загруженным пользователем
+     */
+    @Override
+    public void accept(final Visit visit) {
+        totalVisits++;
+
+        final LocalDate date = visit.getVisitDate().toLocalDate();
+        final DailyBucket bucket = buckets.computeIfAbsent(date, key -> new DailyBucket());
+
+        final User user = visit.getUser();
+        if (user == null) {
+            return;
+        }
+        if (user.getId() != null) {
+            uniqueVisitorIds.add(user.getId());
+            bucket.userIds.add(user.getId());
+        }
+        if (user.getDisplayName() != null) {
+            bucket.visitorNames.add(user.getDisplayName());
+        }
+    }
+
+    /**
+     * @return общее количество учтенных посещений
+     */
+    public long getTotalVisits() {
+        return totalVisits;
+    }
+
+    /**
+     * @return количество уникальных посетителей
+     */
+    public long getUniqueVisitors() {
+        return uniqueVisitorIds.size();
+    }
+
+    /**
+     * @return количество дней, в которые были посещения
+     */
+    public int getDaysWithVisits() {
+        return buckets.size();
+    }
+
+    /**
+     * Возвращает статистику по дням, в которые были посещения.
+     *
+     * @return упорядоченная по дате карта статистики
+     */
+    public Map<LocalDate, DailyStatsResponse> getDailyStats() {
+        final Map<LocalDate, DailyStatsResponse> dailyStats = new TreeMap<>();
+        for (final Map.Entry<LocalDate, DailyBucket> entry : buckets.entrySet()) {
+            dailyStats.put(entry.getKey(), entry.getValue().toResponse(entry.getKey()));
+        }
+        return dailyStats;
+    }
+
+    /**
+     * Возвращает имена посетителей за указанный день в порядке посещений.
+     *
+     * @param date дата
+     * @return список имен или пустой список, если посещений не было
+     */
+    public List<String> getVisitorNames(final LocalDate date) {
+        final DailyBucket bucket = buckets.get(date);
+        return bucket != null ? bucket.visitorNames : Collections.emptyList();
+    }
+
+    /**
+     * Данные за один день.
+     */
+    private static final class DailyBucket {
+        private final List<String> visitorNames = new ArrayList<>();
+        private final Set<UUID> userIds = new HashSet<>();
+
+        private DailyStatsResponse toResponse(final LocalDate date) {
+            return DailyStatsResponse.builder()
+                    .date(date)
+                    .visitorCount(visitorNames.size())
+                    .visitorNames(visitorNames)
+                    .newUsersCount(userIds.size())
+                    .build();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package ru.cs.vsu.social_network.telegram_bot.utils.report.reportImpl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.DailyStatsResponse;
+import ru.cs.vsu.social_network.telegram_bot.utils.TelegramMessageComposer;
 import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportFormatterService;
 
 import java.time.LocalDate;
@@ -20,6 +21,8 @@ public class ReportFormatterServiceImpl implements ReportFormatterService {
 
     private static final String SERVICE_NAME = "ФОРМАТИРОВАТЕЛЬ_ОТЧЕТОВ";
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final int REPORT_HEADER_LENGTH = 256;
+    private static final int DAILY_STAT_LINE_LENGTH = 40;
 
     /**
      * {@inheritDoc}
@@ -32,7 +35,8 @@ public class ReportFormatterServiceImpl implements ReportFormatterService {
         log.debug("{}_ФОРМАТИРОВАНИЕ_ОТЧЕТА_ЗА_ПЕРИОД_НАЧАЛО: период {} - {}, новых пользователей: {}",
                 SERVICE_NAME, startDate, endDate, totalNewUsers);
 
-        StringBuilder report = new StringBuilder();
+        final TelegramMessageComposer report = TelegramMessageComposer.withCapacity(
+                REPORT_HEADER_LENGTH + dailyStats.size() * DAILY_STAT_LINE_LENGTH);
 
         String startDateStr = formatDate(startDate);
         String endDateStr = formatDate(endDate);
@@ -61,7 +65,7 @@ public class ReportFormatterServiceImpl implements ReportFormatterService {
             report.append("\n");
         }
 
-        String result = report.toString();
+        String result = report.build();
         log.debug("{}_ФОРМАТИРОВАНИЕ_ОТЧЕТА_ЗА_ПЕРИОД_УСПЕХ: " +
                         "отчет сформирован, длина: {}, новых пользователей: {}",
                 SERVICE_NAME, result.length(), totalNewUsers);
@@ -95,7 +99,9 @@ public class ReportFormatterServiceImpl implements ReportFormatterService {
         log.debug("{}_ФОРМАТИРОВАНИЕ_ЕЖЕДНЕВНОГО_ОТЧЕТА_НАЧАЛО: дата: {}, посетителей: {}, новых: {}",
                 SERVICE_NAME, date, visitorNames.size(), newUsersCount);
 
-        StringBuilder report = new StringBuilder();
+        final TelegramMessageComposer report = TelegramMessageComposer.withCapacity(
+                TelegramMessageComposer.estimateCapacity(REPORT_HEADER_LENGTH, visitorNames)
+                        + TelegramMessageComposer.estimateCapacity(0, newUserNames));
         String formattedDate = formatDate(date);
 
         report.append("📊 *Журнал посещений тренажерного зала*\n");
@@ -111,18 +117,15 @@ public class ReportFormatterServiceImpl implements ReportFormatterService {
             report.append("❌ *В этот день посетителей не было*");
         } else {
             report.append("*Список посетителей:*\n");
-            report.append(formatVisitorList(visitorNames));
+            appendNumberedList(report, visitorNames);
 
             if (newUsersCount > 0 && !newUserNames.isEmpty()) {
                 report.append("\n🆕 *Новые участники:*\n");
-                for (int i = 0; i < newUserNames.size(); i++) {
-                    String escapedName = escapeMarkdown(newUserNames.get(i));
-                    report.append(i + 1).append(". ").append(escapedName).append("\n");
-                }
+                appendNumberedList(report, newUserNames);
             }
         }
 
-        String result = report.toString();
+        String result = report.build();
         log.debug("{}_ФОРМАТИРОВАНИЕ_ЕЖЕДНЕВНОГО_ОТЧЕТА_УСПЕХ: " +
                         "отчет сформирован, длина: {}, новых пользователей: {}",
                 SERVICE_NAME, result.length(), newUsersCount);
@@ -138,13 +141,11 @@ public class ReportFormatterServiceImpl implements ReportFormatterService {
         log.debug("{}_ФОРМАТИРОВАНИЕ_СПИСКА_ПОСЕТИТЕЛЕЙ_НАЧАЛО: посетителей: {}",
                 SERVICE_NAME, visitorNames.size());
 
-        StringBuilder list = new StringBuilder();
-        for (int i = 0; i < visitorNames.size(); i++) {
-            String escapedName = escapeMarkdown(visitorNames.get(i));
-            list.append(i + 1).append(". ").append(escapedName).append("\n");
-        }
+        final TelegramMessageComposer list = TelegramMessageComposer.withCapacity(
+                TelegramMessageComposer.estimateCapacity(0, visitorNames));
+        appendNumberedList(list, visitorNames);
 
-        String result = list.toString();
+        String result = list.build();
         log.debug("{}_ФОРМАТИРОВАНИЕ_СПИСКА_ПОСЕТИТЕЛЕЙ_УСПЕХ: список сформирован",
                 SERVICE_NAME);
 
@@ -152,31 +153,11 @@ public class ReportFormatterServiceImpl implements ReportFormatterService {
     }
 
     /**
-     * Экранирует специальные символы Markdown.
-     * Это предотвращает ошибки парсинга в Telegram.
+     * Добавляет нумерованный список имен с экранированием MarkdownV2.
      */
-    private String escapeMarkdown(String text) {
-        if (text == null) {
-            return "";
+    private void appendNumberedList(final TelegramMessageComposer composer, final List<String> names) {
+        for (int i = 0; i < names.size(); i++) {
+            composer.appendNumbered(i + 1, names.get(i));
         }
-        return text
-                .replace("_", "\\_")
-                .replace("*", "\\*")
-                .replace("[", "\\[")
-                .replace("]", "\\]")
-                .replace("(", "\\(")
-                .replace(")", "\\)")
-                .replace("~", "\\~")
-                .replace("`", "\\`")
-                .replace(">", "\\>")
-                .replace("#", "\\#")
-                .replace("+", "\\+")
-                .replace("-", "\\-")
-                .replace("=", "\\=")
-                .replace("|", "\\|")
-                .replace("{", "\\{")
-                .replace("}", "\\}")
-                .replace(".", "\\.")
-                .replace("!", "\\!");
     }
-}
\ No newline at end of file
+}
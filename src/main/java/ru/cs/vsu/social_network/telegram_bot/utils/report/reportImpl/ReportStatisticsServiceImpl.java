@@ -5,10 +5,12 @@ import org.springframework.stereotype.Service;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.DailyStatsResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
 import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportStatisticsService;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitStatisticsAccumulator;
 
 import java.time.LocalDate;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Реализация сервиса для расчета статистики посещений.
@@ -202,4 +204,49 @@ public class ReportStatisticsServiceImpl implements ReportStatisticsService {
 
         return dailyStat;
     }
-}
\ No newline at end of file
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public VisitStatisticsAccumulator aggregateVisits(Stream<Visit> visits) {
+        log.debug("{}_ПОТОКОВАЯ_АГРЕГАЦИЯ_НАЧАЛО", SERVICE_NAME);
+
+        VisitStatisticsAccumulator accumulator = new VisitStatisticsAccumulator();
+        visits.forEachOrdered(accumulator);
+
+        log.debug("{}_ПОТОКОВАЯ_АГРЕГАЦИЯ_УСПЕХ: посещений: {}, уникальных посетителей: {}, дней: {}",
+                SERVICE_NAME, accumulator.getTotalVisits(), accumulator.getUniqueVisitors(),
+                accumulator.getDaysWithVisits());
+
+        return accumulator;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<DailyStatsResponse> generateDailyStatsForPeriod(LocalDate startDate,
+                                                                LocalDate endDate,
+                                                                VisitStatisticsAccumulator accumulator) {
+        log.info("{}_ГЕНЕРАЦИЯ_СТАТИСТИКИ_ЗА_ПЕРИОД_ИЗ_АГРЕГАТА_НАЧАЛО: период {} - {}",
+                SERVICE_NAME, startDate, endDate);
+
+        Map<LocalDate, DailyStatsResponse> dailyStats = accumulator.getDailyStats();
+        List<DailyStatsResponse> stats = new ArrayList<>();
+        LocalDate currentDate = startDate;
+
+        while (!currentDate.isAfter(endDate)) {
+            DailyStatsResponse dailyStat = dailyStats.get(currentDate);
+            stats.add(dailyStat != null
+                    ? dailyStat
+                    : createDailyStats(currentDate, Collections.emptyList()));
+            currentDate = currentDate.plusDays(1);
+        }
+
+        log.info("{}_ГЕНЕРАЦИЯ_СТАТИСТИКИ_ЗА_ПЕРИОД_ИЗ_АГРЕГАТА_УСПЕХ: сгенерировано {} записей статистики",
+                SERVICE_NAME, stats.size());
+
+        return stats;
+    }
+}
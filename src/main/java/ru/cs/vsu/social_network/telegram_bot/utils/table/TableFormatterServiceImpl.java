@@ -5,6 +5,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitorLogResponse;
 import ru.cs.vsu.social_network.telegram_bot.service.ReportService;
+import ru.cs.vsu.social_network.telegram_bot.utils.TelegramMessageComposer;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -25,6 +26,9 @@ public class TableFormatterServiceImpl implements TableFormatterService {
             DateTimeFormatter.ofPattern("dd.MM.yyyy");
     private static final DateTimeFormatter OUTPUT_DATE_FORMATTER =
             DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final int TABLE_HEADER_LENGTH = 256;
+    private static final int TABLE_ROW_LENGTH = 160;
+    private static final int VISITORS_PREVIEW_SIZE = 3;
 
     private final ReportService reportService;
 
@@ -85,8 +89,8 @@ public class TableFormatterServiceImpl implements TableFormatterService {
             return formatPeriodTableEmpty(startDate, endDate);
         }
 
-
-            final StringBuilder table = new StringBuilder();
+        final TelegramMessageComposer table = TelegramMessageComposer.withCapacity(
+                TABLE_HEADER_LENGTH + logs.size() * TABLE_ROW_LENGTH);
 
         final String startDateStr = formatDate(startDate);
         final String endDateStr = formatDate(endDate);
@@ -110,13 +114,13 @@ public class TableFormatterServiceImpl implements TableFormatterService {
 
             if (logEntry.getVisitorCount() > 0) {
                 table.append(" (");
-                if (logEntry.getRawData() != null && !logEntry.getRawData().isEmpty()) {
-                    final String[] visitors = logEntry.getRawData().split(", ");
-                    for (int i = 0; i < Math.min(visitors.length, 3); i++) {
+                final List<String> visitors = logEntry.getVisitorNames();
+                if (visitors != null && !visitors.isEmpty()) {
+                    for (int i = 0; i < Math.min(visitors.size(), VISITORS_PREVIEW_SIZE); i++) {
                         if (i > 0) table.append(", ");
-                        table.append(visitors[i]);
+                        table.append(visitors.get(i));
                     }
-                    if (visitors.length > 3) {
+                    if (visitors.size() > VISITORS_PREVIEW_SIZE) {
                         table.append("...");
                     }
                 }
@@ -140,7 +144,7 @@ public class TableFormatterServiceImpl implements TableFormatterService {
                         "таблица сформирована, новых пользователей: {}",
                 SERVICE_NAME, totalNewUsers);
 
-        return table.toString();
+        return table.build();
     }
 
 
@@ -0,0 +1,66 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+/**
+ * Равномерная сетка значений жима лежа: от минимального до максимального с постоянным шагом.
+ * Переводит значение жима в номер узла сетки, если значение лежит точно в узле.
+ * Неизменяемый, потокобезопасный.
+ */
+public final class BenchPressGrid {
+
+    private static final double EPSILON = 1e-6;
+
+    private final double min;
+    private final double step;
+    private final int size;
+
+    /**
+     * @param min минимальное значение жима, кг
+     * @param max максимальное значение жима, кг
+     * @param step шаг сетки, кг
+     * @throws IllegalArgumentException если границы или шаг заданы некорректно
+     */
+    public BenchPressGrid(final double min, final double max, final double step) {
+        if (step <= 0 || min < 0 || max < min) {
+            throw new IllegalArgumentException(
+                    "Некорректная сетка жима: min=" + min + ", max=" + max + ", step=" + step);
+        }
+        this.min = min;
+        this.step = step;
+        this.size = (int) Math.floor((max - min) / step + EPSILON) + 1;
+    }
+
+    /**
+     * Возвращает номер узла сетки для значения жима.
+     *
+     * @param benchPress значение жима, кг
+     * @return номер узла или -1, если значение вне диапазона или между узлами
+     */
+    public int indexOf(final double benchPress) {
+        final double position = (benchPress - min) / step;
+        final long index = Math.round(position);
+        if (index < 0 || index >= size || Math.abs(position - index) > EPSILON) {
+            return -1;
+        }
+        return (int) index;
+    }
+
+    /**
+     * @param index номер узла
+     * @return значение жима в узле, кг
+     */
+    public double valueAt(final int index) {
+        return min + index * step;
+    }
+
+    /**
+     * @return количество узлов сетки
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "BenchPressGrid[" + min + ".." + valueAt(size - 1) + ", шаг " + step + "]";
+    }
+}
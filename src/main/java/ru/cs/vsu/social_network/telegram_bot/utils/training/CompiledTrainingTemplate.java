@@ -0,0 +1,151 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+
+import java.util.Arrays;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Скомпилированная модель вычислений шаблона тренировочной программы.
+ * Хранит формулы первого листа в виде функций от максимального жима лежа,
+ * поэтому значения всех ячеек программы вычисляются без книги Excel и FormulaEvaluator.
+ * Вместе с формулами хранит отображаемые значения и типы остальных ячеек листа,
+ * из которых вместе с результатами формул собирается {@link TrainingPlanTable}.
+ * Неизменяема и потокобезопасна.
+ */
+public final class CompiledTrainingTemplate {
+
+    private final int inputRow;
+    private final int inputColumn;
+    private final int[] rows;
+    private final int[] columns;
+    private final DoubleUnaryOperator[] formulas;
+    private final String[][] staticValues;
+    private final CellType[][] staticTypes;
+
+    CompiledTrainingTemplate(final int inputRow, final int inputColumn,
+                             final int[] rows, final int[] columns,
+                             final DoubleUnaryOperator[] formulas,
+                             final String[][] staticValues,
+                             final CellType[][] staticTypes) {
+        this.inputRow = inputRow;
+        this.inputColumn = inputColumn;
+        this.rows = rows;
+        this.columns = columns;
+        this.formulas = formulas;
+        this.staticValues = staticValues;
+        this.staticTypes = staticTypes;
+    }
+
+    /**
+     * Вычисляет значения всех формул шаблона.
+     *
+     * @param benchPress максимальный жим лежа
+     * @return значения в порядке ячеек модели
+     * @throws ArithmeticException если формула дает ошибку, например деление на ноль
+     */
+    public double[] calculate(final double benchPress) {
+        final double[] values = new double[formulas.length];
+        for (int i = 0; i < formulas.length; i++) {
+            values[i] = formulas[i].applyAsDouble(benchPress);
+        }
+        return values;
+    }
+
+    /**
+     * Записывает вычисленные значения в лист как сохраненные результаты формул.
+     * Сами формулы в ячейках остаются, Excel пересчитает их при открытии файла.
+     *
+     * @param sheet лист, созданный из того же шаблона
+     * @param benchPress максимальный жим лежа
+     */
+    public void writeResults(final Sheet sheet, final double benchPress) {
+        final double[] values = calculate(benchPress);
+        for (int i = 0; i < values.length; i++) {
+            final Row row = sheet.getRow(rows[i]);
+            final Cell cell = row != null ? row.getCell(columns[i]) : null;
+            if (cell != null && cell.getCellType() == CellType.FORMULA) {
+                cell.setCellValue(values[i]);
+            }
+        }
+    }
+
+    /**
+     * Собирает таблицу программы для значения жима без создания книги Excel.
+     * Значения формул форматируются так же, как при отображении вычисленного листа, и имеют числовой тип.
+     *
+     * @param benchPress максимальный жим лежа
+     * @return таблица программы
+     * @throws ArithmeticException если формула дает ошибку, например деление на ноль
+     */
+    public TrainingPlanTable buildTable(final double benchPress) {
+        final double[] values = calculate(benchPress);
+        final int rowCount = Math.max(staticValues.length, inputRow + 1);
+        final String[][] table = new String[rowCount][];
+        final CellType[][] types = new CellType[rowCount][];
+        for (int rowIndex = 0; rowIndex < staticValues.length; rowIndex++) {
+            if (staticValues[rowIndex] != null) {
+                table[rowIndex] = staticValues[rowIndex].clone();
+                types[rowIndex] = staticTypes[rowIndex].clone();
+            }
+        }
+
+        setNumber(table, types, inputRow, inputColumn, benchPress);
+        for (int i = 0; i < values.length; i++) {
+            setNumber(table, types, rows[i], columns[i], values[i]);
+        }
+        return new TrainingPlanTable(table, types);
+    }
+
+    private static void setNumber(final String[][] table, final CellType[][] types,
+                                  final int rowIndex, final int columnIndex, final double value) {
+        if (table[rowIndex] == null || table[rowIndex].length <= columnIndex) {
+            final int length = columnIndex + 1;
+            table[rowIndex] = table[rowIndex] != null ? Arrays.copyOf(table[rowIndex], length) : new String[length];
+            types[rowIndex] = types[rowIndex] != null ? Arrays.copyOf(types[rowIndex], length) : new CellType[length];
+        }
+        table[rowIndex][columnIndex] = ExcelUtils.formatNumber(value);
+        types[rowIndex][columnIndex] = CellType.NUMERIC;
+    }
+
+    /**
+     * @return количество скомпилированных формул
+     */
+    public int size() {
+        return formulas.length;
+    }
+
+    /**
+     * @param index индекс формулы в модели
+     * @return индекс строки ячейки
+     */
+    public int getRow(final int index) {
+        return rows[index];
+    }
+
+    /**
+     * @param index индекс формулы в модели
+     * @return индекс столбца ячейки
+     */
+    public int getColumn(final int index) {
+        return columns[index];
+    }
+
+    /**
+     * @return индекс строки ячейки с максимальным жимом
+     */
+    public int getInputRow() {
+        return inputRow;
+    }
+
+    /**
+     * @return индекс столбца ячейки с максимальным жимом
+     */
+    public int getInputColumn() {
+        return inputColumn;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+import java.util.List;
+
+/**
+ * Описание тренировочного цикла: шаблон Excel и отображаемые пользователю сведения.
+ *
+ * @param code код цикла, совпадает с именем файла шаблона без расширения
+ * @param title название цикла для пользователя
+ * @param description дополнительная строка для подписи к программе, может быть пустой
+ * @param aliases прежние названия цикла, по которым он находится в сохраненных данных
+ * @param templatePath путь к шаблону: путь в ресурсах или {@code file:} путь во внешней директории
+ */
+public record TrainingCycle(String code,
+                            String title,
+                            String description,
+                            List<String> aliases,
+                            String templatePath) {
+
+    public TrainingCycle {
+        aliases = aliases != null ? List.copyOf(aliases) : List.of();
+        description = description != null ? description : "";
+    }
+
+    /**
+     * Проверяет, обозначает ли значение этот цикл: по коду, названию или прежнему названию.
+     *
+     * @param value код или название цикла
+     * @return true если значение относится к циклу
+     */
+    public boolean matches(final String value) {
+        if (value == null) {
+            return false;
+        }
+        final String normalized = value.trim();
+        if (code.equalsIgnoreCase(normalized) || title.equalsIgnoreCase(normalized)) {
+            return true;
+        }
+        for (final String alias : aliases) {
+            if (alias.equalsIgnoreCase(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
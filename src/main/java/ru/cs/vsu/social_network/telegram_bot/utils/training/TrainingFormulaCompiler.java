@@ -0,0 +1,322 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.ss.formula.FormulaParser;
+import org.apache.poi.ss.formula.FormulaType;
+import org.apache.poi.ss.formula.ptg.*;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.xssf.usermodel.XSSFEvaluationWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Компилятор формул шаблона тренировочной программы.
+ * Разбирает формулы первого листа в токены POI один раз и строит из них функции
+ * от значения ячейки с максимальным жимом. Поддерживаются числа, ссылки на ячейки
+ * того же листа, арифметика, проценты и функции ROUND, ROUNDUP, ROUNDDOWN;
+ * округление выполняется теми же функциями, что и в FormulaEvaluator.
+ * Шаблон с неподдерживаемыми конструкциями не компилируется,
+ * для него используется обычное вычисление формул через POI.
+ */
+@Slf4j
+public final class TrainingFormulaCompiler {
+
+    /**
+     * Индекс строки ячейки с максимальным жимом лежа (B3).
+     */
+    public static final int BENCH_PRESS_ROW = 2;
+
+    /**
+     * Индекс столбца ячейки с максимальным жимом лежа (B3).
+     */
+    public static final int BENCH_PRESS_COLUMN = 1;
+
+    private TrainingFormulaCompiler() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Компилирует формулы первого листа книги.
+     *
+     * @param workbook книга, разобранная из шаблона
+     * @param inputRow индекс строки входной ячейки
+     * @param inputColumn индекс столбца входной ячейки
+     * @return скомпилированная модель или пустой Optional, если шаблон содержит
+     *         неподдерживаемые или некорректные формулы; тогда формулы вычисляет POI
+     */
+    public static Optional<CompiledTrainingTemplate> compile(final Workbook workbook,
+                                                             final int inputRow,
+                                                             final int inputColumn) {
+        if (!(workbook instanceof XSSFWorkbook xssfWorkbook) || workbook.getNumberOfSheets() == 0) {
+            log.info("КОМПИЛЯТОР_ФОРМУЛ_ПРОПУСК: поддерживаются только книги XLSX");
+            return Optional.empty();
+        }
+
+        for (int i = 1; i < workbook.getNumberOfSheets(); i++) {
+            if (containsFormulas(workbook.getSheetAt(i))) {
+                log.info("КОМПИЛЯТОР_ФОРМУЛ_ПРОПУСК: формулы на листе {} не поддерживаются", i);
+                return Optional.empty();
+            }
+        }
+
+        try {
+            final SheetCompiler compiler = new SheetCompiler(
+                    XSSFEvaluationWorkbook.create(xssfWorkbook), workbook.getSheetAt(0), inputRow, inputColumn);
+            final CompiledTrainingTemplate template = compiler.compile();
+
+            log.info("КОМПИЛЯТОР_ФОРМУЛ_УСПЕХ: скомпилировано формул {}", template.size());
+            return Optional.of(template);
+        } catch (UnsupportedOperationException e) {
+            log.info("КОМПИЛЯТОР_ФОРМУЛ_ПРОПУСК: {}", e.getMessage());
+            return Optional.empty();
+        } catch (RuntimeException e) {
+            log.warn("КОМПИЛЯТОР_ФОРМУЛ_ОШИБКА: формулы будут вычисляться POI: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean containsFormulas(final Sheet sheet) {
+        for (final Row row : sheet) {
+            for (final Cell cell : row) {
+                if (cell.getCellType() == CellType.FORMULA) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Компилятор одного листа. Формулы, на которые ссылаются другие формулы,
+     * компилируются один раз и переиспользуются.
+     */
+    private static final class SheetCompiler {
+        private final XSSFEvaluationWorkbook evaluationWorkbook;
+        private final Sheet sheet;
+        private final int sheetIndex;
+        private final int inputRow;
+        private final int inputColumn;
+        private final Map<Long, DoubleUnaryOperator> compiledCells = new HashMap<>();
+        private final Set<Long> inProgress = new HashSet<>();
+
+        private SheetCompiler(final XSSFEvaluationWorkbook evaluationWorkbook, final Sheet sheet,
+                              final int inputRow, final int inputColumn) {
+            this.evaluationWorkbook = evaluationWorkbook;
+            this.sheet = sheet;
+            this.sheetIndex = sheet.getWorkbook().getSheetIndex(sheet);
+            this.inputRow = inputRow;
+            this.inputColumn = inputColumn;
+        }
+
+        private CompiledTrainingTemplate compile() {
+            final List<Cell> formulaCells = new ArrayList<>();
+            for (final Row row : sheet) {
+                for (final Cell cell : row) {
+                    if (cell.getCellType() == CellType.FORMULA) {
+                        formulaCells.add(cell);
+                    }
+                }
+            }
+
+            final int[] rows = new int[formulaCells.size()];
+            final int[] columns = new int[formulaCells.size()];
+            final DoubleUnaryOperator[] formulas = new DoubleUnaryOperator[formulaCells.size()];
+            for (int i = 0; i < formulaCells.size(); i++) {
+                final Cell cell = formulaCells.get(i);
+                rows[i] = cell.getRowIndex();
+                columns[i] = cell.getColumnIndex();
+                formulas[i] = compileCell(cell.getRowIndex(), cell.getColumnIndex());
+            }
+            final int rowCount = Math.max(0, sheet.getLastRowNum() + 1);
+            final String[][] staticValues = new String[rowCount][];
+            final CellType[][] staticTypes = new CellType[rowCount][];
+            captureStaticValues(staticValues, staticTypes);
+            return new CompiledTrainingTemplate(inputRow, inputColumn, rows, columns, formulas,
+                    staticValues, staticTypes);
+        }
+
+        /**
+         * Снимает отображаемые значения и типы ячеек без формул за один проход;
+         * ячейки с формулами заполняются при сборке таблицы.
+         */
+        private void captureStaticValues(final String[][] values, final CellType[][] types) {
+            for (final Row row : sheet) {
+                if (row.getLastCellNum() <= 0) {
+                    continue;
+                }
+                final String[] rowValues = new String[row.getLastCellNum()];
+                final CellType[] rowTypes = new CellType[rowValues.length];
+                for (final Cell cell : row) {
+                    if (cell.getCellType() != CellType.FORMULA) {
+                        final String value = TrainingPlanTable.toDisplayValue(cell, null);
+                        rowValues[cell.getColumnIndex()] = value;
+                        rowTypes[cell.getColumnIndex()] = value != null ? TrainingPlanTable.toValueType(cell) : null;
+                    }
+                }
+                values[row.getRowNum()] = rowValues;
+                types[row.getRowNum()] = rowTypes;
+            }
+        }
+
+        private DoubleUnaryOperator compileCell(final int rowIndex, final int columnIndex) {
+            if (rowIndex == inputRow && columnIndex == inputColumn) {
+                return benchPress -> benchPress;
+            }
+
+            final long key = ((long) rowIndex << 32) | columnIndex;
+            final DoubleUnaryOperator compiled = compiledCells.get(key);
+            if (compiled != null) {
+                return compiled;
+            }
+            if (!inProgress.add(key)) {
+                throw new UnsupportedOperationException("циклическая ссылка в ячейке " + address(rowIndex, columnIndex));
+            }
+
+            final DoubleUnaryOperator result = compileCellContent(rowIndex, columnIndex);
+            inProgress.remove(key);
+            compiledCells.put(key, result);
+            return result;
+        }
+
+        private DoubleUnaryOperator compileCellContent(final int rowIndex, final int columnIndex) {
+            final Row row = sheet.getRow(rowIndex);
+            final Cell cell = row != null ? row.getCell(columnIndex) : null;
+            if (cell == null) {
+                return constant(0.0);
+            }
+
+            return switch (cell.getCellType()) {
+                case BLANK -> constant(0.0);
+                case NUMERIC -> constant(cell.getNumericCellValue());
+                case FORMULA -> compileFormula(cell);
+                default -> throw new UnsupportedOperationException(
+                        "ссылка на нечисловую ячейку " + address(rowIndex, columnIndex));
+            };
+        }
+
+        private DoubleUnaryOperator compileFormula(final Cell cell) {
+            final Ptg[] ptgs = FormulaParser.parse(cell.getCellFormula(), evaluationWorkbook,
+                    FormulaType.CELL, sheetIndex, cell.getRowIndex());
+            final Deque<DoubleUnaryOperator> stack = new ArrayDeque<>();
+
+            for (final Ptg ptg : ptgs) {
+                if (ptg instanceof ParenthesisPtg || (ptg instanceof AttrPtg attr && attr.isSpace())) {
+                    continue;
+                }
+                if (ptg instanceof NumberPtg number) {
+                    stack.push(constant(number.getValue()));
+                } else if (ptg instanceof IntPtg number) {
+                    stack.push(constant(number.getValue()));
+                } else if (ptg instanceof RefPtg ref) {
+                    stack.push(compileCell(ref.getRow(), ref.getColumn()));
+                } else if (ptg instanceof PercentPtg) {
+                    final DoubleUnaryOperator operand = pop(stack, cell);
+                    stack.push(benchPress -> checked(operand.applyAsDouble(benchPress) / 100));
+                } else if (ptg instanceof UnaryMinusPtg) {
+                    final DoubleUnaryOperator operand = pop(stack, cell);
+                    stack.push(benchPress -> -operand.applyAsDouble(benchPress));
+                } else if (ptg instanceof UnaryPlusPtg) {
+                    continue;
+                } else if (ptg instanceof AddPtg) {
+                    pushBinary(stack, cell, Double::sum);
+                } else if (ptg instanceof SubtractPtg) {
+                    pushBinary(stack, cell, (left, right) -> left - right);
+                } else if (ptg instanceof MultiplyPtg) {
+                    pushBinary(stack, cell, (left, right) -> left * right);
+                } else if (ptg instanceof DividePtg) {
+                    pushBinary(stack, cell, TrainingFormulaCompiler::divide);
+                } else if (ptg instanceof AbstractFunctionPtg function) {
+                    pushFunction(stack, function, cell);
+                } else {
+                    throw new UnsupportedOperationException("конструкция " + ptg.getClass().getSimpleName()
+                            + " в ячейке " + cell.getAddress());
+                }
+            }
+
+            if (stack.size() != 1) {
+                throw new UnsupportedOperationException("некорректная формула в ячейке " + cell.getAddress());
+            }
+            return stack.pop();
+        }
+
+        private void pushFunction(final Deque<DoubleUnaryOperator> stack,
+                                  final AbstractFunctionPtg function,
+                                  final Cell cell) {
+            final String name = function.getName();
+            if (function.getNumberOfOperands() != 2) {
+                throw new UnsupportedOperationException("функция " + name + " в ячейке " + cell.getAddress());
+            }
+
+            final DoubleUnaryOperator digits = pop(stack, cell);
+            final DoubleUnaryOperator value = pop(stack, cell);
+            final RoundingMode roundingMode = switch (name) {
+                case "ROUND" -> RoundingMode.HALF_UP;
+                case "ROUNDUP" -> RoundingMode.UP;
+                case "ROUNDDOWN" -> RoundingMode.DOWN;
+                default -> throw new UnsupportedOperationException("функция " + name + " в ячейке " + cell.getAddress());
+            };
+            stack.push(benchPress -> checked(round(
+                    value.applyAsDouble(benchPress), (int) digits.applyAsDouble(benchPress), roundingMode)));
+        }
+
+        private String address(final int rowIndex, final int columnIndex) {
+            return new org.apache.poi.ss.util.CellAddress(rowIndex, columnIndex).formatAsString();
+        }
+    }
+
+    private static void pushBinary(final Deque<DoubleUnaryOperator> stack,
+                                   final Cell cell,
+                                   final DoubleBinaryOperator operator) {
+        final DoubleUnaryOperator right = pop(stack, cell);
+        final DoubleUnaryOperator left = pop(stack, cell);
+        stack.push(benchPress -> checked(operator.applyAsDouble(
+                left.applyAsDouble(benchPress), right.applyAsDouble(benchPress))));
+    }
+
+    private static DoubleUnaryOperator pop(final Deque<DoubleUnaryOperator> stack, final Cell cell) {
+        if (stack.isEmpty()) {
+            throw new UnsupportedOperationException("не хватает операндов в ячейке " + cell.getAddress());
+        }
+        return stack.pop();
+    }
+
+    private static DoubleUnaryOperator constant(final double value) {
+        return benchPress -> value;
+    }
+
+    private static double divide(final double left, final double right) {
+        if (right == 0.0) {
+            throw new ArithmeticException("Деление на ноль в формуле шаблона");
+        }
+        return left / right;
+    }
+
+    /**
+     * Округляет так же, как функции ROUND, ROUNDUP и ROUNDDOWN в POI: число сначала переводится
+     * в десятичную запись, которую показал бы Excel, и только затем округляется.
+     * Поэтому 2.675 округляется до 2.68, хотя в двоичном виде оно чуть меньше.
+     */
+    private static double round(final double value, final int digits, final RoundingMode roundingMode) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return Double.NaN;
+        }
+        return new BigDecimal(NumberToTextConverter.toText(value)).setScale(digits, roundingMode).doubleValue();
+    }
+
+    /**
+     * Приводит результат операции к виду, который возвращает FormulaEvaluator:
+     * отрицательный ноль заменяется нулем, нечисловые результаты считаются ошибкой формулы.
+     */
+    private static double checked(final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            throw new ArithmeticException("Некорректный результат формулы шаблона");
+        }
+        return value == 0.0 ? 0.0 : value;
+    }
+}
@@ -0,0 +1,126 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+/**
+ * Неизменяемый снимок каталога готовых тренировочных планов для одной версии шаблона.
+ * Закодированные XLSX и PNG хранятся в массивах, индексированных номером узла сетки жима,
+ * поэтому поиск сводится к вычислению индекса без хеширования и упаковки ключей.
+ */
+public final class TrainingPlanCatalogData {
+
+    private final String templateVersion;
+    private final BenchPressGrid grid;
+    private final byte[][] workbooks;
+    private final byte[][] images;
+    private final int entries;
+    private final long totalBytes;
+
+    private TrainingPlanCatalogData(final Builder builder) {
+        this.templateVersion = builder.templateVersion;
+        this.grid = builder.grid;
+        this.workbooks = builder.workbooks;
+        this.images = builder.images;
+        this.entries = builder.entries;
+        this.totalBytes = builder.totalBytes;
+    }
+
+    /**
+     * Создает построитель снимка с ограничением по памяти.
+     *
+     * @param templateVersion версия шаблона, из которого строятся планы
+     * @param grid сетка значений жима
+     * @param maxBytes максимальный суммарный размер содержимого, байт
+     * @return построитель
+     */
+    public static Builder builder(final String templateVersion, final BenchPressGrid grid, final long maxBytes) {
+        return new Builder(templateVersion, grid, maxBytes);
+    }
+
+    /**
+     * @param benchPress значение жима, кг
+     * @return XLSX для значения или null, если значения нет в каталоге
+     */
+    public byte[] findWorkbook(final double benchPress) {
+        final int index = grid.indexOf(benchPress);
+        return index < 0 ? null : workbooks[index];
+    }
+
+    /**
+     * @param benchPress значение жима, кг
+     * @return PNG для значения или null, если значения нет в каталоге
+     */
+    public byte[] findImage(final double benchPress) {
+        final int index = grid.indexOf(benchPress);
+        return index < 0 ? null : images[index];
+    }
+
+    public String getTemplateVersion() {
+        return templateVersion;
+    }
+
+    public BenchPressGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * @return количество заполненных узлов
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return суммарный размер содержимого, байт
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Построитель снимка. Не является потокобезопасным.
+     */
+    public static final class Builder {
+
+        private final String templateVersion;
+        private final BenchPressGrid grid;
+        private final long maxBytes;
+        private final byte[][] workbooks;
+        private final byte[][] images;
+        private int entries;
+        private long totalBytes;
+
+        private Builder(final String templateVersion, final BenchPressGrid grid, final long maxBytes) {
+            this.templateVersion = templateVersion;
+            this.grid = grid;
+            this.maxBytes = maxBytes;
+            this.workbooks = new byte[grid.size()][];
+            this.images = new byte[grid.size()][];
+        }
+
+        /**
+         * Добавляет готовый план для узла сетки, если он помещается в лимит памяти.
+         *
+         * @param index номер узла сетки
+         * @param workbook содержимое XLSX
+         * @param image содержимое PNG
+         * @return true если план добавлен, false если лимит памяти исчерпан
+         */
+        public boolean add(final int index, final byte[] workbook, final byte[] image) {
+            final long entryBytes = (long) workbook.length + image.length;
+            if (totalBytes + entryBytes > maxBytes) {
+                return false;
+            }
+            workbooks[index] = workbook;
+            images[index] = image;
+            entries++;
+            totalBytes += entryBytes;
+            return true;
+        }
+
+        /**
+         * @return неизменяемый снимок; построитель после вызова использовать нельзя
+         */
+        public TrainingPlanCatalogData build() {
+            return new TrainingPlanCatalogData(this);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+/**
+ * Формат, в котором пользователь получает тренировочную программу.
+ */
+public enum TrainingPlanFormat {
+
+    /**
+     * Изображение таблицы программы.
+     */
+    IMAGE,
+
+    /**
+     * Книга Excel с формулами.
+     */
+    EXCEL
+}
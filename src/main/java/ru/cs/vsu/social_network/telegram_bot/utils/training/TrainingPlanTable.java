@@ -0,0 +1,234 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Снимок таблицы тренировочной программы в виде готовых к отображению строк.
+ * Индексы строк и столбцов совпадают с индексами ячеек первого листа шаблона,
+ * поэтому изображение строится из таблицы так же, как раньше строилось из листа Excel.
+ * Вместе со строками хранятся типы значений ячеек, индексы непустых строк и границы
+ * заполненных столбцов каждой строки: они вычисляются один раз при создании снимка,
+ * и анализ размеров, расчет ширины столбцов и отрисовка не обходят ячейки повторно.
+ * Таблица может нести ключ разметки: таблицы с одинаковым ключом имеют одинаковую структуру
+ * и отличаются только числовыми значениями, поэтому разметку изображения можно вычислить один раз.
+ * Пустые ячейки хранятся как null. Неизменяема и потокобезопасна.
+ */
+public final class TrainingPlanTable {
+
+    private final String[][] values;
+    private final CellType[][] types;
+    private final int columnCount;
+    private final List<Integer> nonEmptyRowIndices;
+    private final int[] firstContentColumns;
+    private final int[] lastContentColumns;
+    private final String layoutKey;
+
+    TrainingPlanTable(final String[][] values, final CellType[][] types) {
+        this.layoutKey = null;
+        this.values = values;
+        this.types = types;
+        this.firstContentColumns = new int[values.length];
+        this.lastContentColumns = new int[values.length];
+
+        final Integer[] nonEmptyRows = new Integer[values.length];
+        int nonEmptyRowCount = 0;
+        int maxColumns = 0;
+        for (int rowIndex = 0; rowIndex < values.length; rowIndex++) {
+            final String[] row = values[rowIndex];
+            int first = -1;
+            int last = -1;
+            if (row != null) {
+                maxColumns = Math.max(maxColumns, row.length);
+                for (int columnIndex = 0; columnIndex < row.length; columnIndex++) {
+                    if (row[columnIndex] != null) {
+                        if (first < 0) {
+                            first = columnIndex;
+                        }
+                        last = columnIndex;
+                    }
+                }
+            }
+            firstContentColumns[rowIndex] = first;
+            lastContentColumns[rowIndex] = last;
+            if (first >= 0) {
+                nonEmptyRows[nonEmptyRowCount++] = rowIndex;
+            }
+        }
+        this.columnCount = maxColumns;
+        this.nonEmptyRowIndices = List.of(Arrays.copyOf(nonEmptyRows, nonEmptyRowCount));
+    }
+
+    private TrainingPlanTable(final TrainingPlanTable source, final String layoutKey) {
+        this.values = source.values;
+        this.types = source.types;
+        this.columnCount = source.columnCount;
+        this.nonEmptyRowIndices = source.nonEmptyRowIndices;
+        this.firstContentColumns = source.firstContentColumns;
+        this.lastContentColumns = source.lastContentColumns;
+        this.layoutKey = layoutKey;
+    }
+
+    /**
+     * Снимает отображаемые значения и их типы с листа Excel за один проход.
+     * Для всех ячеек листа используется один вычислитель формул.
+     * Используется для произвольных книг и для шаблонов, формулы которых не удалось скомпилировать.
+     *
+     * @param sheet лист Excel с вычисленными формулами
+     * @param maxRows максимальное число строк, которое нужно прочитать
+     * @return таблица значений листа
+     */
+    public static TrainingPlanTable fromSheet(final Sheet sheet, final int maxRows) {
+        final FormulaEvaluator evaluator = sheet.getWorkbook().getCreationHelper().createFormulaEvaluator();
+        final int rowCount = Math.max(0, Math.min(sheet.getLastRowNum() + 1, maxRows));
+        final String[][] values = new String[rowCount][];
+        final CellType[][] types = new CellType[rowCount][];
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+            final Row row = sheet.getRow(rowIndex);
+            if (row == null || row.getLastCellNum() <= 0) {
+                continue;
+            }
+            final String[] rowValues = new String[row.getLastCellNum()];
+            final CellType[] rowTypes = new CellType[rowValues.length];
+            for (int columnIndex = 0; columnIndex < rowValues.length; columnIndex++) {
+                final Cell cell = row.getCell(columnIndex);
+                rowValues[columnIndex] = toDisplayValue(cell, evaluator);
+                rowTypes[columnIndex] = rowValues[columnIndex] != null ? toValueType(cell) : null;
+            }
+            values[rowIndex] = rowValues;
+            types[rowIndex] = rowTypes;
+        }
+        return new TrainingPlanTable(values, types);
+    }
+
+    /**
+     * Преобразует ячейку в отображаемое значение.
+     *
+     * @param cell ячейка Excel
+     * @param evaluator вычислитель формул книги или null, чтобы создать его при необходимости
+     * @return строка для отображения или null, если ячейка пустая
+     */
+    static String toDisplayValue(final Cell cell, final FormulaEvaluator evaluator) {
+        return ExcelUtils.hasCellContent(cell) ? ExcelUtils.getCellValueAsString(cell, evaluator) : null;
+    }
+
+    /**
+     * Определяет тип отображаемого значения ячейки; для формулы это тип ее сохраненного результата.
+     *
+     * @param cell непустая ячейка Excel
+     * @return тип значения
+     */
+    static CellType toValueType(final Cell cell) {
+        return cell.getCellType() == CellType.FORMULA ? cell.getCachedFormulaResultType() : cell.getCellType();
+    }
+
+    /**
+     * Возвращает ту же таблицу с ключом разметки. Массивы значений не копируются.
+     * Ключ можно назначать только таблицам, у которых от запроса к запросу меняются лишь значения
+     * числовых ячеек, а непустые ячейки и остальные значения совпадают, например таблицам
+     * одной версии скомпилированного шаблона.
+     *
+     * @param layoutKey ключ разметки
+     * @return таблица с ключом разметки
+     */
+    public TrainingPlanTable withLayoutKey(final String layoutKey) {
+        return new TrainingPlanTable(this, layoutKey);
+    }
+
+    /**
+     * @return ключ разметки или null, если разметку таблицы нельзя переиспользовать
+     */
+    public String getLayoutKey() {
+        return layoutKey;
+    }
+
+    /**
+     * @return количество строк таблицы
+     */
+    public int getRowCount() {
+        return values.length;
+    }
+
+    /**
+     * @return количество столбцов в самой длинной строке таблицы
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * @return индексы строк, в которых есть хотя бы одна непустая ячейка, по возрастанию; список неизменяем
+     */
+    public List<Integer> getNonEmptyRowIndices() {
+        return nonEmptyRowIndices;
+    }
+
+    /**
+     * @param rowIndex индекс строки
+     * @return индекс первого непустого столбца строки или -1, если строка пустая или вне таблицы
+     */
+    public int getFirstContentColumn(final int rowIndex) {
+        return rowIndex >= 0 && rowIndex < values.length ? firstContentColumns[rowIndex] : -1;
+    }
+
+    /**
+     * @param rowIndex индекс строки
+     * @return индекс последнего непустого столбца строки или -1, если строка пустая или вне таблицы
+     */
+    public int getLastContentColumn(final int rowIndex) {
+        return rowIndex >= 0 && rowIndex < values.length ? lastContentColumns[rowIndex] : -1;
+    }
+
+    /**
+     * Проверяет, есть ли в ячейке содержимое.
+     *
+     * @param rowIndex индекс строки
+     * @param columnIndex индекс столбца
+     * @return true, если ячейка не пустая
+     */
+    public boolean hasContent(final int rowIndex, final int columnIndex) {
+        return getValue(rowIndex, columnIndex) != null;
+    }
+
+    /**
+     * Возвращает отображаемое значение ячейки.
+     *
+     * @param rowIndex индекс строки
+     * @param columnIndex индекс столбца
+     * @return значение ячейки или пустая строка, если ячейка пустая или вне таблицы
+     */
+    public String getText(final int rowIndex, final int columnIndex) {
+        final String value = getValue(rowIndex, columnIndex);
+        return value != null ? value : "";
+    }
+
+    /**
+     * Возвращает тип значения ячейки. Для формул возвращается тип результата.
+     *
+     * @param rowIndex индекс строки
+     * @param columnIndex индекс столбца
+     * @return тип значения или {@link CellType#BLANK}, если ячейка пустая или вне таблицы
+     */
+    public CellType getType(final int rowIndex, final int columnIndex) {
+        if (getValue(rowIndex, columnIndex) == null) {
+            return CellType.BLANK;
+        }
+        final CellType[] row = types[rowIndex];
+        return row != null && columnIndex < row.length && row[columnIndex] != null ? row[columnIndex] : CellType.BLANK;
+    }
+
+    private String getValue(final int rowIndex, final int columnIndex) {
+        if (rowIndex < 0 || rowIndex >= values.length || columnIndex < 0) {
+            return null;
+        }
+        final String[] row = values[rowIndex];
+        return row != null && columnIndex < row.length ? row[columnIndex] : null;
+    }
+}
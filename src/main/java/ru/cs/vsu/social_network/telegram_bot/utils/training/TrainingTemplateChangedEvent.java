@@ -0,0 +1,10 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+/**
+ * Событие изменения шаблона тренировочной программы.
+ * Публикуется кешем шаблонов, когда шаблон сбрасывается и будет перечитан.
+ *
+ * @param templatePath путь к шаблону
+ */
+public record TrainingTemplateChangedEvent(String templatePath) {
+}
@@ -0,0 +1,16 @@
+package ru.cs.vsu.social_network.telegram_bot.validation;
+
+/**
+ * Валидатор доступа к HTTP выгрузке данных.
+ */
+public interface ExportAccessValidator {
+
+    /**
+     * Проверяет токен доступа к выгрузке.
+     *
+     * @param token токен из запроса, может быть null
+     * @throws org.springframework.security.access.AccessDeniedException если выгрузка отключена
+     *         или токен не совпадает с настроенным
+     */
+    void validateExportToken(String token);
+}
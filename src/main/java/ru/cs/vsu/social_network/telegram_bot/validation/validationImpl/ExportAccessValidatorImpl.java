@@ -0,0 +1,48 @@
+package ru.cs.vsu.social_network.telegram_bot.validation.validationImpl;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Component;
+import ru.cs.vsu.social_network.telegram_bot.utils.MessageConstants;
+import ru.cs.vsu.social_network.telegram_bot.validation.ExportAccessValidator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Реализация проверки токена HTTP выгрузки.
+ * Если токен не задан в настройках, выгрузка по HTTP отключена.
+ * Токены сравниваются за постоянное время, чтобы не раскрывать совпадающий префикс.
+ */
+@Slf4j
+@Component
+public final class ExportAccessValidatorImpl implements ExportAccessValidator {
+
+    private static final String ENTITY_NAME = "ВЫГРУЗКА";
+
+    private final byte[] expectedToken;
+
+    public ExportAccessValidatorImpl(@Value("${app.export.token:}") final String exportToken) {
+        this.expectedToken = exportToken == null || exportToken.isBlank()
+                ? null
+                : exportToken.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void validateExportToken(final String token) {
+        if (expectedToken == null) {
+            log.warn("{}_ВАЛИДАТОР_ТОКЕН_ОШИБКА: выгрузка отключена, токен не настроен", ENTITY_NAME);
+            throw new AccessDeniedException(MessageConstants.ACCESS_DENIED);
+        }
+
+        if (token == null
+                || !MessageDigest.isEqual(expectedToken, token.getBytes(StandardCharsets.UTF_8))) {
+            log.warn("{}_ВАЛИДАТОР_ТОКЕН_ОШИБКА: неверный токен выгрузки", ENTITY_NAME);
+            throw new AccessDeniedException(MessageConstants.ACCESS_DENIED);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS telegram_file_cache (
+    cache_key VARCHAR(128) PRIMARY KEY,
+    template_version VARCHAR(64) NOT NULL,
+    bench_press DOUBLE PRECISION NOT NULL,
+    format VARCHAR(16) NOT NULL,
+    file_id VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
@@ -0,0 +1,3 @@
+CREATE INDEX IF NOT EXISTS idx_visit_user_date_id ON visit(user_id, visit_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_visit_date_id ON visit(visit_date, id);
+CREATE INDEX IF NOT EXISTS idx_app_user_role_created_at_id ON app_user(role, created_at DESC, id DESC);
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS scheduler_lock (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP NOT NULL,
+    locked_at TIMESTAMP NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
+
+INSERT INTO scheduler_lock (name, locked_until, locked_at, locked_by)
+VALUES ('nightly_report', TIMESTAMP '1970-01-01 00:00:00', TIMESTAMP '1970-01-01 00:00:00', 'none')
+ON CONFLICT (name) DO NOTHING;
@@ -0,0 +1,33 @@
+CREATE TABLE IF NOT EXISTS visitor_log_entry (
+    visitor_log_id UUID NOT NULL REFERENCES visitor_log(id) ON DELETE CASCADE,
+    position INTEGER NOT NULL,
+    user_id UUID REFERENCES app_user(id) ON DELETE SET NULL,
+    display_name VARCHAR(255) NOT NULL,
+    PRIMARY KEY (visitor_log_id, position)
+);
+
+CREATE INDEX IF NOT EXISTS idx_visitor_log_entry_user ON visitor_log_entry(user_id);
+
+INSERT INTO visitor_log_entry (visitor_log_id, position, user_id, display_name)
+SELECT vl.id,
+       names.ordinality - 1,
+       u.id,
+       names.display_name
+FROM visitor_log vl
+CROSS JOIN LATERAL unnest(string_to_array(vl.raw_data, ', '))
+    WITH ORDINALITY AS names(display_name, ordinality)
+LEFT JOIN (
+    SELECT display_name, (array_agg(id))[1] AS id
+    FROM app_user
+    WHERE display_name IS NOT NULL
+    GROUP BY display_name
+    HAVING COUNT(*) = 1
+) u ON u.display_name = names.display_name
+WHERE vl.raw_data IS NOT NULL
+  AND vl.raw_data <> ''
+ON CONFLICT (visitor_log_id, position) DO NOTHING;
+
+-- raw_data is kept as the source of this best-effort backfill; drop it in a later
+-- migration once the split names and resolved user ids have been checked.
+COMMENT ON COLUMN visitor_log.raw_data IS
+    'Deprecated: legacy comma-separated visitor names, superseded by visitor_log_entry';
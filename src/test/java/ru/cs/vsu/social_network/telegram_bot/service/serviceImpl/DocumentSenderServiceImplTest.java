@@ -0,0 +1,88 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationContext;
+import org.telegram.telegrambots.meta.api.methods.send.SendDocument;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+import ru.cs.vsu.social_network.telegram_bot.bot.GymTelegramBot;
+import ru.cs.vsu.social_network.telegram_bot.exception.MessageDeliveryException;
+import ru.cs.vsu.social_network.telegram_bot.service.TrainingPlanArchiveService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DocumentSenderServiceImplTest {
+
+    private static final Long TELEGRAM_ID = 123456789L;
+    private static final String FILE_ID = "cached-id";
+
+    @Mock
+    private ApplicationContext applicationContext;
+    @Mock
+    private TrainingPlanArchiveService trainingPlanArchiveService;
+    @Mock
+    private GymTelegramBot gymTelegramBot;
+
+    private DocumentSenderServiceImpl documentSenderService;
+
+    @BeforeEach
+    void setUp() {
+        documentSenderService = new DocumentSenderServiceImpl(applicationContext, trainingPlanArchiveService);
+        when(applicationContext.getBean(GymTelegramBot.class)).thenReturn(gymTelegramBot);
+    }
+
+    @Test
+    @DisplayName("Отправка по file_id - документ отправлен")
+    void sendDocumentById_whenAccepted_shouldReturnTrue() throws Exception {
+        when(gymTelegramBot.execute(any(SendDocument.class))).thenReturn(new Message());
+
+        assertTrue(documentSenderService.sendDocumentById(TELEGRAM_ID, FILE_ID, "Программа"));
+    }
+
+    @Test
+    @DisplayName("Отправка по file_id - Telegram отклонил идентификатор файла")
+    void sendDocumentById_whenFileIdRejected_shouldReturnFalse() throws Exception {
+        final TelegramApiRequestException rejected = requestException(400,
+                "Bad Request: wrong file identifier/HTTP URL specified");
+        when(gymTelegramBot.execute(any(SendDocument.class))).thenThrow(rejected);
+
+        assertFalse(documentSenderService.sendDocumentById(TELEGRAM_ID, FILE_ID, "Программа"));
+    }
+
+    @Test
+    @DisplayName("Отправка по file_id - ограничение частоты не считается отказом в идентификаторе")
+    void sendDocumentById_whenRateLimited_shouldThrow() throws Exception {
+        final TelegramApiRequestException rateLimited = requestException(429,
+                "Too Many Requests: retry after 5");
+        when(gymTelegramBot.execute(any(SendDocument.class))).thenThrow(rateLimited);
+
+        assertThrows(MessageDeliveryException.class,
+                () -> documentSenderService.sendDocumentById(TELEGRAM_ID, FILE_ID, "Программа"));
+    }
+
+    @Test
+    @DisplayName("Отправка по file_id - бот заблокирован пользователем")
+    void sendDocumentById_whenBotBlocked_shouldThrow() throws Exception {
+        final TelegramApiRequestException blocked = requestException(403,
+                "Forbidden: bot was blocked by the user");
+        when(gymTelegramBot.execute(any(SendDocument.class))).thenThrow(blocked);
+
+        assertThrows(MessageDeliveryException.class,
+                () -> documentSenderService.sendDocumentById(TELEGRAM_ID, FILE_ID, "Программа"));
+    }
+
+    private TelegramApiRequestException requestException(final int errorCode, final String apiResponse) {
+        final TelegramApiRequestException exception = mock(TelegramApiRequestException.class);
+        when(exception.getErrorCode()).thenReturn(errorCode);
+        when(exception.getApiResponse()).thenReturn(apiResponse);
+        return exception;
+    }
+}
@@ -0,0 +1,120 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.ReportResponse;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitorLogResponse;
+import ru.cs.vsu.social_network.telegram_bot.entity.User;
+import ru.cs.vsu.social_network.telegram_bot.entity.enums.ROLE;
+import ru.cs.vsu.social_network.telegram_bot.exception.MessageDeliveryException;
+import ru.cs.vsu.social_network.telegram_bot.provider.UserEntityProvider;
+import ru.cs.vsu.social_network.telegram_bot.service.MessageSenderService;
+import ru.cs.vsu.social_network.telegram_bot.service.ReportService;
+import ru.cs.vsu.social_network.telegram_bot.service.SchedulerLockService;
+import ru.cs.vsu.social_network.telegram_bot.testUtils.TestDataFactory;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NightlyReportServiceImplTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 12, 4);
+    private static final LocalDate WEEK_START = LocalDate.of(2025, 12, 1);
+
+    @Mock
+    private ReportService reportService;
+    @Mock
+    private UserEntityProvider userEntityProvider;
+    @Mock
+    private MessageSenderService messageSenderService;
+    @Mock
+    private SchedulerLockService schedulerLockService;
+
+    @InjectMocks
+    private NightlyReportServiceImpl nightlyReportService;
+
+    @Test
+    @DisplayName("Закрытие дня - отчеты собраны и отправлены всем администраторам")
+    void publishDailyReports_whenAdminsExist_shouldSendDailyAndWeekReports() {
+        final VisitorLogResponse dailyReport = TestDataFactory.createVisitorLogResponse(
+                UUID.randomUUID(), DATE, 5, 1);
+        final ReportResponse weekReport = TestDataFactory.createReportResponse(WEEK_START, DATE, 20, 8, 3);
+        when(reportService.finalizeDailyReport(DATE)).thenReturn(dailyReport);
+        when(reportService.precomputePeriodReport(WEEK_START, DATE)).thenReturn(weekReport);
+
+        final User admin = createAdmin(111L);
+        final User adminWithoutTelegram = createAdmin(null);
+        when(userEntityProvider.findAllByRole(ROLE.ADMIN)).thenReturn(List.of(admin, adminWithoutTelegram));
+
+        final int delivered = nightlyReportService.publishDailyReports(DATE);
+
+        assertEquals(1, delivered);
+        verify(messageSenderService).sendMessage(111L,
+                "Отчет посещений за 04.12.2025\n\nТестовый отчет за " + DATE);
+        verify(messageSenderService).sendMessage(111L, "Тестовый отчет за период");
+        verifyNoMoreInteractions(messageSenderService);
+    }
+
+    @Test
+    @DisplayName("Закрытие дня - ошибка отправки одному администратору не прерывает рассылку")
+    void publishDailyReports_whenSendingFails_shouldContinueWithOtherAdmins() {
+        when(reportService.finalizeDailyReport(DATE)).thenReturn(
+                TestDataFactory.createVisitorLogResponse(UUID.randomUUID(), DATE, 5, 1));
+        when(reportService.precomputePeriodReport(WEEK_START, DATE)).thenReturn(
+                TestDataFactory.createReportResponse(WEEK_START, DATE, 20, 8, 3));
+        when(userEntityProvider.findAllByRole(ROLE.ADMIN))
+                .thenReturn(List.of(createAdmin(111L), createAdmin(222L)));
+        doThrow(new MessageDeliveryException("Бот заблокирован пользователем", null))
+                .when(messageSenderService).sendMessage(eq(111L), anyString());
+
+        final int delivered = nightlyReportService.publishDailyReports(DATE);
+
+        assertEquals(1, delivered);
+        verify(messageSenderService, times(2)).sendMessage(eq(222L), anyString());
+    }
+
+    @Test
+    @DisplayName("Закрытие дня - ошибка, не связанная с доставкой, не скрывается")
+    void publishDailyReports_whenUnexpectedErrorOccurs_shouldPropagate() {
+        when(reportService.finalizeDailyReport(DATE)).thenReturn(
+                TestDataFactory.createVisitorLogResponse(UUID.randomUUID(), DATE, 5, 1));
+        when(reportService.precomputePeriodReport(WEEK_START, DATE)).thenReturn(
+                TestDataFactory.createReportResponse(WEEK_START, DATE, 20, 8, 3));
+        when(userEntityProvider.findAllByRole(ROLE.ADMIN))
+                .thenReturn(List.of(createAdmin(111L), createAdmin(222L)));
+        doThrow(new IllegalStateException("Ошибка разбиения отчета"))
+                .when(messageSenderService).sendMessage(eq(111L), anyString());
+
+        assertThrows(IllegalStateException.class, () -> nightlyReportService.publishDailyReports(DATE));
+        verify(messageSenderService, never()).sendMessage(eq(222L), anyString());
+    }
+
+    @Test
+    @DisplayName("Запуск по расписанию - блокировка занята другим экземпляром")
+    void runScheduledReport_whenLockIsHeld_shouldNotBuildReports() {
+        when(schedulerLockService.runExclusively(eq("nightly_report"), any(), any(), any()))
+                .thenReturn(false);
+
+        nightlyReportService.runScheduledReport();
+
+        verifyNoInteractions(reportService, messageSenderService);
+    }
+
+    private User createAdmin(final Long telegramId) {
+        final User admin = TestDataFactory.createUser(UUID.randomUUID(), "admin", "Администратор");
+        admin.setTelegramId(telegramId);
+        admin.setRole(ROLE.ADMIN);
+        return admin;
+    }
+
+}
@@ -6,26 +6,33 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import ru.cs.vsu.social_network.telegram_bot.dto.response.DailyStatsResponse;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageCursor;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.ReportResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitorLogResponse;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
 import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLog;
+import ru.cs.vsu.social_network.telegram_bot.entity.VisitorLogEntry;
 import ru.cs.vsu.social_network.telegram_bot.mapping.EntityMapper;
 import ru.cs.vsu.social_network.telegram_bot.provider.VisitEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.provider.VisitorLogEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.repository.VisitorLogRepository;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.VisitorLogDirtyTracker;
 import ru.cs.vsu.social_network.telegram_bot.testUtils.TestDataFactory;
 import ru.cs.vsu.social_network.telegram_bot.utils.factory.VisitorLogFactory;
 import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportFormatterService;
 import ru.cs.vsu.social_network.telegram_bot.utils.report.ReportStatisticsService;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitDataVersion;
+import ru.cs.vsu.social_network.telegram_bot.utils.report.VisitStatisticsAccumulator;
 import ru.cs.vsu.social_network.telegram_bot.validation.VisitorLogValidator;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -53,6 +60,10 @@ class ReportServiceImplTest {
     private ReportStatisticsService reportStatisticsService;
     @Mock
     private ReportFormatterService reportFormatterService;
+    @Mock
+    private VisitorLogDirtyTracker visitorLogDirtyTracker;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private ReportServiceImpl reportService;
@@ -141,31 +152,51 @@ class ReportServiceImplTest {
     }
 
     @Test
-    @DisplayName("Получение всех журналов с пагинацией - успешно")
-    void getAllVisitorLogsPaginated_whenLogsExist_shouldReturnPage() {
-        final int page = 0;
-        final int size = 10;
-
+    @DisplayName("Получение всех журналов с пагинацией - первая страница")
+    void getAllVisitorLogsPaginated_whenFirstPage_shouldReturnPageWithCursor() {
         doNothing().when(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
 
+        final LocalDate today = LocalDate.now();
         final List<VisitorLog> logs = new ArrayList<>();
-        logs.add(new VisitorLog());
-        logs.add(new VisitorLog());
+        for (int i = 0; i < 3; i++) {
+            final VisitorLog visitorLog = new VisitorLog();
+            visitorLog.setId(UUID.randomUUID());
+            visitorLog.setLogDate(today.minusDays(i));
+            logs.add(visitorLog);
+        }
+        when(visitorLogRepository.findLatest(Limit.of(3))).thenReturn(logs);
+        when(entityMapper.map(any(VisitorLog.class), eq(VisitorLogResponse.class)))
+                .thenReturn(new VisitorLogResponse());
+
+        final CursorPageRequest pageRequest = CursorPageRequest.builder().size(2).build();
+        final PageResponse<VisitorLogResponse> result =
+                reportService.getAllVisitorLogsPaginated(ADMIN_ID, pageRequest);
+
+        assertEquals(2, result.getContent().size());
+        assertFalse(result.isLast());
+        assertEquals(today.minusDays(1), PageCursor.decode(result.getNextCursor()).getDateKey());
+        verify(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+    }
 
-        final Page<VisitorLog> logsPage = new PageImpl<>(logs);
-        when(visitorLogRepository.findAll(any(Pageable.class))).thenReturn(logsPage);
+    @Test
+    @DisplayName("Получение всех журналов с пагинацией - следующая страница по курсору")
+    void getAllVisitorLogsPaginated_whenCursorProvided_shouldSeekBeforeCursorDate() {
+        doNothing().when(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
 
-        final List<VisitorLogResponse> expectedResponses = List.of(
-                TestDataFactory.createVisitorLogResponse(UUID.randomUUID(), LocalDate.now(), 3, 0),
-                TestDataFactory.createVisitorLogResponse(UUID.randomUUID(), LocalDate.now().minusDays(1), 5, 1)
-        );
-        when(entityMapper.mapList(logs, VisitorLogResponse.class)).thenReturn(expectedResponses);
+        final LocalDate cursorDate = LocalDate.of(2025, 12, 6);
+        final CursorPageRequest pageRequest = CursorPageRequest.builder()
+                .size(10)
+                .cursor(PageCursor.encode(cursorDate, LOG_ID))
+                .build();
 
-        final List<VisitorLogResponse> result = reportService.getAllVisitorLogsPaginated(ADMIN_ID, page, size);
+        when(visitorLogRepository.findLatestBefore(cursorDate, Limit.of(11))).thenReturn(List.of());
 
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        verify(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+        final PageResponse<VisitorLogResponse> result =
+                reportService.getAllVisitorLogsPaginated(ADMIN_ID, pageRequest);
+
+        assertTrue(result.getContent().isEmpty());
+        assertTrue(result.isLast());
+        verify(visitorLogRepository, never()).findLatest(any());
     }
 
     @Test
@@ -189,9 +220,11 @@ class ReportServiceImplTest {
         final LocalDate today = LocalDate.now();
         final VisitorLogResponse expectedResponse = TestDataFactory.createVisitorLogResponse(
                 LOG_ID, today, 5, 1);
+        when(visitorLogDirtyTracker.isDirty(today)).thenReturn(true);
+        when(visitorLogDirtyTracker.getVersion(today)).thenReturn(3L);
 
         final List<Visit> visits = TestDataFactory.createVisitsForDate(today, 3);
-        when(visitEntityProvider.findAllWithUsersByDate(today)).thenReturn(visits);
+        when(visitEntityProvider.streamAllWithUsersByDate(today)).thenReturn(visits.stream());
 
         final List<Visit> newUsersVisits = List.of();
         when(visitEntityProvider.findNewUsersByDate(today)).thenReturn(newUsersVisits);
@@ -212,6 +245,41 @@ class ReportServiceImplTest {
         assertNotNull(result);
         assertEquals(LOG_ID, result.getId());
         verify(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+        verify(visitorLogRepository).save(visitorLog);
+        verify(visitorLogDirtyTracker).markClean(today, 3L);
+    }
+
+    @Test
+    @DisplayName("Генерация ежедневного отчета - день не изменился, журнал не перезаписывается")
+    void generateDailyReport_whenDayIsClean_shouldServeStoredLogWithoutSaving() {
+        doNothing().when(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+
+        final LocalDate today = LocalDate.now();
+        when(visitorLogDirtyTracker.isDirty(today)).thenReturn(false);
+
+        final VisitorLog visitorLog = new VisitorLog();
+        visitorLog.setId(LOG_ID);
+        visitorLog.setVisitors(List.of(
+                VisitorLogEntry.builder().userId(UUID.randomUUID()).displayName("Иван Иванов").build(),
+                VisitorLogEntry.builder().userId(UUID.randomUUID()).displayName("Петр Петров").build()));
+        when(visitorLogEntityProvider.findByLogDate(today)).thenReturn(Optional.of(visitorLog));
+        when(visitEntityProvider.findNewUsersByDate(today)).thenReturn(List.of());
+
+        final VisitorLogResponse storedResponse = TestDataFactory.createVisitorLogResponse(
+                LOG_ID, today, 2, 0);
+        when(entityMapper.map(visitorLog, VisitorLogResponse.class)).thenReturn(storedResponse);
+
+        when(reportFormatterService.formatDailyTelegramReport(
+                today, List.of("Иван Иванов", "Петр Петров"), List.of(), 0))
+                .thenReturn("Форматированный отчет");
+
+        final VisitorLogResponse result = reportService.generateDailyReport(ADMIN_ID);
+
+        assertEquals(LOG_ID, result.getId());
+        assertEquals("Форматированный отчет", result.getFormattedReport());
+        verify(visitorLogRepository, never()).save(any());
+        verify(visitEntityProvider, never()).streamAllWithUsersByDate(any());
+        verify(visitorLogDirtyTracker, never()).markClean(any(), anyLong());
     }
 
     @Test
@@ -222,9 +290,10 @@ class ReportServiceImplTest {
 
         final VisitorLogResponse expectedResponse = TestDataFactory.createVisitorLogResponse(
                 LOG_ID, date, 7, 2);
+        when(visitorLogDirtyTracker.isDirty(date)).thenReturn(true);
 
         final List<Visit> visits = TestDataFactory.createVisitsForDate(date, 5);
-        when(visitEntityProvider.findAllWithUsersByDate(date)).thenReturn(visits);
+        when(visitEntityProvider.streamAllWithUsersByDate(date)).thenReturn(visits.stream());
 
         final List<Visit> newUsersVisits = List.of();
         when(visitEntityProvider.findNewUsersByDate(date)).thenReturn(newUsersVisits);
@@ -256,21 +325,16 @@ class ReportServiceImplTest {
         doNothing().when(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
 
         final List<Visit> visits = TestDataFactory.createVisitsForDate(startDate, 3);
-        when(visitEntityProvider.findAllByDateRange(startDate, endDate)).thenReturn(visits);
-
-        final long[] stats = {15L, 10L};
-        when(reportStatisticsService.calculateOverallStatistics(visits)).thenReturn(stats);
+        final Stream<Visit> visitStream = visits.stream();
+        when(visitEntityProvider.streamAllByDateRange(startDate, endDate)).thenReturn(visitStream);
 
-        final Map<LocalDate, List<Visit>> visitsByDate = new HashMap<>();
-        visitsByDate.put(startDate, visits);
-        when(reportStatisticsService.groupVisitsByDate(visits)).thenReturn(visitsByDate);
+        final VisitStatisticsAccumulator statistics = new VisitStatisticsAccumulator();
+        visits.forEach(statistics);
+        when(reportStatisticsService.aggregateVisits(visitStream)).thenReturn(statistics);
 
         when(visitEntityProvider.countNewUsersByDateRange(startDate, endDate)).thenReturn(2);
 
-        final DailyStatsResponse dailyStat = TestDataFactory.createDailyStatsResponse(startDate, 5, 1);
-        when(reportStatisticsService.createDailyStats(eq(startDate), anyList())).thenReturn(dailyStat);
-
-        when(reportStatisticsService.calculateAverageDailyVisits(15, 1)).thenReturn(15.0);
+        when(reportStatisticsService.calculateAverageDailyVisits(3, 1)).thenReturn(3.0);
 
         when(reportFormatterService.formatPeriodTelegramReport(
                 any(LocalDate.class),
@@ -287,8 +351,72 @@ class ReportServiceImplTest {
         assertNotNull(result);
         assertEquals(startDate, result.getStartDate());
         assertEquals(endDate, result.getEndDate());
-        assertEquals(15, result.getTotalVisits());
+        assertEquals(3, result.getTotalVisits());
+        assertEquals(3, result.getUniqueVisitors());
+        assertEquals(1, result.getDailyStats().size());
         assertEquals(2, result.getTotalNewUsers());
         verify(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Генерация отчета за период - повторный запрос выдается из кеша")
+    void generatePeriodReport_whenPrecomputedAndPeriodUnchanged_shouldServeFromCache() {
+        final LocalDate startDate = LocalDate.of(2025, 12, 1);
+        final LocalDate endDate = LocalDate.of(2025, 12, 3);
+
+        doNothing().when(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+
+        final List<Visit> visits = TestDataFactory.createVisitsForDate(startDate, 2);
+        final Stream<Visit> visitStream = visits.stream();
+        when(visitEntityProvider.streamAllByDateRange(startDate, endDate)).thenReturn(visitStream);
+
+        final VisitStatisticsAccumulator statistics = new VisitStatisticsAccumulator();
+        visits.forEach(statistics);
+        when(reportStatisticsService.aggregateVisits(visitStream)).thenReturn(statistics);
+        when(reportFormatterService.formatPeriodTelegramReport(
+                any(LocalDate.class), any(LocalDate.class), anyMap(),
+                anyLong(), anyLong(), anyLong(), anyDouble()))
+                .thenReturn("Отчет за неделю");
+
+        final ReportResponse precomputed = reportService.precomputePeriodReport(startDate, endDate);
+        final ReportResponse result = reportService.generatePeriodReport(ADMIN_ID, startDate, endDate);
+
+        assertSame(precomputed, result);
+        assertEquals("Отчет за неделю", result.getTelegramFormattedReport());
+        verify(visitEntityProvider, times(1)).streamAllByDateRange(startDate, endDate);
+        verify(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+    }
+
+    @Test
+    @DisplayName("Генерация отчета за период - посещения изменились на другом узле, отчет пересобирается")
+    void generatePeriodReport_whenDataVersionChanged_shouldRebuildReport() {
+        final LocalDate startDate = LocalDate.of(2025, 12, 1);
+        final LocalDate endDate = LocalDate.of(2025, 12, 3);
+
+        doNothing().when(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+
+        final LocalDateTime updatedAt = startDate.atTime(10, 0);
+        when(visitEntityProvider.getDataVersion(startDate, endDate)).thenReturn(
+                new VisitDataVersion(2, updatedAt, updatedAt),
+                new VisitDataVersion(3, updatedAt.plusMinutes(5), updatedAt));
+
+        final List<Visit> visits = TestDataFactory.createVisitsForDate(startDate, 2);
+        when(visitEntityProvider.streamAllByDateRange(startDate, endDate))
+                .thenAnswer(invocation -> visits.stream());
+        when(reportStatisticsService.aggregateVisits(any())).thenAnswer(invocation -> {
+            final VisitStatisticsAccumulator statistics = new VisitStatisticsAccumulator();
+            visits.forEach(statistics);
+            return statistics;
+        });
+        when(reportFormatterService.formatPeriodTelegramReport(
+                any(LocalDate.class), any(LocalDate.class), anyMap(),
+                anyLong(), anyLong(), anyLong(), anyDouble()))
+                .thenReturn("Отчет за неделю");
+
+        final ReportResponse precomputed = reportService.precomputePeriodReport(startDate, endDate);
+        final ReportResponse result = reportService.generatePeriodReport(ADMIN_ID, startDate, endDate);
+
+        assertNotSame(precomputed, result);
+        verify(visitEntityProvider, times(2)).streamAllByDateRange(startDate, endDate);
+    }
+}
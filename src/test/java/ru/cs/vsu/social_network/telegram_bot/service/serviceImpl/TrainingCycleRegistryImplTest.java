@@ -0,0 +1,68 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class TrainingCycleRegistryImplTest {
+
+    private static final String DEFAULT_CYCLE = "gusenica_cycle";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Шаблон из ресурсов - цикл найден по коду и прежнему названию без чтения шаблона")
+    void resolve_whenLegacyTitle_shouldReturnClasspathCycle() {
+        final TrainingTemplateCache templateCache = mock(TrainingTemplateCache.class);
+        final TrainingCycleRegistryImpl registry = new TrainingCycleRegistryImpl(templateCache, DEFAULT_CYCLE, "");
+        registry.init();
+
+        final TrainingCycle defaultCycle = registry.getDefaultCycle();
+
+        assertEquals(DEFAULT_CYCLE, defaultCycle.code());
+        assertEquals("Гусеница новая", defaultCycle.title());
+        assertEquals("training_cycles/gusenica_cycle.xlsx", defaultCycle.templatePath());
+        assertEquals(DEFAULT_CYCLE, registry.resolve("Гусеница_8_недель").code());
+        assertEquals(DEFAULT_CYCLE, registry.resolve(null).code());
+        assertTrue(registry.findCycle("несуществующий").isEmpty());
+        verifyNoInteractions(templateCache);
+    }
+
+    @Test
+    @DisplayName("Внешняя директория - новый цикл добавляется, описание берется из cycles.properties")
+    void getAvailableCycles_whenExternalDir_shouldAddExternalCycles() throws IOException {
+        Files.write(tempDir.resolve("power_cycle.xlsx"), new byte[]{1, 2, 3});
+        Files.writeString(tempDir.resolve("cycles.properties"),
+                "power_cycle.title=Силовой цикл\npower_cycle.aliases=Сила, Power\n", StandardCharsets.UTF_8);
+
+        final TrainingCycleRegistryImpl registry = new TrainingCycleRegistryImpl(
+                mock(TrainingTemplateCache.class), DEFAULT_CYCLE, tempDir.toString());
+        registry.init();
+
+        try {
+            final List<TrainingCycle> cycles = registry.getAvailableCycles();
+            final TrainingCycle powerCycle = registry.resolve("power");
+
+            assertEquals(List.of(DEFAULT_CYCLE, "power_cycle"), cycles.stream().map(TrainingCycle::code).toList());
+            assertEquals("Силовой цикл", powerCycle.title());
+            assertEquals(List.of("Сила", "Power"), powerCycle.aliases());
+            assertTrue(powerCycle.templatePath().startsWith("file:"));
+            assertTrue(powerCycle.templatePath().endsWith("power_cycle.xlsx"));
+        } finally {
+            registry.destroy();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingPlanArchiveServiceImplTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Архив выключен - документ не записывается на диск")
+    void archive_whenDisabled_shouldNotWriteFiles() throws IOException {
+        final Path archiveDir = tempDir.resolve("archive");
+        final TrainingPlanArchiveServiceImpl archiveService =
+                new TrainingPlanArchiveServiceImpl(false, archiveDir.toString());
+
+        archiveService.archive(new GeneratedDocument("training_plan.xlsx", new byte[]{1, 2, 3}));
+
+        assertFalse(archiveService.isArchiveEnabled());
+        assertFalse(Files.exists(archiveDir));
+    }
+
+    @Test
+    @DisplayName("Архив включен - документы с одинаковым именем не перезаписывают друг друга")
+    void archive_whenSameFileNameTwice_shouldKeepBothDocuments() throws IOException {
+        final TrainingPlanArchiveServiceImpl archiveService =
+                new TrainingPlanArchiveServiceImpl(true, tempDir.toString());
+
+        archiveService.archive(new GeneratedDocument("training_plan_20240101_120000.png", new byte[]{1}));
+        archiveService.archive(new GeneratedDocument("training_plan_20240101_120000.png", new byte[]{2, 3}));
+
+        final List<Path> archived;
+        try (Stream<Path> files = Files.list(tempDir)) {
+            archived = files.sorted().toList();
+        }
+
+        assertEquals(2, archived.size());
+        for (final Path file : archived) {
+            final String name = file.getFileName().toString();
+            assertTrue(name.startsWith("training_plan_20240101_120000_"));
+            assertTrue(name.endsWith(".png"));
+        }
+        final long totalSize = Files.size(archived.get(0)) + Files.size(archived.get(1));
+        assertEquals(3, totalSize);
+    }
+}
@@ -0,0 +1,135 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.UserBenchPressRequest;
+import ru.cs.vsu.social_network.telegram_bot.service.DocumentSenderService;
+import ru.cs.vsu.social_network.telegram_bot.service.ExcelTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.ImageTrainingService;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingPlanFileCache;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.TrainingTemplateCache;
+import ru.cs.vsu.social_network.telegram_bot.service.image.ImageEncoder;
+import ru.cs.vsu.social_network.telegram_bot.utils.GeneratedDocument;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingCycle;
+import ru.cs.vsu.social_network.telegram_bot.utils.training.TrainingPlanFormat;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrainingPlanDeliveryServiceImplTest {
+
+    private static final Long TELEGRAM_ID = 123456789L;
+    private static final UUID USER_ID = UUID.randomUUID();
+    private static final String TEMPLATE_VERSION = "0123456789abcdef";
+    private static final String IMAGE_VERSION = "r1-png8-z6-none";
+    private static final String EXCEL_VERSION = "x" + ExcelTrainingService.OUTPUT_VERSION;
+    private static final String CAPTION = "Программа";
+    private static final TrainingCycle CYCLE = new TrainingCycle(
+            "gusenica_cycle", "Гусеница новая", "", List.of(), "training_cycles/gusenica_cycle.xlsx");
+
+    @Mock
+    private ImageTrainingService imageTrainingService;
+    @Mock
+    private ExcelTrainingService excelTrainingService;
+    @Mock
+    private DocumentSenderService documentSenderService;
+    @Mock
+    private TrainingPlanFileCache trainingPlanFileCache;
+    @Mock
+    private TrainingTemplateCache trainingTemplateCache;
+    @Mock
+    private ImageEncoder imageEncoder;
+
+    private TrainingPlanDeliveryServiceImpl deliveryService;
+    private UserBenchPressRequest request;
+
+    @BeforeEach
+    void setUp() {
+        deliveryService = new TrainingPlanDeliveryServiceImpl(imageTrainingService, excelTrainingService,
+                documentSenderService, trainingPlanFileCache, trainingTemplateCache, imageEncoder, "png", true);
+        request = new UserBenchPressRequest(100.0, CYCLE.code());
+        when(trainingTemplateCache.getTemplateVersion(CYCLE.templatePath())).thenReturn(TEMPLATE_VERSION);
+    }
+
+    @Test
+    @DisplayName("file_id найден - программа отправляется повторно без генерации")
+    void deliverTrainingPlan_whenFileIdCached_shouldResendWithoutGeneration() {
+        when(imageEncoder.getOutputVersion()).thenReturn(IMAGE_VERSION);
+        when(trainingPlanFileCache.findFileId(TEMPLATE_VERSION, IMAGE_VERSION, 100.0, "png"))
+                .thenReturn(Optional.of("cached-id"));
+        when(documentSenderService.sendDocumentById(TELEGRAM_ID, "cached-id", CAPTION)).thenReturn(true);
+
+        deliveryService.deliverTrainingPlan(TELEGRAM_ID, USER_ID, request, CYCLE, TrainingPlanFormat.IMAGE, CAPTION);
+
+        verifyNoInteractions(imageTrainingService, excelTrainingService);
+        verify(documentSenderService, never()).sendDocument(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("file_id отклонен - файл загружается заново под общим именем, новый file_id сохраняется")
+    void deliverTrainingPlan_whenFileIdRejected_shouldUploadAndSaveNewFileId() {
+        when(trainingPlanFileCache.findFileId(TEMPLATE_VERSION, EXCEL_VERSION, 100.0, "xlsx"))
+                .thenReturn(Optional.of("stale-id"));
+        when(documentSenderService.sendDocumentById(TELEGRAM_ID, "stale-id", CAPTION)).thenReturn(false);
+        when(excelTrainingService.generateTrainingPlan(USER_ID, request))
+                .thenReturn(new GeneratedDocument("training_plan_" + USER_ID + ".xlsx", new byte[]{1, 2, 3}));
+        when(documentSenderService.sendDocument(eq(TELEGRAM_ID), any(), eq(CAPTION))).thenReturn("fresh-id");
+
+        deliveryService.deliverTrainingPlan(TELEGRAM_ID, USER_ID, request, CYCLE, TrainingPlanFormat.EXCEL, CAPTION);
+
+        final ArgumentCaptor<GeneratedDocument> documentCaptor = ArgumentCaptor.forClass(GeneratedDocument.class);
+        verify(documentSenderService).sendDocument(eq(TELEGRAM_ID), documentCaptor.capture(), eq(CAPTION));
+        assertEquals("training_plan_gusenica_cycle_100.00kg.xlsx", documentCaptor.getValue().fileName());
+        assertFalse(documentCaptor.getValue().fileName().contains(USER_ID.toString()));
+
+        verify(trainingPlanFileCache).evict(TEMPLATE_VERSION, EXCEL_VERSION, 100.0, "xlsx");
+        verify(trainingPlanFileCache).saveFileId(TEMPLATE_VERSION, EXCEL_VERSION, 100.0, "xlsx", "fresh-id");
+    }
+
+    @Test
+    @DisplayName("Версия отрисовки изменилась - ранее загруженный file_id не используется")
+    void deliverTrainingPlan_whenOutputVersionChanged_shouldUploadNewImage() {
+        when(imageEncoder.getOutputVersion()).thenReturn("r2-png8-z6-none");
+        when(trainingPlanFileCache.findFileId(TEMPLATE_VERSION, "r2-png8-z6-none", 100.0, "png"))
+                .thenReturn(Optional.empty());
+        when(imageTrainingService.generateTrainingPlanImage(USER_ID, request))
+                .thenReturn(new GeneratedDocument("training_plan_" + USER_ID + ".png", new byte[]{1, 2, 3}));
+        when(documentSenderService.sendDocument(eq(TELEGRAM_ID), any(), eq(CAPTION))).thenReturn("new-id");
+
+        deliveryService.deliverTrainingPlan(TELEGRAM_ID, USER_ID, request, CYCLE, TrainingPlanFormat.IMAGE, CAPTION);
+
+        verify(documentSenderService, never()).sendDocumentById(any(), any(), any());
+        verify(trainingPlanFileCache).saveFileId(TEMPLATE_VERSION, "r2-png8-z6-none", 100.0, "png", "new-id");
+    }
+
+    @Test
+    @DisplayName("Жим с двумя знаками после запятой - имя файла не округляется до десятых")
+    void deliverTrainingPlan_whenBenchPressHasHundredths_shouldKeepExactValueInFileName() {
+        final UserBenchPressRequest preciseRequest = new UserBenchPressRequest(82.25, CYCLE.code());
+        when(trainingPlanFileCache.findFileId(TEMPLATE_VERSION, EXCEL_VERSION, 82.25, "xlsx"))
+                .thenReturn(Optional.empty());
+        when(excelTrainingService.generateTrainingPlan(USER_ID, preciseRequest))
+                .thenReturn(new GeneratedDocument("training_plan_" + USER_ID + ".xlsx", new byte[]{1, 2, 3}));
+        when(documentSenderService.sendDocument(eq(TELEGRAM_ID), any(), eq(CAPTION))).thenReturn("new-id");
+
+        deliveryService.deliverTrainingPlan(TELEGRAM_ID, USER_ID, preciseRequest, CYCLE,
+                TrainingPlanFormat.EXCEL, CAPTION);
+
+        final ArgumentCaptor<GeneratedDocument> documentCaptor = ArgumentCaptor.forClass(GeneratedDocument.class);
+        verify(documentSenderService).sendDocument(eq(TELEGRAM_ID), documentCaptor.capture(), eq(CAPTION));
+        assertEquals("training_plan_gusenica_cycle_82.25kg.xlsx", documentCaptor.getValue().fileName());
+        verify(trainingPlanFileCache).saveFileId(TEMPLATE_VERSION, EXCEL_VERSION, 82.25, "xlsx", "new-id");
+    }
+}
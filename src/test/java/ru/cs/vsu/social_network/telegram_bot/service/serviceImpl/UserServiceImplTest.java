@@ -6,13 +6,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Limit;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserCreateRequest;
 import ru.cs.vsu.social_network.telegram_bot.dto.request.UserUpdateRequest;
-import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.UserInfoResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
@@ -165,31 +162,21 @@ class UserServiceImplTest {
     @DisplayName("Получение пользователей по роли - успешно")
     void getUsersByRole_whenUsersExist_shouldReturnPage() {
         final ROLE role = ROLE.USER;
-        final PageRequest pageRequest =
-                PageRequest.builder()
-                        .pageNumber(0)
-                        .size(10)
-                        .sortBy("createdAt")
-                        .direction(Sort.Direction.DESC)
-                        .build();
+        final CursorPageRequest pageRequest = CursorPageRequest.builder()
+                .size(10)
+                .build();
 
         final List<User> users = List.of(new User(), new User());
-        final Page<User> usersPage = new PageImpl<>(users);
-
-        final Page<UserInfoResponse> expectedResponsePage = usersPage.map(user -> {
-            return TestDataFactory.createUserInfoResponse(
-                    user.getId() != null ? user.getId() : UUID.randomUUID(),
-                    111L, "testuser", "Иван", ROLE.USER);
-        });
-
-        when(userRepository.findAllByRole(eq(role), any(Pageable.class))).thenReturn(usersPage);
 
+        when(userRepository.findLatestByRole(role, Limit.of(11))).thenReturn(users);
 
         final PageResponse<UserInfoResponse> result = userService.getUsersByRole(role, pageRequest);
 
         assertNotNull(result);
         assertEquals(2, result.getContent().size());
-        verify(userRepository).findAllByRole(eq(role), any(Pageable.class));
+        assertTrue(result.isLast());
+        assertNull(result.getNextCursor());
+        verify(userRepository).findLatestByRole(role, Limit.of(11));
     }
 
 
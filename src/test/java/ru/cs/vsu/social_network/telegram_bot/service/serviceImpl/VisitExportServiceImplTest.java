@@ -0,0 +1,100 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.cs.vsu.social_network.telegram_bot.entity.User;
+import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
+import ru.cs.vsu.social_network.telegram_bot.provider.VisitEntityProvider;
+import ru.cs.vsu.social_network.telegram_bot.testUtils.TestDataFactory;
+import ru.cs.vsu.social_network.telegram_bot.validation.VisitorLogValidator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VisitExportServiceImplTest {
+
+    private static final UUID ADMIN_ID = UUID.randomUUID();
+    private static final int ROW_WINDOW = 10;
+
+    @Mock
+    private VisitEntityProvider visitEntityProvider;
+    @Mock
+    private VisitorLogValidator visitorLogValidator;
+
+    private VisitExportServiceImpl visitExportService;
+
+    @BeforeEach
+    void setUp() {
+        visitExportService = new VisitExportServiceImpl(visitEntityProvider, visitorLogValidator, ROW_WINDOW);
+    }
+
+    @Test
+    @DisplayName("Выгрузка больше окна строк - все посещения и сводка по посетителям записаны")
+    void exportVisits_whenMoreRowsThanWindow_shouldWriteAllRows() throws IOException {
+        final LocalDate startDate = LocalDate.of(2024, 1, 1);
+        final LocalDate endDate = LocalDate.of(2025, 12, 31);
+        final User regular = TestDataFactory.createUser(UUID.randomUUID(), "regular", "Постоянный");
+        final User guest = TestDataFactory.createUser(UUID.randomUUID(), "guest", "Гость");
+
+        final List<Visit> visits = new ArrayList<>();
+        for (int day = 0; day < 3 * ROW_WINDOW; day++) {
+            visits.add(TestDataFactory.createVisit(UUID.randomUUID(), regular, startDate.plusDays(day).atTime(9, 0)));
+        }
+        visits.add(TestDataFactory.createVisit(UUID.randomUUID(), guest, endDate.atTime(18, 30)));
+        when(visitEntityProvider.streamAllByDateRange(startDate, endDate)).thenReturn(visits.stream());
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final long rowCount = visitExportService.exportVisits(ADMIN_ID, startDate, endDate, outputStream);
+
+        assertEquals(visits.size(), rowCount);
+        verify(visitorLogValidator).validateAdminAccessForLogs(ADMIN_ID);
+
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            final Sheet visitsSheet = workbook.getSheet("Посещения");
+            assertEquals(visits.size(), visitsSheet.getLastRowNum());
+            assertEquals("regular", visitsSheet.getRow(1).getCell(2).getStringCellValue());
+            assertEquals("guest", visitsSheet.getRow(visits.size()).getCell(2).getStringCellValue());
+            assertEquals(startDate.atTime(9, 0), visitsSheet.getRow(1).getCell(0).getLocalDateTimeCellValue());
+
+            final Sheet usersSheet = workbook.getSheet("Посетители");
+            assertEquals(2, usersSheet.getLastRowNum());
+            assertEquals("regular", usersSheet.getRow(1).getCell(1).getStringCellValue());
+            assertEquals(3 * ROW_WINDOW, usersSheet.getRow(1).getCell(5).getNumericCellValue());
+            assertEquals(1, usersSheet.getRow(2).getCell(5).getNumericCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Нет посещений за период - книга содержит только заголовки")
+    void exportVisits_whenNoVisits_shouldWriteHeadersOnly() throws IOException {
+        final LocalDate date = LocalDate.of(2025, 12, 6);
+        when(visitEntityProvider.streamAllByDateRange(date, date)).thenReturn(Stream.empty());
+
+        final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        final long rowCount = visitExportService.exportVisits(ADMIN_ID, date, date, outputStream);
+
+        assertEquals(0, rowCount);
+        try (Workbook workbook = new XSSFWorkbook(new ByteArrayInputStream(outputStream.toByteArray()))) {
+            assertEquals(0, workbook.getSheet("Посещения").getLastRowNum());
+            assertEquals("Дата и время",
+                    workbook.getSheet("Посещения").getRow(0).getCell(0).getStringCellValue());
+        }
+    }
+}
@@ -6,24 +6,29 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.CursorPageRequest;
+import ru.cs.vsu.social_network.telegram_bot.dto.request.pageable.PageCursor;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.VisitResponse;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.pageable.PageResponse;
 import ru.cs.vsu.social_network.telegram_bot.entity.User;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
+import ru.cs.vsu.social_network.telegram_bot.exception.InvalidPageCursorException;
 import ru.cs.vsu.social_network.telegram_bot.mapping.EntityMapper;
 import ru.cs.vsu.social_network.telegram_bot.provider.UserEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.provider.VisitEntityProvider;
 import ru.cs.vsu.social_network.telegram_bot.repository.VisitRepository;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.GymOccupancyTracker;
+import ru.cs.vsu.social_network.telegram_bot.service.cache.VisitorLogDirtyTracker;
 import ru.cs.vsu.social_network.telegram_bot.testUtils.TestDataFactory;
 import ru.cs.vsu.social_network.telegram_bot.utils.factory.VisitFactory;
 import ru.cs.vsu.social_network.telegram_bot.validation.VisitValidator;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -51,6 +56,10 @@ class VisitServiceImplTest {
     private VisitValidator visitValidator;
     @Mock
     private EntityMapper entityMapper;
+    @Mock
+    private VisitorLogDirtyTracker visitorLogDirtyTracker;
+    @Mock
+    private GymOccupancyTracker gymOccupancyTracker;
 
     @InjectMocks
     private VisitServiceImpl visitService;
@@ -77,6 +86,8 @@ class VisitServiceImplTest {
         assertEquals(USER_ID, result.getUserId());
         verify(visitValidator).validateRepeatVisit(USER_ID);
         verify(visitRepository).save(newVisit);
+        verify(visitorLogDirtyTracker).markDirty(LocalDate.now());
+        verify(gymOccupancyTracker).recordCheckIn(any(LocalDateTime.class));
     }
 
     @Test
@@ -86,8 +97,10 @@ class VisitServiceImplTest {
         user.setId(USER_ID);
         final Visit newVisit = new Visit();
         newVisit.setId(VISIT_ID);
+        final LocalDateTime visitTime = LocalDate.now().atTime(9, 30);
         final Visit savedVisit = new Visit();
         savedVisit.setId(VISIT_ID);
+        savedVisit.setVisitDate(visitTime);
         final VisitResponse expectedResponse = TestDataFactory.createVisitResponse(
                 VISIT_ID, USER_ID, LocalDate.now());
 
@@ -103,6 +116,8 @@ class VisitServiceImplTest {
         assertEquals(VISIT_ID, result.getId());
         verify(visitValidator).validateRepeatVisit(USER_ID);
         verify(visitRepository).save(newVisit);
+        verify(visitorLogDirtyTracker).markDirty(LocalDate.now());
+        verify(gymOccupancyTracker).recordCheckIn(visitTime);
     }
 
     @Test
@@ -180,51 +195,66 @@ class VisitServiceImplTest {
     }
 
     @Test
-    @DisplayName("Получение посещений по дате - успешно")
-    void getVisitsByDate_whenVisitsExist_shouldReturnPage() {
+    @DisplayName("Получение посещений по дате - первая страница с курсором на следующую")
+    void getVisitsByDate_whenMoreVisitsThanPageSize_shouldReturnNextCursor() {
         final LocalDate date = LocalDate.of(2025, 12, 6);
-        final PageRequest pageRequest = PageRequest.builder()
-                .pageNumber(0)
-                .size(10)
-                .sortBy("visitDate")
-                .direction(Sort.Direction.DESC)
+        final CursorPageRequest pageRequest = CursorPageRequest.builder()
+                .size(2)
                 .build();
 
-        final List<Visit> visits = List.of(new Visit(), new Visit());
-        final Page<Visit> visitsPage = new PageImpl<>(visits);
-
-        when(visitRepository.findAllByDate(eq(date), any(Pageable.class))).thenReturn(visitsPage);
+        final List<Visit> visits = TestDataFactory.createVisitsForDate(date, 3);
+        when(visitRepository.findFirstByDate(date.atStartOfDay(), date.plusDays(1).atStartOfDay(), Limit.of(3)))
+                .thenReturn(visits);
 
         final PageResponse<VisitResponse> result = visitService.getVisitsByDate(date, pageRequest);
 
-        assertNotNull(result);
         assertEquals(2, result.getContent().size());
-        verify(visitRepository).findAllByDate(eq(date), any(Pageable.class));
+        assertTrue(result.isFirst());
+        assertFalse(result.isLast());
+
+        final PageCursor cursor = PageCursor.decode(result.getNextCursor());
+        assertEquals(visits.get(1).getVisitDate(), cursor.getDateTimeKey());
+        assertEquals(visits.get(1).getId(), cursor.getId());
     }
 
     @Test
-    @DisplayName("Получение посещений по пользователю - успешно")
-    void getVisitsByUser_whenVisitsExist_shouldReturnPage() {
-        final PageRequest pageRequest = PageRequest.builder()
-                .pageNumber(0)
-                .size(10)
-                .sortBy("visitDate")
-                .direction(Sort.Direction.DESC)
-                .build();
-
+    @DisplayName("Получение посещений по пользователю - следующая страница по курсору")
+    void getVisitsByUser_whenCursorProvided_shouldSeekAfterCursor() {
         final User user = new User();
         user.setId(USER_ID);
 
+        final LocalDateTime lastSeenDate = LocalDateTime.of(2025, 12, 6, 10, 0);
+        final UUID lastSeenId = UUID.randomUUID();
+        final CursorPageRequest pageRequest = CursorPageRequest.builder()
+                .size(10)
+                .cursor(PageCursor.encode(lastSeenDate, lastSeenId))
+                .build();
+
         final List<Visit> visits = List.of(new Visit(), new Visit());
-        final Page<Visit> visitsPage = new PageImpl<>(visits);
 
         when(userEntityProvider.getById(USER_ID)).thenReturn(user);
-        when(visitRepository.findAllByUser(eq(user), any(Pageable.class))).thenReturn(visitsPage);
+        when(visitRepository.findLatestByUserBefore(user, lastSeenDate, lastSeenId, Limit.of(11)))
+                .thenReturn(visits);
 
         final PageResponse<VisitResponse> result = visitService.getVisitsByUser(USER_ID, pageRequest);
 
-        assertNotNull(result);
         assertEquals(2, result.getContent().size());
-        verify(visitRepository).findAllByUser(eq(user), any(Pageable.class));
+        assertFalse(result.isFirst());
+        assertTrue(result.isLast());
+        assertNull(result.getNextCursor());
+        verify(visitRepository, never()).findLatestByUser(any(), any());
+    }
+
+    @Test
+    @DisplayName("Получение посещений по пользователю - поврежденный курсор")
+    void getVisitsByUser_whenCursorIsInvalid_shouldThrowException() {
+        final CursorPageRequest pageRequest = CursorPageRequest.builder()
+                .cursor("не-курсор")
+                .build();
+
+        when(userEntityProvider.getById(USER_ID)).thenReturn(new User());
+
+        assertThrows(InvalidPageCursorException.class,
+                () -> visitService.getVisitsByUser(USER_ID, pageRequest));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,82 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.cs.vsu.social_network.telegram_bot.dto.response.OccupancyResponse;
+import ru.cs.vsu.social_network.telegram_bot.repository.VisitRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GymOccupancyTrackerImplTest {
+
+    private static final int WINDOW_MINUTES = 90;
+
+    @Mock
+    private VisitRepository visitRepository;
+
+    private GymOccupancyTrackerImpl occupancyTracker;
+
+    @BeforeEach
+    void setUp() {
+        occupancyTracker = new GymOccupancyTrackerImpl(visitRepository, WINDOW_MINUTES);
+    }
+
+    @Test
+    @DisplayName("Учет отметки - отметка попадает в окно и в текущий час")
+    void recordCheckIn_whenCheckInNow_shouldCountInWindowAndCurrentHour() {
+        final LocalDateTime now = LocalDateTime.now();
+
+        occupancyTracker.recordCheckIn(now);
+        occupancyTracker.recordCheckIn(now);
+
+        final OccupancyResponse occupancy = occupancyTracker.getOccupancy();
+
+        assertEquals(2L, occupancy.getRecentCheckIns());
+        assertEquals(2L, occupancy.getTodayCheckIns());
+        assertEquals(2L, occupancy.getHourlyCheckIns().get(now.getHour()));
+        assertEquals(WINDOW_MINUTES, occupancy.getWindowMinutes());
+        verifyNoInteractions(visitRepository);
+    }
+
+    @Test
+    @DisplayName("Учет отметки - вчерашние отметки не учитываются")
+    void recordCheckIn_whenCheckInYesterday_shouldNotCountToday() {
+        final LocalDateTime now = LocalDateTime.now();
+
+        occupancyTracker.recordCheckIn(now);
+        occupancyTracker.recordCheckIn(now.minusDays(1));
+
+        final OccupancyResponse occupancy = occupancyTracker.getOccupancy();
+
+        assertEquals(1L, occupancy.getRecentCheckIns());
+        assertEquals(1L, occupancy.getTodayCheckIns());
+    }
+
+    @Test
+    @DisplayName("Восстановление при старте - счетчики заполняются по таблице посещений")
+    void rebuildFromVisits_whenVisitsExist_shouldReplaceCounters() {
+        final LocalDateTime now = LocalDateTime.now();
+        occupancyTracker.recordCheckIn(now);
+
+        when(visitRepository.findVisitTimesSince(any(LocalDateTime.class)))
+                .thenReturn(List.of(now, now, now));
+
+        occupancyTracker.rebuildFromVisits();
+
+        final OccupancyResponse occupancy = occupancyTracker.getOccupancy();
+
+        assertEquals(3L, occupancy.getRecentCheckIns());
+        assertEquals(3L, occupancy.getTodayCheckIns());
+        assertEquals(24, occupancy.getHourlyCheckIns().size());
+    }
+}
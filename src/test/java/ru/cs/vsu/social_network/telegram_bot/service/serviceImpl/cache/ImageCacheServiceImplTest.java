@@ -0,0 +1,42 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import ru.cs.vsu.social_network.telegram_bot.utils.EncodedImage;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageCacheServiceImplTest {
+
+    private static final String CACHE_KEY = "gusenica_cycle_100.0";
+    private static final EncodedImage IMAGE = new EncodedImage(new byte[]{1, 2, 3}, "png", 640, 480);
+    private static final DataSize MAX_BYTES = DataSize.ofMegabytes(1);
+
+    @Test
+    @DisplayName("Кеш изображений - при попадании выдаются сохраненные байты без перекодирования")
+    void getImage_whenCached_shouldReturnSameEncodedBytes() {
+        final ImageCacheServiceImpl imageCacheService = new ImageCacheServiceImpl(true, 60, MAX_BYTES);
+        imageCacheService.putImage(CACHE_KEY, IMAGE);
+
+        final Optional<EncodedImage> cached = imageCacheService.getImage(CACHE_KEY);
+
+        assertTrue(cached.isPresent());
+        assertSame(IMAGE.content(), cached.get().content());
+        assertEquals(640, cached.get().width());
+        assertEquals("png", cached.get().format());
+        assertTrue(imageCacheService.getImage("unknown").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Кеш изображений - просроченная запись не выдается и удаляется")
+    void getImage_whenExpired_shouldReturnEmptyAndRemoveEntry() {
+        final ImageCacheServiceImpl imageCacheService = new ImageCacheServiceImpl(true, -1, MAX_BYTES);
+        imageCacheService.putImage(CACHE_KEY, IMAGE);
+
+        assertTrue(imageCacheService.getImage(CACHE_KEY).isEmpty());
+        assertEquals(0, imageCacheService.getCacheSize());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportPageCacheImplTest {
+
+    private static final Long CHAT_ID = 123456789L;
+
+    private final ReportPageCacheImpl reportPageCache = new ReportPageCacheImpl();
+
+    @Test
+    @DisplayName("Кеш страниц - страницы выдаются чату, в который отправлен отчет")
+    void getPages_whenSameChat_shouldReturnStoredPages() {
+        final String key = reportPageCache.put(CHAT_ID, List.of("Страница 1", "Страница 2"));
+
+        final Optional<List<String>> pages = reportPageCache.getPages(key, CHAT_ID);
+
+        assertTrue(pages.isPresent());
+        assertEquals(List.of("Страница 1", "Страница 2"), pages.get());
+    }
+
+    @Test
+    @DisplayName("Кеш страниц - другой чат и неизвестный ключ не получают страниц")
+    void getPages_whenOtherChatOrUnknownKey_shouldReturnEmpty() {
+        final String key = reportPageCache.put(CHAT_ID, List.of("Страница 1", "Страница 2"));
+
+        assertTrue(reportPageCache.getPages(key, 987654321L).isEmpty());
+        assertTrue(reportPageCache.getPages("unknown", CHAT_ID).isEmpty());
+    }
+}
@@ -0,0 +1,54 @@
+package ru.cs.vsu.social_network.telegram_bot.service.serviceImpl.cache;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.cs.vsu.social_network.telegram_bot.exception.GenerateTrainingPlanException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingTemplateCacheImplTest {
+
+    private static final String TEMPLATE_PATH = "training_cycles/gusenica_cycle.xlsx";
+
+    private final TrainingTemplateCacheImpl trainingTemplateCache = new TrainingTemplateCacheImpl(event -> { });
+
+    @Test
+    @DisplayName("Кеш шаблонов - каждая книга независима от остальных")
+    void openWorkbook_whenCalledTwice_shouldReturnIndependentWorkbooks() throws Exception {
+        try (Workbook first = trainingTemplateCache.openWorkbook(TEMPLATE_PATH);
+             Workbook second = trainingTemplateCache.openWorkbook(TEMPLATE_PATH)) {
+            assertNotSame(first, second);
+
+            benchCell(first.getSheetAt(0)).setCellValue(12345.0);
+
+            assertNotEquals(12345.0, benchCell(second.getSheetAt(0)).getNumericCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Кеш шаблонов - версия вычисляется по содержимому и не меняется после перечитывания")
+    void getTemplateVersion_whenInvalidated_shouldStayStable() {
+        final String version = trainingTemplateCache.getTemplateVersion(TEMPLATE_PATH);
+
+        trainingTemplateCache.invalidate(TEMPLATE_PATH);
+
+        assertEquals(16, version.length());
+        assertEquals(version, trainingTemplateCache.getTemplateVersion(TEMPLATE_PATH));
+    }
+
+    @Test
+    @DisplayName("Кеш шаблонов - отсутствующий шаблон")
+    void openWorkbook_whenTemplateMissing_shouldThrowException() {
+        assertThrows(GenerateTrainingPlanException.class,
+                () -> trainingTemplateCache.openWorkbook("training_cycles/missing.xlsx"));
+    }
+
+    private Cell benchCell(final Sheet sheet) {
+        final Row row = sheet.getRow(2) != null ? sheet.getRow(2) : sheet.createRow(2);
+        return row.getCell(1) != null ? row.getCell(1) : row.createCell(1);
+    }
+}
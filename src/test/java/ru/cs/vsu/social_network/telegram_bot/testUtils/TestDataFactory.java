@@ -121,7 +121,7 @@ public final class TestDataFactory {
                 .logDate(logDate)
                 .visitorCount(visitorCount)
                 .newUsersCount(newUsersCount)
-                .rawData(String.join(", ", createVisitorNames(visitorCount)))
+                .visitorNames(createVisitorNames(visitorCount))
                 .formattedReport("Тестовый отчет за " + logDate)
                 .build();
     }
@@ -0,0 +1,72 @@
+package ru.cs.vsu.social_network.telegram_bot.utils;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelegramMessageComposerTest {
+
+    private static final String SPECIAL_CHARACTERS = "_*[]()~`>#+-=|{}.!\\";
+
+    @Test
+    @DisplayName("Экранирование - все специальные символы MarkdownV2 экранируются")
+    void escape_whenAllSpecialCharacters_shouldPrefixEachWithBackslash() {
+        final String result = TelegramMessageComposer.escape(SPECIAL_CHARACTERS);
+
+        assertEquals(naiveEscape(SPECIAL_CHARACTERS), result);
+        assertEquals(SPECIAL_CHARACTERS.length() * 2, result.length());
+    }
+
+    @Test
+    @DisplayName("Экранирование - строка без специальных символов возвращается без копирования")
+    void escape_whenNothingToEscape_shouldReturnSameInstance() {
+        final String name = "Иван Петров";
+
+        assertSame(name, TelegramMessageComposer.escape(name));
+        assertEquals("", TelegramMessageComposer.escape(null));
+    }
+
+    @Test
+    @DisplayName("Построитель - разметка добавляется как есть, имена экранируются")
+    void appendNumbered_whenNameHasSpecialCharacters_shouldEscapeOnlyName() {
+        final TelegramMessageComposer composer = TelegramMessageComposer.withCapacity(32)
+                .append("*Список:*\n")
+                .appendNumbered(1, "Иван-Петров.");
+
+        assertEquals("*Список:*\n1. Иван\\-Петров\\.\n", composer.build());
+        assertEquals(composer.build().length(), composer.length());
+    }
+
+    @Test
+    @DisplayName("Построитель - большой список совпадает с последовательными заменами")
+    void appendNumbered_whenLargeVisitorList_shouldMatchNaiveEscaping() {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            names.add("Посетитель_" + i + (i % 7 == 0 ? " (гость)" : "") + (i % 11 == 0 ? " [VIP]!" : ""));
+        }
+
+        final TelegramMessageComposer composer = TelegramMessageComposer.withCapacity(
+                TelegramMessageComposer.estimateCapacity(0, names));
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            composer.appendNumbered(i + 1, names.get(i));
+            expected.append(i + 1).append(". ").append(naiveEscape(names.get(i))).append("\n");
+        }
+
+        assertEquals(expected.toString(), composer.build());
+    }
+
+    private static String naiveEscape(final String text) {
+        String result = text.replace("\\", "\\\\");
+        for (final char c : SPECIAL_CHARACTERS.toCharArray()) {
+            if (c != '\\') {
+                result = result.replace(String.valueOf(c), "\\" + c);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentFileStoreTest {
+
+    private static final long MAX_BYTES = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("Повторное открытие - индекс восстанавливается, действует последняя запись по ключу")
+    void open_whenReopened_shouldRestoreLatestValues() throws IOException {
+        final Path file = tempDir.resolve("artifacts.seg");
+        try (SegmentFileStore store = SegmentFileStore.open(file, MAX_BYTES)) {
+            assertTrue(store.put("a", new byte[]{1, 2, 3}));
+            assertTrue(store.put("b", new byte[]{4}));
+            assertTrue(store.put("a", new byte[]{5, 6}));
+        }
+
+        try (SegmentFileStore store = SegmentFileStore.open(file, MAX_BYTES)) {
+            assertEquals(2, store.size());
+            assertArrayEquals(new byte[]{5, 6}, store.get("a"));
+            assertArrayEquals(new byte[]{4}, store.get("b"));
+            assertNull(store.get("c"));
+        }
+    }
+
+    @Test
+    @DisplayName("Оборванная запись в конце файла - отбрасывается, предыдущие записи доступны")
+    void open_whenTailTruncated_shouldDropBrokenRecord() throws IOException {
+        final Path file = tempDir.resolve("artifacts.seg");
+        try (SegmentFileStore store = SegmentFileStore.open(file, MAX_BYTES)) {
+            store.put("a", new byte[]{1, 2, 3});
+        }
+        final long validSize = Files.size(file);
+        Files.write(file, new byte[]{0x47, 0x53, 0x43}, StandardOpenOption.APPEND);
+
+        try (SegmentFileStore store = SegmentFileStore.open(file, MAX_BYTES)) {
+            assertEquals(validSize, store.fileSize());
+            assertArrayEquals(new byte[]{1, 2, 3}, store.get("a"));
+
+            store.put("b", new byte[]{4});
+            assertArrayEquals(new byte[]{4}, store.get("b"));
+        }
+    }
+
+    @Test
+    @DisplayName("Файл не закрыт - нулевой хвост отображения отбрасывается, при закрытии файл обрезается")
+    void open_whenFileNotClosed_shouldDropMappedPadding() throws IOException {
+        final Path file = tempDir.resolve("artifacts.seg");
+        final SegmentFileStore crashed = SegmentFileStore.open(file, MAX_BYTES);
+        crashed.put("a", new byte[]{1, 2, 3});
+        final long validSize = crashed.fileSize();
+        assertTrue(Files.size(file) > validSize);
+
+        try (SegmentFileStore store = SegmentFileStore.open(file, MAX_BYTES)) {
+            assertEquals(validSize, store.fileSize());
+            assertArrayEquals(new byte[]{1, 2, 3}, store.get("a"));
+            store.put("b", new byte[]{4});
+        }
+        assertEquals(validSize + 16 + 1 + 1, Files.size(file));
+    }
+
+    @Test
+    @DisplayName("Превышение размера - файл уплотняется, самые старые записи вытесняются")
+    void put_whenFileExceedsLimit_shouldCompactAndDropOldest() throws IOException {
+        final Path file = tempDir.resolve("artifacts.seg");
+        try (SegmentFileStore store = SegmentFileStore.open(file, MAX_BYTES)) {
+            for (int i = 0; i < 10; i++) {
+                store.put("key" + i, new byte[100]);
+            }
+
+            assertTrue(store.fileSize() <= MAX_BYTES);
+            assertNull(store.get("key0"));
+            assertNotNull(store.get("key9"));
+            assertTrue(store.stats().evictions() > 0);
+            assertFalse(Files.exists(tempDir.resolve("artifacts.seg.compact")));
+        }
+
+        try (SegmentFileStore store = SegmentFileStore.open(file, MAX_BYTES)) {
+            assertNotNull(store.get("key9"));
+        }
+    }
+}
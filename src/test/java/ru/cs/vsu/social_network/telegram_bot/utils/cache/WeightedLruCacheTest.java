@@ -0,0 +1,61 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WeightedLruCacheTest {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    @Test
+    @DisplayName("Превышение объема - вытесняется самая давно использованная запись")
+    void put_whenWeightExceeded_shouldEvictLeastRecentlyUsed() {
+        final WeightedLruCache<String, byte[]> cache = new WeightedLruCache<>(10, TTL_MILLIS, value -> value.length);
+        cache.put("a", new byte[4]);
+        cache.put("b", new byte[4]);
+        assertNotNull(cache.get("a"));
+
+        cache.put("c", new byte[4]);
+
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+
+        final CacheStats stats = cache.stats();
+        assertEquals(1, stats.evictions());
+        assertEquals(3, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(2, stats.entryCount());
+        assertEquals(8, stats.weightBytes());
+    }
+
+    @Test
+    @DisplayName("Запись больше объема кеша - не сохраняется и не вытесняет остальные")
+    void put_whenValueLargerThanLimit_shouldRejectWithoutEviction() {
+        final WeightedLruCache<String, byte[]> cache = new WeightedLruCache<>(10, TTL_MILLIS, value -> value.length);
+        cache.put("a", new byte[4]);
+
+        assertFalse(cache.put("huge", new byte[11]));
+
+        assertNotNull(cache.get("a"));
+        assertEquals(0, cache.stats().evictions());
+    }
+
+    @Test
+    @DisplayName("Замена значения - объем пересчитывается, а просроченные записи удаляются при чтении")
+    void get_whenReplacedOrExpired_shouldKeepWeightConsistent() {
+        final WeightedLruCache<String, byte[]> cache = new WeightedLruCache<>(10, TTL_MILLIS, value -> value.length);
+        cache.put("a", new byte[4]);
+        cache.put("a", new byte[6]);
+        assertEquals(6, cache.stats().weightBytes());
+
+        final WeightedLruCache<String, byte[]> expiring = new WeightedLruCache<>(10, -1, value -> value.length);
+        expiring.put("a", new byte[4]);
+
+        assertNull(expiring.get("a"));
+        assertEquals(1, expiring.stats().expirations());
+        assertEquals(0, expiring.stats().weightBytes());
+    }
+}
@@ -0,0 +1,42 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvWriterTest {
+
+    @Test
+    @DisplayName("Поля с разделителем, кавычками и переводом строки - значения экранируются по RFC 4180")
+    void writeRow_whenSpecialCharacters_shouldQuoteFields() throws IOException {
+        final StringWriter output = new StringWriter();
+        final CsvWriter csvWriter = new CsvWriter(output);
+
+        csvWriter.writeRow(List.of("date", "display_name"));
+        csvWriter.writeRow(List.of("2025-12-06", "Иванов, Иван"));
+        csvWriter.writeRow(List.of("2025-12-07", "Сказал \"привет\"\nи ушел"));
+
+        assertEquals("date,display_name\r\n"
+                        + "2025-12-06,\"Иванов, Иван\"\r\n"
+                        + "2025-12-07,\"Сказал \"\"привет\"\"\nи ушел\"\r\n",
+                output.toString());
+        assertEquals(3, csvWriter.getRowCount());
+    }
+
+    @Test
+    @DisplayName("Пустые значения - записываются как пустые поля")
+    void writeRow_whenNullValues_shouldWriteEmptyFields() throws IOException {
+        final StringWriter output = new StringWriter();
+        final CsvWriter csvWriter = new CsvWriter(output);
+
+        csvWriter.writeRow(Arrays.asList(null, 42L, null));
+
+        assertEquals(",42,\r\n", output.toString());
+    }
+}
@@ -0,0 +1,126 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.image;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import ru.cs.vsu.social_network.telegram_bot.utils.ExcelUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedPngEncoderTest {
+
+    private static final int MAX_CHANNEL_ERROR = 8;
+
+    private static ImageRenderContext renderContext;
+    private static BufferedImage planImage;
+
+    @BeforeAll
+    static void setUp() {
+        renderContext = ImageRenderContext.create(36, 24, 18);
+        planImage = drawPlanLikeImage(renderContext);
+    }
+
+    @Test
+    @DisplayName("Палитра - базовые цвета контекста входят в палитру, размер не больше 256")
+    void buildPalette_whenCreated_shouldContainBaseColorsAndFit() {
+        final int[] palette = IndexedPngEncoder.buildPalette(renderContext);
+
+        assertTrue(palette.length <= 256);
+        assertTrue(palette.length > 200);
+        assertEquals(renderContext.getBackgroundColor().getRGB() & 0xFFFFFF, palette[0]);
+        assertEquals(renderContext.getHorizontalTextColor().getRGB() & 0xFFFFFF, palette[6]);
+    }
+
+    @Test
+    @DisplayName("Кодирование всеми фильтрами - PNG с палитрой читается ImageIO и совпадает с переводом в палитру")
+    void encode_whenEachFilter_shouldDecodeToIndexedImage() throws IOException {
+        for (final IndexedPngEncoder.Filter filter : IndexedPngEncoder.Filter.values()) {
+            final IndexedPngEncoder encoder = IndexedPngEncoder.create(renderContext, 6, filter);
+            final BufferedImage indexed = encoder.toIndexed(planImage);
+
+            final BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(encoder.encode(planImage)));
+
+            assertEquals(BufferedImage.TYPE_BYTE_INDEXED, indexed.getType());
+            assertEquals(planImage.getWidth(), decoded.getWidth());
+            assertEquals(planImage.getHeight(), decoded.getHeight());
+            for (int y = 0; y < decoded.getHeight(); y++) {
+                for (int x = 0; x < decoded.getWidth(); x++) {
+                    assertEquals(indexed.getRGB(x, y), decoded.getRGB(x, y), "фильтр " + filter);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Перевод в палитру - отклонение цвета незаметно, файл меньше PNG из ImageIO")
+    void encode_whenPlanImage_shouldKeepColorsAndShrinkOutput() throws IOException {
+        final IndexedPngEncoder encoder = IndexedPngEncoder.create(renderContext, 6, IndexedPngEncoder.Filter.NONE);
+        final BufferedImage indexed = encoder.toIndexed(planImage);
+
+        int maxError = 0;
+        for (int y = 0; y < planImage.getHeight(); y++) {
+            for (int x = 0; x < planImage.getWidth(); x++) {
+                final int expected = planImage.getRGB(x, y);
+                final int actual = indexed.getRGB(x, y);
+                for (int shift = 0; shift < 24; shift += 8) {
+                    maxError = Math.max(maxError, Math.abs(((expected >> shift) & 0xFF) - ((actual >> shift) & 0xFF)));
+                }
+            }
+        }
+        assertTrue(maxError <= MAX_CHANNEL_ERROR, "отклонение " + maxError);
+
+        final ByteArrayOutputStream imageIoPng = new ByteArrayOutputStream();
+        ImageIO.write(planImage, "png", imageIoPng);
+        assertTrue(encoder.encode(planImage).length < imageIoPng.size());
+    }
+
+    @Test
+    @DisplayName("Недопустимый уровень сжатия - исключение")
+    void create_whenCompressionLevelInvalid_shouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> IndexedPngEncoder.create(renderContext, 10, IndexedPngEncoder.Filter.NONE));
+    }
+
+    private static BufferedImage drawPlanLikeImage(final ImageRenderContext context) {
+        final BufferedImage image = new BufferedImage(600, 400, BufferedImage.TYPE_INT_RGB);
+        final Graphics2D graphics = image.createGraphics();
+        try {
+            ExcelUtils.configureGraphicsQuality(graphics);
+            graphics.setColor(context.getBackgroundColor());
+            graphics.fillRect(0, 0, 600, 400);
+            graphics.setColor(context.getHeaderColor());
+            graphics.fillRect(0, 0, 600, 80);
+            graphics.setFont(context.getTitleFont());
+            graphics.setColor(context.getTitleTextColor());
+            graphics.drawString(ImageRenderContext.TITLE, 20, 55);
+
+            graphics.setFont(context.getCellFont());
+            for (int row = 0; row < 4; row++) {
+                final int y = 100 + row * 70;
+                graphics.setColor(row % 2 == 0 ? context.getOddRowColor() : context.getEvenRowColor());
+                graphics.fillRect(20, y, 560, 70);
+                graphics.setColor(context.getCellBorderColor());
+                graphics.drawRect(20, y, 560, 70);
+                for (int column = 0; column < 4; column++) {
+                    graphics.setColor(column == 0 ? context.getVerticalTextColor() : context.getHorizontalTextColor());
+                    context.drawCenteredText(graphics, (row * 12.5 + column) + " кг", context.getCellMetrics(),
+                            20 + column * 140, 140, y + 45);
+                }
+            }
+
+            graphics.setFont(context.getFooterFont());
+            graphics.setColor(context.getFooterTextColor());
+            graphics.drawString(ImageRenderContext.FOOTER_PREFIX + "19.10.2026 12:00", 20, 390);
+        } finally {
+            graphics.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.report;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReportPageSplitterTest {
+
+    @Test
+    @DisplayName("Разбиение отчета - короткий текст остается одной страницей")
+    void split_whenTextFitsPage_shouldReturnSinglePage() {
+        final List<String> pages = ReportPageSplitter.split("Строка 1\nСтрока 2", 100);
+
+        assertEquals(List.of("Строка 1\nСтрока 2"), pages);
+    }
+
+    @Test
+    @DisplayName("Разбиение отчета - страницы режутся по границам строк")
+    void split_whenTextExceedsPage_shouldSplitOnLineBreaks() {
+        final String text = "1. Иван\n2. Петр\n3. Анна\n4. Олег";
+
+        final List<String> pages = ReportPageSplitter.split(text, 16);
+
+        assertEquals(List.of("1. Иван\n2. Петр", "3. Анна\n4. Олег"), pages);
+        pages.forEach(page -> assertTrue(page.length() <= 16));
+    }
+
+    @Test
+    @DisplayName("Разбиение отчета - длинная строка режется без разрыва суррогатной пары")
+    void split_whenLineLongerThanPage_shouldNotBreakSurrogatePair() {
+        final String text = "abcd📊efgh";
+
+        final List<String> pages = ReportPageSplitter.split(text, 5);
+
+        assertEquals(String.join("", pages), text);
+        assertEquals("abcd", pages.get(0));
+        pages.forEach(page -> assertFalse(Character.isHighSurrogate(page.charAt(page.length() - 1))));
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.cs.vsu.social_network.telegram_bot.dto.response.DailyStatsResponse;
+import ru.cs.vsu.social_network.telegram_bot.entity.User;
 import ru.cs.vsu.social_network.telegram_bot.entity.Visit;
 import ru.cs.vsu.social_network.telegram_bot.testUtils.TestDataFactory;
 import ru.cs.vsu.social_network.telegram_bot.utils.report.reportImpl.ReportStatisticsServiceImpl;
@@ -178,4 +179,44 @@ class ReportStatisticsServiceImplTest {
         assertEquals(3, result.getNewUsersCount());
         assertEquals(3, result.getVisitorNames().size());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Потоковая агрегация посещений - успешно")
+    void aggregateVisits_whenStreamProvided_shouldAccumulateStatistics() {
+        final LocalDate today = LocalDate.now();
+        final LocalDate yesterday = today.minusDays(1);
+        final User regular = TestDataFactory.createUser(UUID.randomUUID(), "user1", "User 1");
+
+        final List<Visit> visits = new ArrayList<>();
+        visits.add(TestDataFactory.createVisit(UUID.randomUUID(), regular, yesterday.atTime(10, 0)));
+        visits.add(TestDataFactory.createVisit(UUID.randomUUID(), regular, today.atTime(10, 0)));
+        visits.addAll(TestDataFactory.createVisitsForDate(today, 2));
+
+        final VisitStatisticsAccumulator result = reportStatisticsService.aggregateVisits(visits.stream());
+
+        assertEquals(4, result.getTotalVisits());
+        assertEquals(3, result.getUniqueVisitors());
+        assertEquals(2, result.getDaysWithVisits());
+        assertEquals(1, result.getDailyStats().get(yesterday).getVisitorCount());
+        assertEquals(3, result.getDailyStats().get(today).getVisitorCount());
+        assertEquals(List.of("User 1", "User 1", "User 2"), result.getVisitorNames(today));
+    }
+
+    @Test
+    @DisplayName("Генерация ежедневной статистики из агрегата - пустые дни заполняются")
+    void generateDailyStatsForPeriod_whenAccumulatorHasGaps_shouldFillEmptyDays() {
+        final LocalDate startDate = LocalDate.of(2025, 12, 1);
+        final LocalDate endDate = LocalDate.of(2025, 12, 3);
+
+        final VisitStatisticsAccumulator accumulator = reportStatisticsService.aggregateVisits(
+                TestDataFactory.createVisitsForDate(startDate.plusDays(1), 2).stream());
+
+        final List<DailyStatsResponse> result = reportStatisticsService
+                .generateDailyStatsForPeriod(startDate, endDate, accumulator);
+
+        assertEquals(3, result.size());
+        assertEquals(0, result.get(0).getVisitorCount());
+        assertEquals(2, result.get(1).getVisitorCount());
+        assertEquals(0, result.get(2).getVisitorCount());
+    }
+}
@@ -101,6 +101,19 @@ class TableFormatterServiceImplTest {
         assertTrue(result.contains("Итоги:"));
     }
 
+    @Test
+    @DisplayName("Форматирование таблицы за период - имена с запятыми не разбиваются")
+    void formatTableForPeriod_whenVisitorNameContainsComma_shouldKeepNameWhole() {
+        final LocalDate date = LocalDate.of(2025, 12, 1);
+        final VisitorLogResponse logEntry = TestDataFactory.createVisitorLogResponse(
+                UUID.randomUUID(), date, 2, 0);
+        logEntry.setVisitorNames(List.of("Иванов, Иван", "Петр-Петров"));
+
+        final String result = tableFormatterService.formatTableForPeriod(date, date, List.of(logEntry));
+
+        assertTrue(result.contains("(Иванов, Иван, Петр-Петров)"));
+    }
+
     @Test
     @DisplayName("Форматирование таблицы за период - пустой список")
     void formatTableForPeriod_whenEmptyList_shouldReturnEmptyTable() {
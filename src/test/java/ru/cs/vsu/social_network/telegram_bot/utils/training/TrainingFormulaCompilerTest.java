@@ -0,0 +1,139 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.InputStream;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingFormulaCompilerTest {
+
+    private static final String TEMPLATE_PATH = "training_cycles/gusenica_cycle.xlsx";
+    private static final double MIN_BENCH_PRESS = 20.0;
+    private static final double MAX_BENCH_PRESS = 300.0;
+    private static final double BENCH_PRESS_STEP = 0.25;
+
+    @Test
+    @DisplayName("Компилятор формул - значения совпадают с POI для всех ячеек по диапазону жима")
+    void calculate_whenBenchPressSwept_shouldMatchPoiEvaluationCellForCell() throws Exception {
+        try (Workbook workbook = openTemplate()) {
+            final CompiledTrainingTemplate template = compile(workbook);
+            final Sheet sheet = workbook.getSheetAt(0);
+            final Cell inputCell = sheet.getRow(TrainingFormulaCompiler.BENCH_PRESS_ROW)
+                    .getCell(TrainingFormulaCompiler.BENCH_PRESS_COLUMN);
+            final FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+
+            assertTrue(template.size() > 100);
+
+            for (double benchPress = MIN_BENCH_PRESS; benchPress <= MAX_BENCH_PRESS; benchPress += BENCH_PRESS_STEP) {
+                inputCell.setCellValue(benchPress);
+                evaluator.clearAllCachedResultValues();
+
+                final double[] values = template.calculate(benchPress);
+                for (int i = 0; i < template.size(); i++) {
+                    final Cell cell = sheet.getRow(template.getRow(i)).getCell(template.getColumn(i));
+                    final CellValue expected = evaluator.evaluate(cell);
+
+                    assertEquals(CellType.NUMERIC, expected.getCellType());
+                    assertEquals(expected.getNumberValue(), values[i],
+                            "ячейка " + cell.getAddress() + ", жим " + benchPress);
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Компилятор формул - результаты записываются в ячейки с сохранением формул")
+    void writeResults_whenCalled_shouldStoreCachedValuesAndKeepFormulas() throws Exception {
+        try (Workbook workbook = openTemplate()) {
+            final CompiledTrainingTemplate template = compile(workbook);
+            final Sheet sheet = workbook.getSheetAt(0);
+
+            template.writeResults(sheet, 100.0);
+
+            final Cell cell = sheet.getRow(template.getRow(0)).getCell(template.getColumn(0));
+            assertEquals(CellType.FORMULA, cell.getCellType());
+            assertEquals(template.calculate(100.0)[0], cell.getNumericCellValue());
+        }
+    }
+
+    @Test
+    @DisplayName("Таблица плана из модели - совпадает с таблицей, снятой с вычисленного листа")
+    void buildTable_whenCompared_shouldMatchEvaluatedSheet() throws Exception {
+        try (Workbook workbook = openTemplate()) {
+            final CompiledTrainingTemplate template = compile(workbook);
+            final Sheet sheet = workbook.getSheetAt(0);
+            final Cell inputCell = sheet.getRow(TrainingFormulaCompiler.BENCH_PRESS_ROW)
+                    .getCell(TrainingFormulaCompiler.BENCH_PRESS_COLUMN);
+            final FormulaEvaluator evaluator = workbook.getCreationHelper().createFormulaEvaluator();
+
+            for (final double benchPress : new double[]{42.5, 100.0, 187.5}) {
+                inputCell.setCellValue(benchPress);
+                evaluator.clearAllCachedResultValues();
+                evaluator.evaluateAll();
+
+                final TrainingPlanTable expected = TrainingPlanTable.fromSheet(sheet, sheet.getLastRowNum() + 1);
+                final TrainingPlanTable actual = template.buildTable(benchPress);
+
+                assertEquals(expected.getRowCount(), actual.getRowCount());
+                assertEquals(expected.getNonEmptyRowIndices(), actual.getNonEmptyRowIndices());
+                for (int row = 0; row < expected.getRowCount(); row++) {
+                    assertEquals(expected.getFirstContentColumn(row), actual.getFirstContentColumn(row));
+                    assertEquals(expected.getLastContentColumn(row), actual.getLastContentColumn(row));
+                    for (int column = 0; column < expected.getColumnCount(); column++) {
+                        assertEquals(expected.hasContent(row, column), actual.hasContent(row, column));
+                        assertEquals(expected.getType(row, column), actual.getType(row, column));
+                        assertEquals(expected.getText(row, column), actual.getText(row, column),
+                                "строка " + row + ", столбец " + column + ", жим " + benchPress);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Компилятор формул - неподдерживаемая функция отключает компиляцию")
+    void compile_whenFormulaUnsupported_shouldReturnEmpty() throws Exception {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            final Row row = workbook.createSheet().createRow(TrainingFormulaCompiler.BENCH_PRESS_ROW);
+            row.createCell(TrainingFormulaCompiler.BENCH_PRESS_COLUMN).setCellValue(100.0);
+            row.createCell(2).setCellFormula("SUM(A1:B3)");
+
+            assertTrue(TrainingFormulaCompiler.compile(workbook,
+                    TrainingFormulaCompiler.BENCH_PRESS_ROW, TrainingFormulaCompiler.BENCH_PRESS_COLUMN).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("Компилятор формул - некорректная формула отключает компиляцию")
+    void compile_whenFormulaMalformed_shouldReturnEmpty() throws Exception {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            final Row row = workbook.createSheet().createRow(TrainingFormulaCompiler.BENCH_PRESS_ROW);
+            row.createCell(TrainingFormulaCompiler.BENCH_PRESS_COLUMN).setCellValue(100.0);
+            final XSSFCell cell = (XSSFCell) row.createCell(2);
+            cell.getCTCell().addNewF().setStringValue("B3*");
+
+            assertTrue(TrainingFormulaCompiler.compile(workbook,
+                    TrainingFormulaCompiler.BENCH_PRESS_ROW, TrainingFormulaCompiler.BENCH_PRESS_COLUMN).isEmpty());
+        }
+    }
+
+    private Workbook openTemplate() throws Exception {
+        try (InputStream inputStream = new ClassPathResource(TEMPLATE_PATH).getInputStream()) {
+            return new XSSFWorkbook(inputStream);
+        }
+    }
+
+    private CompiledTrainingTemplate compile(final Workbook workbook) {
+        final Optional<CompiledTrainingTemplate> template = TrainingFormulaCompiler.compile(workbook,
+                TrainingFormulaCompiler.BENCH_PRESS_ROW, TrainingFormulaCompiler.BENCH_PRESS_COLUMN);
+        assertTrue(template.isPresent());
+        return template.get();
+    }
+}
@@ -0,0 +1,58 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingPlanCatalogDataTest {
+
+    private static final BenchPressGrid GRID = new BenchPressGrid(20, 300, 2.5);
+
+    @Test
+    @DisplayName("Сетка жима - узлы находятся, значения между узлами и вне диапазона нет")
+    void indexOf_whenValueOnAndOffGrid_shouldResolveOnlyGridNodes() {
+        assertEquals(113, GRID.size());
+        assertEquals(0, GRID.indexOf(20));
+        assertEquals(33, GRID.indexOf(102.5));
+        assertEquals(112, GRID.indexOf(300));
+        assertEquals(102.5, GRID.valueAt(GRID.indexOf(102.5)));
+
+        assertEquals(-1, GRID.indexOf(102.3));
+        assertEquals(-1, GRID.indexOf(17.5));
+        assertEquals(-1, GRID.indexOf(302.5));
+    }
+
+    @Test
+    @DisplayName("Каталог - поиск возвращает содержимое только для заполненных узлов")
+    void find_whenEntryAdded_shouldReturnContentForThatValueOnly() {
+        final TrainingPlanCatalogData.Builder builder = TrainingPlanCatalogData.builder("v1", GRID, 1024);
+        final byte[] workbook = {1, 2};
+        final byte[] image = {3, 4, 5};
+
+        assertTrue(builder.add(GRID.indexOf(100), workbook, image));
+        final TrainingPlanCatalogData data = builder.build();
+
+        assertSame(workbook, data.findWorkbook(100));
+        assertSame(image, data.findImage(100.0));
+        assertNull(data.findWorkbook(102.5));
+        assertNull(data.findImage(101));
+        assertEquals(1, data.getEntries());
+        assertEquals(5, data.getTotalBytes());
+        assertEquals("v1", data.getTemplateVersion());
+    }
+
+    @Test
+    @DisplayName("Каталог - план, превышающий лимит памяти, не добавляется")
+    void add_whenMemoryLimitExceeded_shouldRejectEntry() {
+        final TrainingPlanCatalogData.Builder builder = TrainingPlanCatalogData.builder("v1", GRID, 10);
+
+        assertTrue(builder.add(0, new byte[4], new byte[4]));
+        assertFalse(builder.add(1, new byte[2], new byte[1]));
+        final TrainingPlanCatalogData data = builder.build();
+
+        assertEquals(1, data.getEntries());
+        assertEquals(8, data.getTotalBytes());
+        assertNull(data.findWorkbook(GRID.valueAt(1)));
+    }
+}
@@ -0,0 +1,75 @@
+package ru.cs.vsu.social_network.telegram_bot.utils.training;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrainingPlanTableTest {
+
+    @Test
+    @DisplayName("Снимок листа - значения, типы, непустые строки и границы столбцов за один проход")
+    void fromSheet_whenSheetHasGaps_shouldCaptureValuesTypesAndContentBounds() throws Exception {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet();
+            final Row header = sheet.createRow(0);
+            header.createCell(1).setCellValue("Неделя");
+            header.createCell(2).setCellValue("   ");
+            final Row data = sheet.createRow(2);
+            data.createCell(0).setCellValue(100.0);
+            data.createCell(2).setCellFormula("A3*0.75");
+            data.createCell(3).setCellFormula("\"x\"&B1");
+            data.createCell(4).setCellValue(true);
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+
+            final TrainingPlanTable table = TrainingPlanTable.fromSheet(sheet, 10);
+
+            assertEquals(3, table.getRowCount());
+            assertEquals(List.of(0, 2), table.getNonEmptyRowIndices());
+            assertEquals(1, table.getFirstContentColumn(0));
+            assertEquals(1, table.getLastContentColumn(0));
+            assertEquals(-1, table.getFirstContentColumn(1));
+            assertEquals(0, table.getFirstContentColumn(2));
+            assertEquals(4, table.getLastContentColumn(2));
+
+            assertEquals("Неделя", table.getText(0, 1));
+            assertEquals(CellType.STRING, table.getType(0, 1));
+            assertFalse(table.hasContent(0, 2));
+            assertEquals(CellType.BLANK, table.getType(0, 2));
+            assertEquals("100", table.getText(2, 0));
+            assertEquals(CellType.NUMERIC, table.getType(2, 0));
+            assertEquals("75", table.getText(2, 2));
+            assertEquals(CellType.NUMERIC, table.getType(2, 2));
+            assertEquals("xНеделя", table.getText(2, 3));
+            assertEquals(CellType.STRING, table.getType(2, 3));
+            assertEquals("true", table.getText(2, 4));
+            assertEquals(CellType.BOOLEAN, table.getType(2, 4));
+        }
+    }
+
+    @Test
+    @DisplayName("Ключ разметки - таблица с ключом содержит те же данные, исходная таблица без ключа")
+    void withLayoutKey_whenAssigned_shouldKeepContentAndStructure() throws Exception {
+        try (Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet();
+            sheet.createRow(1).createCell(2).setCellValue(42.5);
+
+            final TrainingPlanTable table = TrainingPlanTable.fromSheet(sheet, 10);
+            final TrainingPlanTable keyed = table.withLayoutKey("template@v1");
+
+            assertNull(table.getLayoutKey());
+            assertEquals("template@v1", keyed.getLayoutKey());
+            assertEquals("42.5", keyed.getText(1, 2));
+            assertEquals(CellType.NUMERIC, keyed.getType(1, 2));
+            assertEquals(table.getNonEmptyRowIndices(), keyed.getNonEmptyRowIndices());
+            assertEquals(table.getColumnCount(), keyed.getColumnCount());
+        }
+    }
+}